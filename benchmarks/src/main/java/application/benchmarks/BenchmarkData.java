@@ -0,0 +1,180 @@
+package application.benchmarks;
+
+import application.classification.AClassifier;
+import application.containers.ClassificationModel;
+import application.containers.TextDocument;
+import application.helpers.ACorpus;
+import application.helpers.AlgorithmSelector;
+import application.helpers.FileIoHandler;
+import application.parameterisation.AWordCounter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Knihovní třída, sloužící k přípravě vstupních dat benchmarků z přiložených
+ * množin dokumentů (benchmarky se spouštějí z kořenového adresáře projektu,
+ * kde jsou adresáře {@code training_set}, {@code test_set} a {@code data}).
+ *
+ * @author Petr Kozler
+ */
+public final class BenchmarkData {
+
+    /**
+     * původní standardní výstup (hlášení o průběhu jsou během měření potlačena)
+     */
+    private static final PrintStream STANDARD_OUTPUT = System.out;
+
+    /**
+     * Zamezuje vytvoření instance.
+     */
+    private BenchmarkData() {
+        // žádný kód
+    }
+
+    /**
+     * Vytvoří čítač slov podle identifikátoru parametrizačního algoritmu.
+     *
+     * @param key identifikátor (-o, -p, -s)
+     * @return čítač slov
+     * @throws IOException
+     */
+    public static AWordCounter createWordCounter(String key) throws IOException {
+        AWordCounter wordCounter = AlgorithmSelector.selectWordCounter(key);
+
+        if (wordCounter == null) {
+            throw new IllegalArgumentException("Neznámý parametrizační algoritmus: " + key);
+        }
+
+        return wordCounter;
+    }
+
+    /**
+     * Vytvoří klasifikátor podle identifikátoru klasifikačního algoritmu.
+     *
+     * @param key identifikátor (-b, -n, -r, -c)
+     * @return klasifikátor
+     */
+    public static AClassifier createClassifier(String key) {
+        AClassifier classifier = AlgorithmSelector.selectClassifier(key);
+
+        if (classifier == null) {
+            throw new IllegalArgumentException("Neznámý klasifikační algoritmus: " + key);
+        }
+
+        return classifier;
+    }
+
+    /**
+     * Otevře korpus dokumentů.
+     *
+     * @param path cesta k adresáři s dokumenty nebo k zabalenému korpusu
+     * @return korpus
+     * @throws IOException
+     */
+    public static ACorpus openCorpus(String path) throws IOException {
+        ACorpus corpus = FileIoHandler.getInstance().openCorpus(path);
+
+        if (corpus.size() == 0) {
+            throw new IOException("Korpus neobsahuje žádné dokumenty: " + path);
+        }
+
+        return corpus;
+    }
+
+    /**
+     * Vrátí indexy nejvýše zadaného počtu dokumentů korpusu rovnoměrně
+     * rozložených v celém korpusu (aby byly zastoupeny všechny třídy).
+     *
+     * @param corpus korpus
+     * @param count požadovaný počet dokumentů
+     * @return indexy dokumentů
+     */
+    public static int[] selectDocuments(ACorpus corpus, int count) {
+        int[] indexes = new int[Math.min(count, corpus.size())];
+
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = (int) ((long) i * corpus.size() / indexes.length);
+        }
+
+        return indexes;
+    }
+
+    /**
+     * Načte texty nejvýše zadaného počtu dokumentů korpusu.
+     *
+     * @param path cesta ke korpusu
+     * @param count počet dokumentů
+     * @return texty dokumentů
+     * @throws IOException
+     */
+    public static String[] loadTexts(String path, int count) throws IOException {
+        ACorpus corpus = openCorpus(path);
+        int[] indexes = selectDocuments(corpus, count);
+        String[] texts = new String[indexes.length];
+
+        for (int i = 0; i < indexes.length; i++) {
+            texts[i] = corpus.loadText(indexes[i]);
+        }
+
+        return texts;
+    }
+
+    /**
+     * Natrénuje klasifikační model na nejvýše zadaném počtu dokumentů
+     * trénovací množiny (bez vyhodnocení a mezipaměti četností slov).
+     *
+     * @param path cesta k trénovací množině
+     * @param count počet trénovacích dokumentů
+     * @param wordCounter čítač slov
+     * @param classifier klasifikátor
+     * @return klasifikační model
+     * @throws IOException
+     */
+    public static ClassificationModel train(String path, int count, AWordCounter wordCounter,
+            AClassifier classifier) throws IOException {
+        ACorpus corpus = openCorpus(path);
+        Map<String, List<TextDocument>> documents = new LinkedHashMap<>();
+        Set<String> vocabulary = new HashSet<>();
+
+        for (int index : selectDocuments(corpus, count)) {
+            TextDocument document = new TextDocument(corpus.getName(index));
+            document.setWordCounts(wordCounter.countWords(corpus.loadText(index)));
+            vocabulary.addAll(document.getWordCounts().keySet());
+            documents.computeIfAbsent(corpus.getClassKeyWord(index), key -> new ArrayList<>()).add(document);
+        }
+
+        List<String> classes = new ArrayList<>(documents.keySet());
+        Collections.sort(classes);
+        classifier.setLists(classes, vocabulary);
+        classifier.train(documents);
+
+        ClassificationModel classificationModel = new ClassificationModel();
+        classificationModel.setModelComponents(wordCounter, classifier);
+
+        return classificationModel;
+    }
+
+    /**
+     * Potlačí hlášení o průběhu na standardním výstupu (např. při ukládání
+     * a načítání modelu), aby nebyla součástí měření ani výstupu JMH.
+     */
+    public static void suppressOutput() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    /**
+     * Obnoví původní standardní výstup.
+     */
+    public static void restoreOutput() {
+        System.setOut(STANDARD_OUTPUT);
+    }
+
+}
@@ -0,0 +1,119 @@
+package application.benchmarks;
+
+import application.classification.AClassifier;
+import application.classification.ClassificationContext;
+import application.classification.NaiveBayesClassifier;
+import application.classification.NearestNeighborClassifier;
+import application.containers.ClassificationModel;
+import application.containers.TermCounts;
+import application.helpers.ACorpus;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Třída, představující benchmark skórování dokumentu naivním Bayesovým
+ * klasifikátorem ({@link NaiveBayesClassifier}) a klasifikátorem nejbližšího
+ * souseda ({@link NearestNeighborClassifier}) natrénovanými na různém počtu
+ * dokumentů trénovací množiny. Četnosti slov dokumentů testovací množiny
+ * jsou spočítány předem, měřeno je tedy jen skórování.
+ *
+ * @author Petr Kozler
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassifierBenchmark {
+
+    /**
+     * identifikátor klasifikačního algoritmu
+     */
+    @Param({"-b", "-n"})
+    public String classifier;
+
+    /**
+     * počet trénovacích dokumentů (nejvýše všechny dokumenty trénovací množiny)
+     */
+    @Param({"1000", "4000", "12000"})
+    public int trainingSize;
+
+    /**
+     * identifikátor parametrizačního algoritmu
+     */
+    @Param("-s")
+    public String wordCounter;
+
+    /**
+     * cesta k trénovací množině
+     */
+    @Param("training_set")
+    public String trainingSet;
+
+    /**
+     * cesta k testovací množině
+     */
+    @Param("test_set")
+    public String testSet;
+
+    /**
+     * kontext klasifikace
+     */
+    private ClassificationContext context;
+
+    /**
+     * četnosti slov dokumentů testovací množiny
+     */
+    private TermCounts[] documents;
+
+    /**
+     * index dalšího dokumentu
+     */
+    private int index;
+
+    /**
+     * Natrénuje klasifikátor a spočítá četnosti slov testovacích dokumentů.
+     *
+     * @throws IOException
+     */
+    @Setup
+    public void setUp() throws IOException {
+        AClassifier recognizer = BenchmarkData.createClassifier(classifier);
+        ClassificationModel classificationModel = BenchmarkData.train(trainingSet, trainingSize,
+                BenchmarkData.createWordCounter(wordCounter), recognizer);
+        context = classificationModel.createContext();
+        ACorpus corpus = BenchmarkData.openCorpus(testSet);
+        documents = new TermCounts[corpus.size()];
+
+        for (int i = 0; i < documents.length; i++) {
+            documents[i] = new TermCounts();
+            context.countTerms(corpus.loadBytes(i), documents[i]);
+        }
+    }
+
+    /**
+     * Klasifikuje další dokument.
+     *
+     * @return třída dokumentu
+     */
+    @Benchmark
+    public String classify() {
+        TermCounts document = documents[index];
+        index = (index + 1) % documents.length;
+
+        return context.classify(document);
+    }
+
+}
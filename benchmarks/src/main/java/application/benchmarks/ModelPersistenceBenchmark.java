@@ -0,0 +1,142 @@
+package application.benchmarks;
+
+import application.containers.ClassificationModel;
+import application.helpers.FileIoHandler;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Třída, představující benchmark uložení a načtení klasifikačního modelu
+ * ({@link FileIoHandler#saveClassificationModel} a
+ * {@link FileIoHandler#loadClassificationModel}). Model je natrénován
+ * na zadaném počtu dokumentů trénovací množiny a ukládán do dočasného
+ * adresáře; načtení zahrnuje namapování souboru, načtení seznamů tříd,
+ * slovníku a komponent čítače slov (parametry klasifikátoru zůstávají
+ * namapované a jsou čteny až při klasifikaci).
+ *
+ * @author Petr Kozler
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelPersistenceBenchmark {
+
+    /**
+     * identifikátor klasifikačního algoritmu
+     */
+    @Param({"-b", "-n"})
+    public String classifier;
+
+    /**
+     * počet trénovacích dokumentů
+     */
+    @Param("4000")
+    public int trainingSize;
+
+    /**
+     * identifikátor parametrizačního algoritmu
+     */
+    @Param("-s")
+    public String wordCounter;
+
+    /**
+     * cesta k trénovací množině
+     */
+    @Param("training_set")
+    public String trainingSet;
+
+    /**
+     * natrénovaný klasifikační model
+     */
+    private ClassificationModel classificationModel;
+
+    /**
+     * dočasný adresář pro soubory modelu
+     */
+    private Path directory;
+
+    /**
+     * cesta k uloženému modelu (bez přípony)
+     */
+    private String loadPath;
+
+    /**
+     * cesta k ukládanému modelu (bez přípony)
+     */
+    private String savePath;
+
+    /**
+     * Natrénuje a uloží model pro měření načítání.
+     *
+     * @throws IOException
+     */
+    @Setup
+    public void setUp() throws IOException {
+        classificationModel = BenchmarkData.train(trainingSet, trainingSize,
+                BenchmarkData.createWordCounter(wordCounter), BenchmarkData.createClassifier(classifier));
+        directory = Files.createTempDirectory("model-benchmark");
+        loadPath = directory.resolve("load").toString();
+        savePath = directory.resolve("save").toString();
+        BenchmarkData.suppressOutput();
+        FileIoHandler.getInstance().saveClassificationModel(classificationModel, loadPath);
+    }
+
+    /**
+     * Smaže dočasné soubory modelu.
+     *
+     * @throws IOException
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchmarkData.restoreOutput();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+
+        Files.delete(directory);
+    }
+
+    /**
+     * Uloží model do souboru.
+     *
+     * @throws IOException
+     */
+    @Benchmark
+    public void save() throws IOException {
+        FileIoHandler.getInstance().saveClassificationModel(classificationModel, savePath);
+    }
+
+    /**
+     * Načte model ze souboru.
+     *
+     * @return klasifikační model
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    @Benchmark
+    public ClassificationModel load() throws IOException, ClassNotFoundException {
+        return FileIoHandler.getInstance().loadClassificationModel(loadPath);
+    }
+
+}
@@ -0,0 +1,94 @@
+package application.benchmarks;
+
+import application.helpers.FileIoHandler;
+import application.helpers.Stemmer;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Třída, představující benchmark nalezení kořene slova
+ * ({@link Stemmer#getWordStem(String)}). Slova jsou brána v pořadí výskytu
+ * v dokumentech testovací množiny (i s opakováními), takže četnosti slov
+ * odpovídají skutečnému textu.
+ *
+ * @author Petr Kozler
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StemmerBenchmark {
+
+    /**
+     * cesta k množině dokumentů
+     */
+    @Param("test_set")
+    public String corpus;
+
+    /**
+     * objekt pro nalezení kořenů slov
+     */
+    private Stemmer stemmer;
+
+    /**
+     * slova dokumentů (malými písmeny)
+     */
+    private String[] words;
+
+    /**
+     * index dalšího slova
+     */
+    private int index;
+
+    /**
+     * Načte seznamy předpon, přípon a koncovek a slova dokumentů.
+     *
+     * @throws IOException
+     */
+    @Setup
+    public void setUp() throws IOException {
+        FileIoHandler fileIoHandler = FileIoHandler.getInstance();
+        stemmer = new Stemmer(fileIoHandler.readWordPrefixFile(),
+                fileIoHandler.readWordSufixFile(), fileIoHandler.readWordEndingFile());
+        List<String> wordList = new ArrayList<>();
+
+        for (String text : BenchmarkData.loadTexts(corpus, Integer.MAX_VALUE)) {
+            for (String word : text.toLowerCase().split("[^\\p{L}]+")) {
+                if (!word.isEmpty()) {
+                    wordList.add(word);
+                }
+            }
+        }
+
+        words = wordList.toArray(new String[0]);
+    }
+
+    /**
+     * Nalezne kořen dalšího slova.
+     *
+     * @return kořen slova
+     */
+    @Benchmark
+    public String getWordStem() {
+        String word = words[index];
+        index = (index + 1) % words.length;
+
+        return stemmer.getWordStem(word);
+    }
+
+}
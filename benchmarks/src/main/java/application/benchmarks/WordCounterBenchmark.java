@@ -0,0 +1,87 @@
+package application.benchmarks;
+
+import application.containers.MutableInt;
+import application.parameterisation.AWordCounter;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Třída, představující benchmark počítání četností slov v textu dokumentu
+ * ({@link AWordCounter#countWords(String)}) jednotlivými čítači slov.
+ * Dokumenty testovací množiny jsou zpracovávány postupně dokola, výsledek
+ * je tedy průměrná doba zpracování jednoho dokumentu.
+ *
+ * @author Petr Kozler
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WordCounterBenchmark {
+
+    /**
+     * identifikátor parametrizačního algoritmu
+     */
+    @Param({"-o", "-p", "-s"})
+    public String wordCounter;
+
+    /**
+     * cesta k množině dokumentů
+     */
+    @Param("test_set")
+    public String corpus;
+
+    /**
+     * čítač slov
+     */
+    private AWordCounter counter;
+
+    /**
+     * texty dokumentů
+     */
+    private String[] texts;
+
+    /**
+     * index dalšího dokumentu
+     */
+    private int index;
+
+    /**
+     * Načte dokumenty a vytvoří čítač slov.
+     *
+     * @throws IOException
+     */
+    @Setup
+    public void setUp() throws IOException {
+        counter = BenchmarkData.createWordCounter(wordCounter);
+        texts = BenchmarkData.loadTexts(corpus, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Spočítá četnosti slov dalšího dokumentu.
+     *
+     * @return četnosti slov
+     */
+    @Benchmark
+    public Map<String, MutableInt> countWords() {
+        String text = texts[index];
+        index = (index + 1) % texts.length;
+
+        return counter.countWords(text);
+    }
+
+}
@@ -0,0 +1,578 @@
+package application;
+
+import application.classification.ClassificationContext;
+import application.containers.ClassificationModel;
+import application.containers.ScoreMatrix;
+import application.helpers.ACorpus;
+import application.helpers.DirectoryCorpus;
+import application.helpers.FileIoHandler;
+import application.helpers.Json;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Třída, sloužící ke klasifikaci většího množství dokumentů načteným
+ * klasifikačním modelem bez GUI. Dokumenty jsou čteny z adresáře,
+ * zabaleného korpusu, souboru se seznamem cest nebo ze standardního vstupu
+ * (jeden dokument na řádek, případně objekt JSON s vlastnostmi "id" a "text")
+ * a klasifikovány zadaným počtem pracovních vláken. Výsledky jsou vypisovány
+ * v pořadí vstupních dokumentů, nebo v pořadí dokončení klasifikace.
+ *
+ * @author Petr Kozler
+ */
+public class BatchClassifier {
+
+    /**
+     * označení vstupu ze standardního vstupu
+     */
+    public static final String STDIN_INPUT = "-";
+
+    /**
+     * maximální počet rozpracovaných dokumentů na jedno pracovní vlákno
+     */
+    private static final int IN_FLIGHT_DOCUMENTS_PER_THREAD = 64;
+
+    /**
+     * klasifikační model
+     */
+    private final ClassificationModel CLASSIFICATION_MODEL;
+
+    /**
+     * počet pracovních vláken
+     */
+    private final int THREAD_COUNT;
+
+    /**
+     * příznak zachování pořadí výsledků
+     */
+    private final boolean ORDERED;
+
+    /**
+     * příznak výstupu ve formátu JSON
+     */
+    private final boolean JSON_OUTPUT;
+
+    /**
+     * počet klasifikovaných dokumentů
+     */
+    private final AtomicLong DOCUMENT_COUNT = new AtomicLong();
+
+    /**
+     * počet dokumentů, které nebylo možné klasifikovat
+     */
+    private final AtomicLong ERROR_COUNT = new AtomicLong();
+
+    /**
+     * celková velikost klasifikovaných dokumentů v bajtech
+     */
+    private final AtomicLong BYTE_COUNT = new AtomicLong();
+
+    /**
+     * počty dokumentů zařazených do jednotlivých tříd
+     */
+    private final Map<String, LongAdder> CLASS_COUNTS = new ConcurrentHashMap<>();
+
+    /**
+     * Vytvoří objekt pro dávkovou klasifikaci dokumentů.
+     *
+     * @param classificationModel klasifikační model
+     * @param threadCount počet pracovních vláken
+     * @param ordered příznak zachování pořadí výsledků podle vstupu
+     * @param jsonOutput příznak výstupu ve formátu JSON
+     */
+    public BatchClassifier(ClassificationModel classificationModel, int threadCount,
+            boolean ordered, boolean jsonOutput) {
+        CLASSIFICATION_MODEL = classificationModel;
+        THREAD_COUNT = threadCount;
+        ORDERED = ordered;
+        JSON_OUTPUT = jsonOutput;
+    }
+
+    /**
+     * Klasifikuje všechny dokumenty ze zadaného vstupu, zapíše výsledky
+     * do výstupu (jeden dokument na řádek) a vypíše propustnost.
+     *
+     * @param inputPath adresář, zabalený korpus, soubor se seznamem cest, nebo "-"
+     * @param output výstup pro zápis výsledků
+     * @throws IOException
+     */
+    public void classify(String inputPath, OutputStream output) throws IOException {
+        System.out.println("==================================================\n"
+                + "Spuštěna dávková klasifikace dokumentů: " + inputPath + "\n"
+                + "(vláken: " + THREAD_COUNT + ", " + (ORDERED ? "výsledky v pořadí vstupu"
+                        : "výsledky v pořadí dokončení") + ")\n");
+
+        Semaphore inFlight = new Semaphore(THREAD_COUNT * IN_FLIGHT_DOCUMENTS_PER_THREAD);
+        BlockingQueue<BatchItem> queue = new LinkedBlockingQueue<>();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        ResultSink sink = new ResultSink(writer, inFlight, ORDERED);
+        ExecutorService workers = Executors.newFixedThreadPool(THREAD_COUNT);
+        long start = System.nanoTime();
+
+        try {
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                workers.execute(() -> classifyItems(queue, sink));
+            }
+
+            readInput(inputPath, queue, inFlight);
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            workers.shutdownNow();
+            throw new InterruptedIOException("Dávková klasifikace byla přerušena.");
+        }
+        finally {
+            // ukončení pracovních vláken po zpracování všech dokumentů ve frontě
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                queue.add(BatchItem.END);
+            }
+
+            workers.shutdown();
+        }
+
+        try {
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Dávková klasifikace byla přerušena.");
+        }
+
+        sink.close();
+        printReport(System.nanoTime() - start);
+    }
+
+    /**
+     * Načítá dokumenty ze vstupu a předává je pracovním vláknům.
+     *
+     * @param inputPath cesta ke vstupu
+     * @param queue fronta dokumentů ke klasifikaci
+     * @param inFlight omezení počtu rozpracovaných dokumentů
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    private void readInput(String inputPath, BlockingQueue<BatchItem> queue, Semaphore inFlight)
+            throws IOException, InterruptedException {
+        long sequence = 0;
+
+        if (STDIN_INPUT.equals(inputPath)) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+            String line;
+            long lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+
+                inFlight.acquire();
+                queue.put(parseLine(sequence++, lineNumber, line));
+            }
+
+            return;
+        }
+
+        FileIoHandler fileIoHandler = FileIoHandler.getInstance();
+        boolean fileList = Files.isRegularFile(Paths.get(inputPath))
+                && !inputPath.endsWith(Config.PACKED_CORPUS_EXTENSION);
+        ACorpus corpus;
+
+        if (fileList) {
+            // soubor se seznamem cest k dokumentům (jedna cesta na řádek)
+            List<String> paths = new ArrayList<>();
+
+            for (String line : Files.readAllLines(Paths.get(inputPath), StandardCharsets.UTF_8)) {
+                if (!line.trim().isEmpty()) {
+                    paths.add(line.trim());
+                }
+            }
+
+            corpus = new DirectoryCorpus(paths);
+        }
+        else {
+            corpus = fileIoHandler.openCorpus(inputPath);
+        }
+
+        for (int i = 0; i < corpus.size(); i++) {
+            String id = fileList ? corpus.getPath(i) : corpus.getName(i);
+            inFlight.acquire();
+            queue.put(new BatchItem(sequence++, id, corpus, i, null, null));
+        }
+    }
+
+    /**
+     * Vytvoří položku ke klasifikaci z řádku standardního vstupu.
+     *
+     * @param sequence pořadové číslo položky
+     * @param lineNumber číslo řádku
+     * @param line řádek
+     * @return položka ke klasifikaci
+     */
+    private BatchItem parseLine(long sequence, long lineNumber, String line) {
+        String id = String.valueOf(lineNumber);
+
+        if (!line.trim().startsWith("{")) {
+            return new BatchItem(sequence, id, null, -1, line, null);
+        }
+
+        try {
+            Map<String, Object> object = Json.parseObject(line);
+            Object objectId = object.get("id");
+            Object text = object.get("text");
+
+            if (objectId != null) {
+                id = objectId.toString();
+            }
+
+            if (!(text instanceof String)) {
+                return new BatchItem(sequence, id, null, -1, null, "Chybí text dokumentu.");
+            }
+
+            return new BatchItem(sequence, id, null, -1, (String) text, null);
+        }
+        catch (IOException ex) {
+            return new BatchItem(sequence, id, null, -1, null, ex.getMessage());
+        }
+    }
+
+    /**
+     * Klasifikuje dokumenty z fronty (činnost pracovního vlákna). Vlákno
+     * odebírá z fronty všechny čekající dokumenty (nejvýše
+     * {@link Config#CLASSIFY_BATCH_SIZE}) a klasifikuje je najednou.
+     *
+     * @param queue fronta dokumentů ke klasifikaci
+     * @param sink výstup výsledků
+     */
+    private void classifyItems(BlockingQueue<BatchItem> queue, ResultSink sink) {
+        ClassificationContext context = CLASSIFICATION_MODEL.createContext();
+        List<BatchItem> items = new ArrayList<>(Config.CLASSIFY_BATCH_SIZE);
+        List<BatchItem> validItems = new ArrayList<>(Config.CLASSIFY_BATCH_SIZE);
+        List<ByteBuffer> texts = new ArrayList<>(Config.CLASSIFY_BATCH_SIZE);
+        Map<BatchItem, String> errors = new HashMap<>();
+        boolean end = false;
+
+        try {
+            while (!end) {
+                items.clear();
+                items.add(queue.take());
+                queue.drainTo(items, Config.CLASSIFY_BATCH_SIZE - 1);
+
+                int endIndex = items.indexOf(BatchItem.END);
+
+                if (endIndex >= 0) {
+                    // značky konce patřící ostatním vláknům jsou vráceny do fronty
+                    for (int i = endIndex + 1; i < items.size(); i++) {
+                        queue.put(BatchItem.END);
+                    }
+
+                    items.subList(endIndex, items.size()).clear();
+                    end = true;
+                }
+
+                validItems.clear();
+                texts.clear();
+                errors.clear();
+
+                for (BatchItem item : items) {
+                    if (item.ERROR != null) {
+                        errors.put(item, item.ERROR);
+                        continue;
+                    }
+
+                    try {
+                        ByteBuffer bytes = item.TEXT != null
+                                ? ByteBuffer.wrap(item.TEXT.getBytes(StandardCharsets.UTF_8))
+                                : item.CORPUS.loadBytes(item.INDEX);
+                        BYTE_COUNT.addAndGet(bytes.remaining());
+                        validItems.add(item);
+                        texts.add(bytes);
+                    }
+                    catch (IOException | RuntimeException ex) {
+                        errors.put(item, getErrorMessage(ex));
+                    }
+                }
+
+                ScoreMatrix scoreMatrix = null;
+
+                try {
+                    scoreMatrix = context.classifyTextBatch(texts);
+                }
+                catch (RuntimeException ex) {
+                    for (BatchItem item : validItems) {
+                        errors.put(item, getErrorMessage(ex));
+                    }
+                }
+
+                int position = 0;
+
+                for (BatchItem item : items) {
+                    String error = errors.get(item);
+                    String documentClass = null;
+
+                    if (error == null) {
+                        documentClass = scoreMatrix.getDocumentClass(position++);
+                        DOCUMENT_COUNT.incrementAndGet();
+
+                        // dokument bez známých slov není zařazen do žádné třídy
+                        if (documentClass != null) {
+                            CLASS_COUNTS.computeIfAbsent(documentClass, key -> new LongAdder()).increment();
+                        }
+                    }
+                    else {
+                        ERROR_COUNT.incrementAndGet();
+                    }
+
+                    sink.write(item.SEQUENCE, formatResult(item.ID, documentClass, error));
+                }
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Vrátí popis chyby při klasifikaci dokumentu.
+     *
+     * @param ex výjimka
+     * @return popis chyby
+     */
+    private String getErrorMessage(Exception ex) {
+        return ex.getMessage() != null ? ex.getMessage() : ex.toString();
+    }
+
+    /**
+     * Vytvoří řádek výstupu s výsledkem klasifikace dokumentu.
+     *
+     * @param id identifikátor dokumentu
+     * @param documentClass třída dokumentu (nebo null při chybě)
+     * @param error popis chyby (nebo null)
+     * @return řádek výstupu
+     */
+    private String formatResult(String id, String documentClass, String error) {
+        if (JSON_OUTPUT) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("id", id);
+
+            if (error == null) {
+                result.put("class", documentClass);
+            }
+            else {
+                result.put("error", error);
+            }
+
+            return Json.toJson(result);
+        }
+
+        // identifikátor, třída a případný popis chyby oddělené tabulátory
+        return error == null ? id + "\t" + documentClass
+                : id + "\t\t" + error.replace('\t', ' ').replace('\n', ' ');
+    }
+
+    /**
+     * Vypíše počty zpracovaných dokumentů a propustnost klasifikace.
+     *
+     * @param elapsedNanos doba klasifikace v nanosekundách
+     */
+    private void printReport(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        long documents = DOCUMENT_COUNT.get();
+        long errors = ERROR_COUNT.get();
+
+        System.out.println("--- Počty dokumentů v jednotlivých třídách ---");
+
+        Map<String, LongAdder> classCounts = new TreeMap<>(CLASS_COUNTS);
+
+        for (Map.Entry<String, LongAdder> classCount : classCounts.entrySet()) {
+            System.out.println(classCount.getKey() + ": " + classCount.getValue().sum());
+        }
+
+        System.out.println("---\nKlasifikováno dokumentů: " + documents);
+        System.out.println("Chybných dokumentů: " + errors);
+        System.out.printf("Celková doba: %.3f s\n", seconds);
+        System.out.printf("Propustnost: %.1f dokumentů/s, %.2f MB/s\n",
+                (documents + errors) / seconds, BYTE_COUNT.get() / seconds / (1 << 20));
+        System.out.println("--- HOTOVO ---");
+    }
+
+    /**
+     * Třída, představující dokument ke klasifikaci - buď dokument korpusu,
+     * nebo text přečtený ze standardního vstupu.
+     */
+    private static class BatchItem {
+
+        /**
+         * značka konce vstupu pro pracovní vlákna
+         */
+        static final BatchItem END = new BatchItem(-1, null, null, -1, null, null);
+
+        /**
+         * pořadové číslo dokumentu na vstupu
+         */
+        final long SEQUENCE;
+
+        /**
+         * identifikátor dokumentu ve výstupu
+         */
+        final String ID;
+
+        /**
+         * korpus s dokumentem (nebo null)
+         */
+        final ACorpus CORPUS;
+
+        /**
+         * pořadové číslo dokumentu v korpusu
+         */
+        final int INDEX;
+
+        /**
+         * text dokumentu (nebo null)
+         */
+        final String TEXT;
+
+        /**
+         * popis chyby při čtení vstupu (nebo null)
+         */
+        final String ERROR;
+
+        BatchItem(long sequence, String id, ACorpus corpus, int index, String text, String error) {
+            SEQUENCE = sequence;
+            ID = id;
+            CORPUS = corpus;
+            INDEX = index;
+            TEXT = text;
+            ERROR = error;
+        }
+
+    }
+
+    /**
+     * Třída, představující výstup výsledků klasifikace, který v případě
+     * zachování pořadí drží dokončené výsledky, dokud nejsou vypsány
+     * všechny předchozí.
+     */
+    private static class ResultSink {
+
+        /**
+         * výstup výsledků
+         */
+        final Writer WRITER;
+
+        /**
+         * omezení počtu rozpracovaných dokumentů (uvolněno po vypsání výsledku)
+         */
+        final Semaphore IN_FLIGHT;
+
+        /**
+         * příznak zachování pořadí výsledků
+         */
+        final boolean ORDERED;
+
+        /**
+         * dokončené výsledky čekající na vypsání předchozích
+         */
+        final Map<Long, String> PENDING = new HashMap<>();
+
+        /**
+         * pořadové číslo dalšího vypisovaného výsledku
+         */
+        long nextSequence;
+
+        /**
+         * první chyba zápisu výstupu (nebo null)
+         */
+        IOException failure;
+
+        ResultSink(Writer writer, Semaphore inFlight, boolean ordered) {
+            WRITER = writer;
+            IN_FLIGHT = inFlight;
+            ORDERED = ordered;
+        }
+
+        /**
+         * Zapíše výsledek, případně i všechny na něj čekající výsledky.
+         *
+         * @param sequence pořadové číslo dokumentu
+         * @param line řádek výstupu
+         */
+        synchronized void write(long sequence, String line) {
+            if (!ORDERED) {
+                writeLine(line);
+                return;
+            }
+
+            PENDING.put(sequence, line);
+
+            while ((line = PENDING.remove(nextSequence)) != null) {
+                writeLine(line);
+                nextSequence++;
+            }
+        }
+
+        /**
+         * Vyprázdní výstup a ohlásí případnou chybu zápisu.
+         *
+         * @throws IOException
+         */
+        synchronized void close() throws IOException {
+            if (failure == null) {
+                WRITER.flush();
+            }
+
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        /**
+         * Zapíše jeden řádek výstupu a uvolní místo pro další dokument.
+         *
+         * @param line řádek výstupu
+         */
+        private void writeLine(String line) {
+            IN_FLIGHT.release();
+
+            if (failure != null) {
+                return;
+            }
+
+            try {
+                WRITER.write(line);
+                WRITER.write('\n');
+            }
+            catch (IOException ex) {
+                failure = ex;
+            }
+        }
+
+    }
+
+}
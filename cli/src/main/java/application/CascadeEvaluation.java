@@ -0,0 +1,137 @@
+package application;
+
+import application.classification.CascadeClassifier;
+import application.classification.ClassificationContext;
+import application.containers.ClassificationModel;
+import application.helpers.ACorpus;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Třída, sloužící k vyhodnocení kaskády klasifikátorů pro různé meze
+ * jistoty rychlého klasifikátoru. Pro každou mez vypíše podíl dokumentů
+ * klasifikovaných pomalým klasifikátorem, úspěšnost klasifikace a průměrnou
+ * dobu klasifikace dokumentu, pro srovnání také pro samotný rychlý a samotný
+ * pomalý klasifikátor.
+ *
+ * @author Petr Kozler
+ */
+public class CascadeEvaluation {
+
+    /**
+     * počet opakování měření doby klasifikace
+     */
+    private static final int REPETITION_COUNT = 3;
+
+    /**
+     * klasifikační model s kaskádou klasifikátorů
+     */
+    private final ClassificationModel CLASSIFICATION_MODEL;
+
+    /**
+     * kaskáda klasifikátorů
+     */
+    private final CascadeClassifier CASCADE;
+
+    /**
+     * vyhodnocované meze jistoty
+     */
+    private final double[] THRESHOLDS;
+
+    /**
+     * Vytvoří vyhodnocení kaskády klasifikátorů.
+     *
+     * @param classificationModel klasifikační model s kaskádou klasifikátorů
+     * @param thresholds vyhodnocované meze jistoty
+     * @throws IOException
+     */
+    public CascadeEvaluation(ClassificationModel classificationModel, double[] thresholds) throws IOException {
+        if (!(classificationModel.getClassifier() instanceof CascadeClassifier)) {
+            throw new IOException("Klasifikační model neobsahuje kaskádu klasifikátorů.");
+        }
+
+        CLASSIFICATION_MODEL = classificationModel;
+        CASCADE = (CascadeClassifier) classificationModel.getClassifier();
+        THRESHOLDS = thresholds;
+    }
+
+    /**
+     * Spustí vyhodnocení s dokumenty zadaného korpusu a vypíše výsledky.
+     *
+     * @param corpus korpus dokumentů se známými třídami
+     * @throws IOException
+     */
+    public void run(ACorpus corpus) throws IOException {
+        List<ByteBuffer> documents = new ArrayList<>(corpus.size());
+        List<String> documentClasses = new ArrayList<>(corpus.size());
+
+        for (int i = 0; i < corpus.size(); i++) {
+            documents.add(corpus.loadBytes(i));
+            documentClasses.add(corpus.getClassKeyWord(i));
+        }
+
+        if (documents.isEmpty()) {
+            throw new IOException("Korpus pro vyhodnocení neobsahuje žádné dokumenty.");
+        }
+
+        System.out.println("==================================================\n"
+                + "Spuštěno vyhodnocení kaskády klasifikátorů:\n"
+                + "(rychlý: " + CASCADE.getFastClassifier().getClass().getSimpleName()
+                + ", pomalý: " + CASCADE.getSlowClassifier().getClass().getSimpleName()
+                + ", dokumentů: " + documents.size() + ")\n");
+
+        double originalThreshold = CASCADE.getThreshold();
+        System.out.println("      Mez | pomalým | úspěšnost | µs/dokument");
+        evaluate("   rychlý", CASCADE.getFastClassifier().createContext(CLASSIFICATION_MODEL.getWordCounter()),
+                documents, documentClasses, false);
+        evaluate("   pomalý", CASCADE.getSlowClassifier().createContext(CLASSIFICATION_MODEL.getWordCounter()),
+                documents, documentClasses, false);
+
+        for (double threshold : THRESHOLDS) {
+            CASCADE.setThreshold(threshold);
+            evaluate(String.format("%9.3f", threshold), CLASSIFICATION_MODEL.createContext(),
+                    documents, documentClasses, true);
+        }
+
+        CASCADE.setThreshold(originalThreshold);
+        System.out.println("\n(mez uložená v modelu: " + originalThreshold + ")");
+        System.out.println("--- HOTOVO ---");
+    }
+
+    /**
+     * Klasifikuje všechny dokumenty zadaným kontextem a vypíše řádek tabulky
+     * výsledků (doba klasifikace je nejlepší z několika opakování).
+     *
+     * @param label popis řádku
+     * @param context kontext klasifikace
+     * @param documents texty dokumentů
+     * @param documentClasses skutečné třídy dokumentů
+     * @param cascade true, pokud je klasifikováno kaskádou (vypíše se podíl pomalého klasifikátoru)
+     */
+    private void evaluate(String label, ClassificationContext context, List<ByteBuffer> documents,
+            List<String> documentClasses, boolean cascade) {
+        long bestTime = Long.MAX_VALUE;
+        int correctCount = 0;
+
+        for (int repetition = 0; repetition < REPETITION_COUNT; repetition++) {
+            CASCADE.resetCounts();
+            correctCount = 0;
+            long start = System.nanoTime();
+
+            for (int i = 0; i < documents.size(); i++) {
+                if (documentClasses.get(i).equals(context.classify(documents.get(i).duplicate()))) {
+                    correctCount++;
+                }
+            }
+
+            bestTime = Math.min(bestTime, System.nanoTime() - start);
+        }
+
+        System.out.printf("%s | %s | %8.2f%% | %11.1f\n", label,
+                cascade ? String.format("%6.1f%%", 100 * CASCADE.getFallbackRate()) : "      -",
+                100.0 * correctCount / documents.size(), bestTime / 1000.0 / documents.size());
+    }
+
+}
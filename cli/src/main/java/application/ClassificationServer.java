@@ -0,0 +1,858 @@
+package application;
+
+import application.classification.ClassificationContext;
+import application.containers.Classification;
+import application.helpers.FileIoHandler;
+import application.helpers.Json;
+import application.helpers.ResultCache;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Třída, představující HTTP server klasifikační služby, který načtený
+ * klasifikační model zpřístupňuje prostřednictvím rozhraní JSON. Každý
+ * požadavek je obsloužen ve vlastním virtuálním vláknu (je-li k dispozici,
+ * jinak ve fondu vláken). Server nabízí následující rozhraní:
+ * <ul>
+ * <li>POST /classify - klasifikace jednoho dokumentu (prostý text nebo JSON {"id", "text"})</li>
+ * <li>POST /classify/batch - klasifikace pole dokumentů (řetězce nebo objekty {"id", "text"})</li>
+ * <li>GET /health - stav serveru, počty obsloužených požadavků a metriky záměn modelu</li>
+ * <li>GET /ready - připravenost serveru (HTTP 503, dokud není načten model)</li>
+ * </ul>
+ * Model je poskytován správcem modelu, který jej může za běhu zaměnit
+ * za novou verzi; každý požadavek používá po celou dobu obsluhy tutéž verzi.
+ * Výsledky opakovaně zasílaných dokumentů mohou být vráceny z mezipaměti,
+ * jejíž obsah je při záměně modelu zneplatněn. Souběžně klasifikované
+ * dokumenty mohou být slučovány do malých dávek plánovačem klasifikace.
+ * Požadavky mohou být prováděny v prioritních pruzích: /classify v interaktivním,
+ * /classify/batch v hromadném (hlavičkou X-Priority lze požadavek jen přesunout
+ * do hromadného pruhu, aby nemohl obejít omezení hromadných požadavků).
+ *
+ * @author Petr Kozler
+ */
+public class ClassificationServer {
+
+    /**
+     * název atributu požadavku s časem jeho přijetí
+     */
+    private static final String ARRIVAL_TIME_ATTRIBUTE = "arrivalTime";
+
+    /**
+     * HTTP server
+     */
+    private final HttpServer SERVER;
+
+    /**
+     * vlákna obsluhující požadavky
+     */
+    private final ExecutorService EXECUTOR;
+
+    /**
+     * příznak obsluhy požadavků ve virtuálních vláknech
+     */
+    private final boolean VIRTUAL_THREADS;
+
+    /**
+     * omezení počtu současně klasifikovaných dokumentů (klasifikace je výpočetně
+     * náročná, takže více souběžných výpočtů než procesorů propustnost nezvýší)
+     */
+    private final Semaphore CLASSIFICATION_PERMITS
+            = new Semaphore(Runtime.getRuntime().availableProcessors() * 2);
+
+    /**
+     * čas spuštění serveru
+     */
+    private final long START_TIME = System.currentTimeMillis();
+
+    /**
+     * počet přijatých požadavků
+     */
+    private final AtomicLong REQUEST_COUNT = new AtomicLong();
+
+    /**
+     * počet neúspěšně obsloužených požadavků
+     */
+    private final AtomicLong ERROR_COUNT = new AtomicLong();
+
+    /**
+     * počet klasifikovaných dokumentů
+     */
+    private final AtomicLong DOCUMENT_COUNT = new AtomicLong();
+
+    /**
+     * mezipaměť výsledků klasifikace (nebo null, pokud není použita)
+     */
+    private final ResultCache RESULT_CACHE;
+
+    /**
+     * plánovač slučující souběžné klasifikace do dávek (nebo null, pokud není použit)
+     */
+    private final MicroBatcher MICRO_BATCHER;
+
+    /**
+     * vykonavatel požadavků v prioritních pruzích (nebo null, pokud nejsou použity)
+     */
+    private final LaneExecutor LANE_EXECUTOR;
+
+    /**
+     * správce klasifikačního modelu (nebo null, dokud není nastaven)
+     */
+    private volatile ModelHolder modelHolder;
+
+    /**
+     * Vytvoří HTTP server klasifikační služby naslouchající na zadaném portu.
+     *
+     * @param port port
+     * @param resultCache mezipaměť výsledků klasifikace (nebo null)
+     * @param microBatcher plánovač slučující klasifikace do dávek (nebo null)
+     * @param laneExecutor vykonavatel požadavků v prioritních pruzích (nebo null)
+     * @throws IOException
+     */
+    public ClassificationServer(int port, ResultCache resultCache, MicroBatcher microBatcher,
+            LaneExecutor laneExecutor) throws IOException {
+        RESULT_CACHE = resultCache;
+        MICRO_BATCHER = microBatcher;
+        LANE_EXECUTOR = laneExecutor;
+        SERVER = HttpServer.create(new InetSocketAddress(port), 0);
+        ExecutorService virtualThreadExecutor = createVirtualThreadExecutor();
+        VIRTUAL_THREADS = virtualThreadExecutor != null;
+        // v prioritních pruzích vlákna obsluhy na výsledek jen čekají, takže hromadné
+        // požadavky nesmí obsadit omezený fond vláken a zdržet přijetí interaktivních
+        EXECUTOR = VIRTUAL_THREADS ? virtualThreadExecutor : laneExecutor != null ? Executors.newCachedThreadPool()
+                : Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
+        SERVER.setExecutor(EXECUTOR);
+
+        SERVER.createContext("/classify", exchange -> handle(exchange, this::classifyDocument));
+        SERVER.createContext("/classify/batch", exchange -> handle(exchange, this::classifyDocuments));
+        SERVER.createContext("/health", exchange -> handle(exchange, this::getHealth));
+        SERVER.createContext("/ready", exchange -> handle(exchange, this::getReadiness));
+    }
+
+    /**
+     * Spustí přijímání požadavků.
+     */
+    public void start() {
+        SERVER.start();
+        System.out.println("==================================================\n"
+                + "Spuštěn HTTP server klasifikační služby na portu "
+                + SERVER.getAddress().getPort() + "\n"
+                + "(obsluha požadavků: " + (VIRTUAL_THREADS ? "virtuální vlákna" : "fond vláken")
+                + ", mezipaměť výsledků: " + (RESULT_CACHE != null ? "ano" : "ne")
+                + ", slučování do dávek: " + (MICRO_BATCHER != null ? "ano" : "ne")
+                + ", prioritní pruhy: " + (LANE_EXECUTOR != null ? "ano" : "ne") + ")\n");
+    }
+
+    /**
+     * Ukončí přijímání požadavků a počká na dokončení rozpracovaných.
+     */
+    public void stop() {
+        SERVER.stop(1);
+        EXECUTOR.shutdown();
+
+        if (MICRO_BATCHER != null) {
+            MICRO_BATCHER.close();
+        }
+
+        if (LANE_EXECUTOR != null) {
+            LANE_EXECUTOR.close();
+        }
+
+        System.out.println("--- Server ukončen ---");
+    }
+
+    /**
+     * Nastaví správce klasifikačního modelu, kterým jsou klasifikovány
+     * dokumenty (do načtení modelu server není připraven).
+     *
+     * @param modelHolder správce klasifikačního modelu
+     */
+    public void setModelHolder(ModelHolder modelHolder) {
+        this.modelHolder = modelHolder;
+    }
+
+    /**
+     * Vrátí skutečný port, na kterém server naslouchá.
+     *
+     * @return port
+     */
+    public int getPort() {
+        return SERVER.getAddress().getPort();
+    }
+
+    /**
+     * Obslouží požadavek na klasifikaci jednoho dokumentu.
+     *
+     * @param exchange požadavek a odpověď
+     * @return výsledek klasifikace
+     * @throws IOException
+     */
+    private Object classifyDocument(HttpExchange exchange) throws IOException {
+        // kontext "/classify" zachytává i neznámé cesty začínající tímto prefixem
+        if (!"/classify".equals(exchange.getRequestURI().getPath())) {
+            throw new RequestException(404, "Neznámá cesta: " + exchange.getRequestURI().getPath());
+        }
+
+        requireMethod(exchange, "POST");
+        byte[] body = readBody(exchange);
+
+        if (!isJson(exchange)) {
+            return runInLane(exchange, LaneExecutor.Lane.INTERACTIVE, () -> classify(null, ByteBuffer.wrap(body)));
+        }
+
+        Map<String, Object> document;
+
+        try {
+            document = Json.parseObject(new String(body, StandardCharsets.UTF_8));
+        }
+        catch (IOException ex) {
+            throw new RequestException(400, ex.getMessage());
+        }
+
+        Object text = document.get("text");
+
+        if (!(text instanceof String)) {
+            throw new RequestException(400, "Chybí text dokumentu.");
+        }
+
+        Object id = document.get("id");
+
+        return runInLane(exchange, LaneExecutor.Lane.INTERACTIVE, () -> classify(id == null ? null : id.toString(),
+                ByteBuffer.wrap(((String) text).getBytes(StandardCharsets.UTF_8))));
+    }
+
+    /**
+     * Obslouží požadavek na klasifikaci pole dokumentů.
+     *
+     * @param exchange požadavek a odpověď
+     * @return výsledky klasifikace jednotlivých dokumentů
+     * @throws IOException
+     */
+    private Object classifyDocuments(HttpExchange exchange) throws IOException {
+        requireMethod(exchange, "POST");
+        byte[] body = readBody(exchange);
+        Object request;
+
+        try {
+            request = Json.parse(new String(body, StandardCharsets.UTF_8));
+        }
+        catch (IOException ex) {
+            throw new RequestException(400, ex.getMessage());
+        }
+
+        if (request instanceof Map) {
+            request = ((Map<?, ?>) request).get("documents");
+        }
+
+        if (!(request instanceof List)) {
+            throw new RequestException(400, "Očekáváno pole dokumentů.");
+        }
+
+        List<?> documents = (List<?>) request;
+        List<Object> results = new ArrayList<>();
+
+        runInLane(exchange, LaneExecutor.Lane.BULK, () -> {
+            // všechny dokumenty požadavku jsou klasifikovány stejnou verzí modelu
+            ModelVersion model = acquireModel();
+
+            try {
+                classifyAll(model, documents, results);
+            }
+            finally {
+                model.release();
+            }
+
+            return results;
+        });
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("results", results);
+
+        return response;
+    }
+
+    /**
+     * Klasifikuje dokumenty pole z požadavku.
+     *
+     * @param model verze klasifikačního modelu
+     * @param documents dokumenty (řetězce nebo objekty {"id", "text"})
+     * @param results seznam pro výsledky klasifikace
+     * @throws IOException
+     */
+    private void classifyAll(ModelVersion model, List<?> documents, List<Object> results) throws IOException {
+        List<CompletableFuture<Classification>> classifications = new ArrayList<>(documents.size());
+        List<String> documentIds = new ArrayList<>(documents.size());
+
+        // nejprve jsou zahájeny klasifikace všech dokumentů, aby je plánovač mohl sloučit do dávek
+        for (Object document : documents) {
+            Object id = null;
+            Object text = document;
+
+            if (document instanceof Map) {
+                id = ((Map<?, ?>) document).get("id");
+                text = ((Map<?, ?>) document).get("text");
+            }
+
+            String documentId = id == null ? null : id.toString();
+
+            // chybný dokument nezpůsobí selhání celého požadavku
+            if (!(text instanceof String)) {
+                results.add(createError(documentId, "Chybí text dokumentu."));
+                classifications.add(null);
+                documentIds.add(null);
+                continue;
+            }
+
+            results.add(null);
+            classifications.add(startClassification(model,
+                    ByteBuffer.wrap(((String) text).getBytes(StandardCharsets.UTF_8))));
+            documentIds.add(documentId);
+        }
+
+        try {
+            for (int i = 0; i < results.size(); i++) {
+                if (classifications.get(i) != null) {
+                    try {
+                        results.set(i, createResult(documentIds.get(i), await(classifications.get(i))));
+                    }
+                    catch (RequestException ex) {
+                        // selhání klasifikace dokumentu je vráceno v jeho výsledku
+                        results.set(i, createError(documentIds.get(i), ex.getMessage()));
+                    }
+                    catch (IOException | RuntimeException ex) {
+                        results.set(i, createError(documentIds.get(i), ex.toString()));
+                    }
+                }
+            }
+        }
+        finally {
+            // verze modelu nesmí být uvolněna, dokud ji používají zahájené klasifikace
+            for (CompletableFuture<Classification> classification : classifications) {
+                if (classification != null) {
+                    classification.handle((result, ex) -> result).join();
+                }
+            }
+        }
+    }
+
+    /**
+     * Obslouží dotaz na stav serveru.
+     *
+     * @param exchange požadavek a odpověď
+     * @return stav serveru
+     * @throws IOException
+     */
+    private Object getHealth(HttpExchange exchange) throws IOException {
+        requireMethod(exchange, "GET");
+        Map<String, Object> health = new LinkedHashMap<>();
+        health.put("status", "UP");
+        health.put("uptimeSeconds", (System.currentTimeMillis() - START_TIME) / 1000);
+        health.put("virtualThreads", VIRTUAL_THREADS);
+        health.put("requests", REQUEST_COUNT.get());
+        health.put("errors", ERROR_COUNT.get());
+        health.put("documents", DOCUMENT_COUNT.get());
+        ModelHolder holder = modelHolder;
+
+        if (holder != null) {
+            health.put("model", holder.getMetrics());
+        }
+
+        if (RESULT_CACHE != null) {
+            health.put("cache", RESULT_CACHE.getMetrics());
+        }
+
+        if (MICRO_BATCHER != null) {
+            health.put("batching", MICRO_BATCHER.getMetrics());
+        }
+
+        if (LANE_EXECUTOR != null) {
+            health.put("lanes", LANE_EXECUTOR.getMetrics());
+        }
+
+        return health;
+    }
+
+    /**
+     * Obslouží dotaz na připravenost serveru.
+     *
+     * @param exchange požadavek a odpověď
+     * @return stav připravenosti
+     * @throws IOException
+     */
+    private Object getReadiness(HttpExchange exchange) throws IOException {
+        requireMethod(exchange, "GET");
+        ModelVersion model = acquireModel();
+
+        try {
+            Map<String, Object> readiness = new LinkedHashMap<>();
+            readiness.put("status", "READY");
+            readiness.put("model", model.NAME);
+            readiness.put("version", model.VERSION);
+            readiness.put("wordCounter", model.CLASSIFICATION_MODEL.getWordCounter().getClass().getSimpleName());
+            readiness.put("classifier", model.CLASSIFICATION_MODEL.getClassifier().getClass().getSimpleName());
+
+            return readiness;
+        }
+        finally {
+            model.release();
+        }
+    }
+
+    /**
+     * Klasifikuje dokument zadaný bajty textu v kódování UTF-8 aktuální
+     * verzí modelu.
+     *
+     * @param id identifikátor dokumentu (nebo null)
+     * @param text text dokumentu
+     * @return výsledek klasifikace (třída, její popis a skóre všech tříd)
+     * @throws IOException
+     */
+    private Map<String, Object> classify(String id, ByteBuffer text) throws IOException {
+        ModelVersion model = acquireModel();
+
+        try {
+            return classify(model, id, text);
+        }
+        finally {
+            model.release();
+        }
+    }
+
+    /**
+     * Klasifikuje dokument zadaný bajty textu v kódování UTF-8 (nebo vrátí
+     * výsledek z mezipaměti, pokud byl stejný dokument již klasifikován).
+     *
+     * @param model verze klasifikačního modelu
+     * @param id identifikátor dokumentu (nebo null)
+     * @param text text dokumentu
+     * @return výsledek klasifikace (třída, její popis a skóre všech tříd)
+     * @throws IOException
+     */
+    private Map<String, Object> classify(ModelVersion model, String id, ByteBuffer text)
+            throws IOException {
+        return createResult(id, await(startClassification(model, text)));
+    }
+
+    /**
+     * Zahájí klasifikaci dokumentu zadaného bajty textu v kódování UTF-8.
+     * Výsledek je vrácen z mezipaměti, pokud byl stejný dokument již
+     * klasifikován; jinak je dokument klasifikován ihned, nebo předán
+     * plánovači slučujícímu klasifikace do dávek.
+     *
+     * @param model verze klasifikačního modelu
+     * @param text text dokumentu
+     * @return budoucí výsledek klasifikace
+     * @throws IOException
+     */
+    private CompletableFuture<Classification> startClassification(ModelVersion model, ByteBuffer text)
+            throws IOException {
+        ResultCache.Key key = RESULT_CACHE != null ? ResultCache.createKey(text, model.VERSION) : null;
+        Classification cached = key != null ? RESULT_CACHE.get(key) : null;
+
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<Classification> classification = MICRO_BATCHER != null
+                ? MICRO_BATCHER.submit(model, text)
+                : CompletableFuture.completedFuture(classifyText(model, text));
+
+        if (key == null) {
+            return classification;
+        }
+
+        return classification.thenApply(result -> {
+            RESULT_CACHE.put(key, result, System.nanoTime() - start);
+
+            return result;
+        });
+    }
+
+    /**
+     * Provede obsluhu požadavku ve výchozím pruhu, nebo v hromadném pruhu,
+     * požádá-li o něj hlavička X-Priority (interactive nebo bulk). Hlavička
+     * nemůže hromadný požadavek přesunout do interaktivního pruhu, jinak by
+     * obešel omezení počtu současně obsluhovaných hromadných požadavků
+     * a jejich odmítání při dlouhé odezvě interaktivních požadavků. Nejsou-li
+     * prioritní pruhy použity, je obsluha provedena přímo.
+     *
+     * @param <T> typ výsledku obsluhy
+     * @param exchange požadavek a odpověď
+     * @param defaultLane výchozí pruh
+     * @param task obsluha požadavku
+     * @return výsledek obsluhy
+     * @throws IOException
+     */
+    private <T> T runInLane(HttpExchange exchange, LaneExecutor.Lane defaultLane, Callable<T> task)
+            throws IOException {
+        if (LANE_EXECUTOR == null) {
+            try {
+                return task.call();
+            }
+            catch (IOException | RuntimeException ex) {
+                throw ex;
+            }
+            catch (Exception ex) {
+                throw new IOException(ex);
+            }
+        }
+
+        String priority = exchange.getRequestHeaders().getFirst("X-Priority");
+        LaneExecutor.Lane lane = defaultLane;
+
+        if (priority != null) {
+            try {
+                // priorita může být jen snížena
+                if (LaneExecutor.Lane.parse(priority) == LaneExecutor.Lane.BULK) {
+                    lane = LaneExecutor.Lane.BULK;
+                }
+            }
+            catch (IllegalArgumentException ex) {
+                throw new RequestException(400, "Neznámý prioritní pruh: " + priority);
+            }
+        }
+
+        // doba odezvy je měřena od přijetí požadavku (včetně čtení a zpracování těla)
+        return await(LANE_EXECUTOR.submit(lane, task, (Long) exchange.getAttribute(ARRIVAL_TIME_ATTRIBUTE)));
+    }
+
+    /**
+     * Počká na dokončení klasifikace dokumentu nebo obsluhy požadavku.
+     *
+     * @param <T> typ výsledku
+     * @param classification budoucí výsledek
+     * @return výsledek
+     * @throws IOException
+     */
+    private <T> T await(CompletableFuture<T> classification) throws IOException {
+        try {
+            return classification.get();
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RequestException(503, "Požadavek byl přerušen.");
+        }
+        catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RejectedExecutionException) {
+                throw new RequestException(503, ex.getCause().getMessage());
+            }
+
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+
+            throw new IOException(ex.getCause());
+        }
+    }
+
+    /**
+     * Vytvoří objekt odpovědi s výsledkem klasifikace dokumentu.
+     *
+     * @param id identifikátor dokumentu (nebo null)
+     * @param classification výsledek klasifikace
+     * @return výsledek klasifikace (třída, její popis a skóre všech tříd)
+     */
+    private Map<String, Object> createResult(String id, Classification classification) {
+        DOCUMENT_COUNT.incrementAndGet();
+        String documentClass = classification.getDocumentClass();
+        Map<String, Object> result = new LinkedHashMap<>();
+
+        if (id != null) {
+            result.put("id", id);
+        }
+
+        result.put("class", documentClass);
+        result.put("description", documentClass == null ? null
+                : FileIoHandler.getInstance().getClassDescription(documentClass));
+        result.put("scores", classification.getScores());
+
+        return result;
+    }
+
+    /**
+     * Klasifikuje dokument zadaný bajty textu v kódování UTF-8 kontextem
+     * klasifikace půjčeným z fondu verze modelu.
+     *
+     * @param model verze klasifikačního modelu
+     * @param text text dokumentu
+     * @return výsledek klasifikace se skóre seřazenými sestupně
+     * @throws IOException
+     */
+    private Classification classifyText(ModelVersion model, ByteBuffer text) throws IOException {
+        String documentClass;
+        Map<String, Double> documentScores;
+
+        try {
+            CLASSIFICATION_PERMITS.acquire();
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RequestException(503, "Požadavek byl přerušen.");
+        }
+
+        try {
+            // kontexty klasifikace nejsou bezpečné pro více vláken, jsou proto půjčovány z fondu
+            ClassificationContext context = model.borrowContext();
+
+            try {
+                documentClass = context.classify(text);
+                documentScores = context.getScoreMap();
+            }
+            finally {
+                model.returnContext(context);
+            }
+        }
+        finally {
+            CLASSIFICATION_PERMITS.release();
+        }
+
+        // skóre seřazená sestupně
+        Map<String, Double> scores = new LinkedHashMap<>();
+        documentScores.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                .forEach(score -> scores.put(score.getKey(), score.getValue()));
+
+        return new Classification(documentClass, scores);
+    }
+
+    /**
+     * Obslouží požadavek zadanou metodou a odešle výsledek ve formátu JSON.
+     *
+     * @param exchange požadavek a odpověď
+     * @param handler metoda obsluhy požadavku
+     */
+    private void handle(HttpExchange exchange, RequestHandler handler) {
+        REQUEST_COUNT.incrementAndGet();
+        exchange.setAttribute(ARRIVAL_TIME_ATTRIBUTE, System.nanoTime());
+
+        try {
+            int status = 200;
+            Object response;
+
+            try {
+                response = handler.handle(exchange);
+            }
+            catch (RequestException ex) {
+                status = ex.STATUS;
+                response = createError(ex.getMessage());
+            }
+            catch (IOException | RuntimeException ex) {
+                status = 500;
+                response = createError(ex.toString());
+            }
+
+            if (status != 200) {
+                ERROR_COUNT.incrementAndGet();
+            }
+
+            byte[] body = Json.toJson(response).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, body.length);
+
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        }
+        catch (IOException ex) {
+            // klient ukončil spojení před odesláním odpovědi
+            ERROR_COUNT.incrementAndGet();
+        }
+        finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Vytvoří objekt odpovědi s popisem chyby.
+     *
+     * @param message popis chyby
+     * @return objekt odpovědi
+     */
+    private Map<String, Object> createError(String message) {
+        return createError(null, message);
+    }
+
+    /**
+     * Vytvoří objekt odpovědi s popisem chyby dokumentu.
+     *
+     * @param id identifikátor dokumentu (nebo null)
+     * @param message popis chyby
+     * @return objekt odpovědi
+     */
+    private Map<String, Object> createError(String id, String message) {
+        Map<String, Object> error = new LinkedHashMap<>();
+
+        if (id != null) {
+            error.put("id", id);
+        }
+
+        error.put("error", message);
+
+        return error;
+    }
+
+    /**
+     * Ověří metodu HTTP požadavku.
+     *
+     * @param exchange požadavek a odpověď
+     * @param method očekávaná metoda
+     * @throws RequestException
+     */
+    private void requireMethod(HttpExchange exchange, String method) throws RequestException {
+        if (!method.equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().set("Allow", method);
+            throw new RequestException(405, "Nepodporovaná metoda: " + exchange.getRequestMethod());
+        }
+    }
+
+    /**
+     * Vrátí aktuální verzi klasifikačního modelu s přidaným odkazem
+     * (volající jej musí po dokončení klasifikace uvolnit).
+     *
+     * @return verze klasifikačního modelu
+     * @throws RequestException pokud model ještě není načten
+     */
+    private ModelVersion acquireModel() throws RequestException {
+        ModelHolder holder = modelHolder;
+        ModelVersion model = holder != null ? holder.acquire() : null;
+
+        if (model == null) {
+            throw new RequestException(503, "Klasifikační model se načítá.");
+        }
+
+        return model;
+    }
+
+    /**
+     * Určí, zda je tělo požadavku ve formátu JSON.
+     *
+     * @param exchange požadavek a odpověď
+     * @return true pro tělo ve formátu JSON
+     */
+    private boolean isJson(HttpExchange exchange) {
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+
+        return contentType != null && contentType.toLowerCase().startsWith("application/json");
+    }
+
+    /**
+     * Přečte tělo požadavku (nejvýše {@link Config#SERVER_MAX_REQUEST_SIZE} bajtů).
+     *
+     * @param exchange požadavek a odpověď
+     * @return tělo požadavku
+     * @throws IOException
+     */
+    private byte[] readBody(HttpExchange exchange) throws IOException {
+        String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+
+        if (contentLength != null) {
+            long length;
+
+            try {
+                length = Long.parseLong(contentLength.trim());
+            }
+            catch (NumberFormatException ex) {
+                throw new RequestException(400, "Neplatná délka požadavku: " + contentLength);
+            }
+
+            if (length > Config.SERVER_MAX_REQUEST_SIZE) {
+                throw new RequestException(413, "Požadavek je příliš velký.");
+            }
+        }
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+
+        try (InputStream input = exchange.getRequestBody()) {
+            int length;
+
+            while ((length = input.read(buffer)) >= 0) {
+                body.write(buffer, 0, length);
+
+                if (body.size() > Config.SERVER_MAX_REQUEST_SIZE) {
+                    throw new RequestException(413, "Požadavek je příliš velký.");
+                }
+            }
+        }
+
+        return body.toByteArray();
+    }
+
+    /**
+     * Vytvoří objekt pro obsluhu požadavků ve virtuálních vláknech,
+     * pokud je běhové prostředí podporuje (Java 21 a novější).
+     *
+     * @return objekt pro obsluhu požadavků, nebo null
+     */
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Rozhraní metody obsluhující požadavek.
+     */
+    private interface RequestHandler {
+
+        /**
+         * Obslouží požadavek.
+         *
+         * @param exchange požadavek a odpověď
+         * @return odpověď (převedená do formátu JSON)
+         * @throws IOException
+         */
+        Object handle(HttpExchange exchange) throws IOException;
+
+    }
+
+    /**
+     * Výjimka, představující chybu požadavku s daným stavovým kódem HTTP.
+     */
+    private static class RequestException extends IOException {
+
+        /**
+         * verze serializovaného tvaru výjimky
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * stavový kód HTTP
+         */
+        final int STATUS;
+
+        RequestException(int status, String message) {
+            super(message);
+            STATUS = status;
+        }
+
+    }
+
+}
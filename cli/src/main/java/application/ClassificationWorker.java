@@ -0,0 +1,334 @@
+package application;
+
+import application.containers.ClassificationModel;
+import application.containers.DocumentResult;
+import application.containers.DocumentSource;
+import application.helpers.Json;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+
+/**
+ * Třída, představující dlouhodobě běžící klasifikační proces pro volání
+ * z jiných (i ne-Java) programů bez opakovaného spouštění JVM a načítání
+ * modelu. Požadavky a odpovědi jsou řádky ve formátu JSON (jeden objekt
+ * na řádek) na standardním vstupu a výstupu, nebo ve spojeních přes
+ * unixový doménový socket:
+ * <ul>
+ * <li>požadavek: {"id": identifikátor, "text": text dokumentu} (nebo jen
+ * řádek s prostým textem, identifikátorem je pak číslo řádku)</li>
+ * <li>odpověď: {"id", "class", "scores"}, nebo {"id", "error"}</li>
+ * </ul>
+ * Požadavky mohou být posílány bez čekání na odpovědi na předchozí; jsou
+ * zpracovávány souběžně a odpovědi jsou posílány v pořadí dokončení, takže
+ * je klient přiřazuje k požadavkům podle identifikátoru.
+ *
+ * @author Petr Kozler
+ */
+public class ClassificationWorker {
+
+    /**
+     * klasifikační model
+     */
+    private final ClassificationModel CLASSIFICATION_MODEL;
+
+    /**
+     * počet vláken tokenizace a skórování každého spojení
+     */
+    private final int THREAD_COUNT;
+
+    /**
+     * Vytvoří klasifikační proces.
+     *
+     * @param classificationModel klasifikační model
+     * @param threadCount počet vláken tokenizace a skórování každého spojení
+     */
+    public ClassificationWorker(ClassificationModel classificationModel, int threadCount) {
+        CLASSIFICATION_MODEL = classificationModel;
+        THREAD_COUNT = Math.max(1, threadCount);
+    }
+
+    /**
+     * Zpracovává požadavky ze vstupu a zapisuje odpovědi do výstupu,
+     * dokud vstup neskončí a nejsou odeslány odpovědi na všechny požadavky.
+     *
+     * @param input vstup požadavků
+     * @param output výstup odpovědí
+     * @throws IOException
+     */
+    public void serve(InputStream input, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        ClassificationPipeline pipeline = new ClassificationPipeline(CLASSIFICATION_MODEL, 1,
+                THREAD_COUNT, THREAD_COUNT, THREAD_COUNT * Config.WORKER_IN_FLIGHT_DOCUMENTS_PER_THREAD, false);
+        ResponseWriter responses = new ResponseWriter(writer);
+        pipeline.subscribe(responses);
+
+        try (SubmissionPublisher<DocumentSource> requests = new SubmissionPublisher<>()) {
+            requests.subscribe(pipeline);
+            String line;
+            long lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+
+                DocumentSource document = parseRequest(String.valueOf(lineNumber), line, responses);
+
+                // při zaplnění vyrovnávací paměti proudu čtení požadavků čeká
+                if (document != null) {
+                    requests.submit(document);
+                }
+            }
+        }
+
+        responses.await();
+    }
+
+    /**
+     * Přijímá spojení na unixovém doménovém socketu a každé obsluhuje
+     * ve vlastním vláknu (vyžaduje Java 16 nebo novější).
+     *
+     * @param socketPath cesta k souboru socketu (existující soubor je nahrazen)
+     * @throws IOException
+     */
+    public void serveSocket(String socketPath) throws IOException {
+        Files.deleteIfExists(Paths.get(socketPath));
+        ServerSocketChannel server = openUnixServerChannel(socketPath);
+        System.out.println("==================================================\n"
+                + "Klasifikační proces přijímá spojení na socketu: " + socketPath + "\n");
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+                Files.deleteIfExists(Paths.get(socketPath));
+            }
+            catch (IOException ex) {
+                // ukončení programu pokračuje
+            }
+        }));
+
+        while (server.isOpen()) {
+            SocketChannel channel = server.accept();
+            Thread connection = new Thread(() -> {
+                try (SocketChannel socket = channel) {
+                    serve(Channels.newInputStream(socket), Channels.newOutputStream(socket));
+                }
+                catch (IOException ex) {
+                    System.err.println("Spojení bylo ukončeno chybou: " + ex.getMessage());
+                }
+            }, "worker-connection");
+            connection.setDaemon(true);
+            connection.start();
+        }
+    }
+
+    /**
+     * Vytvoří dokument z řádku požadavku, nebo odešle odpověď s chybou
+     * pro neplatný požadavek.
+     *
+     * @param lineId identifikátor podle čísla řádku
+     * @param line řádek požadavku
+     * @param responses výstup odpovědí
+     * @return dokument, nebo null pro neplatný požadavek
+     * @throws IOException
+     */
+    private DocumentSource parseRequest(String lineId, String line, ResponseWriter responses) throws IOException {
+        if (!line.trim().startsWith("{")) {
+            return DocumentSource.ofText(lineId, line);
+        }
+
+        String id = lineId;
+
+        try {
+            Map<String, Object> request = Json.parseObject(line);
+            Object requestId = request.get("id");
+            Object text = request.get("text");
+
+            if (requestId != null) {
+                id = requestId.toString();
+            }
+
+            if (text instanceof String) {
+                return DocumentSource.ofText(id, (String) text);
+            }
+
+            responses.writeError(id, "Chybí text dokumentu.");
+        }
+        catch (IOException ex) {
+            responses.writeError(id, ex.getMessage());
+        }
+
+        return null;
+    }
+
+    /**
+     * Otevře serverový kanál unixového doménového socketu. Třídy socketu jsou
+     * použity reflexí, aby program bylo možné spustit i ve starších verzích Javy.
+     *
+     * @param socketPath cesta k souboru socketu
+     * @return serverový kanál
+     * @throws IOException
+     */
+    private static ServerSocketChannel openUnixServerChannel(String socketPath) throws IOException {
+        try {
+            ProtocolFamily unix = StandardProtocolFamily.valueOf("UNIX");
+            SocketAddress address = (SocketAddress) Class.forName("java.net.UnixDomainSocketAddress")
+                    .getMethod("of", String.class).invoke(null, socketPath);
+            ServerSocketChannel server = (ServerSocketChannel) ServerSocketChannel.class
+                    .getMethod("open", ProtocolFamily.class).invoke(null, unix);
+            server.bind(address);
+
+            return server;
+        }
+        catch (ReflectiveOperationException | IllegalArgumentException ex) {
+            throw new IOException("Unixové doménové sockety vyžadují Java 16 nebo novější.", ex);
+        }
+    }
+
+    /**
+     * Třída, představující odběratele výsledků klasifikačního proudu, který
+     * je zapisuje jako řádky odpovědí.
+     */
+    private static class ResponseWriter implements Flow.Subscriber<DocumentResult> {
+
+        /**
+         * výstup odpovědí
+         */
+        final Writer WRITER;
+
+        /**
+         * signalizace ukončení proudu
+         */
+        final CountDownLatch DONE = new CountDownLatch(1);
+
+        /**
+         * odběr výsledků
+         */
+        Flow.Subscription subscription;
+
+        /**
+         * chyba zápisu nebo proudu (nebo null)
+         */
+        volatile Throwable error;
+
+        ResponseWriter(Writer writer) {
+            WRITER = writer;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(DocumentResult result) {
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("id", result.getId());
+
+            if (result.isSuccess()) {
+                response.put("class", result.getClassification().getDocumentClass());
+                response.put("scores", result.getClassification().getScores());
+            }
+            else {
+                Throwable cause = result.getError();
+                response.put("error", cause.getMessage() != null ? cause.getMessage() : cause.toString());
+            }
+
+            try {
+                write(response);
+            }
+            catch (IOException ex) {
+                // klient ukončil spojení, další výsledky nelze odeslat
+                error = ex;
+                subscription.cancel();
+                DONE.countDown();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            DONE.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            DONE.countDown();
+        }
+
+        /**
+         * Zapíše odpověď s chybou neplatného požadavku.
+         *
+         * @param id identifikátor požadavku
+         * @param message popis chyby
+         * @throws IOException
+         */
+        void writeError(String id, String message) throws IOException {
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("id", id);
+            response.put("error", message);
+            write(response);
+        }
+
+        /**
+         * Zapíše řádek odpovědi a odešle jej (odpověď nesmí čekat ve vyrovnávací paměti).
+         *
+         * @param response odpověď
+         * @throws IOException
+         */
+        synchronized void write(Map<String, Object> response) throws IOException {
+            WRITER.write(Json.toJson(response));
+            WRITER.write('\n');
+            WRITER.flush();
+        }
+
+        /**
+         * Počká na zápis odpovědí na všechny požadavky.
+         *
+         * @throws IOException
+         */
+        void await() throws IOException {
+            try {
+                DONE.await();
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Klasifikační proces byl přerušen.");
+            }
+
+            if (error instanceof IOException) {
+                throw (IOException) error;
+            }
+
+            if (error != null) {
+                throw new IOException(error);
+            }
+        }
+
+    }
+
+}
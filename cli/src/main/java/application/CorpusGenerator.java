@@ -0,0 +1,251 @@
+package application;
+
+import application.helpers.ACorpus;
+import application.helpers.CorpusStatistics;
+import application.helpers.FileIoHandler;
+import application.helpers.GeneratorArg;
+import application.helpers.PackedCorpus;
+import application.helpers.SyntheticCorpus;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+/**
+ * Třída, sloužící ke generování syntetického korpusu dokumentů libovolné
+ * velikosti pro testování trénování, klasifikace a ukládání modelů
+ * na velkém množství dokumentů. Statistiky slov, bigramů, tříd a délek
+ * dokumentů jsou zjištěny ze zdrojového korpusu a korpus je zapsán jako
+ * adresář souborů s třídami v názvech (stejně jako přiložené množiny), nebo
+ * jako zabalený korpus, pokud cesta k výstupu končí příponou zabaleného
+ * korpusu.
+ *
+ * @author Petr Kozler
+ */
+public class CorpusGenerator {
+
+    /**
+     * argumenty generování
+     */
+    private final GeneratorArg GENERATOR_ARG;
+
+    /**
+     * Vytvoří generátor korpusu.
+     *
+     * @param generatorArg argumenty generování
+     */
+    public CorpusGenerator(GeneratorArg generatorArg) {
+        GENERATOR_ARG = generatorArg;
+    }
+
+    /**
+     * Zjistí statistiky zdrojového korpusu, vygeneruje a zapíše syntetický
+     * korpus a vypíše souhrn.
+     *
+     * @throws IOException
+     */
+    public void run() throws IOException {
+        System.out.println("==================================================\n"
+                + "Spuštěno zjišťování statistik korpusu: " + GENERATOR_ARG.getSourcePath() + "\n");
+        long start = System.nanoTime();
+        CorpusStatistics statistics = new CorpusStatistics(
+                FileIoHandler.getInstance().openCorpus(GENERATOR_ARG.getSourcePath()));
+
+        System.out.println("Dokumentů: " + statistics.getDocumentCount());
+        System.out.println("Slov: " + statistics.getTokenCount());
+        System.out.println("Různých slov: " + statistics.getVocabularySize());
+        System.out.println("Různých bigramů: " + statistics.getBigramCount());
+        System.out.println("Tříd: " + statistics.getLabelCount()
+                + ", kombinací tříd: " + statistics.getLabelSetCount());
+        System.out.printf("Medián počtu slov dokumentu: %.0f\n", Math.exp(statistics.getLogLengthMean()));
+        System.out.printf("Doba: %.1f s\n", (System.nanoTime() - start) / 1e9);
+        System.out.println("--- HOTOVO ---");
+
+        SyntheticCorpus corpus = new SyntheticCorpus(statistics, GENERATOR_ARG.getDocumentCount(),
+                GENERATOR_ARG.getSeed(), GENERATOR_ARG.getLengthScale(), GENERATOR_ARG.getLengthSpread(),
+                GENERATOR_ARG.getClassSkew(), GENERATOR_ARG.getNewWordRate());
+        String outputPath = GENERATOR_ARG.getOutputPath();
+
+        System.out.println("==================================================\n"
+                + "Spuštěno generování korpusu: " + outputPath + "\n"
+                + "(dokumentů: " + corpus.size() + ", semínko: " + GENERATOR_ARG.getSeed()
+                + ", násobek délky: " + GENERATOR_ARG.getLengthScale()
+                + ", násobek rozptylu délky: " + GENERATOR_ARG.getLengthSpread()
+                + ", nerovnoměrnost tříd: " + GENERATOR_ARG.getClassSkew()
+                + ", podíl nových slov: " + GENERATOR_ARG.getNewWordRate() + ")\n");
+        start = System.nanoTime();
+        long size;
+
+        if (outputPath.endsWith(Config.PACKED_CORPUS_EXTENSION)) {
+            PackedCorpus.write(new ProgressCorpus(corpus), outputPath);
+            size = Files.size(Paths.get(outputPath));
+        }
+        else {
+            size = writeDirectory(corpus, Paths.get(outputPath));
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println("Vygenerováno dokumentů: " + corpus.size());
+        System.out.printf("Velikost: %.1f MB\n", size / 1e6);
+        System.out.printf("Doba: %.1f s (%.0f dokumentů/s, %.1f MB/s)\n", seconds,
+                corpus.size() / seconds, size / 1e6 / seconds);
+        System.out.println("--- HOTOVO ---");
+    }
+
+    /**
+     * Zapíše dokumenty korpusu jako samostatné soubory do prázdného
+     * nebo nového adresáře.
+     *
+     * @param corpus korpus
+     * @param directory výstupní adresář
+     * @return celková velikost dokumentů v bajtech
+     * @throws IOException
+     */
+    private long writeDirectory(ACorpus corpus, Path directory) throws IOException {
+        Files.createDirectories(directory);
+
+        try (Stream<Path> files = Files.list(directory)) {
+            if (files.findAny().isPresent()) {
+                throw new IOException("Výstupní adresář není prázdný: " + directory);
+            }
+        }
+
+        long size = 0;
+
+        for (int i = 0; i < corpus.size(); i++) {
+            ByteBuffer bytes = corpus.loadBytes(i);
+            size += bytes.remaining();
+
+            try (FileChannel channel = FileChannel.open(directory.resolve(corpus.getName(i)),
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+            }
+
+            reportProgress(i);
+        }
+
+        return size;
+    }
+
+    /**
+     * Vypíše počet dosud vygenerovaných dokumentů po každém intervalu hlášení.
+     *
+     * @param index pořadové číslo právě vygenerovaného dokumentu
+     */
+    private static void reportProgress(int index) {
+        if ((index + 1) % Config.SYNTHETIC_PROGRESS_INTERVAL == 0) {
+            System.out.println("Vygenerováno dokumentů: " + (index + 1));
+        }
+    }
+
+    /**
+     * Třída, představující korpus, který při načítání dokumentů hlásí průběh
+     * generování (při zápisu zabaleného korpusu).
+     */
+    private static class ProgressCorpus extends ACorpus {
+
+        /**
+         * generovaný korpus
+         */
+        private final ACorpus CORPUS;
+
+        /**
+         * Vytvoří korpus hlásící průběh.
+         *
+         * @param corpus generovaný korpus
+         */
+        ProgressCorpus(ACorpus corpus) {
+            CORPUS = corpus;
+        }
+
+        /**
+         * Vrátí počet dokumentů v korpusu.
+         *
+         * @return počet dokumentů
+         */
+        @Override
+        public int size() {
+            return CORPUS.size();
+        }
+
+        /**
+         * Vrátí název dokumentu.
+         *
+         * @param index pořadové číslo dokumentu
+         * @return název dokumentu
+         */
+        @Override
+        public String getName(int index) {
+            return CORPUS.getName(index);
+        }
+
+        /**
+         * Vrátí zkratku třídy dokumentu.
+         *
+         * @param index pořadové číslo dokumentu
+         * @return zkratka třídy
+         */
+        @Override
+        public String getClassKeyWord(int index) {
+            return CORPUS.getClassKeyWord(index);
+        }
+
+        /**
+         * Vrátí identifikátor dokumentu.
+         *
+         * @param index pořadové číslo dokumentu
+         * @return identifikátor dokumentu
+         */
+        @Override
+        public String getPath(int index) {
+            return CORPUS.getPath(index);
+        }
+
+        /**
+         * Vrátí velikost dokumentu v bajtech.
+         *
+         * @param index pořadové číslo dokumentu
+         * @return velikost v bajtech
+         * @throws IOException
+         */
+        @Override
+        public long getSize(int index) throws IOException {
+            return CORPUS.getSize(index);
+        }
+
+        /**
+         * Vrátí čas poslední změny dokumentu.
+         *
+         * @param index pořadové číslo dokumentu
+         * @return čas v milisekundách
+         * @throws IOException
+         */
+        @Override
+        public long getModifiedTime(int index) throws IOException {
+            return CORPUS.getModifiedTime(index);
+        }
+
+        /**
+         * Vygeneruje obsah dokumentu a ohlásí průběh.
+         *
+         * @param index pořadové číslo dokumentu
+         * @return obsah dokumentu
+         * @throws IOException
+         */
+        @Override
+        public ByteBuffer loadBytes(int index) throws IOException {
+            ByteBuffer bytes = CORPUS.loadBytes(index);
+            reportProgress(index);
+
+            return bytes;
+        }
+
+    }
+
+}
@@ -0,0 +1,217 @@
+package application;
+
+import application.classification.ClassificationContext;
+import application.containers.ClassificationModel;
+import application.helpers.ACorpus;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Třída, sloužící k vyhodnocení předčasného ukončení skórování naivním
+ * Bayesovým klasifikátorem. Pro zadané rozhodující náskoky porovná úspěšnost
+ * klasifikace s úplným skórováním, počet rozdílných výsledků, podíl použitých
+ * slov a dobu klasifikace, a to pro dokumenty korpusu i pro prodloužené
+ * dokumenty (spojené texty několika dokumentů stejné třídy).
+ *
+ * @author Petr Kozler
+ */
+public class EarlyExitEvaluation {
+
+    /**
+     * počet spojených dokumentů prodloužených dokumentů
+     */
+    private static final int LENGTHENING_FACTOR = 20;
+
+    /**
+     * počet opakování měření doby klasifikace
+     */
+    private static final int REPETITION_COUNT = 5;
+
+    /**
+     * klasifikační model
+     */
+    private final ClassificationModel CLASSIFICATION_MODEL;
+
+    /**
+     * vyhodnocované rozhodující náskoky
+     */
+    private final double[] MARGINS;
+
+    /**
+     * Vytvoří vyhodnocení předčasného ukončení skórování.
+     *
+     * @param classificationModel klasifikační model
+     * @param margins vyhodnocované rozhodující náskoky
+     */
+    public EarlyExitEvaluation(ClassificationModel classificationModel, double[] margins) {
+        CLASSIFICATION_MODEL = classificationModel;
+        MARGINS = margins;
+    }
+
+    /**
+     * Spustí vyhodnocení s dokumenty zadaného korpusu a vypíše výsledky.
+     *
+     * @param corpus korpus dokumentů se známými třídami
+     * @throws IOException
+     */
+    public void run(ACorpus corpus) throws IOException {
+        List<ByteBuffer> documents = new ArrayList<>(corpus.size());
+        List<String> documentClasses = new ArrayList<>(corpus.size());
+
+        for (int i = 0; i < corpus.size(); i++) {
+            documents.add(corpus.loadBytes(i));
+            documentClasses.add(corpus.getClassKeyWord(i));
+        }
+
+        if (documents.isEmpty()) {
+            throw new IOException("Korpus pro vyhodnocení neobsahuje žádné dokumenty.");
+        }
+
+        System.out.println("==================================================\n"
+                + "Spuštěno vyhodnocení předčasného ukončení skórování:\n"
+                + "(dokumentů: " + documents.size() + ", prodloužené dokumenty: "
+                + LENGTHENING_FACTOR + " spojených dokumentů stejné třídy)\n");
+
+        evaluate("Dokumenty korpusu", documents, documentClasses);
+        evaluate("Prodloužené dokumenty", lengthen(documents, documentClasses), documentClasses);
+        System.out.println("--- HOTOVO ---");
+    }
+
+    /**
+     * Vyhodnotí úplné skórování a všechny rozhodující náskoky pro zadané
+     * dokumenty a vypíše tabulku výsledků.
+     *
+     * @param title nadpis tabulky
+     * @param documents texty dokumentů
+     * @param documentClasses skutečné třídy dokumentů
+     */
+    private void evaluate(String title, List<ByteBuffer> documents, List<String> documentClasses) {
+        ClassificationContext context = CLASSIFICATION_MODEL.createContext();
+        String[] expected = new String[documents.size()];
+        String[] detected = new String[documents.size()];
+
+        System.out.println(title + ":");
+        System.out.println("  Náskok | úspěšnost | rozdílných | použitých slov | µs/dokument");
+        double fullTime = classifyAll(context, documents, 0, expected);
+        System.out.printf("   úplné | %8.2f%% | %10d | %13.1f%% | %11.1f\n",
+                getAccuracy(expected, documentClasses), 0, 100.0, fullTime);
+
+        for (double margin : MARGINS) {
+            double time = classifyAll(context, documents, margin, detected);
+            long consumedTerms = 0;
+            long terms = 0;
+            int mismatchCount = 0;
+
+            // počty použitých slov a porovnání s úplným skórováním
+            for (int i = 0; i < documents.size(); i++) {
+                context.classify(documents.get(i).duplicate());
+                consumedTerms += context.getConsumedTermCount();
+                terms += context.getTermCount();
+
+                if (!Objects.equals(expected[i], detected[i])) {
+                    mismatchCount++;
+                }
+            }
+
+            System.out.printf("%8.1f | %8.2f%% | %10d | %13.1f%% | %11.1f\n", margin,
+                    getAccuracy(detected, documentClasses), mismatchCount,
+                    100.0 * consumedTerms / Math.max(1, terms), time);
+        }
+
+        System.out.println();
+    }
+
+    /**
+     * Klasifikuje všechny dokumenty se zadaným rozhodujícím náskokem
+     * a změří průměrnou dobu klasifikace (nejlepší z několika opakování).
+     *
+     * @param context kontext klasifikace
+     * @param documents texty dokumentů
+     * @param margin rozhodující náskok (0 pro úplné skórování)
+     * @param detected pole pro zjištěné třídy dokumentů
+     * @return průměrná doba klasifikace dokumentu v mikrosekundách
+     */
+    private double classifyAll(ClassificationContext context, List<ByteBuffer> documents,
+            double margin, String[] detected) {
+        context.setEarlyExitMargin(margin);
+        long bestTime = Long.MAX_VALUE;
+
+        for (int repetition = 0; repetition < REPETITION_COUNT; repetition++) {
+            long start = System.nanoTime();
+
+            for (int i = 0; i < documents.size(); i++) {
+                detected[i] = context.classify(documents.get(i).duplicate());
+            }
+
+            bestTime = Math.min(bestTime, System.nanoTime() - start);
+        }
+
+        return bestTime / 1000.0 / documents.size();
+    }
+
+    /**
+     * Vytvoří prodloužené dokumenty spojením každého dokumentu s následujícími
+     * dokumenty stejné třídy (cyklicky v rámci třídy).
+     *
+     * @param documents texty dokumentů
+     * @param documentClasses skutečné třídy dokumentů
+     * @return texty prodloužených dokumentů
+     */
+    private static List<ByteBuffer> lengthen(List<ByteBuffer> documents, List<String> documentClasses) {
+        Map<String, List<ByteBuffer>> documentsByClass = new HashMap<>();
+
+        for (int i = 0; i < documents.size(); i++) {
+            documentsByClass.computeIfAbsent(documentClasses.get(i), c -> new ArrayList<>()).add(documents.get(i));
+        }
+
+        Map<String, Integer> positions = new HashMap<>();
+        List<ByteBuffer> lengthened = new ArrayList<>(documents.size());
+
+        for (int i = 0; i < documents.size(); i++) {
+            List<ByteBuffer> classDocuments = documentsByClass.get(documentClasses.get(i));
+            int position = positions.merge(documentClasses.get(i), 1, Integer::sum) - 1;
+            int length = 0;
+
+            for (int k = 0; k < LENGTHENING_FACTOR; k++) {
+                length += classDocuments.get((position + k) % classDocuments.size()).remaining() + 1;
+            }
+
+            ByteBuffer text = ByteBuffer.allocate(length);
+
+            for (int k = 0; k < LENGTHENING_FACTOR; k++) {
+                text.put(classDocuments.get((position + k) % classDocuments.size()).duplicate());
+                text.put((byte) '\n');
+            }
+
+            text.flip();
+            lengthened.add(text);
+        }
+
+        return lengthened;
+    }
+
+    /**
+     * Vypočítá úspěšnost klasifikace v procentech.
+     *
+     * @param detected zjištěné třídy dokumentů
+     * @param documentClasses skutečné třídy dokumentů
+     * @return úspěšnost klasifikace v procentech
+     */
+    private static double getAccuracy(String[] detected, List<String> documentClasses) {
+        int correctCount = 0;
+
+        for (int i = 0; i < detected.length; i++) {
+            if (documentClasses.get(i).equals(detected[i])) {
+                correctCount++;
+            }
+        }
+
+        return 100.0 * correctCount / detected.length;
+    }
+
+}
@@ -0,0 +1,643 @@
+package application;
+
+import application.classification.AClassifier;
+import application.classification.ClassificationContext;
+import application.containers.ClassificationModel;
+import application.helpers.ACorpus;
+import application.helpers.AlgorithmSelector;
+import application.helpers.FileIoHandler;
+import application.helpers.Json;
+import application.parameterisation.AWordCounter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+/**
+ * Třída, sloužící k měření celého zpracování od trénování po klasifikaci
+ * pro všechny kombinace parametrizačních a klasifikačních algoritmů.
+ * Každý model je natrénován na trénovací množině, uložen do dočasného
+ * souboru, znovu načten a použit ke klasifikaci testovací množiny jedním
+ * vláknem a poté 1, 2, 4, ... vlákny po zadanou dobu. Pro každou fázi je
+ * změřena doba, počet alokovaných bajtů, rychlost alokace a nejvyšší
+ * obsazení haldy, pro klasifikaci více vlákny propustnost a percentily doby
+ * klasifikace dokumentu. Výsledky jsou vypsány ve formátu JSON na standardní
+ * výstup (pro porovnání dvou sestavení programu), průběh na standardní
+ * chybový výstup.
+ *
+ * @author Petr Kozler
+ */
+public class EndToEndBenchmark {
+
+    /**
+     * identifikátory měřených parametrizačních algoritmů
+     */
+    private static final String[] WORD_COUNTERS = { "-o", "-p", "-s" };
+
+    /**
+     * identifikátory měřených klasifikačních algoritmů
+     */
+    private static final String[] CLASSIFIERS = { "-b", "-n", "-r", "-c" };
+
+    /**
+     * cesta k trénovací množině
+     */
+    private final String TRAINING_SET_PATH;
+
+    /**
+     * cesta k testovací množině
+     */
+    private final String TEST_SET_PATH;
+
+    /**
+     * nejvyšší počet vláken
+     */
+    private final int MAX_THREAD_COUNT;
+
+    /**
+     * doba měření pro jeden počet vláken v sekundách
+     */
+    private final int DURATION;
+
+    /**
+     * původní standardní výstup pro výsledky (hlášení o průběhu fází jsou
+     * během měření potlačena)
+     */
+    private final PrintStream STANDARD_OUTPUT = System.out;
+
+    /**
+     * Rozhraní, představující jednu měřenou fázi zpracování.
+     *
+     * @param <T> typ výsledku fáze
+     */
+    private interface Stage<T> {
+
+        /**
+         * Provede fázi zpracování.
+         *
+         * @return výsledek fáze
+         * @throws IOException
+         * @throws ClassNotFoundException
+         */
+        T run() throws IOException, ClassNotFoundException;
+
+    }
+
+    /**
+     * Vytvoří měření celého zpracování.
+     *
+     * @param trainingSetPath cesta k trénovací množině
+     * @param testSetPath cesta k testovací množině
+     * @param maxThreadCount nejvyšší počet vláken
+     * @param duration doba měření pro jeden počet vláken v sekundách
+     */
+    public EndToEndBenchmark(String trainingSetPath, String testSetPath, int maxThreadCount, int duration) {
+        TRAINING_SET_PATH = trainingSetPath;
+        TEST_SET_PATH = testSetPath;
+        MAX_THREAD_COUNT = maxThreadCount;
+        DURATION = duration;
+    }
+
+    /**
+     * Spustí měření všech kombinací algoritmů a vypíše výsledky ve formátu JSON.
+     *
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    public void run() throws IOException, ClassNotFoundException {
+        FileIoHandler fileIoHandler = FileIoHandler.getInstance();
+        ACorpus trainingSet = fileIoHandler.openCorpus(TRAINING_SET_PATH);
+        ACorpus testSet = fileIoHandler.openCorpus(TEST_SET_PATH);
+
+        if (trainingSet.size() == 0 || testSet.size() == 0) {
+            throw new IOException("Trénovací nebo testovací množina neobsahuje žádné dokumenty.");
+        }
+
+        List<ByteBuffer> documents = new ArrayList<>(testSet.size());
+
+        for (int i = 0; i < testSet.size(); i++) {
+            documents.add(testSet.loadBytes(i));
+        }
+
+        System.err.println("==================================================\n"
+                + "Spuštěno měření celého zpracování (trénování, uložení, načtení, klasifikace):\n"
+                + "(kombinací algoritmů: " + WORD_COUNTERS.length * CLASSIFIERS.length
+                + ", trénovacích dokumentů: " + trainingSet.size() + ", testovacích dokumentů: "
+                + testSet.size() + ", vláken: 1 až " + MAX_THREAD_COUNT + ", měření: " + DURATION + " s)\n");
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("trainingSet", TRAINING_SET_PATH);
+        report.put("testSet", TEST_SET_PATH);
+        report.put("trainingDocuments", trainingSet.size());
+        report.put("testDocuments", testSet.size());
+        report.put("processors", Runtime.getRuntime().availableProcessors());
+        report.put("maxHeapBytes", Runtime.getRuntime().maxMemory());
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("vmName", System.getProperty("java.vm.name"));
+        report.put("durationSeconds", DURATION);
+
+        List<Object> results = new ArrayList<>();
+        Path directory = Files.createTempDirectory("end-to-end");
+        List<Path> modelFiles = new ArrayList<>();
+
+        // hlášení modulů o průběhu fází nejsou součástí výstupu
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        try {
+            for (String wordCounterKey : WORD_COUNTERS) {
+                for (String classifierKey : CLASSIFIERS) {
+                    // každý model má vlastní soubor, předchozí může být ještě namapován v paměti
+                    String modelPath = directory.resolve("model" + wordCounterKey + classifierKey).toString();
+                    modelFiles.add(Paths.get(modelPath + Config.CLASSIFY_MODEL_EXTENSION));
+                    System.err.println("Parametrizační algoritmus " + wordCounterKey
+                            + ", klasifikační algoritmus " + classifierKey + ":");
+                    results.add(measureCombination(wordCounterKey, classifierKey, trainingSet, testSet,
+                            documents, modelPath));
+                }
+            }
+        }
+        finally {
+            System.setOut(STANDARD_OUTPUT);
+
+            for (Path modelFile : modelFiles) {
+                Files.deleteIfExists(modelFile);
+            }
+
+            Files.deleteIfExists(directory);
+        }
+
+        report.put("results", results);
+        STANDARD_OUTPUT.println(Json.toJson(report));
+        System.err.println("--- HOTOVO ---");
+    }
+
+    /**
+     * Změří všechny fáze zpracování pro jednu kombinaci algoritmů.
+     *
+     * @param wordCounterKey identifikátor parametrizačního algoritmu
+     * @param classifierKey identifikátor klasifikačního algoritmu
+     * @param trainingSet dokumenty trénovací množiny
+     * @param testSet dokumenty testovací množiny
+     * @param documents obsahy dokumentů testovací množiny
+     * @param modelPath cesta k dočasnému souboru modelu (bez přípony)
+     * @return výsledky měření
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    private Map<String, Object> measureCombination(String wordCounterKey, String classifierKey,
+            ACorpus trainingSet, ACorpus testSet, List<ByteBuffer> documents, String modelPath) throws IOException, ClassNotFoundException {
+        FileIoHandler fileIoHandler = FileIoHandler.getInstance();
+        AWordCounter wordCounter = AlgorithmSelector.selectWordCounter(wordCounterKey);
+        AClassifier classifier = AlgorithmSelector.selectClassifier(classifierKey);
+        Map<String, Object> stages = new LinkedHashMap<>();
+
+        // trénování bez mezipaměti četností slov, aby byly vždy tokenizovány všechny dokumenty
+        ClassificationModel trainedModel = measureStage("train", stages, () -> new ModelCreator(
+                wordCounter, classifier, false).createClassificationModel(trainingSet, null));
+        measureStage("save", stages, () -> {
+            fileIoHandler.saveClassificationModel(trainedModel, modelPath);
+
+            return null;
+        });
+        long modelFileSize = Files.size(Paths.get(modelPath + Config.CLASSIFY_MODEL_EXTENSION));
+        ClassificationModel classificationModel = measureStage("load", stages,
+                () -> fileIoHandler.loadClassificationModel(modelPath));
+        String[] documentClasses = measureStage("classify", stages,
+                () -> classifyAll(classificationModel, documents));
+        int correctCount = 0;
+
+        for (int i = 0; i < documentClasses.length; i++) {
+            if (testSet.getClassKeyWord(i).equals(documentClasses[i])) {
+                correctCount++;
+            }
+        }
+
+        List<Object> scaling = new ArrayList<>();
+        double baseThroughput = 0;
+
+        for (int threadCount = 1; threadCount <= MAX_THREAD_COUNT; threadCount = getNextThreadCount(threadCount)) {
+            Map<String, Object> result = measureThreads(classificationModel, documents, threadCount);
+            double throughput = (Double) result.get("documentsPerSecond");
+
+            if (threadCount == 1) {
+                baseThroughput = throughput;
+            }
+
+            // bez změřené propustnosti jednoho vlákna nelze zrychlení určit
+            result.put("speedup", baseThroughput > 0 ? round(throughput / baseThroughput) : null);
+            scaling.add(result);
+            System.err.printf("    %d vláken: %.1f dokumentů/s\n", threadCount, throughput);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("wordCounter", wordCounterKey);
+        result.put("classifier", classifierKey);
+        result.put("modelFileBytes", modelFileSize);
+        result.put("accuracy", round((double) correctCount / documentClasses.length));
+        result.put("stages", stages);
+        result.put("scaling", scaling);
+        System.err.printf("    trénování %.0f ms, uložení %.0f ms, načtení %.0f ms, model %d B, úspěšnost %.1f %%\n",
+                getStageTime(stages, "train"), getStageTime(stages, "save"), getStageTime(stages, "load"),
+                modelFileSize, 100.0 * correctCount / documentClasses.length);
+
+        return result;
+    }
+
+    /**
+     * Provede fázi zpracování aktuálním vláknem a zaznamená její dobu, počet
+     * alokovaných bajtů, rychlost alokace a nejvyšší obsazení haldy (součet
+     * nejvyšších obsazení jednotlivých oblastí haldy od začátku fáze).
+     *
+     * @param <T> typ výsledku fáze
+     * @param name název fáze
+     * @param stages mapa pro výsledky měření fází
+     * @param stage fáze
+     * @return výsledek fáze
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    private <T> T measureStage(String name, Map<String, Object> stages, Stage<T> stage)
+            throws IOException, ClassNotFoundException {
+        resetPeakHeapUsage();
+        long allocatedBefore = getAllocatedBytes();
+        long start = System.nanoTime();
+        T result = stage.run();
+        long time = System.nanoTime() - start;
+        long allocatedAfter = getAllocatedBytes();
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("timeMs", round(time / 1e6));
+        putAllocation(metrics, (allocatedBefore < 0 || allocatedAfter < 0)
+                ? -1 : allocatedAfter - allocatedBefore, time);
+        metrics.put("peakHeapBytes", getPeakHeapUsage());
+        stages.put(name, metrics);
+
+        return result;
+    }
+
+    /**
+     * Vrátí dobu fáze v milisekundách z výsledků měření.
+     *
+     * @param stages výsledky měření fází
+     * @param name název fáze
+     * @return doba fáze v milisekundách
+     */
+    @SuppressWarnings("unchecked")
+    private static double getStageTime(Map<String, Object> stages, String name) {
+        return (Double) ((Map<String, Object>) stages.get(name)).get("timeMs");
+    }
+
+    /**
+     * Klasifikuje všechny dokumenty jedním vláknem.
+     *
+     * @param classificationModel klasifikační model
+     * @param documents dokumenty
+     * @return třídy dokumentů
+     */
+    private static String[] classifyAll(ClassificationModel classificationModel, List<ByteBuffer> documents) {
+        ClassificationContext context = classificationModel.createContext();
+        String[] documentClasses = new String[documents.size()];
+
+        for (int i = 0; i < documents.size(); i++) {
+            documentClasses[i] = context.classify(documents.get(i).duplicate());
+        }
+
+        return documentClasses;
+    }
+
+    /**
+     * Vrátí další měřený počet vláken (dvojnásobek, nejvýše však nejvyšší
+     * zadaný počet, i když není mocninou dvou).
+     *
+     * @param threadCount aktuální počet vláken
+     * @return další počet vláken
+     */
+    private int getNextThreadCount(int threadCount) {
+        if (threadCount < MAX_THREAD_COUNT) {
+            return Math.min(threadCount * 2, MAX_THREAD_COUNT);
+        }
+
+        return threadCount + 1;
+    }
+
+    /**
+     * Změří klasifikaci zadaným počtem vláken sdílejících jeden model.
+     * Vlákna nejprve klasifikují všechny dokumenty pro zahřátí a poté
+     * klasifikují dokumenty až do konce měření a zaznamenávají dobu
+     * klasifikace každého dokumentu.
+     *
+     * @param classificationModel klasifikační model
+     * @param documents dokumenty
+     * @param threadCount počet vláken
+     * @return výsledky měření
+     * @throws IOException
+     */
+    private Map<String, Object> measureThreads(ClassificationModel classificationModel,
+            List<ByteBuffer> documents, int threadCount) throws IOException {
+        CyclicBarrier barrier = new CyclicBarrier(threadCount + 1);
+        Thread[] threads = new Thread[threadCount];
+        LatencyRecorder[] recorders = new LatencyRecorder[threadCount];
+        long[] time = new long[2];
+
+        for (int i = 0; i < threadCount; i++) {
+            int index = i;
+            recorders[i] = new LatencyRecorder();
+            threads[i] = new Thread(() -> classifyDocuments(classificationModel, documents, index, barrier,
+                    time, recorders), "end-to-end-" + i);
+            threads[i].start();
+        }
+
+        long elapsed;
+
+        try {
+            // začátek měření po zahřátí všech vláken
+            barrier.await();
+
+            // vlákna po chybě při zahřívání na druhou bariéru nečekají
+            if (getFailure(recorders) != null) {
+                throw new IOException("Měření selhalo chybou klasifikace při zahřívání.", getFailure(recorders));
+            }
+
+            resetPeakHeapUsage();
+            time[0] = System.nanoTime();
+            time[1] = time[0] + DURATION * 1_000_000_000L;
+            barrier.await();
+
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            elapsed = System.nanoTime() - time[0];
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Měření bylo přerušeno.");
+        }
+        catch (BrokenBarrierException ex) {
+            throw new IOException("Měření selhalo, čekání vláken na společný začátek měření bylo porušeno.", ex);
+        }
+
+        if (getFailure(recorders) != null) {
+            throw new IOException("Měření selhalo chybou klasifikace.", getFailure(recorders));
+        }
+
+        int count = 0;
+        long allocated = 0;
+
+        for (LatencyRecorder recorder : recorders) {
+            count += recorder.count;
+            allocated = (allocated < 0 || recorder.allocated < 0) ? -1 : allocated + recorder.allocated;
+        }
+
+        long[] latencies = new long[count];
+        int position = 0;
+
+        for (LatencyRecorder recorder : recorders) {
+            System.arraycopy(recorder.latencies, 0, latencies, position, recorder.count);
+            position += recorder.count;
+        }
+
+        Arrays.sort(latencies);
+
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("p50", getPercentile(latencies, 50));
+        latency.put("p90", getPercentile(latencies, 90));
+        latency.put("p99", getPercentile(latencies, 99));
+        latency.put("max", getPercentile(latencies, 100));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("threads", threadCount);
+        result.put("documents", count);
+        result.put("documentsPerSecond", round(count / (elapsed / 1e9)));
+        result.put("latencyMs", latency);
+        putAllocation(result, allocated, elapsed);
+        result.put("allocatedBytesPerDocument", allocated < 0 ? null : allocated / Math.max(1, count));
+        result.put("peakHeapBytes", getPeakHeapUsage());
+
+        return result;
+    }
+
+    /**
+     * Klasifikuje dokumenty až do konce měření (činnost jednoho vlákna).
+     *
+     * @param classificationModel klasifikační model
+     * @param documents dokumenty
+     * @param index index vlákna
+     * @param barrier bariéra pro společný začátek měření
+     * @param time začátek a konec měření
+     * @param recorders záznamy dob klasifikace jednotlivých vláken
+     */
+    private static void classifyDocuments(ClassificationModel classificationModel, List<ByteBuffer> documents,
+            int index, CyclicBarrier barrier, long[] time, LatencyRecorder[] recorders) {
+        ClassificationContext context = classificationModel.createContext();
+        LatencyRecorder recorder = recorders[index];
+        int position = index * documents.size() / recorders.length;
+
+        try {
+            try {
+                for (ByteBuffer document : documents) {
+                    context.classify(document.duplicate());
+                }
+            }
+            catch (RuntimeException ex) {
+                // vlákno se chybou přesto dostaví k bariéře, aby hlavní vlákno měření ukončilo
+                recorder.failure = ex;
+                barrier.await();
+                return;
+            }
+
+            barrier.await();
+
+            if (getFailure(recorders) != null) {
+                return;
+            }
+
+            barrier.await();
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        catch (BrokenBarrierException ex) {
+            return;
+        }
+
+        long allocatedBefore = getAllocatedBytes();
+        long now = System.nanoTime();
+
+        try {
+            while (now < time[1]) {
+                context.classify(documents.get(position).duplicate());
+                long end = System.nanoTime();
+                recorder.record(end - now);
+                now = end;
+                position = (position + 1) % documents.size();
+            }
+        }
+        catch (RuntimeException ex) {
+            recorder.failure = ex;
+            return;
+        }
+
+        long allocatedAfter = getAllocatedBytes();
+        recorder.allocated = (allocatedBefore < 0 || allocatedAfter < 0) ? -1 : allocatedAfter - allocatedBefore;
+    }
+
+    /**
+     * Vrátí první chybu, kterou skončilo některé z měřících vláken.
+     *
+     * @param recorders záznamy jednotlivých vláken
+     * @return chyba, nebo null
+     */
+    private static Throwable getFailure(LatencyRecorder[] recorders) {
+        for (LatencyRecorder recorder : recorders) {
+            if (recorder.failure != null) {
+                return recorder.failure;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Přidá k výsledkům měření počet alokovaných bajtů a rychlost alokace.
+     *
+     * @param metrics výsledky měření
+     * @param allocated počet alokovaných bajtů (nebo -1, pokud jej JVM neměří)
+     * @param time doba měření v nanosekundách
+     */
+    private static void putAllocation(Map<String, Object> metrics, long allocated, long time) {
+        metrics.put("allocatedBytes", allocated < 0 ? null : allocated);
+        metrics.put("allocationRateMBps", allocated < 0 ? null
+                : round(allocated / 1e6 / (Math.max(1, time) / 1e9)));
+    }
+
+    /**
+     * Vrátí percentil seřazených dob klasifikace v milisekundách.
+     *
+     * @param latencies seřazené doby klasifikace v nanosekundách
+     * @param percentile percentil
+     * @return doba klasifikace v milisekundách (0, pokud nebyl klasifikován žádný dokument)
+     */
+    private static double getPercentile(long[] latencies, double percentile) {
+        if (latencies.length == 0) {
+            return 0;
+        }
+
+        int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+
+        return round(latencies[Math.max(0, Math.min(latencies.length - 1, index))] / 1e6);
+    }
+
+    /**
+     * Zaokrouhlí hodnotu na tři desetinná místa.
+     *
+     * @param value hodnota
+     * @return zaokrouhlená hodnota
+     */
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    /**
+     * Uvolní nepoužívané objekty a vynuluje nejvyšší obsazení oblastí haldy.
+     */
+    private static void resetPeakHeapUsage() {
+        System.gc();
+
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    /**
+     * Vrátí součet nejvyšších obsazení oblastí haldy od posledního vynulování.
+     *
+     * @return obsazení haldy v bajtech
+     */
+    private static long getPeakHeapUsage() {
+        long peak = 0;
+
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+
+        return peak;
+    }
+
+    /**
+     * Vrátí počet bajtů alokovaných aktuálním vláknem.
+     *
+     * @return počet bajtů (nebo -1, pokud jej JVM neměří)
+     */
+    private static long getAllocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(
+                    Thread.currentThread().getId());
+        }
+
+        return -1;
+    }
+
+    /**
+     * Třída, představující záznam dob klasifikace jednoho vlákna.
+     */
+    private static class LatencyRecorder {
+
+        /**
+         * doby klasifikace v nanosekundách
+         */
+        long[] latencies = new long[1 << 12];
+
+        /**
+         * počet zaznamenaných dob
+         */
+        int count;
+
+        /**
+         * počet bajtů alokovaných vláknem během měření (nebo -1)
+         */
+        long allocated;
+
+        /**
+         * chyba, kterou vlákno skončilo (nebo null)
+         */
+        Throwable failure;
+
+        /**
+         * Zaznamená dobu klasifikace dokumentu.
+         *
+         * @param latency doba klasifikace v nanosekundách
+         */
+        void record(long latency) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+
+            latencies[count++] = latency;
+        }
+
+    }
+
+}
@@ -0,0 +1,831 @@
+package application;
+
+import application.classification.ClassificationContext;
+import application.containers.ClassificationModel;
+import application.helpers.ACorpus;
+import application.helpers.BatchArg;
+import application.helpers.FileIoHandler;
+import application.helpers.GeneratorArg;
+import application.helpers.CmdArg;
+import application.helpers.ResultCache;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hlavní třída pro spuštění aplikace bez GUI (vytvoření modelu, dávková
+ * klasifikace, klasifikační služba a proces a měření). Nevyžaduje JavaFX:
+ * režim ručního zadávání textu spustí třídu GUI {@link Config#GUI_MAIN_CLASS}
+ * načtenou reflexí, je-li k dispozici.
+ * 
+ * @author Petr Kozler
+ */
+public class Launcher {
+    
+    /**
+     * objekt pro zpracování argumentů příkazového řádku
+     */
+    private static CmdArg cmdArg;
+    
+    /**
+     * Načte trénovací data, natrénuje, otestuje a uloží
+     * zvolený klasifikační model.
+     * 
+     * @throws IOException 
+     */
+    private static void create() throws IOException {
+        FileIoHandler fileIoHandler = FileIoHandler.getInstance();
+        
+        ModelCreator modelCreator = new ModelCreator(cmdArg.getParamAlgorithm(), cmdArg.getRecognizeAlgorithm());
+        
+        ClassificationModel classificationModel = modelCreator.createClassificationModel(
+                cmdArg.getTrainingSet(), cmdArg.getTestSet());
+        
+        fileIoHandler.saveClassificationModel(classificationModel, cmdArg.getClassificationModelPath());
+        System.exit(0);
+    }
+    
+    /**
+     * Zabalí korpus dokumentů z adresáře do jednoho datového souboru s indexem.
+     * 
+     * @param sourcePath cesta k adresáři s dokumenty
+     * @param targetPath cesta k zabalenému korpusu (bez přípony)
+     * @throws IOException 
+     */
+    private static void pack(String sourcePath, String targetPath) throws IOException {
+        FileIoHandler fileIoHandler = FileIoHandler.getInstance();
+        fileIoHandler.packCorpus(fileIoHandler.openCorpus(sourcePath.trim()), targetPath.trim());
+        System.exit(0);
+    }
+    
+    /**
+     * Vygeneruje syntetický korpus dokumentů podle statistik zdrojového korpusu.
+     * 
+     * @param args argumenty režimu generování (zdrojový korpus, počet
+     * dokumentů, výstup a volitelné přepínače)
+     * @throws IOException 
+     */
+    private static void generateCorpus(String[] args) throws IOException {
+        GeneratorArg generatorArg;
+        
+        try {
+            generatorArg = new GeneratorArg(args);
+        }
+        catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            help();
+            return;
+        }
+        
+        CorpusGenerator corpusGenerator = new CorpusGenerator(generatorArg);
+        corpusGenerator.run();
+        System.exit(0);
+    }
+    
+    /**
+     * Načte klasifikační model a klasifikuje jím dokumenty ze zadaného
+     * vstupu bez GUI.
+     * 
+     * @param args argumenty dávkového režimu (model, vstup a volitelné přepínače)
+     * @throws IOException
+     * @throws ClassNotFoundException 
+     */
+    private static void batch(String[] args) throws IOException, ClassNotFoundException {
+        BatchArg batchArg;
+        
+        try {
+            batchArg = new BatchArg(args);
+        }
+        catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            help();
+            return;
+        }
+        
+        OutputStream output = System.out;
+        
+        if (batchArg.getOutputPath() != null) {
+            output = Files.newOutputStream(Paths.get(batchArg.getOutputPath()));
+        }
+        else {
+            // hlášení o průběhu nesmí být smíchána s výsledky na standardním výstupu
+            System.setOut(System.err);
+        }
+        
+        FileIoHandler fileIoHandler = FileIoHandler.getInstance();
+        ClassificationModel classificationModel = fileIoHandler.loadClassificationModel(
+                batchArg.getClassificationModelPath());
+        BatchClassifier batchClassifier = new BatchClassifier(classificationModel,
+                batchArg.getThreadCount(), batchArg.isOrdered(), batchArg.isJsonOutput());
+        
+        try (OutputStream out = output) {
+            batchClassifier.classify(batchArg.getInputPath(), out);
+        }
+        
+        System.exit(0);
+    }
+    
+    /**
+     * Spustí HTTP server klasifikační služby a načte do něj klasifikační
+     * model (server přijímá požadavky již během načítání modelu, ale
+     * do jeho dokončení hlásí nepřipravenost). Po změně souboru modelu
+     * je nová verze načtena a zaměněna za běhu serveru.
+     * 
+     * @param args argumenty režimu serveru (model a volitelně port,
+     * kontrolní množina dokumentů pro ověření nových verzí modelu
+     * a přepínače mezipaměti výsledků, převzetí výsledků téměř shodných dokumentů
+     * a slučování souběžných klasifikací do dávek a prioritních pruhů)
+     * @throws IOException
+     * @throws ClassNotFoundException 
+     */
+    private static void serve(String[] args) throws IOException, ClassNotFoundException {
+        int port = Config.SERVER_DEFAULT_PORT;
+        // přepínače mohou být uvedeny kdekoli za názvem modelu
+        boolean cached = Arrays.asList(args).contains("--cache");
+        boolean nearDuplicates = Arrays.asList(args).contains("--near-duplicates");
+        boolean microBatching = Arrays.asList(args).contains("--micro-batch");
+        boolean lanes = Arrays.asList(args).contains("--priority-lanes");
+        
+        try {
+            checkSwitches(args, "--cache", "--near-duplicates", "--micro-batch", "--priority-lanes");
+            // model, volitelně port a kontrolní množina dokumentů
+            args = getPositionalArgs(args, 1, 3);
+            
+            if (args.length > 1) {
+                port = parseNumber(args[1], "port");
+            }
+        }
+        catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            help();
+            return;
+        }
+        
+        ClassificationServer server = new ClassificationServer(port, cached
+                ? new ResultCache(Config.RESULT_CACHE_MAX_ENTRIES, Config.RESULT_CACHE_MAX_BYTES) : null,
+                microBatching ? new MicroBatcher(Config.MICRO_BATCH_MAX_SIZE, Config.MICRO_BATCH_MAX_DELAY,
+                        Runtime.getRuntime().availableProcessors()) : null,
+                lanes ? LaneExecutor.createDefault(Runtime.getRuntime().availableProcessors()) : null);
+        server.start();
+        
+        FileIoHandler fileIoHandler = FileIoHandler.getInstance();
+        ACorpus smokeTestSet = args.length > 2 ? fileIoHandler.openCorpus(args[2].trim()) : null;
+        ModelHolder modelHolder = new ModelHolder(args[0].trim(), smokeTestSet);
+        modelHolder.setNearDuplicateDetection(nearDuplicates);
+        server.setModelHolder(modelHolder);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            
+            try {
+                modelHolder.close();
+            }
+            catch (IOException ex) {
+                // ukončení programu pokračuje
+            }
+        }));
+        
+        modelHolder.start();
+        System.out.println("Server je připraven (model: " + fileIoHandler.getFileNameFromPath(args[0].trim())
+                + ", změny souboru modelu jsou sledovány).");
+    }
+    
+    /**
+     * Spustí dlouhodobě běžící klasifikační proces, který načte model jednou
+     * a klasifikuje dokumenty z řádků standardního vstupu (odpovědi zapisuje
+     * na standardní výstup), nebo ze spojení na unixovém doménovém socketu.
+     * 
+     * @param args argumenty klasifikačního procesu (model, volitelně cesta k socketu
+     * a přepínač zahřátí skórování před přijímáním požadavků)
+     * @throws IOException
+     * @throws ClassNotFoundException 
+     */
+    private static void worker(String[] args) throws IOException, ClassNotFoundException {
+        boolean warmup = Arrays.asList(args).contains("--warmup");
+        
+        try {
+            checkSwitches(args, "--warmup");
+            // model a volitelně cesta k socketu
+            args = getPositionalArgs(args, 1, 2);
+        }
+        catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            help();
+            return;
+        }
+        
+        OutputStream output = System.out;
+        // hlášení o průběhu nesmí být smíchána s odpověďmi na standardním výstupu
+        System.setOut(System.err);
+        
+        FileIoHandler fileIoHandler = FileIoHandler.getInstance();
+        ClassificationModel classificationModel = fileIoHandler.loadClassificationModel(args[0].trim(), warmup);
+        
+        if (warmup) {
+            new ModelWarmup(classificationModel).run(Config.WARMUP_MAX_DURATION);
+        }
+        
+        ClassificationWorker worker = new ClassificationWorker(classificationModel,
+                Runtime.getRuntime().availableProcessors());
+        System.out.println("Klasifikační proces je připraven (" + StartupBenchmark.getUptime()
+                + " ms od spuštění JVM).");
+        
+        if (args.length > 1) {
+            worker.serveSocket(args[1].trim());
+        }
+        else {
+            worker.serve(System.in, output);
+        }
+        
+        System.exit(0);
+    }
+    
+    /**
+     * Porovná dobu klasifikace dokumentu při spuštění nového procesu
+     * pro každý dokument a při použití klasifikačního procesu.
+     * 
+     * @param args argumenty porovnání (model, korpus a volitelně počet spuštění procesu)
+     * @throws IOException
+     */
+    private static void workerBenchmark(String[] args) throws IOException {
+        int callCount = Config.WORKER_BENCHMARK_DEFAULT_CALLS;
+        
+        try {
+            if (args.length > 2) {
+                callCount = parseNumber(args[2], "počet spuštění procesu");
+            }
+        }
+        catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            help();
+            return;
+        }
+        
+        FileIoHandler fileIoHandler = FileIoHandler.getInstance();
+        WorkerBenchmark workerBenchmark = new WorkerBenchmark(args[0].trim(), callCount);
+        workerBenchmark.run(fileIoHandler.openCorpus(args[1].trim()));
+        System.exit(0);
+    }
+    
+    /**
+     * Načte klasifikační model, klasifikuje jeden syntetický dokument,
+     * zahřeje skórování syntetickými dokumenty a vypíše doby do první
+     * klasifikace a doby klasifikace před zahřátím a po něm. Slouží také
+     * jako zkušební běh pro vytvoření archivu tříd aplikace (AppCDS).
+     * 
+     * @param args argumenty zahřátí (model a volitelně nejdelší doba zahřívání v ms)
+     * @throws IOException
+     * @throws ClassNotFoundException 
+     */
+    private static void warmup(String[] args) throws IOException, ClassNotFoundException {
+        long maxDuration = Config.WARMUP_MAX_DURATION;
+        
+        try {
+            if (args.length > 1) {
+                maxDuration = parseNumber(args[1], "doba zahřívání");
+            }
+        }
+        catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            help();
+            return;
+        }
+        
+        FileIoHandler fileIoHandler = FileIoHandler.getInstance();
+        long loadStart = System.nanoTime();
+        ClassificationModel classificationModel = fileIoHandler.loadClassificationModel(args[0].trim(), true);
+        long loadTime = System.nanoTime() - loadStart;
+        
+        ModelWarmup modelWarmup = new ModelWarmup(classificationModel);
+        ClassificationContext context = classificationModel.createContext();
+        byte[] document = modelWarmup.getDocuments().isEmpty() ? new byte[0]
+                : modelWarmup.getDocuments().get(0).getBytes(StandardCharsets.UTF_8);
+        long coldStart = System.nanoTime();
+        context.classify(ByteBuffer.wrap(document));
+        long coldTime = System.nanoTime() - coldStart;
+        long firstClassification = StartupBenchmark.getUptime();
+        
+        long warmupStart = System.nanoTime();
+        int documentCount = modelWarmup.run(maxDuration);
+        long warmupTime = System.nanoTime() - warmupStart;
+        long warmStart = System.nanoTime();
+        context.classify(ByteBuffer.wrap(document));
+        long warmTime = System.nanoTime() - warmStart;
+        
+        System.out.println("==================================================\n"
+                + "Doba do první klasifikace:\n");
+        System.out.printf("Načtení modelu (včetně stránek souboru): %.1f ms\n", loadTime / 1e6);
+        System.out.printf("První klasifikace: %d ms od spuštění JVM (klasifikace %.3f ms)\n",
+                firstClassification, coldTime / 1e6);
+        System.out.printf("Zahřátí: %.1f ms (syntetických dokumentů: %d)\n", warmupTime / 1e6, documentCount);
+        System.out.printf("Klasifikace po zahřátí: %.3f ms (%d ms od spuštění JVM)\n",
+                warmTime / 1e6, StartupBenchmark.getUptime());
+        System.out.println("--- HOTOVO ---");
+        System.exit(0);
+    }
+    
+    /**
+     * Změří dobu do první klasifikace nově spuštěných procesů bez archivu
+     * tříd, s archivem tříd aplikace a se zahřátím skórování.
+     * 
+     * @param args argumenty měření (model, korpus a volitelně počet spuštění procesu)
+     * @throws IOException
+     */
+    private static void startupBenchmark(String[] args) throws IOException {
+        int runCount = Config.STARTUP_BENCHMARK_DEFAULT_RUNS;
+        
+        try {
+            if (args.length > 2) {
+                runCount = parseNumber(args[2], "počet spuštění procesu");
+            }
+        }
+        catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            help();
+            return;
+        }
+        
+        FileIoHandler fileIoHandler = FileIoHandler.getInstance();
+        StartupBenchmark startupBenchmark = new StartupBenchmark(args[0].trim(), runCount);
+        startupBenchmark.run(fileIoHandler.openCorpus(args[1].trim()));
+        System.exit(0);
+    }
+    
+    /**
+     * Spustí zátěžový test běžícího HTTP serveru klasifikační služby.
+     * 
+     * @param args argumenty zátěžového testu (adresa serveru, korpus
+     * a volitelně počet klientů a doba měření)
+     * @throws IOException 
+     */
+    private static void loadTest(String[] args) throws IOException {
+        int concurrency = Config.LOAD_TEST_DEFAULT_CONCURRENCY;
+        int duration = Config.LOAD_TEST_DEFAULT_DURATION;
+        
+        try {
+            if (args.length > 2) {
+                concurrency = parseNumber(args[2], "počet klientů");
+            }
+            
+            if (args.length > 3) {
+                duration = parseNumber(args[3], "doba měření");
+            }
+        }
+        catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            help();
+            return;
+        }
+        
+        FileIoHandler fileIoHandler = FileIoHandler.getInstance();
+        LoadGenerator loadGenerator = new LoadGenerator(args[0].trim(), concurrency, duration);
+        loadGenerator.run(fileIoHandler.openCorpus(args[1].trim()));
+        System.exit(0);
+    }
+    
+    /**
+     * Změří škálovatelnost klasifikace dokumentů korpusu s počtem vláken
+     * sdílejících jeden klasifikační model.
+     * 
+     * @param args argumenty měření (model, korpus a volitelně nejvyšší
+     * počet vláken a doba měření)
+     * @throws IOException
+     * @throws ClassNotFoundException 
+     */
+    private static void scaling(String[] args) throws IOException, ClassNotFoundException {
+        int maxThreadCount = Runtime.getRuntime().availableProcessors();
+        int duration = Config.SCALING_BENCHMARK_DEFAULT_DURATION;
+        
+        try {
+            if (args.length > 2) {
+                maxThreadCount = parseNumber(args[2], "nejvyšší počet vláken");
+            }
+            
+            if (args.length > 3) {
+                duration = parseNumber(args[3], "doba měření");
+            }
+        }
+        catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            help();
+            return;
+        }
+        
+        FileIoHandler fileIoHandler = FileIoHandler.getInstance();
+        ClassificationModel classificationModel = fileIoHandler.loadClassificationModel(args[0].trim());
+        ScalingBenchmark scalingBenchmark = new ScalingBenchmark(classificationModel, maxThreadCount, duration);
+        scalingBenchmark.run(fileIoHandler.openCorpus(args[1].trim()));
+        System.exit(0);
+    }
+    
+    /**
+     * Změří trénování, uložení, načtení a klasifikaci modelů všech kombinací
+     * algoritmů a vypíše výsledky ve formátu JSON.
+     * 
+     * @param args argumenty měření (trénovací a testovací množina a volitelně
+     * nejvyšší počet vláken a doba měření)
+     * @throws IOException
+     * @throws ClassNotFoundException 
+     */
+    private static void endToEnd(String[] args) throws IOException, ClassNotFoundException {
+        int maxThreadCount = Runtime.getRuntime().availableProcessors();
+        int duration = Config.END_TO_END_BENCHMARK_DEFAULT_DURATION;
+        
+        try {
+            if (args.length > 2) {
+                maxThreadCount = parseNumber(args[2], "nejvyšší počet vláken");
+            }
+            
+            if (args.length > 3) {
+                duration = parseNumber(args[3], "doba měření");
+            }
+        }
+        catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            help();
+            return;
+        }
+        
+        EndToEndBenchmark endToEndBenchmark = new EndToEndBenchmark(args[0].trim(), args[1].trim(),
+                maxThreadCount, duration);
+        endToEndBenchmark.run();
+        System.exit(0);
+    }
+    
+    /**
+     * Porovná klasifikaci dokumentů korpusu více samostatně načtenými
+     * modely a modely v registru se sdílenými komponentami.
+     * 
+     * @param args argumenty porovnání (korpus a modely)
+     * @throws IOException
+     * @throws ClassNotFoundException 
+     */
+    private static void registryBenchmark(String[] args) throws IOException, ClassNotFoundException {
+        FileIoHandler fileIoHandler = FileIoHandler.getInstance();
+        List<String> modelPaths = new ArrayList<>();
+        
+        for (int i = 1; i < args.length; i++) {
+            modelPaths.add(args[i].trim());
+        }
+        
+        RegistryBenchmark registryBenchmark = new RegistryBenchmark(modelPaths, Config.REGISTRY_BENCHMARK_DURATION);
+        registryBenchmark.run(fileIoHandler.openCorpus(args[0].trim()));
+        System.exit(0);
+    }
+    
+    /**
+     * Spustí vyhodnocení předčasného ukončení skórování naivním Bayesovým
+     * klasifikátorem.
+     * 
+     * @param args argumenty režimu vyhodnocení (model, korpus a volitelně
+     * vyhodnocované rozhodující náskoky)
+     * @throws IOException
+     * @throws ClassNotFoundException 
+     */
+    private static void earlyExit(String[] args) throws IOException, ClassNotFoundException {
+        double[] margins = args.length > 2 ? new double[args.length - 2]
+                : new double[] { Config.NAIVE_BAYES_EARLY_EXIT_MARGIN / 2, Config.NAIVE_BAYES_EARLY_EXIT_MARGIN,
+                    Config.NAIVE_BAYES_EARLY_EXIT_MARGIN * 2 };
+        
+        try {
+            for (int i = 2; i < args.length; i++) {
+                margins[i - 2] = Double.parseDouble(args[i]);
+                
+                if (!(margins[i - 2] > 0)) {
+                    throw new NumberFormatException();
+                }
+            }
+        }
+        catch (NumberFormatException ex) {
+            System.err.println("Neplatný rozhodující náskok, očekáváno kladné číslo.");
+            help();
+            return;
+        }
+        
+        FileIoHandler fileIoHandler = FileIoHandler.getInstance();
+        ClassificationModel classificationModel = fileIoHandler.loadClassificationModel(args[0].trim());
+        EarlyExitEvaluation earlyExitEvaluation = new EarlyExitEvaluation(classificationModel, margins);
+        earlyExitEvaluation.run(fileIoHandler.openCorpus(args[1].trim()));
+        System.exit(0);
+    }
+    
+    /**
+     * Spustí vyhodnocení kaskády klasifikátorů pro různé meze jistoty.
+     * 
+     * @param args argumenty režimu vyhodnocení (model, korpus a volitelně
+     * vyhodnocované meze jistoty)
+     * @throws IOException
+     * @throws ClassNotFoundException 
+     */
+    private static void cascade(String[] args) throws IOException, ClassNotFoundException {
+        double[] thresholds = args.length > 2 ? new double[args.length - 2]
+                : new double[] { 0.5, 0.8, 0.9, 0.95, 0.99, 0.999 };
+        
+        try {
+            for (int i = 2; i < args.length; i++) {
+                thresholds[i - 2] = Double.parseDouble(args[i]);
+                
+                if (!(thresholds[i - 2] >= 0)) {
+                    throw new NumberFormatException();
+                }
+            }
+        }
+        catch (NumberFormatException ex) {
+            System.err.println("Neplatná mez jistoty, očekáváno nezáporné číslo.");
+            help();
+            return;
+        }
+        
+        FileIoHandler fileIoHandler = FileIoHandler.getInstance();
+        ClassificationModel classificationModel = fileIoHandler.loadClassificationModel(args[0].trim());
+        CascadeEvaluation cascadeEvaluation = new CascadeEvaluation(classificationModel, thresholds);
+        cascadeEvaluation.run(fileIoHandler.openCorpus(args[1].trim()));
+        System.exit(0);
+    }
+    
+    /**
+     * Ověří, že všechny argumenty začínající dvěma pomlčkami jsou známé
+     * přepínače (jinak by překlep v přepínači zůstal bez povšimnutí).
+     * 
+     * @param args argumenty režimu
+     * @param switches známé přepínače režimu
+     */
+    private static void checkSwitches(String[] args, String... switches) {
+        for (String arg : args) {
+            if (arg.startsWith("--") && !Arrays.asList(switches).contains(arg)) {
+                throw new IllegalArgumentException("Neplatný přepínač: " + arg);
+            }
+        }
+    }
+    
+    /**
+     * Vrátí argumenty režimu bez přepínačů (argumentů začínajících dvěma
+     * pomlčkami) a ověří jejich počet.
+     * 
+     * @param args argumenty režimu
+     * @param min nejmenší počet argumentů bez přepínačů
+     * @param max největší počet argumentů bez přepínačů
+     * @return argumenty bez přepínačů
+     */
+    private static String[] getPositionalArgs(String[] args, int min, int max) {
+        String[] positionalArgs = Arrays.stream(args).filter(arg -> !arg.startsWith("--")).toArray(String[]::new);
+        
+        if (positionalArgs.length < min || positionalArgs.length > max) {
+            throw new IllegalArgumentException("Neplatný počet argumentů: " + positionalArgs.length);
+        }
+        
+        return positionalArgs;
+    }
+    
+    /**
+     * Převede zadaný argument na kladné celé číslo.
+     * 
+     * @param value hodnota argumentu
+     * @param name název argumentu pro chybové hlášení
+     * @return číslo
+     */
+    private static int parseNumber(String value, String name) {
+        try {
+            int number = Integer.parseInt(value.trim());
+            
+            if (number > 0) {
+                return number;
+            }
+        }
+        catch (NumberFormatException ex) {
+            // ošetřeno níže
+        }
+        
+        throw new IllegalArgumentException("Neplatná hodnota argumentu (" + name + "): " + value);
+    }
+    
+    /**
+     * Spustí GUI v režimu ručního zadávání textu. Třída GUI je načtena
+     * reflexí, takže ostatní režimy lze spustit i bez JavaFX.
+     * 
+     * @param args argumenty příkazové řádky (název modelu)
+     * @throws IOException 
+     */
+    private static void gui(String[] args) throws IOException {
+        Method main;
+        
+        try {
+            main = Class.forName(Config.GUI_MAIN_CLASS).getMethod("main", String[].class);
+        }
+        catch (ClassNotFoundException | LinkageError ex) {
+            System.err.println("GUI není k dispozici (program byl sestaven bez GUI, nebo chybí JavaFX).");
+            
+            return;
+        }
+        catch (NoSuchMethodException ex) {
+            throw new IOException("Třída GUI nemá metodu main: " + Config.GUI_MAIN_CLASS, ex);
+        }
+        
+        try {
+            main.invoke(null, (Object) args);
+        }
+        catch (IllegalAccessException | InvocationTargetException ex) {
+            throw new IOException("GUI nelze spustit.", ex.getCause() != null ? ex.getCause() : ex);
+        }
+    }
+    
+    /**
+     * Vypíše nápovědu ke spuštění programu.
+     */
+    private static void help() {
+        System.out.printf("\n");
+        System.out.printf("Program pro klasifikaci dokumentů (Verze 1.0)\n");
+        System.out.printf("Semestrální práce z předmětu \"Umělá inteligence a rozpoznávání\" (KIV/UIR)\n");
+        System.out.printf("Autor: Petr Kozler (A13B0359P), 2017\n");
+        System.out.printf("\n");
+        System.out.printf("Použití:   " + Config.EXECUTABLE_NAME +
+                " [<trénovací množina> <testovací množina> <parametrizační algoritmus> <klasifikační algoritmus>] <název modelu>\n");
+        System.out.printf("Popis parametrů:\n");
+        System.out.printf("    <trénovací množina> ........... cesta k adresáři s dokumenty pro natrénování klasifikačního modelu\n");
+        System.out.printf("    <testovací množina> ........... cesta k adresáři s dokumenty pro otestování klasifikačního modelu\n");
+        System.out.printf("    <parametrizační algoritmus> ... identifikátor parametrizačního algoritmu (možnosti: -o, -p, -s)\n");
+        System.out.printf("    <klasifikační algoritmus> ..... identifikátor klasifikačního algoritmu (možnosti: -b, -n, -r, -c)\n");
+        System.out.printf("    <název modelu> ................ název souboru (bez přípony) klasifikačního modelu - povinné\n");
+        System.out.printf("\n");
+        System.out.printf("Zabalení korpusu:   " + Config.EXECUTABLE_NAME + " --pack <adresář s dokumenty> <název korpusu>\n");
+        System.out.printf("    (trénovací a testovací množinu lze poté zadat jako <název korpusu>"
+                + Config.PACKED_CORPUS_EXTENSION + ")\n");
+        System.out.printf("Syntetický korpus:   " + Config.EXECUTABLE_NAME
+                + " --generate-corpus <zdrojový korpus> <počet dokumentů> <výstup> [přepínače]\n");
+        System.out.printf("    <výstup> ....................... adresář, nebo <název korpusu>" + Config.PACKED_CORPUS_EXTENSION
+                + " pro zabalený korpus\n");
+        System.out.printf("    -e, --seed <číslo> ............. semínko generátoru náhodných čísel (výchozí: 1)\n");
+        System.out.printf("    -l, --length-scale <násobek> ... násobek střední délky dokumentu (výchozí: 1)\n");
+        System.out.printf("    -d, --length-spread <násobek> .. násobek rozptylu délek dokumentů (výchozí: 1, 0 pro stejné délky)\n");
+        System.out.printf("    -k, --class-skew <exponent> .... nerovnoměrnost tříd (výchozí: 1 jako zdrojový korpus, 0 rovnoměrně)\n");
+        System.out.printf("    -v, --new-words <podíl> ........ podíl slov nahrazených novými slovními tvary (výchozí: 0)\n");
+        System.out.printf("\n");
+        System.out.printf("Dávková klasifikace:   " + Config.EXECUTABLE_NAME
+                + " --batch <název modelu> <vstup> [přepínače]\n");
+        System.out.printf("    <vstup> ....................... adresář s dokumenty, zabalený korpus, soubor se seznamem cest,\n");
+        System.out.printf("                                    nebo - pro standardní vstup (dokument na řádek nebo JSON {\"id\", \"text\"})\n");
+        System.out.printf("    -t, --threads <počet> ......... počet pracovních vláken (výchozí: počet procesorů)\n");
+        System.out.printf("    -u, --unordered ............... vypisovat výsledky v pořadí dokončení místo pořadí vstupu\n");
+        System.out.printf("    -j, --jsonl ................... vypisovat výsledky jako objekty JSON (jeden na řádek)\n");
+        System.out.printf("    -w, --output <soubor> ......... zapsat výsledky do souboru místo na standardní výstup\n");
+        System.out.printf("\n");
+        System.out.printf("Klasifikační služba:   " + Config.EXECUTABLE_NAME
+                + " --serve <název modelu> [port] [kontrolní množina] [--cache] [--near-duplicates] [--micro-batch] [--priority-lanes]\n");
+        System.out.printf("    (POST /classify, POST /classify/batch, GET /health, GET /ready; výchozí port: "
+                + Config.SERVER_DEFAULT_PORT + ")\n");
+        System.out.printf("    (změněný soubor modelu je načten za běhu; je-li zadána kontrolní množina,\n");
+        System.out.printf("     nová verze je použita jen tehdy, pokud úspěšnost její klasifikace výrazně neklesla)\n");
+        System.out.printf("    (--cache: opakovaně zaslané dokumenty jsou vráceny z mezipaměti výsledků)\n");
+        System.out.printf("    (--near-duplicates: téměř shodné dokumenty převezmou výsledek dříve klasifikovaného)\n");
+        System.out.printf("    (--micro-batch: souběžně klasifikované dokumenty jsou slučovány do dávek podle délky fronty)\n");
+        System.out.printf("    (--priority-lanes: /classify má přednost před /classify/batch, jehož požadavky jsou\n");
+        System.out.printf("     při překročení doby odezvy interaktivních požadavků odmítány; hlavička X-Priority: bulk\n");
+        System.out.printf("     přesune do hromadného pruhu i požadavek na /classify, zvýšit prioritu nelze)\n");
+        System.out.printf("Klasifikační proces:   " + Config.EXECUTABLE_NAME
+                + " --worker <název modelu> [cesta k unixovému socketu] [--warmup]\n");
+        System.out.printf("    (požadavky a odpovědi jsou řádky JSON {\"id\", \"text\"} a {\"id\", \"class\", \"scores\"}\n");
+        System.out.printf("     na standardním vstupu a výstupu nebo ve spojeních přes socket)\n");
+        System.out.printf("    (--warmup: před přijímáním požadavků načíst celý model do paměti a zahřát skórování)\n");
+        System.out.printf("Zahřátí a doba do první klasifikace:   " + Config.EXECUTABLE_NAME
+                + " --warmup <název modelu> [nejdelší doba zahřívání v ms]\n");
+        System.out.printf("    (zkušební běh pro archiv tříd: java -XX:ArchiveClassesAtExit=<archiv> ... --warmup,\n");
+        System.out.printf("     další spuštění poté s parametrem JVM -XX:SharedArchiveFile=<archiv>)\n");
+        System.out.printf("Měření doby do první klasifikace:   " + Config.EXECUTABLE_NAME
+                + " --startup-benchmark <název modelu> <korpus> [počet spuštění procesu]\n");
+        System.out.printf("Porovnání s procesem pro každý dokument:   " + Config.EXECUTABLE_NAME
+                + " --worker-benchmark <název modelu> <korpus> [počet spuštění procesu]\n");
+        System.out.printf("Zátěžový test služby:   " + Config.EXECUTABLE_NAME
+                + " --load-test <adresa serveru> <korpus> [počet klientů] [doba měření v s]\n");
+        System.out.printf("Měření škálovatelnosti:   " + Config.EXECUTABLE_NAME
+                + " --scaling <název modelu> <korpus> [nejvyšší počet vláken] [doba měření v s]\n");
+        System.out.printf("Měření celého zpracování:   " + Config.EXECUTABLE_NAME
+                + " --end-to-end <trénovací množina> <testovací množina> [nejvyšší počet vláken] [doba měření v s]\n");
+        System.out.printf("    (trénování, uložení, načtení a klasifikace pro všechny kombinace algoritmů;\n");
+        System.out.printf("     výsledky ve formátu JSON na standardní výstup, průběh na standardní chybový výstup)\n");
+        System.out.printf("Registr více modelů:   " + Config.EXECUTABLE_NAME
+                + " --registry-benchmark <korpus> <název modelu> <název modelu>...\n");
+        System.out.printf("    (porovnání paměti a doby klasifikace samostatných modelů a modelů se sdílenými\n");
+        System.out.printf("     čítači slov, seznamy stop-slov a afixů, slovníky a jednou tokenizací dokumentu)\n");
+        System.out.printf("Předčasné ukončení skórování:   " + Config.EXECUTABLE_NAME
+                + " --early-exit <název modelu> <korpus> [rozhodující náskok...]\n");
+        System.out.printf("    (porovnání s úplným skórováním naivním Bayesovým klasifikátorem)\n");
+        System.out.printf("Vyhodnocení kaskády:   " + Config.EXECUTABLE_NAME
+                + " --cascade <název modelu> <korpus> [mez jistoty...]\n");
+        System.out.printf("    (model vytvořený s klasifikačním algoritmem -c)\n");
+        System.out.printf("\n");
+        
+        System.exit(0);
+    }
+
+    /**
+     * Spustí aplikaci v režimu vytváření klasifikačního modelu, v některém
+     * z režimů bez GUI nebo v režimu ručního zadávání textu pomocí GUI,
+     * nebo vypíše nápovědu
+     * ke spuštění programu v závislosti na počtu zadaných
+     * argumentů příkazové řádky
+     * 
+     * @param args argumenty příkazové řádky
+     * @throws IOException
+     * @throws FileNotFoundException
+     * @throws ClassNotFoundException
+     */
+    public static void main(String[] args)
+            throws IOException, FileNotFoundException, ClassNotFoundException {
+        if (args.length == 3 && "--pack".equals(args[0])) {
+            pack(args[1], args[2]);
+            return;
+        }
+        
+        if (args.length >= 4 && "--generate-corpus".equals(args[0])) {
+            generateCorpus(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        
+        if (args.length >= 3 && "--batch".equals(args[0])) {
+            batch(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        
+        if (args.length >= 2 && args.length <= 8 && "--serve".equals(args[0])) {
+            serve(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        
+        if (args.length >= 2 && args.length <= 4 && "--worker".equals(args[0])) {
+            worker(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        
+        if ((args.length == 2 || args.length == 3) && "--warmup".equals(args[0])) {
+            warmup(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        
+        if ((args.length == 3 || args.length == 4) && "--startup-benchmark".equals(args[0])) {
+            startupBenchmark(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        
+        if ((args.length == 3 || args.length == 4) && "--worker-benchmark".equals(args[0])) {
+            workerBenchmark(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        
+        if (args.length >= 3 && args.length <= 5 && "--load-test".equals(args[0])) {
+            loadTest(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        
+        if (args.length >= 3 && args.length <= 5 && "--scaling".equals(args[0])) {
+            scaling(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        
+        if (args.length >= 3 && args.length <= 5 && "--end-to-end".equals(args[0])) {
+            endToEnd(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        
+        if (args.length >= 3 && "--registry-benchmark".equals(args[0])) {
+            registryBenchmark(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        
+        if (args.length >= 3 && "--early-exit".equals(args[0])) {
+            earlyExit(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        
+        if (args.length >= 3 && "--cascade".equals(args[0])) {
+            cascade(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        
+        switch (args.length) {
+            case 0:
+                help();
+                break;
+            case 1:
+                gui(args);
+                break;
+            case 5:
+                cmdArg = new CmdArg(
+                        args[0], args[1], args[2], args[3], args[4]);
+                create();
+                break;
+            default:
+                System.err.println("Neplatný počet argumentů.");
+                help();
+                break;
+        }
+    }
+    
+}
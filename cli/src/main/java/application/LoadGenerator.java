@@ -0,0 +1,252 @@
+package application;
+
+import application.helpers.ACorpus;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Třída, sloužící k zátěžovému testu HTTP serveru klasifikační služby.
+ * Zadaný počet klientů v uzavřené smyčce posílá dokumenty korpusu
+ * ke klasifikaci, přičemž po úvodním zahřátí serveru jsou měřeny
+ * doby odezvy všech požadavků. Nakonec je vypsána propustnost
+ * (požadavky za sekundu) a percentily doby odezvy.
+ *
+ * @author Petr Kozler
+ */
+public class LoadGenerator {
+
+    /**
+     * adresa rozhraní pro klasifikaci jednoho dokumentu
+     */
+    private final URI ENDPOINT;
+
+    /**
+     * počet souběžných klientů
+     */
+    private final int CONCURRENCY;
+
+    /**
+     * doba měření v sekundách
+     */
+    private final int DURATION;
+
+    /**
+     * HTTP klient sdílený všemi klienty testu
+     */
+    private final HttpClient CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    /**
+     * počet neúspěšných požadavků
+     */
+    private final AtomicLong ERROR_COUNT = new AtomicLong();
+
+    /**
+     * Vytvoří zátěžový test.
+     *
+     * @param url adresa serveru (např. http://localhost:8080)
+     * @param concurrency počet souběžných klientů
+     * @param duration doba měření v sekundách
+     */
+    public LoadGenerator(String url, int concurrency, int duration) {
+        ENDPOINT = URI.create(url.replaceAll("/+$", "") + "/classify");
+        CONCURRENCY = concurrency;
+        DURATION = duration;
+    }
+
+    /**
+     * Spustí zátěžový test s dokumenty zadaného korpusu a vypíše výsledky.
+     *
+     * @param corpus korpus dokumentů posílaných ke klasifikaci
+     * @throws IOException
+     */
+    public void run(ACorpus corpus) throws IOException {
+        List<byte[]> documents = new ArrayList<>(corpus.size());
+
+        for (int i = 0; i < corpus.size(); i++) {
+            ByteBuffer bytes = corpus.loadBytes(i);
+            byte[] document = new byte[bytes.remaining()];
+            bytes.duplicate().get(document);
+            documents.add(document);
+        }
+
+        if (documents.isEmpty()) {
+            throw new IOException("Korpus pro zátěžový test neobsahuje žádné dokumenty.");
+        }
+
+        System.out.println("==================================================\n"
+                + "Spuštěn zátěžový test: " + ENDPOINT + "\n"
+                + "(klientů: " + CONCURRENCY + ", zahřívání: " + Config.LOAD_TEST_WARMUP_DURATION
+                + " s, měření: " + DURATION + " s, dokumentů: " + documents.size() + ")\n");
+
+        long start = System.nanoTime();
+        long measureStart = start + Config.LOAD_TEST_WARMUP_DURATION * 1_000_000_000L;
+        long end = measureStart + DURATION * 1_000_000_000L;
+        LatencyRecorder[] recorders = new LatencyRecorder[CONCURRENCY];
+        Thread[] clients = new Thread[CONCURRENCY];
+
+        for (int i = 0; i < CONCURRENCY; i++) {
+            LatencyRecorder recorder = new LatencyRecorder();
+            int offset = i * documents.size() / CONCURRENCY;
+            recorders[i] = recorder;
+            clients[i] = new Thread(() -> sendRequests(documents, offset, measureStart, end, recorder),
+                    "load-client-" + i);
+            clients[i].start();
+        }
+
+        try {
+            for (Thread client : clients) {
+                client.join();
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Zátěžový test byl přerušen.");
+        }
+
+        printReport(recorders);
+    }
+
+    /**
+     * Posílá dokumenty ke klasifikaci až do konce testu (činnost jednoho klienta).
+     *
+     * @param documents dokumenty
+     * @param offset pozice prvního dokumentu (klienti začínají na různých místech)
+     * @param measureStart začátek měření (po zahřátí)
+     * @param end konec testu
+     * @param recorder záznam dob odezvy klienta
+     */
+    private void sendRequests(List<byte[]> documents, int offset, long measureStart, long end,
+            LatencyRecorder recorder) {
+        int index = offset;
+        long now;
+
+        while ((now = System.nanoTime()) < end) {
+            byte[] document = documents.get(index++ % documents.size());
+            HttpRequest request = HttpRequest.newBuilder(ENDPOINT)
+                    .header("Content-Type", "text/plain; charset=utf-8")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(document))
+                    .build();
+            boolean success;
+
+            try {
+                HttpResponse<byte[]> response = CLIENT.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                success = response.statusCode() == 200;
+            }
+            catch (IOException ex) {
+                success = false;
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            long finished = System.nanoTime();
+
+            // požadavky odeslané během zahřívání se nezapočítávají
+            if (now < measureStart) {
+                continue;
+            }
+
+            if (success) {
+                recorder.record(finished - now);
+            }
+            else {
+                ERROR_COUNT.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Vypíše propustnost a percentily doby odezvy.
+     *
+     * @param recorders záznamy dob odezvy všech klientů
+     */
+    private void printReport(LatencyRecorder[] recorders) {
+        int count = 0;
+
+        for (LatencyRecorder recorder : recorders) {
+            count += recorder.count;
+        }
+
+        long[] latencies = new long[count];
+        int position = 0;
+
+        for (LatencyRecorder recorder : recorders) {
+            System.arraycopy(recorder.latencies, 0, latencies, position, recorder.count);
+            position += recorder.count;
+        }
+
+        Arrays.sort(latencies);
+
+        System.out.println("--- Výsledky zátěžového testu ---");
+        System.out.println("Úspěšných požadavků: " + count);
+        System.out.println("Neúspěšných požadavků: " + ERROR_COUNT.get());
+        System.out.printf("Propustnost: %.1f požadavků/s\n", (double) count / DURATION);
+
+        if (count > 0) {
+            System.out.printf("Doba odezvy: p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms\n",
+                    getPercentile(latencies, 50), getPercentile(latencies, 90),
+                    getPercentile(latencies, 99), getPercentile(latencies, 99.9),
+                    latencies[count - 1] / 1e6);
+        }
+
+        System.out.println("--- HOTOVO ---");
+    }
+
+    /**
+     * Vrátí percentil seřazených dob odezvy v milisekundách.
+     *
+     * @param latencies seřazené doby odezvy v nanosekundách
+     * @param percentile percentil
+     * @return doba odezvy v milisekundách
+     */
+    private double getPercentile(long[] latencies, double percentile) {
+        int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+
+        return latencies[Math.max(0, Math.min(latencies.length - 1, index))] / 1e6;
+    }
+
+    /**
+     * Třída, představující záznam dob odezvy jednoho klienta.
+     */
+    private static class LatencyRecorder {
+
+        /**
+         * doby odezvy v nanosekundách
+         */
+        long[] latencies = new long[1 << 12];
+
+        /**
+         * počet zaznamenaných dob odezvy
+         */
+        int count;
+
+        /**
+         * Zaznamená dobu odezvy.
+         *
+         * @param latency doba odezvy v nanosekundách
+         */
+        void record(long latency) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+
+            latencies[count++] = latency;
+        }
+
+    }
+
+}
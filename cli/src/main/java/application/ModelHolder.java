@@ -0,0 +1,390 @@
+package application;
+
+import application.classification.ClassificationContext;
+import application.classification.NearDuplicateIndex;
+import application.containers.ClassificationModel;
+import application.containers.ScoreMatrix;
+import application.helpers.ACorpus;
+import application.helpers.FileIoHandler;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Třída, představující správce klasifikačního modelu se záměnou za běhu.
+ * Správce sleduje soubor modelu a po jeho změně načte novou verzi na pozadí,
+ * zatímco klasifikace dále používají původní verzi. Nová verze je ověřena
+ * klasifikací kontrolní množiny dokumentů a poté atomicky zaměněna za
+ * aktuální. Původní verze je uvolněna až po dokončení všech rozpracovaných
+ * klasifikací, které ji používají.
+ *
+ * @author Petr Kozler
+ */
+public class ModelHolder implements Closeable {
+
+    /**
+     * cesta k souboru modelu (bez přípony)
+     */
+    private final String PATH;
+
+    /**
+     * soubor modelu
+     */
+    private final Path MODEL_FILE;
+
+    /**
+     * kontrolní množina dokumentů pro ověření nové verze (nebo null)
+     */
+    private final ACorpus SMOKE_TEST_SET;
+
+    /**
+     * počet dosud načtených verzí
+     */
+    private final AtomicLong VERSION_COUNT = new AtomicLong();
+
+    /**
+     * počet úspěšných záměn modelu za běhu
+     */
+    private final AtomicLong RELOAD_COUNT = new AtomicLong();
+
+    /**
+     * počet odmítnutých nebo neúspěšně načtených verzí
+     */
+    private final AtomicLong FAILED_RELOAD_COUNT = new AtomicLong();
+
+    /**
+     * počet zaměněných verzí, které ještě nebyly uvolněny
+     */
+    private final AtomicInteger RETIRED_VERSION_COUNT = new AtomicInteger();
+
+    /**
+     * aktuální verze modelu (nebo null, dokud není načtena)
+     */
+    private volatile ModelVersion current;
+
+    /**
+     * doba posledního načtení, ověření a záměny modelu v milisekundách
+     */
+    private volatile long lastReloadDuration = -1;
+
+    /**
+     * čas poslední záměny verzí
+     */
+    private volatile long lastSwapTime;
+
+    /**
+     * doba od poslední záměny do uvolnění původní verze v milisekundách
+     * (čekání na dokončení rozpracovaných klasifikací)
+     */
+    private volatile long lastReleaseDelay = -1;
+
+    /**
+     * příznak převzetí výsledků téměř shodných dokumentů
+     */
+    private volatile boolean nearDuplicateDetection;
+
+    /**
+     * služba sledující změny v adresáři modelu (nebo null, dokud není spuštěna)
+     */
+    private WatchService watchService;
+
+    /**
+     * Vytvoří správce modelu.
+     *
+     * @param path cesta k souboru modelu (bez přípony)
+     * @param smokeTestSet kontrolní množina dokumentů (nebo null)
+     */
+    public ModelHolder(String path, ACorpus smokeTestSet) {
+        PATH = path;
+        MODEL_FILE = Paths.get(path + Config.CLASSIFY_MODEL_EXTENSION).toAbsolutePath();
+        SMOKE_TEST_SET = smokeTestSet;
+    }
+
+    /**
+     * Zapne nebo vypne převzetí výsledků téměř shodných dokumentů pro
+     * verze modelu načtené od této chvíle (každá verze má vlastní index
+     * otisků, změnou modelu jsou proto uložené výsledky zneplatněny).
+     *
+     * @param nearDuplicateDetection true pro převzetí výsledků
+     */
+    public void setNearDuplicateDetection(boolean nearDuplicateDetection) {
+        this.nearDuplicateDetection = nearDuplicateDetection;
+    }
+
+    /**
+     * Načte první verzi modelu a spustí sledování změn souboru modelu.
+     *
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    public synchronized void start() throws IOException, ClassNotFoundException {
+        long start = System.nanoTime();
+        ClassificationModel classificationModel = FileIoHandler.getInstance().loadClassificationModel(PATH);
+        double accuracy = validate(classificationModel, null);
+        swap(classificationModel, accuracy, start);
+
+        watchService = FileSystems.getDefault().newWatchService();
+        MODEL_FILE.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        Thread watcher = new Thread(this::watch, "model-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Ukončí sledování změn souboru modelu.
+     *
+     * @throws IOException
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    /**
+     * Vrátí aktuální verzi modelu s přidaným odkazem. Volající musí
+     * po dokončení klasifikace odkaz uvolnit metodou {@link ModelVersion#release()}.
+     *
+     * @return verze modelu (nebo null, dokud není načtena)
+     */
+    public ModelVersion acquire() {
+        while (true) {
+            ModelVersion version = current;
+
+            // verze mohla být mezitím zaměněna a uvolněna, pak se použije nová
+            if (version == null || version.retain()) {
+                return version;
+            }
+        }
+    }
+
+    /**
+     * Načte novou verzi modelu ze souboru, ověří ji a zamění za aktuální.
+     * Při chybě nebo neúspěšném ověření zůstává v platnosti původní verze.
+     *
+     * @return true, pokud byla verze zaměněna
+     */
+    public synchronized boolean reload() {
+        long start = System.nanoTime();
+        System.out.println("==================================================\n"
+                + "Zjištěna změna souboru modelu: " + MODEL_FILE + "\n");
+
+        try {
+            ClassificationModel classificationModel = FileIoHandler.getInstance().loadClassificationModel(PATH);
+            double accuracy = validate(classificationModel, current);
+            swap(classificationModel, accuracy, start);
+            RELOAD_COUNT.incrementAndGet();
+
+            return true;
+        }
+        catch (IOException | ClassNotFoundException | RuntimeException ex) {
+            FAILED_RELOAD_COUNT.incrementAndGet();
+            System.out.println("Nová verze modelu byla odmítnuta, zůstává verze " + getVersion()
+                    + ": " + ex.getMessage());
+
+            return false;
+        }
+    }
+
+    /**
+     * Vrátí pořadové číslo aktuální verze modelu.
+     *
+     * @return číslo verze (nebo 0, dokud není model načten)
+     */
+    public long getVersion() {
+        ModelVersion version = current;
+
+        return version != null ? version.VERSION : 0;
+    }
+
+    /**
+     * Vrátí metriky záměn modelu za běhu.
+     *
+     * @return metriky (název a hodnota)
+     */
+    public Map<String, Object> getMetrics() {
+        ModelVersion version = current;
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("version", version != null ? version.VERSION : 0);
+        metrics.put("name", version != null ? version.NAME : null);
+        metrics.put("loadedTime", version != null ? version.LOADED_TIME : null);
+        metrics.put("smokeTestAccuracy", version != null && version.SMOKE_TEST_ACCURACY >= 0
+                ? version.SMOKE_TEST_ACCURACY : null);
+        metrics.put("reloads", RELOAD_COUNT.get());
+        metrics.put("failedReloads", FAILED_RELOAD_COUNT.get());
+        metrics.put("pendingReleases", RETIRED_VERSION_COUNT.get());
+        metrics.put("lastReloadMillis", lastReloadDuration);
+        metrics.put("lastReleaseMillis", lastReleaseDelay);
+
+        if (version != null && version.NEAR_DUPLICATE_INDEX != null) {
+            metrics.put("nearDuplicates", version.NEAR_DUPLICATE_INDEX.getMetrics());
+        }
+
+        return metrics;
+    }
+
+    /**
+     * Sleduje změny souboru modelu (činnost sledovacího vlákna). Souvislá
+     * řada změn (zápis souboru) vyvolá jediné načtení až po jejím skončení.
+     */
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = isModelChanged(key);
+
+                // vyčkání na dokončení zápisu souboru
+                while (changed && (key = watchService.poll(
+                        Config.MODEL_RELOAD_DEBOUNCE, TimeUnit.MILLISECONDS)) != null) {
+                    isModelChanged(key);
+                }
+
+                if (changed) {
+                    reload();
+                }
+            }
+        }
+        catch (ClosedWatchServiceException ex) {
+            // sledování bylo ukončeno
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Zpracuje události sledování adresáře a zjistí, zda se týkají souboru modelu.
+     *
+     * @param key klíč s událostmi
+     * @return true, pokud se změnil soubor modelu
+     */
+    private boolean isModelChanged(WatchKey key) {
+        boolean changed = false;
+
+        for (WatchEvent<?> event : key.pollEvents()) {
+            // přetečení fronty událostí může skrývat i změnu modelu
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || MODEL_FILE.getFileName().equals(event.context())) {
+                changed = true;
+            }
+        }
+
+        key.reset();
+
+        return changed;
+    }
+
+    /**
+     * Ověří verzi modelu klasifikací kontrolní množiny dokumentů. Nová verze
+     * musí klasifikovat všechny dokumenty bez chyby a její úspěšnost nesmí
+     * být o více než {@link Config#MODEL_RELOAD_MAX_ACCURACY_DROP} nižší
+     * než úspěšnost aktuální verze.
+     *
+     * @param classificationModel klasifikační model
+     * @param currentVersion aktuální verze modelu (nebo null)
+     * @return úspěšnost klasifikace kontrolní množiny (nebo -1 bez kontrolní množiny)
+     * @throws IOException pokud verze ověřením neprošla
+     */
+    private double validate(ClassificationModel classificationModel, ModelVersion currentVersion)
+            throws IOException {
+        if (SMOKE_TEST_SET == null) {
+            // alespoň ověření, že model dokáže klasifikovat
+            classificationModel.createContext().classify(ByteBuffer.allocate(0));
+
+            return -1;
+        }
+
+        ClassificationContext context = classificationModel.createContext();
+        List<ByteBuffer> batch = new ArrayList<>(Config.CLASSIFY_BATCH_SIZE);
+        int correctCount = 0;
+
+        for (int offset = 0; offset < SMOKE_TEST_SET.size(); offset += Config.CLASSIFY_BATCH_SIZE) {
+            batch.clear();
+
+            for (int i = offset; i < Math.min(offset + Config.CLASSIFY_BATCH_SIZE, SMOKE_TEST_SET.size()); i++) {
+                batch.add(SMOKE_TEST_SET.loadBytes(i));
+            }
+
+            ScoreMatrix scoreMatrix = context.classifyTextBatch(batch);
+
+            for (int i = 0; i < batch.size(); i++) {
+                if (SMOKE_TEST_SET.getClassKeyWord(offset + i).equals(scoreMatrix.getDocumentClass(i))) {
+                    correctCount++;
+                }
+            }
+        }
+
+        double accuracy = SMOKE_TEST_SET.size() > 0 ? (double) correctCount / SMOKE_TEST_SET.size() : 1;
+        System.out.printf("Úspěšnost klasifikace kontrolní množiny: %.2f %%\n", accuracy * 100);
+
+        if (currentVersion != null && currentVersion.SMOKE_TEST_ACCURACY >= 0
+                && accuracy < currentVersion.SMOKE_TEST_ACCURACY - Config.MODEL_RELOAD_MAX_ACCURACY_DROP) {
+            throw new IOException(String.format("úspěšnost klesla z %.2f %% na %.2f %%",
+                    currentVersion.SMOKE_TEST_ACCURACY * 100, accuracy * 100));
+        }
+
+        return accuracy;
+    }
+
+    /**
+     * Zamění aktuální verzi modelu za novou a uvolní odkaz na původní verzi.
+     *
+     * @param classificationModel klasifikační model nové verze
+     * @param accuracy úspěšnost klasifikace kontrolní množiny (nebo -1)
+     * @param start čas zjištění změny (pro měření doby záměny)
+     * @throws IOException
+     */
+    private void swap(ClassificationModel classificationModel, double accuracy, long start) throws IOException {
+        long versionNumber = VERSION_COUNT.incrementAndGet();
+        NearDuplicateIndex nearDuplicateIndex = !nearDuplicateDetection ? null
+                : new NearDuplicateIndex(Config.NEAR_DUPLICATE_CAPACITY,
+                        classificationModel.getClassifier().getClasses().size(),
+                        Config.NEAR_DUPLICATE_MAX_DISTANCE, Config.NEAR_DUPLICATE_MIN_TERMS,
+                        Config.NEAR_DUPLICATE_VERIFICATION_INTERVAL);
+        ModelVersion version = new ModelVersion(classificationModel,
+                FileIoHandler.getInstance().getFileNameFromPath(PATH), versionNumber, accuracy,
+                nearDuplicateIndex, () -> onReleased(versionNumber));
+        ModelVersion previous = current;
+        current = version;
+        lastReloadDuration = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("Aktivní verze modelu: " + versionNumber
+                + " (načtení a ověření: " + lastReloadDuration + " ms)");
+
+        if (previous != null) {
+            lastSwapTime = System.nanoTime();
+            RETIRED_VERSION_COUNT.incrementAndGet();
+            previous.release();
+        }
+    }
+
+    /**
+     * Zaznamená uvolnění verze modelu po dokončení jejích klasifikací.
+     *
+     * @param versionNumber číslo uvolněné verze
+     */
+    private void onReleased(long versionNumber) {
+        RETIRED_VERSION_COUNT.decrementAndGet();
+        lastReleaseDelay = (System.nanoTime() - lastSwapTime) / 1_000_000;
+        System.out.println("Uvolněna verze modelu: " + versionNumber);
+    }
+
+}
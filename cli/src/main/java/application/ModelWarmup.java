@@ -0,0 +1,159 @@
+package application;
+
+import application.classification.ClassificationContext;
+import application.classification.IncrementalClassifier;
+import application.containers.ClassificationModel;
+import application.containers.Vocabulary;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Třída, sloužící k zahřátí klasifikace načteného modelu před první
+ * skutečnou klasifikací. Klasifikuje syntetické dokumenty složené
+ * z náhodných slov slovníku modelu, takže jsou při zahřátí použity
+ * stejné části tokenizace a skórování jako při klasifikaci skutečných
+ * dokumentů: překladač JIT je přeloží předem, třídy jsou načteny
+ * a stránky souboru modelu s parametry použitých slov jsou v paměti.
+ *
+ * @author Petr Kozler
+ */
+public class ModelWarmup {
+
+    /**
+     * klasifikační model
+     */
+    private final ClassificationModel CLASSIFICATION_MODEL;
+
+    /**
+     * texty syntetických dokumentů
+     */
+    private final List<String> DOCUMENTS;
+
+    /**
+     * Vytvoří zahřátí modelu se syntetickými dokumenty podle konfigurace.
+     *
+     * @param classificationModel klasifikační model
+     */
+    public ModelWarmup(ClassificationModel classificationModel) {
+        this(classificationModel, Config.WARMUP_DOCUMENT_COUNT, Config.WARMUP_DOCUMENT_WORDS);
+    }
+
+    /**
+     * Vytvoří zahřátí modelu se zadaným počtem syntetických dokumentů.
+     *
+     * @param classificationModel klasifikační model
+     * @param documentCount počet syntetických dokumentů
+     * @param documentWords počet slov syntetického dokumentu
+     */
+    public ModelWarmup(ClassificationModel classificationModel, int documentCount, int documentWords) {
+        CLASSIFICATION_MODEL = classificationModel;
+        DOCUMENTS = createDocuments(classificationModel.getClassifier().getVocabulary(),
+                documentCount, documentWords);
+    }
+
+    /**
+     * Vrátí texty syntetických dokumentů.
+     *
+     * @return texty dokumentů
+     */
+    public List<String> getDocuments() {
+        return DOCUMENTS;
+    }
+
+    /**
+     * Klasifikuje syntetické dokumenty zadané bajty textu (jako dávková
+     * klasifikace, služba a klasifikační proces), nejdéle po zadanou dobu.
+     *
+     * @param maxDuration nejdelší doba zahřívání v milisekundách
+     * @return počet klasifikovaných dokumentů
+     */
+    public int run(long maxDuration) {
+        ClassificationContext context = CLASSIFICATION_MODEL.createContext();
+        List<ByteBuffer> texts = new ArrayList<>(DOCUMENTS.size());
+
+        for (String document : DOCUMENTS) {
+            texts.add(ByteBuffer.wrap(document.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        long end = System.nanoTime() + maxDuration * 1_000_000;
+        int count = 0;
+
+        while (count < texts.size() && System.nanoTime() < end) {
+            context.classify(texts.get(count++).duplicate());
+        }
+
+        return count;
+    }
+
+    /**
+     * Postupně „napíše“ syntetické dokumenty po slovech do samostatné
+     * průběžné klasifikace (jako při psaní textu v GUI) a po každém
+     * dokumentu jej klasifikuje celý, nejdéle po zadanou dobu.
+     *
+     * @param maxDuration nejdelší doba zahřívání v milisekundách
+     * @return počet zpracovaných dokumentů
+     */
+    public int runIncremental(long maxDuration) {
+        IncrementalClassifier incrementalClassifier = new IncrementalClassifier(CLASSIFICATION_MODEL);
+        long end = System.nanoTime() + maxDuration * 1_000_000;
+        int count = 0;
+
+        while (count < DOCUMENTS.size() && System.nanoTime() < end) {
+            String document = DOCUMENTS.get(count++);
+
+            for (int i = document.indexOf(' '); i >= 0; i = document.indexOf(' ', i + 1)) {
+                incrementalClassifier.update(document.substring(0, i));
+
+                if (incrementalClassifier.isIncremental()) {
+                    incrementalClassifier.getIncrementalClassification();
+                }
+            }
+
+            incrementalClassifier.update(document);
+            incrementalClassifier.classify();
+            incrementalClassifier.update("");
+        }
+
+        return count;
+    }
+
+    /**
+     * Vytvoří syntetické dokumenty z náhodných slov slovníku (se stálým
+     * semínkem, aby bylo zahřátí při každém spuštění stejné).
+     *
+     * @param vocabulary slovník modelu
+     * @param documentCount počet dokumentů
+     * @param documentWords počet slov dokumentu
+     * @return texty dokumentů
+     */
+    private static List<String> createDocuments(Vocabulary vocabulary, int documentCount, int documentWords) {
+        List<String> documents = new ArrayList<>(documentCount);
+
+        if (vocabulary.size() == 0) {
+            return documents;
+        }
+
+        Random random = new Random(documentCount);
+
+        for (int i = 0; i < documentCount; i++) {
+            StringBuilder document = new StringBuilder();
+
+            for (int j = 0; j < documentWords; j++) {
+                if (j > 0) {
+                    // občasný konec věty napodobuje skutečný text
+                    document.append(random.nextInt(12) == 0 ? ". " : " ");
+                }
+
+                document.append(vocabulary.get(random.nextInt(vocabulary.size())));
+            }
+
+            documents.add(document.toString());
+        }
+
+        return documents;
+    }
+
+}
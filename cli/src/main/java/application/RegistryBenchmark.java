@@ -0,0 +1,245 @@
+package application;
+
+import application.classification.ClassificationContext;
+import application.containers.ClassificationModel;
+import application.helpers.ACorpus;
+import application.helpers.FileIoHandler;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Třída, sloužící k porovnání klasifikace dokumentů více modely načtenými
+ * samostatně (každý model má vlastní komponenty a tokenizuje text sám)
+ * a modely v registru se sdílenými komponentami a jednou tokenizací
+ * pro každou konfiguraci čítače slov. Porovnává obsazenou paměť haldy
+ * (po úplném úklidu paměti, včetně zahřátých kontextů klasifikace),
+ * propustnost a procesorový čas na dokument a ověřuje shodu výsledků.
+ *
+ * @author Petr Kozler
+ */
+public class RegistryBenchmark {
+
+    /**
+     * cesty ke klasifikačním modelům
+     */
+    private final List<String> MODEL_PATHS;
+
+    /**
+     * doba měření propustnosti v sekundách
+     */
+    private final int DURATION;
+
+    /**
+     * Vytvoří porovnání.
+     *
+     * @param modelPaths cesty ke klasifikačním modelům
+     * @param duration doba měření propustnosti v sekundách
+     */
+    public RegistryBenchmark(List<String> modelPaths, int duration) {
+        MODEL_PATHS = modelPaths;
+        DURATION = duration;
+    }
+
+    /**
+     * Spustí porovnání s dokumenty zadaného korpusu a vypíše výsledky.
+     *
+     * @param corpus korpus klasifikovaných dokumentů
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    public void run(ACorpus corpus) throws IOException, ClassNotFoundException {
+        List<ByteBuffer> documents = new ArrayList<>(corpus.size());
+
+        for (int i = 0; i < corpus.size(); i++) {
+            documents.add(corpus.loadBytes(i));
+        }
+
+        if (documents.isEmpty()) {
+            throw new IOException("Korpus pro porovnání neobsahuje žádné dokumenty.");
+        }
+
+        System.out.println("==================================================\n"
+                + "Spuštěno porovnání samostatných modelů s registrem modelů:\n"
+                + "(modelů: " + MODEL_PATHS.size() + ", měření: " + DURATION
+                + " s, dokumentů: " + documents.size() + ")\n");
+
+        String[][] expected = new String[documents.size()][];
+        long baseHeap = getUsedHeap();
+        List<ClassificationContext> contexts = new ArrayList<>();
+
+        for (String path : MODEL_PATHS) {
+            contexts.add(FileIoHandler.getInstance().loadClassificationModel(path).createContext());
+        }
+
+        Measurement separate = measure(documents, expected, (document, documentClasses) -> {
+            for (int i = 0; i < documentClasses.length; i++) {
+                documentClasses[i] = contexts.get(i).classify(document.duplicate());
+            }
+        });
+        long separateHeap = getUsedHeap() - baseHeap;
+        int separateTokenizations = contexts.size();
+        contexts.clear();
+
+        baseHeap = getUsedHeap();
+        ModelRegistry registry = new ModelRegistry();
+
+        for (String path : MODEL_PATHS) {
+            ClassificationModel classificationModel = FileIoHandler.getInstance().loadClassificationModel(path);
+            registry.register(uniqueName(registry, FileIoHandler.getInstance().getFileNameFromPath(path)),
+                    classificationModel);
+        }
+
+        ModelRegistry.Context context = registry.createContext();
+        Measurement shared = measure(documents, expected, context::classify);
+        long sharedHeap = getUsedHeap() - baseHeap;
+
+        System.out.println("Modely        | halda KiB | tokenizací | dokumentů/s | CPU µs/dokument");
+        printRow("samostatné", separateHeap, separateTokenizations, separate);
+        printRow("v registru", sharedHeap, context.getTokenizationCount(), shared);
+        System.out.printf("\nÚspora: paměť haldy %.1f %%, procesorový čas %.1f %%\n",
+                100.0 * (separateHeap - sharedHeap) / separateHeap,
+                100.0 * (separate.cpuMicros - shared.cpuMicros) / separate.cpuMicros);
+
+        Map<String, Object> metrics = registry.getMetrics();
+        System.out.println("Sdílené komponenty registru: " + metrics);
+        System.out.println("Výsledků odlišných od samostatných modelů: " + shared.mismatchCount);
+        System.out.println("--- HOTOVO ---");
+    }
+
+    /**
+     * Klasifikuje všechny dokumenty (ověření výsledků a zahřátí) a poté
+     * měří propustnost opakovanou klasifikací po zadanou dobu.
+     *
+     * @param documents dokumenty
+     * @param expected očekávané třídy dokumentů (nevyplněné se vyplní)
+     * @param classifier klasifikace dokumentu všemi modely
+     * @return výsledek měření
+     */
+    private Measurement measure(List<ByteBuffer> documents, String[][] expected, DocumentClassifier classifier) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Measurement measurement = new Measurement();
+        String[] documentClasses = new String[MODEL_PATHS.size()];
+
+        for (int i = 0; i < documents.size(); i++) {
+            classifier.classify(documents.get(i), documentClasses);
+
+            if (expected[i] == null) {
+                expected[i] = documentClasses.clone();
+            }
+            else {
+                for (int j = 0; j < documentClasses.length; j++) {
+                    if (!Objects.equals(expected[i][j], documentClasses[j])) {
+                        measurement.mismatchCount++;
+                    }
+                }
+            }
+        }
+
+        long end = System.nanoTime() + DURATION * 1_000_000_000L;
+        long start = System.nanoTime();
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        long count = 0;
+
+        for (int i = 0; System.nanoTime() < end; i = (i + 1) % documents.size()) {
+            classifier.classify(documents.get(i), documentClasses);
+            count++;
+        }
+
+        measurement.throughput = count / ((System.nanoTime() - start) / 1e9);
+        measurement.cpuMicros = (threads.getCurrentThreadCpuTime() - cpuStart) / 1e3 / count;
+
+        return measurement;
+    }
+
+    /**
+     * Vrátí obsazenou paměť haldy po úplném úklidu paměti.
+     *
+     * @return obsazená paměť v bajtech
+     */
+    private static long getUsedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+        // opakovaný úklid uvolní i objekty uvolněné až při finalizaci
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Vrátí název modelu, který dosud není v registru (pro modely se stejným
+     * názvem souboru v různých adresářích).
+     *
+     * @param registry registr modelů
+     * @param name název souboru modelu
+     * @return název modelu
+     */
+    private static String uniqueName(ModelRegistry registry, String name) {
+        String uniqueName = name;
+
+        for (int i = 2; registry.getNames().contains(uniqueName); i++) {
+            uniqueName = name + "-" + i;
+        }
+
+        return uniqueName;
+    }
+
+    /**
+     * Vypíše řádek tabulky výsledků.
+     *
+     * @param title název řádku
+     * @param heap obsazená paměť haldy v bajtech
+     * @param tokenizationCount počet tokenizací dokumentu
+     * @param measurement výsledek měření
+     */
+    private static void printRow(String title, long heap, int tokenizationCount, Measurement measurement) {
+        System.out.printf("%-13s | %9d | %10d | %11.1f | %15.1f\n", title, heap / 1024, tokenizationCount,
+                measurement.throughput, measurement.cpuMicros);
+    }
+
+    /**
+     * Rozhraní pro klasifikaci dokumentu všemi modely.
+     */
+    private interface DocumentClassifier {
+
+        /**
+         * Klasifikuje dokument všemi modely.
+         *
+         * @param document text dokumentu
+         * @param documentClasses pole pro třídy dokumentu podle modelů
+         */
+        void classify(ByteBuffer document, String[] documentClasses);
+
+    }
+
+    /**
+     * Třída, představující výsledek měření.
+     */
+    private static class Measurement {
+
+        /**
+         * počet dokumentů klasifikovaných všemi modely za sekundu
+         */
+        double throughput;
+
+        /**
+         * procesorový čas na dokument v mikrosekundách
+         */
+        double cpuMicros;
+
+        /**
+         * počet výsledků odlišných od očekávaných
+         */
+        long mismatchCount;
+
+    }
+
+}
@@ -0,0 +1,349 @@
+package application;
+
+import application.classification.ClassificationContext;
+import application.containers.ClassificationModel;
+import application.containers.ScoreMatrix;
+import application.helpers.ACorpus;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Třída, sloužící k měření škálovatelnosti klasifikace s počtem vláken.
+ * Jeden načtený klasifikační model je sdílen všemi vlákny, z nichž každé
+ * používá vlastní kontext klasifikace. Pro 1, 2, 4, ... vláken je změřena
+ * propustnost a zrychlení oproti jednomu vláknu a všechny výsledky jsou
+ * porovnány s výsledky jednovláknové klasifikace (zátěžový test bezpečnosti
+ * souběžné klasifikace).
+ *
+ * @author Petr Kozler
+ */
+public class ScalingBenchmark {
+
+    /**
+     * klasifikační model
+     */
+    private final ClassificationModel CLASSIFICATION_MODEL;
+
+    /**
+     * nejvyšší počet vláken
+     */
+    private final int MAX_THREAD_COUNT;
+
+    /**
+     * doba měření pro jeden počet vláken v sekundách
+     */
+    private final int DURATION;
+
+    /**
+     * počet výsledků, které se liší od jednovláknové klasifikace
+     */
+    private final AtomicLong MISMATCH_COUNT = new AtomicLong();
+
+    /**
+     * Vytvoří měření škálovatelnosti.
+     *
+     * @param classificationModel klasifikační model
+     * @param maxThreadCount nejvyšší počet vláken
+     * @param duration doba měření pro jeden počet vláken v sekundách
+     */
+    public ScalingBenchmark(ClassificationModel classificationModel, int maxThreadCount, int duration) {
+        CLASSIFICATION_MODEL = classificationModel;
+        MAX_THREAD_COUNT = maxThreadCount;
+        DURATION = duration;
+    }
+
+    /**
+     * Spustí měření s dokumenty zadaného korpusu a vypíše výsledky.
+     *
+     * @param corpus korpus klasifikovaných dokumentů
+     * @throws IOException
+     */
+    public void run(ACorpus corpus) throws IOException {
+        List<ByteBuffer> documents = new ArrayList<>(corpus.size());
+
+        for (int i = 0; i < corpus.size(); i++) {
+            documents.add(corpus.loadBytes(i));
+        }
+
+        if (documents.isEmpty()) {
+            throw new IOException("Korpus pro měření neobsahuje žádné dokumenty.");
+        }
+
+        // výsledky jednovláknové klasifikace (u náhodného výběru se liší, proto se neověřují)
+        String[] expected = classifyAll(documents);
+        boolean verified = Arrays.equals(expected, classifyAll(documents));
+
+        System.out.println("==================================================\n"
+                + "Spuštěno měření škálovatelnosti klasifikace:\n"
+                + "(vláken: 1 až " + MAX_THREAD_COUNT + ", měření: " + DURATION
+                + " s, dokumentů: " + documents.size() + ", procesorů: "
+                + Runtime.getRuntime().availableProcessors() + ")\n");
+
+        if (!verified) {
+            System.out.println("Výsledky klasifikace nejsou deterministické, nebudou ověřovány.\n");
+        }
+
+        System.out.println("Vláken | dokumentů/s | zrychlení | efektivita | B/dokument");
+        double baseThroughput = 0;
+
+        for (int threadCount = 1; threadCount <= MAX_THREAD_COUNT; threadCount = getNextThreadCount(threadCount)) {
+            long[] counts = new long[threadCount];
+            long[] allocations = new long[threadCount];
+            double seconds = measure(documents, verified ? expected : null, counts, allocations);
+            long count = Arrays.stream(counts).sum();
+            long allocated = Arrays.stream(allocations).sum();
+            double throughput = count / seconds;
+
+            if (threadCount == 1) {
+                baseThroughput = throughput;
+            }
+
+            double speedup = throughput / baseThroughput;
+            System.out.printf("%6d | %11.1f | %9.2f | %9.0f%% | %s\n", threadCount, throughput,
+                    speedup, 100 * speedup / threadCount,
+                    allocated < 0 ? "-" : String.valueOf(allocated / Math.max(1, count)));
+        }
+
+        if (verified) {
+            System.out.println("\nVýsledků odlišných od jednovláknové klasifikace: " + MISMATCH_COUNT.get());
+        }
+
+        compareBatchClassification(documents, verified ? expected : null);
+        System.out.println("--- HOTOVO ---");
+    }
+
+    /**
+     * Porovná propustnost jednoho vlákna při klasifikaci jednotlivých
+     * dokumentů a při dávkovém skórování bloků dokumentů.
+     *
+     * @param documents dokumenty
+     * @param expected očekávané třídy dokumentů (nebo null)
+     */
+    private void compareBatchClassification(List<ByteBuffer> documents, String[] expected) {
+        ClassificationContext context = CLASSIFICATION_MODEL.createContext();
+        List<ByteBuffer> batch = new ArrayList<>(Config.CLASSIFY_BATCH_SIZE);
+        long mismatchCount = 0;
+
+        // ověření a zahřátí dávkového skórování
+        for (int offset = 0; offset < documents.size(); offset += Config.CLASSIFY_BATCH_SIZE) {
+            ScoreMatrix scoreMatrix = context.classifyTextBatch(fillBatch(documents, offset, batch));
+
+            for (int i = 0; expected != null && i < batch.size(); i++) {
+                if (!Objects.equals(expected[offset + i], scoreMatrix.getDocumentClass(i))) {
+                    mismatchCount++;
+                }
+            }
+        }
+
+        long end = System.nanoTime() + DURATION * 1_000_000_000L;
+        long start = System.nanoTime();
+        long singleCount = 0;
+
+        for (int i = 0; System.nanoTime() < end; i = (i + 1) % documents.size()) {
+            context.classify(documents.get(i).duplicate());
+            singleCount++;
+        }
+
+        double singleThroughput = singleCount / ((System.nanoTime() - start) / 1e9);
+        end = System.nanoTime() + DURATION * 1_000_000_000L;
+        start = System.nanoTime();
+        long batchCount = 0;
+
+        for (int offset = 0; System.nanoTime() < end; offset = (offset + batch.size()) % documents.size()) {
+            context.classifyTextBatch(fillBatch(documents, offset, batch));
+            batchCount += batch.size();
+        }
+
+        double batchThroughput = batchCount / ((System.nanoTime() - start) / 1e9);
+
+        System.out.println("\nDávkové skórování (1 vlákno, bloky po " + Config.CLASSIFY_BATCH_SIZE + " dokumentech):");
+        System.out.printf("Jednotlivé dokumenty: %.1f dokumentů/s\n", singleThroughput);
+        System.out.printf("Dávky: %.1f dokumentů/s (zrychlení %.2f)\n", batchThroughput,
+                batchThroughput / singleThroughput);
+
+        if (expected != null) {
+            System.out.println("Výsledků odlišných od klasifikace jednotlivých dokumentů: " + mismatchCount);
+        }
+    }
+
+    /**
+     * Naplní blok dávky dokumenty od zadané pozice.
+     *
+     * @param documents dokumenty
+     * @param offset pozice prvního dokumentu bloku
+     * @param batch blok dávky
+     * @return blok dávky
+     */
+    private List<ByteBuffer> fillBatch(List<ByteBuffer> documents, int offset, List<ByteBuffer> batch) {
+        batch.clear();
+
+        for (int i = offset; i < Math.min(offset + Config.CLASSIFY_BATCH_SIZE, documents.size()); i++) {
+            batch.add(documents.get(i).duplicate());
+        }
+
+        return batch;
+    }
+
+    /**
+     * Vrátí další měřený počet vláken (dvojnásobek, nejvýše však nejvyšší
+     * zadaný počet, i když není mocninou dvou).
+     *
+     * @param threadCount aktuální počet vláken
+     * @return další počet vláken
+     */
+    private int getNextThreadCount(int threadCount) {
+        if (threadCount < MAX_THREAD_COUNT) {
+            return Math.min(threadCount * 2, MAX_THREAD_COUNT);
+        }
+
+        return threadCount + 1;
+    }
+
+    /**
+     * Klasifikuje všechny dokumenty jedním vláknem.
+     *
+     * @param documents dokumenty
+     * @return třídy dokumentů
+     */
+    private String[] classifyAll(List<ByteBuffer> documents) {
+        ClassificationContext context = CLASSIFICATION_MODEL.createContext();
+        String[] documentClasses = new String[documents.size()];
+
+        for (int i = 0; i < documents.size(); i++) {
+            documentClasses[i] = context.classify(documents.get(i).duplicate());
+        }
+
+        return documentClasses;
+    }
+
+    /**
+     * Změří propustnost klasifikace zadaným počtem vláken (podle délky polí
+     * pro výsledky). Vlákna nejprve klasifikují všechny dokumenty
+     * pro zahřátí a poté klasifikují dokumenty až do konce měření.
+     *
+     * @param documents dokumenty
+     * @param expected očekávané třídy dokumentů (nebo null)
+     * @param counts pole pro počty klasifikovaných dokumentů jednotlivých vláken
+     * @param allocations pole pro počty alokovaných bajtů jednotlivých vláken
+     * (nebo -1, pokud je JVM neměří)
+     * @return skutečná doba měření v sekundách
+     * @throws IOException
+     */
+    private double measure(List<ByteBuffer> documents, String[] expected,
+            long[] counts, long[] allocations) throws IOException {
+        int threadCount = counts.length;
+        CyclicBarrier barrier = new CyclicBarrier(threadCount + 1);
+        Thread[] threads = new Thread[threadCount];
+        long[] time = new long[2];
+
+        for (int i = 0; i < threadCount; i++) {
+            int index = i;
+            threads[i] = new Thread(() -> classifyDocuments(documents, expected, index, barrier, time,
+                    counts, allocations), "benchmark-" + i);
+            threads[i].start();
+        }
+
+        try {
+            // začátek měření po zahřátí všech vláken
+            barrier.await();
+            time[0] = System.nanoTime();
+            time[1] = time[0] + DURATION * 1_000_000_000L;
+            barrier.await();
+
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+        catch (Exception ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Měření bylo přerušeno.");
+        }
+
+        return (System.nanoTime() - time[0]) / 1e9;
+    }
+
+    /**
+     * Klasifikuje dokumenty až do konce měření (činnost jednoho vlákna).
+     *
+     * @param documents dokumenty
+     * @param expected očekávané třídy dokumentů (nebo null)
+     * @param index index vlákna
+     * @param barrier bariéra pro společný začátek měření
+     * @param time začátek a konec měření
+     * @param counts pole pro počty klasifikovaných dokumentů jednotlivých vláken
+     * @param allocations pole pro počty alokovaných bajtů jednotlivých vláken
+     */
+    private void classifyDocuments(List<ByteBuffer> documents, String[] expected, int index,
+            CyclicBarrier barrier, long[] time, long[] counts, long[] allocations) {
+        ClassificationContext context = CLASSIFICATION_MODEL.createContext();
+        int position = index * documents.size() / counts.length;
+        long count = 0;
+
+        try {
+            for (int i = 0; i < documents.size(); i++) {
+                classifyDocument(context, documents, expected, i);
+            }
+
+            barrier.await();
+            barrier.await();
+        }
+        catch (Exception ex) {
+            return;
+        }
+
+        long allocatedBefore = getAllocatedBytes();
+
+        while (System.nanoTime() < time[1]) {
+            classifyDocument(context, documents, expected, position);
+            position = (position + 1) % documents.size();
+            count++;
+        }
+
+        long allocatedAfter = getAllocatedBytes();
+        counts[index] = count;
+        allocations[index] = (allocatedBefore < 0 || allocatedAfter < 0) ? -1 : allocatedAfter - allocatedBefore;
+    }
+
+    /**
+     * Klasifikuje jeden dokument a porovná výsledek s očekávanou třídou.
+     *
+     * @param context kontext klasifikace vlákna
+     * @param documents dokumenty
+     * @param expected očekávané třídy dokumentů (nebo null)
+     * @param i index dokumentu
+     */
+    private void classifyDocument(ClassificationContext context, List<ByteBuffer> documents,
+            String[] expected, int i) {
+        String documentClass = context.classify(documents.get(i).duplicate());
+
+        if (expected != null && !Objects.equals(expected[i], documentClass)) {
+            MISMATCH_COUNT.incrementAndGet();
+        }
+    }
+
+    /**
+     * Vrátí počet bajtů alokovaných aktuálním vláknem.
+     *
+     * @return počet bajtů (nebo -1, pokud jej JVM neměří)
+     */
+    private static long getAllocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(
+                    Thread.currentThread().getId());
+        }
+
+        return -1;
+    }
+
+}
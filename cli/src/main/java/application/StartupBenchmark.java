@@ -0,0 +1,258 @@
+package application;
+
+import application.helpers.ACorpus;
+import application.helpers.Json;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Třída, sloužící k měření doby do první klasifikace (od spuštění nového
+ * procesu do přijetí první odpovědi) v režimech bez GUI a doby klasifikace
+ * dalších dokumentů klasifikačním procesem. Porovnává spuštění bez
+ * archivu tříd, s archivem tříd aplikace (AppCDS) vytvořeným při
+ * zkušebním běhu režimu --warmup a klasifikační proces se zahřátím
+ * skórování syntetickými dokumenty před přijímáním požadavků.
+ *
+ * @author Petr Kozler
+ */
+public class StartupBenchmark {
+
+    /**
+     * cesta ke klasifikačnímu modelu
+     */
+    private final String MODEL_PATH;
+
+    /**
+     * počet spuštění procesu pro každý způsob spuštění
+     */
+    private final int RUN_COUNT;
+
+    /**
+     * příkaz pro spuštění programu v novém procesu (bez argumentů programu)
+     */
+    private final List<String> COMMAND = WorkerBenchmark.getLaunchCommand();
+
+    /**
+     * Vytvoří měření doby do první klasifikace.
+     *
+     * @param modelPath cesta ke klasifikačnímu modelu
+     * @param runCount počet spuštění procesu pro každý způsob spuštění
+     */
+    public StartupBenchmark(String modelPath, int runCount) {
+        MODEL_PATH = modelPath;
+        RUN_COUNT = runCount;
+    }
+
+    /**
+     * Vrátí dobu od spuštění JVM.
+     *
+     * @return doba od spuštění JVM v milisekundách
+     */
+    public static long getUptime() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+
+    /**
+     * Spustí měření s dokumenty zadaného korpusu a vypíše výsledky.
+     *
+     * @param corpus korpus dokumentů
+     * @throws IOException
+     */
+    public void run(ACorpus corpus) throws IOException {
+        int requestCount = Math.min(corpus.size(), 1 + Config.STARTUP_BENCHMARK_NEXT_REQUESTS);
+        List<String> requests = new ArrayList<>(requestCount);
+
+        for (int i = 0; i < requestCount; i++) {
+            ByteBuffer bytes = corpus.loadBytes(i);
+            byte[] text = new byte[bytes.remaining()];
+            bytes.get(text);
+            Map<String, Object> request = new LinkedHashMap<>();
+            request.put("id", String.valueOf(i));
+            request.put("text", new String(text, StandardCharsets.UTF_8));
+            requests.add(Json.toJson(request));
+        }
+
+        if (requests.isEmpty()) {
+            throw new IOException("Korpus pro měření neobsahuje žádné dokumenty.");
+        }
+
+        System.out.println("==================================================\n"
+                + "Spuštěno měření doby do první klasifikace:\n"
+                + "(spuštění procesu: " + RUN_COUNT + "x pro každý způsob, dalších dokumentů: "
+                + (requests.size() - 1) + ")\n");
+
+        Path archive = Files.createTempFile("document-classification", ".jsa");
+
+        try {
+            createArchive(archive);
+            String useArchive = "-XX:SharedArchiveFile=" + archive;
+
+            System.out.println("Spuštění                     | do 1. klasifikace ms | další dokumenty ms");
+            measure("--batch", null, requests, false);
+            measure("--batch + AppCDS", useArchive, requests, false);
+            measure("--worker", null, requests, true);
+            measure("--worker + AppCDS", useArchive, requests, true);
+            measure("--worker + AppCDS + zahřátí", useArchive, requests, true, "--warmup");
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Měření bylo přerušeno.");
+        }
+        finally {
+            Files.deleteIfExists(archive);
+        }
+
+        System.out.println("--- HOTOVO ---");
+    }
+
+    /**
+     * Vytvoří archiv tříd aplikace zkušebním během programu v režimu
+     * --warmup (načtení modelu a klasifikace syntetických dokumentů).
+     *
+     * @param archive cesta k archivu
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    private void createArchive(Path archive) throws IOException, InterruptedException {
+        Files.deleteIfExists(archive);
+        Process process = startProcess("-XX:ArchiveClassesAtExit=" + archive, "--warmup", MODEL_PATH);
+        process.getOutputStream().close();
+        process.getInputStream().transferTo(OutputStream.nullOutputStream());
+
+        if (process.waitFor() != 0 || !Files.exists(archive)) {
+            throw new IOException("Archiv tříd aplikace se nepodařilo vytvořit"
+                    + " (program musí být spuštěn ze souboru JAR, ne z adresáře tříd).");
+        }
+
+        System.out.println("Archiv tříd aplikace: " + Files.size(archive) / 1024 + " KiB\n");
+    }
+
+    /**
+     * Opakovaně spustí program zadaným způsobem, změří dobu do přijetí první
+     * odpovědi a u klasifikačního procesu i průměrnou dobu odezvy dalších
+     * postupně posílaných dokumentů, a vypíše řádek tabulky výsledků.
+     *
+     * @param title název způsobu spuštění
+     * @param jvmOption parametr JVM (nebo null)
+     * @param requests řádky požadavků
+     * @param worker true pro klasifikační proces, false pro dávkovou klasifikaci jednoho dokumentu
+     * @param options další argumenty programu
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    private void measure(String title, String jvmOption, List<String> requests, boolean worker,
+            String... options) throws IOException, InterruptedException {
+        long[] firstTimes = new long[RUN_COUNT];
+        long nextTime = 0;
+        int nextCount = 0;
+
+        for (int run = 0; run < RUN_COUNT; run++) {
+            List<String> args = new ArrayList<>();
+
+            if (worker) {
+                args.addAll(Arrays.asList("--worker", MODEL_PATH));
+            }
+            else {
+                args.addAll(Arrays.asList("--batch", MODEL_PATH, BatchClassifier.STDIN_INPUT, "-j"));
+            }
+
+            args.addAll(Arrays.asList(options));
+            long start = System.nanoTime();
+            Process process = startProcess(jvmOption, args.toArray(new String[0]));
+            Writer input = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+            BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(),
+                    StandardCharsets.UTF_8));
+
+            try {
+                send(input, requests.get(0));
+
+                if (!worker) {
+                    input.close();
+                }
+
+                receive(output);
+                firstTimes[run] = System.nanoTime() - start;
+
+                for (int i = 1; worker && i < requests.size(); i++) {
+                    long requestStart = System.nanoTime();
+                    send(input, requests.get(i));
+                    receive(output);
+                    nextTime += System.nanoTime() - requestStart;
+                    nextCount++;
+                }
+            }
+            finally {
+                input.close();
+                process.waitFor();
+            }
+        }
+
+        Arrays.sort(firstTimes);
+        System.out.printf("%-28s | %20.1f | %18s\n", title, firstTimes[RUN_COUNT / 2] / 1e6,
+                nextCount > 0 ? String.format("%.3f", nextTime / 1e6 / nextCount) : "-");
+    }
+
+    /**
+     * Pošle procesu řádek požadavku.
+     *
+     * @param input vstup procesu
+     * @param request řádek požadavku
+     * @throws IOException
+     */
+    private static void send(Writer input, String request) throws IOException {
+        input.write(request);
+        input.write('\n');
+        input.flush();
+    }
+
+    /**
+     * Přijme od procesu řádek odpovědi.
+     *
+     * @param output výstup procesu
+     * @throws IOException pokud proces skončil nebo odpověď obsahuje chybu
+     */
+    private static void receive(BufferedReader output) throws IOException {
+        String response = output.readLine();
+
+        if (response == null || Json.parseObject(response).containsKey("error")) {
+            throw new IOException("Proces nevrátil výsledek klasifikace: " + response);
+        }
+    }
+
+    /**
+     * Spustí program v novém procesu se zadaným parametrem JVM a argumenty
+     * (chybový výstup procesu je zahozen).
+     *
+     * @param jvmOption parametr JVM (nebo null)
+     * @param args argumenty programu
+     * @return proces
+     * @throws IOException
+     */
+    private Process startProcess(String jvmOption, String... args) throws IOException {
+        List<String> command = new ArrayList<>(COMMAND);
+
+        if (jvmOption != null) {
+            command.add(1, jvmOption);
+        }
+
+        command.addAll(Arrays.asList(args));
+
+        return new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+    }
+
+}
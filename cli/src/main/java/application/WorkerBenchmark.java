@@ -0,0 +1,290 @@
+package application;
+
+import application.helpers.ACorpus;
+import application.helpers.Json;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Třída, sloužící k porovnání doby klasifikace jednoho dokumentu při
+ * spuštění nového procesu pro každý dokument (JVM a načtení modelu při
+ * každém volání, režim --batch) a při použití dlouhodobě běžícího
+ * klasifikačního procesu (režim --worker), kterému jsou dokumenty posílány
+ * postupně (vždy po přijetí předchozí odpovědi) i najednou bez čekání.
+ *
+ * @author Petr Kozler
+ */
+public class WorkerBenchmark {
+
+    /**
+     * cesta ke klasifikačnímu modelu
+     */
+    private final String MODEL_PATH;
+
+    /**
+     * počet spuštění procesu pro jednotlivé dokumenty
+     */
+    private final int CALL_COUNT;
+
+    /**
+     * příkaz pro spuštění programu v novém procesu (bez argumentů programu)
+     */
+    private final List<String> COMMAND = getLaunchCommand();
+
+    /**
+     * Vytvoří porovnání doby klasifikace.
+     *
+     * @param modelPath cesta ke klasifikačnímu modelu
+     * @param callCount počet spuštění procesu pro jednotlivé dokumenty
+     */
+    public WorkerBenchmark(String modelPath, int callCount) {
+        MODEL_PATH = modelPath;
+        CALL_COUNT = callCount;
+    }
+
+    /**
+     * Spustí porovnání s dokumenty zadaného korpusu a vypíše výsledky.
+     *
+     * @param corpus korpus dokumentů
+     * @throws IOException
+     */
+    public void run(ACorpus corpus) throws IOException {
+        List<String> requests = new ArrayList<>(corpus.size());
+
+        for (int i = 0; i < corpus.size(); i++) {
+            ByteBuffer bytes = corpus.loadBytes(i);
+            byte[] text = new byte[bytes.remaining()];
+            bytes.get(text);
+            Map<String, Object> request = new LinkedHashMap<>();
+            request.put("id", String.valueOf(i));
+            request.put("text", new String(text, StandardCharsets.UTF_8));
+            requests.add(Json.toJson(request));
+        }
+
+        if (requests.isEmpty()) {
+            throw new IOException("Korpus pro porovnání neobsahuje žádné dokumenty.");
+        }
+
+        System.out.println("==================================================\n"
+                + "Spuštěno porovnání procesu pro každý dokument s klasifikačním procesem:\n"
+                + "(spuštění procesu: " + CALL_COUNT + "x, dokumentů klasifikačního procesu: "
+                + requests.size() + ")\n");
+
+        try {
+            long[] processLatencies = runProcessPerCall(requests);
+            long[] workerLatencies = new long[requests.size()];
+            long pipelinedTime = runWorker(requests, workerLatencies);
+
+            System.out.println("                          | průměr ms |   p50 ms |   p99 ms | dokumentů/s");
+            printRow("proces pro každý dokument", processLatencies);
+            printRow("proces --worker postupně", workerLatencies);
+            System.out.printf("%-25s | %9.3f | %8s | %8s | %11.1f\n", "proces --worker najednou",
+                    pipelinedTime / 1e6 / requests.size(), "-", "-", requests.size() / (pipelinedTime / 1e9));
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Porovnání bylo přerušeno.");
+        }
+
+        System.out.println("--- HOTOVO ---");
+    }
+
+    /**
+     * Klasifikuje dokumenty vždy v novém procesu a změří doby klasifikace
+     * (včetně spuštění JVM a načtení modelu).
+     *
+     * @param requests řádky požadavků
+     * @return doby klasifikace v nanosekundách
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    private long[] runProcessPerCall(List<String> requests) throws IOException, InterruptedException {
+        long[] latencies = new long[CALL_COUNT];
+
+        for (int i = 0; i < CALL_COUNT; i++) {
+            long start = System.nanoTime();
+            Process process = startProcess("--batch", MODEL_PATH, BatchClassifier.STDIN_INPUT, "-j");
+
+            try (OutputStream input = process.getOutputStream()) {
+                input.write((requests.get(i % requests.size()) + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+
+            String response = new BufferedReader(new InputStreamReader(process.getInputStream(),
+                    StandardCharsets.UTF_8)).readLine();
+
+            if (process.waitFor() != 0 || response == null) {
+                throw new IOException("Klasifikace v novém procesu selhala.");
+            }
+
+            latencies[i] = System.nanoTime() - start;
+        }
+
+        return latencies;
+    }
+
+    /**
+     * Spustí klasifikační proces, nejprve mu posílá dokumenty postupně
+     * a měří doby odezvy, poté mu pošle všechny dokumenty najednou
+     * a změří dobu do přijetí všech odpovědí.
+     *
+     * @param requests řádky požadavků
+     * @param latencies pole pro doby odezvy postupně posílaných dokumentů
+     * @return doba klasifikace všech dokumentů poslaných najednou v nanosekundách
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    private long runWorker(List<String> requests, long[] latencies) throws IOException, InterruptedException {
+        Process process = startProcess("--worker", MODEL_PATH);
+        Writer input = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+        BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(),
+                StandardCharsets.UTF_8));
+
+        try {
+            // první požadavek čeká na načtení modelu a není započítán
+            send(input, requests.get(0));
+            receive(output);
+
+            for (int i = 0; i < requests.size(); i++) {
+                long start = System.nanoTime();
+                send(input, requests.get(i));
+                receive(output);
+                latencies[i] = System.nanoTime() - start;
+            }
+
+            long start = System.nanoTime();
+            Thread sender = new Thread(() -> {
+                try {
+                    for (String request : requests) {
+                        input.write(request);
+                        input.write('\n');
+                    }
+
+                    input.flush();
+                }
+                catch (IOException ex) {
+                    // chybějící odpovědi jsou zjištěny při čtení
+                }
+            }, "worker-benchmark-sender");
+            sender.start();
+
+            for (int i = 0; i < requests.size(); i++) {
+                receive(output);
+            }
+
+            sender.join();
+
+            return System.nanoTime() - start;
+        }
+        finally {
+            input.close();
+            process.waitFor();
+        }
+    }
+
+    /**
+     * Pošle klasifikačnímu procesu řádek požadavku.
+     *
+     * @param input vstup procesu
+     * @param request řádek požadavku
+     * @throws IOException
+     */
+    private static void send(Writer input, String request) throws IOException {
+        input.write(request);
+        input.write('\n');
+        input.flush();
+    }
+
+    /**
+     * Přijme od klasifikačního procesu řádek odpovědi.
+     *
+     * @param output výstup procesu
+     * @throws IOException pokud proces skončil nebo odpověď obsahuje chybu
+     */
+    private static void receive(BufferedReader output) throws IOException {
+        String response = output.readLine();
+
+        if (response == null || Json.parseObject(response).containsKey("error")) {
+            throw new IOException("Klasifikační proces nevrátil výsledek: " + response);
+        }
+    }
+
+    /**
+     * Spustí program v novém procesu se zadanými argumenty (chybový výstup
+     * procesu je zahozen).
+     *
+     * @param args argumenty programu
+     * @return proces
+     * @throws IOException
+     */
+    private Process startProcess(String... args) throws IOException {
+        List<String> command = new ArrayList<>(COMMAND);
+        command.addAll(Arrays.asList(args));
+
+        return new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+    }
+
+    /**
+     * Vypíše řádek tabulky výsledků s průměrem a percentily dob klasifikace.
+     *
+     * @param title název řádku
+     * @param latencies doby klasifikace v nanosekundách
+     */
+    private static void printRow(String title, long[] latencies) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        double mean = Arrays.stream(sorted).average().orElse(0) / 1e6;
+        System.out.printf("%-25s | %9.3f | %8.3f | %8.3f | %11.1f\n", title, mean,
+                getPercentile(sorted, 50), getPercentile(sorted, 99), 1000 / mean);
+    }
+
+    /**
+     * Vrátí percentil seřazených dob v milisekundách.
+     *
+     * @param sorted seřazené doby v nanosekundách
+     * @param percentile percentil
+     * @return doba v milisekundách
+     */
+    private static double getPercentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+
+    /**
+     * Sestaví příkaz pro spuštění tohoto programu v novém procesu: stejný
+     * spustitelný soubor Javy a stejný JAR soubor, nebo stejná hlavní třída
+     * a cesta ke třídám.
+     *
+     * @return příkaz bez argumentů programu
+     */
+    static List<String> getLaunchCommand() {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        String launcher = System.getProperty("sun.java.command", "application.Launcher").split(" ")[0];
+
+        if (launcher.endsWith(".jar")) {
+            command.add("-jar");
+        }
+        else {
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+        }
+
+        command.add(launcher);
+
+        return command;
+    }
+
+}
@@ -0,0 +1,181 @@
+package application.helpers;
+
+/**
+ * Třída, sloužící ke zpracování argumentů příkazové řádky při spuštění
+ * programu v režimu dávkové klasifikace dokumentů.
+ *
+ * @author Petr Kozler
+ */
+public class BatchArg {
+
+    /**
+     * cesta k souboru klasifikačního modelu (bez přípony)
+     */
+    private final String classificationModelPath;
+
+    /**
+     * vstup (adresář, zabalený korpus, soubor se seznamem cest, nebo "-" pro standardní vstup)
+     */
+    private final String inputPath;
+
+    /**
+     * cesta k výstupnímu souboru (null pro standardní výstup)
+     */
+    private String outputPath;
+
+    /**
+     * počet pracovních vláken
+     */
+    private int threadCount = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * příznak zachování pořadí výsledků podle pořadí vstupních dokumentů
+     */
+    private boolean ordered = true;
+
+    /**
+     * příznak výstupu ve formátu JSON (jeden objekt na řádek)
+     */
+    private boolean jsonOutput;
+
+    /**
+     * Vytvoří objekt pro zpracování argumentů příkazové řádky
+     * při spuštění programu v režimu dávkové klasifikace.
+     *
+     * @param args argumenty za přepínačem dávkového režimu
+     * (model, vstup a volitelné přepínače)
+     */
+    public BatchArg(String[] args) {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Nebyl zadán klasifikační model nebo vstup.");
+        }
+
+        classificationModelPath = args[0].trim();
+        inputPath = args[1].trim();
+
+        for (int i = 2; i < args.length; i++) {
+            String key = args[i].trim();
+
+            if (keyEquals(key, "t", "threads")) {
+                threadCount = parseThreadCount(getValue(args, ++i, key));
+            }
+            else if (keyEquals(key, "u", "unordered")) {
+                ordered = false;
+            }
+            else if (keyEquals(key, "j", "jsonl")) {
+                jsonOutput = true;
+            }
+            else if (keyEquals(key, "w", "output")) {
+                outputPath = getValue(args, ++i, key).trim();
+            }
+            else {
+                throw new IllegalArgumentException("Neznámý přepínač dávkového režimu: " + key);
+            }
+        }
+    }
+
+    /**
+     * Vrátí cestu k souboru klasifikačního modelu.
+     *
+     * @return cesta k souboru klasifikačního modelu
+     */
+    public String getClassificationModelPath() {
+        return classificationModelPath;
+    }
+
+    /**
+     * Vrátí cestu ke vstupu.
+     *
+     * @return cesta ke vstupu
+     */
+    public String getInputPath() {
+        return inputPath;
+    }
+
+    /**
+     * Vrátí cestu k výstupnímu souboru.
+     *
+     * @return cesta k výstupnímu souboru, nebo null pro standardní výstup
+     */
+    public String getOutputPath() {
+        return outputPath;
+    }
+
+    /**
+     * Vrátí počet pracovních vláken.
+     *
+     * @return počet pracovních vláken
+     */
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     * Určí, zda mají být výsledky vypsány v pořadí vstupních dokumentů.
+     *
+     * @return true, pokud má být zachováno pořadí
+     */
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    /**
+     * Určí, zda mají být výsledky vypsány ve formátu JSON.
+     *
+     * @return true pro výstup ve formátu JSON
+     */
+    public boolean isJsonOutput() {
+        return jsonOutput;
+    }
+
+    /**
+     * Vrátí hodnotu přepínače.
+     *
+     * @param args argumenty
+     * @param index pozice hodnoty
+     * @param key přepínač
+     * @return hodnota přepínače
+     */
+    private String getValue(String[] args, int index, String key) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Chybí hodnota přepínače: " + key);
+        }
+
+        return args[index];
+    }
+
+    /**
+     * Převede zadaný počet pracovních vláken na číslo.
+     *
+     * @param value zadaná hodnota
+     * @return počet vláken
+     */
+    private int parseThreadCount(String value) {
+        try {
+            int count = Integer.parseInt(value.trim());
+
+            if (count > 0) {
+                return count;
+            }
+        }
+        catch (NumberFormatException ex) {
+            // ošetřeno níže
+        }
+
+        throw new IllegalArgumentException("Neplatný počet vláken: " + value);
+    }
+
+    /**
+     * Určí, zda zadaný přepínač odpovídá jedné z možných podob
+     * (krátký s pomlčkou před, nebo dlouhý s dvěma pomlčkami).
+     *
+     * @param key zadaný přepínač
+     * @param shortKey krátký tvar přepínače
+     * @param longKey dlouhý tvar přepínače
+     * @return true, pokud přepínač odpovídá
+     */
+    private boolean keyEquals(String key, String shortKey, String longKey) {
+        return (("-" + shortKey).equals(key) || ("--" + longKey).equals(key));
+    }
+
+}
@@ -0,0 +1,117 @@
+package application.helpers;
+
+import application.classification.AClassifier;
+import application.parameterisation.AWordCounter;
+import java.io.IOException;
+
+/**
+ * Třída, sloužící ke zpracování argumentů příkazové řádky.
+ * 
+ * @author Petr Kozler
+ */
+public class CmdArg {
+    
+    /**
+     * dokumenty trénovací množiny
+     */
+    private ACorpus trainingSet;
+    
+    /**
+     * dokumenty testovací množiny
+     */
+    private ACorpus testSet;
+    
+    /**
+     * objekt pro vytvoření příznaků
+     */
+    private AWordCounter wordCounter;
+    
+    /**
+     * objekt pro klasifikaci dokumentů
+     */
+    private AClassifier classifier;
+    
+    /**
+     * cesta k souboru pro uložení klasifikačního modelu
+     */
+    private final String classificationModelPath;
+    
+    /**
+     * Vytvoří objekt pro zpracování argumentů příkazové řádky
+     * při spuštění programu v režimu vytváření klasifikačního modelu.
+     * 
+     * @param trainingSet cesta k adresáři nebo zabalenému korpusu s dokumenty z trénovací množiny
+     * @param testSet cesta k adresáři nebo zabalenému korpusu s dokumenty z testovací množiny
+     * @param paramAlgorithmIdStr číslo algoritmu pro vytvoření příznaků
+     * @param recognizeAlgorithmIdStr číslo algoritmu pro klasifikaci dokumentů
+     * @param classifyModelName cesta k souboru pro uložení klasifikačního modelu
+     * @throws IOException
+     */
+    public CmdArg(String trainingSet, String testSet, String
+            paramAlgorithmIdStr, String recognizeAlgorithmIdStr, String classifyModelName)
+            throws IOException
+    {
+        FileIoHandler fileIoHandler = FileIoHandler.getInstance();
+        this.trainingSet = fileIoHandler.openCorpus(trainingSet.trim());
+        this.testSet = fileIoHandler.openCorpus(testSet.trim());
+        wordCounter = AlgorithmSelector.selectWordCounter(paramAlgorithmIdStr.trim());
+        classifier = AlgorithmSelector.selectClassifier(recognizeAlgorithmIdStr.trim());
+        classificationModelPath = classifyModelName.trim();
+    }
+    
+    /**
+     * Vytvoří objekt pro zpracování argumentů příkazové řádky
+     * při spuštění programu v režimu ručního zadávání textu.
+     * 
+     * @param classifyModelName cesta k souboru pro uložení klasifikačního modelu
+     */
+    public CmdArg(String classifyModelName) {
+        classificationModelPath = classifyModelName.trim();
+    }
+
+    /**
+     * Vrátí dokumenty trénovací množiny.
+     * 
+     * @return dokumenty trénovací množiny
+     */
+    public ACorpus getTrainingSet() {
+        return trainingSet;
+    }
+
+    /**
+     * Vrátí dokumenty testovací množiny.
+     * 
+     * @return dokumenty testovací množiny
+     */
+    public ACorpus getTestSet() {
+        return testSet;
+    }
+
+    /**
+     * Vrátí objekt pro vytvoření příznaků.
+     * 
+     * @return objekt pro vytvoření příznaků
+     */
+    public AWordCounter getParamAlgorithm() {
+        return wordCounter;
+    }
+
+    /**
+     * Vrátí objekt pro klasifikaci dokumentů.
+     * 
+     * @return objekt pro klasifikaci dokumentů
+     */
+    public AClassifier getRecognizeAlgorithm() {
+        return classifier;
+    }
+    
+    /**
+     * Vrátí cestu k souboru pro uložení klasifikačního modelu.
+     * 
+     * @return cesta k souboru pro uložení klasifikačního modelu
+     */
+    public String getClassificationModelPath() {
+        return classificationModelPath;
+    }
+    
+}
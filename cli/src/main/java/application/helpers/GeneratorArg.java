@@ -0,0 +1,223 @@
+package application.helpers;
+
+/**
+ * Třída, sloužící ke zpracování argumentů příkazové řádky při spuštění
+ * programu v režimu generování syntetického korpusu dokumentů.
+ *
+ * @author Petr Kozler
+ */
+public class GeneratorArg {
+
+    /**
+     * cesta ke zdrojovému korpusu (adresář nebo zabalený korpus)
+     */
+    private final String sourcePath;
+
+    /**
+     * počet generovaných dokumentů
+     */
+    private final int documentCount;
+
+    /**
+     * cesta k výstupu (adresář, nebo datový soubor zabaleného korpusu)
+     */
+    private final String outputPath;
+
+    /**
+     * semínko generátoru náhodných čísel
+     */
+    private long seed = 1;
+
+    /**
+     * násobek střední délky dokumentu
+     */
+    private double lengthScale = 1;
+
+    /**
+     * násobek směrodatné odchylky logaritmu délky dokumentu
+     */
+    private double lengthSpread = 1;
+
+    /**
+     * exponent četností kombinací tříd
+     */
+    private double classSkew = 1;
+
+    /**
+     * podíl slov nahrazovaných novými slovními tvary
+     */
+    private double newWordRate;
+
+    /**
+     * Vytvoří objekt pro zpracování argumentů příkazové řádky
+     * při spuštění programu v režimu generování syntetického korpusu.
+     *
+     * @param args argumenty za přepínačem režimu generování
+     * (zdrojový korpus, počet dokumentů, výstup a volitelné přepínače)
+     */
+    public GeneratorArg(String[] args) {
+        if (args.length < 3) {
+            throw new IllegalArgumentException("Nebyl zadán zdrojový korpus, počet dokumentů nebo výstup.");
+        }
+
+        sourcePath = args[0].trim();
+        documentCount = (int) parseNumber(args[1], "počet dokumentů", 1, Integer.MAX_VALUE);
+        outputPath = args[2].trim();
+
+        for (int i = 3; i < args.length; i++) {
+            String key = args[i].trim();
+
+            if (keyEquals(key, "e", "seed")) {
+                String value = getValue(args, ++i, key);
+
+                try {
+                    seed = Long.parseLong(value.trim());
+                }
+                catch (NumberFormatException ex) {
+                    throw new IllegalArgumentException("Neplatné semínko: " + value);
+                }
+            }
+            else if (keyEquals(key, "l", "length-scale")) {
+                lengthScale = parseNumber(getValue(args, ++i, key), "násobek délky", Double.MIN_VALUE, 1000);
+            }
+            else if (keyEquals(key, "d", "length-spread")) {
+                lengthSpread = parseNumber(getValue(args, ++i, key), "násobek rozptylu délky", 0, 10);
+            }
+            else if (keyEquals(key, "k", "class-skew")) {
+                classSkew = parseNumber(getValue(args, ++i, key), "nerovnoměrnost tříd", 0, 10);
+            }
+            else if (keyEquals(key, "v", "new-words")) {
+                newWordRate = parseNumber(getValue(args, ++i, key), "podíl nových slov", 0, 1);
+            }
+            else {
+                throw new IllegalArgumentException("Neznámý přepínač režimu generování: " + key);
+            }
+        }
+    }
+
+    /**
+     * Vrátí cestu ke zdrojovému korpusu.
+     *
+     * @return cesta ke zdrojovému korpusu
+     */
+    public String getSourcePath() {
+        return sourcePath;
+    }
+
+    /**
+     * Vrátí počet generovaných dokumentů.
+     *
+     * @return počet dokumentů
+     */
+    public int getDocumentCount() {
+        return documentCount;
+    }
+
+    /**
+     * Vrátí cestu k výstupu.
+     *
+     * @return cesta k adresáři nebo k datovému souboru zabaleného korpusu
+     */
+    public String getOutputPath() {
+        return outputPath;
+    }
+
+    /**
+     * Vrátí semínko generátoru náhodných čísel.
+     *
+     * @return semínko
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Vrátí násobek střední délky dokumentu.
+     *
+     * @return násobek délky
+     */
+    public double getLengthScale() {
+        return lengthScale;
+    }
+
+    /**
+     * Vrátí násobek směrodatné odchylky logaritmu délky dokumentu.
+     *
+     * @return násobek rozptylu délky
+     */
+    public double getLengthSpread() {
+        return lengthSpread;
+    }
+
+    /**
+     * Vrátí exponent četností kombinací tříd.
+     *
+     * @return nerovnoměrnost tříd
+     */
+    public double getClassSkew() {
+        return classSkew;
+    }
+
+    /**
+     * Vrátí podíl slov nahrazovaných novými slovními tvary.
+     *
+     * @return podíl nových slov
+     */
+    public double getNewWordRate() {
+        return newWordRate;
+    }
+
+    /**
+     * Vrátí hodnotu přepínače.
+     *
+     * @param args argumenty
+     * @param index pozice hodnoty
+     * @param key přepínač
+     * @return hodnota přepínače
+     */
+    private String getValue(String[] args, int index, String key) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Chybí hodnota přepínače: " + key);
+        }
+
+        return args[index];
+    }
+
+    /**
+     * Převede zadanou hodnotu na číslo v zadaném rozsahu.
+     *
+     * @param value zadaná hodnota
+     * @param name název hodnoty pro chybové hlášení
+     * @param min nejmenší povolená hodnota
+     * @param max největší povolená hodnota
+     * @return číslo
+     */
+    private double parseNumber(String value, String name, double min, double max) {
+        try {
+            double number = Double.parseDouble(value.trim());
+
+            if (number >= min && number <= max) {
+                return number;
+            }
+        }
+        catch (NumberFormatException ex) {
+            // ošetřeno níže
+        }
+
+        throw new IllegalArgumentException("Neplatná hodnota (" + name + "): " + value);
+    }
+
+    /**
+     * Určí, zda zadaný přepínač odpovídá jedné z možných podob
+     * (krátký s pomlčkou před, nebo dlouhý s dvěma pomlčkami).
+     *
+     * @param key zadaný přepínač
+     * @param shortKey krátký tvar přepínače
+     * @param longKey dlouhý tvar přepínače
+     * @return true, pokud přepínač odpovídá
+     */
+    private boolean keyEquals(String key, String shortKey, String longKey) {
+        return (("-" + shortKey).equals(key) || ("--" + longKey).equals(key));
+    }
+
+}
@@ -0,0 +1,557 @@
+package application;
+
+import application.classification.ClassificationContext;
+import application.containers.Classification;
+import application.containers.ClassificationModel;
+import application.containers.DocumentResult;
+import application.containers.DocumentSource;
+import application.containers.TermCounts;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Třída, představující klasifikační proud pro vložení klasifikace do jiné
+ * aplikace (např. do proudového zpracování přijímaných dokumentů). Proud
+ * je procesorem {@link Flow.Processor}: odebírá dokumenty od vydavatele
+ * a výsledky jejich klasifikace vydává jednomu odběrateli.
+ *
+ * Dokument prochází třemi fázemi, z nichž každá je prováděna zadaným
+ * počtem vláken: čtením textu, tokenizací (tokenizér rozděluje text
+ * na slova a rovnou je převádí na četnosti podle indexů ve slovníku modelu)
+ * a skórováním klasifikátorem. Fáze jsou propojeny omezenými frontami
+ * a od vydavatele je vyžádáno jen tolik dokumentů, kolik se jich vejde
+ * do vyrovnávací paměti proudu; další jsou vyžádány až po převzetí výsledků
+ * odběratelem. Paměť proudu je tak omezena i při pomalém odběrateli.
+ *
+ * Výsledky jsou vydávány v pořadí vstupu, nebo v pořadí dokončení.
+ * Chyba při zpracování dokumentu je vydána jako jeho výsledek a proud
+ * pokračuje dalšími dokumenty; chyba vydavatele je odběrateli předána
+ * po vydání výsledků všech přijatých dokumentů.
+ *
+ * @author Petr Kozler
+ */
+public class ClassificationPipeline implements Flow.Processor<DocumentSource, DocumentResult> {
+
+    /**
+     * klasifikační model
+     */
+    private final ClassificationModel CLASSIFICATION_MODEL;
+
+    /**
+     * nejvyšší počet rozpracovaných dokumentů (přijatých a dosud nepřevzatých odběratelem)
+     */
+    private final int BUFFER_SIZE;
+
+    /**
+     * příznak vydávání výsledků v pořadí vstupu
+     */
+    private final boolean ORDERED;
+
+    /**
+     * vstupní fronta fáze čtení
+     */
+    private final BlockingQueue<Item> READ_QUEUE;
+
+    /**
+     * vstupní fronta fáze tokenizace
+     */
+    private final BlockingQueue<Item> TOKENIZE_QUEUE;
+
+    /**
+     * vstupní fronta fáze skórování
+     */
+    private final BlockingQueue<Item> SCORE_QUEUE;
+
+    /**
+     * vlákna všech fází
+     */
+    private final Thread[] WORKERS;
+
+    /**
+     * dokončené výsledky čekající na vydání (podle pořadí na vstupu, je-li zachováváno)
+     */
+    private final Map<Long, DocumentResult> ORDERED_RESULTS = new HashMap<>();
+
+    /**
+     * dokončené výsledky čekající na vydání (v pořadí dokončení)
+     */
+    private final ArrayDeque<DocumentResult> UNORDERED_RESULTS = new ArrayDeque<>();
+
+    /**
+     * počet výsledků vyžádaných odběratelem a dosud nevydaných
+     */
+    private final AtomicLong DEMAND = new AtomicLong();
+
+    /**
+     * počet souběžných požadavků na vydávání výsledků (vydává jen jedno vlákno)
+     */
+    private final AtomicInteger DRAIN_REQUESTS = new AtomicInteger();
+
+    /**
+     * příznak připojení odběratele
+     */
+    private final AtomicBoolean SUBSCRIBED = new AtomicBoolean();
+
+    /**
+     * chyba porušení pravidel odběru, kterou vlákno vydávání výsledků předá odběrateli
+     */
+    private final AtomicReference<Throwable> FAILURE = new AtomicReference<>();
+
+    /**
+     * odběr od vydavatele dokumentů
+     */
+    private volatile Flow.Subscription upstream;
+
+    /**
+     * odběratel výsledků
+     */
+    private volatile Flow.Subscriber<? super DocumentResult> downstream;
+
+    /**
+     * počet přijatých dokumentů
+     */
+    private long receivedCount;
+
+    /**
+     * počet vydaných výsledků
+     */
+    private long emittedCount;
+
+    /**
+     * příznak ukončení vstupu (dokončením nebo chybou vydavatele)
+     */
+    private volatile boolean inputDone;
+
+    /**
+     * chyba vydavatele (nebo null)
+     */
+    private volatile Throwable inputError;
+
+    /**
+     * příznak ukončení proudu (dokončením, chybou nebo zrušením odběru)
+     */
+    private volatile boolean terminated;
+
+    /**
+     * Vytvoří klasifikační proud a spustí vlákna jeho fází.
+     *
+     * @param classificationModel klasifikační model
+     * @param readThreads počet vláken fáze čtení
+     * @param tokenizeThreads počet vláken fáze tokenizace
+     * @param scoreThreads počet vláken fáze skórování
+     * @param bufferSize nejvyšší počet rozpracovaných dokumentů
+     * @param ordered true pro vydávání výsledků v pořadí vstupu, false v pořadí dokončení
+     */
+    public ClassificationPipeline(ClassificationModel classificationModel, int readThreads,
+            int tokenizeThreads, int scoreThreads, int bufferSize, boolean ordered) {
+        CLASSIFICATION_MODEL = classificationModel;
+        BUFFER_SIZE = Math.max(1, bufferSize);
+        ORDERED = ordered;
+        // každá fronta pojme všechny rozpracované dokumenty, takže vkládání neblokuje
+        READ_QUEUE = new ArrayBlockingQueue<>(BUFFER_SIZE);
+        TOKENIZE_QUEUE = new ArrayBlockingQueue<>(BUFFER_SIZE);
+        SCORE_QUEUE = new ArrayBlockingQueue<>(BUFFER_SIZE);
+        WORKERS = new Thread[Math.max(1, readThreads) + Math.max(1, tokenizeThreads) + Math.max(1, scoreThreads)];
+        int worker = 0;
+
+        for (int i = 0; i < Math.max(1, readThreads); i++) {
+            WORKERS[worker++] = new Thread(() -> runStage(READ_QUEUE, this::read), "pipeline-read-" + i);
+        }
+
+        for (int i = 0; i < Math.max(1, tokenizeThreads); i++) {
+            ClassificationContext context = CLASSIFICATION_MODEL.createContext();
+            WORKERS[worker++] = new Thread(() -> runStage(TOKENIZE_QUEUE, item -> tokenize(item, context)),
+                    "pipeline-tokenize-" + i);
+        }
+
+        for (int i = 0; i < Math.max(1, scoreThreads); i++) {
+            ClassificationContext context = CLASSIFICATION_MODEL.createContext();
+            WORKERS[worker++] = new Thread(() -> runStage(SCORE_QUEUE, item -> score(item, context)),
+                    "pipeline-score-" + i);
+        }
+
+        for (Thread thread : WORKERS) {
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Připojí odběratele výsledků (proud podporuje jediného odběratele).
+     *
+     * @param subscriber odběratel výsledků
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super DocumentResult> subscriber) {
+        Objects.requireNonNull(subscriber);
+
+        if (!SUBSCRIBED.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    // odběr byl odmítnut
+                }
+
+                @Override
+                public void cancel() {
+                    // odběr byl odmítnut
+                }
+            });
+            subscriber.onError(new IllegalStateException("Klasifikační proud již má odběratele."));
+            return;
+        }
+
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    fail(new IllegalArgumentException("Počet vyžádaných výsledků musí být kladný."));
+                    return;
+                }
+
+                DEMAND.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+                drain();
+            }
+
+            @Override
+            public void cancel() {
+                terminate();
+            }
+        });
+        // výsledky jsou vydávány až po dokončení metody onSubscribe
+        downstream = subscriber;
+        drain();
+    }
+
+    /**
+     * Převezme odběr od vydavatele dokumentů a vyžádá počet dokumentů
+     * odpovídající velikosti vyrovnávací paměti.
+     *
+     * @param subscription odběr od vydavatele
+     */
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (upstream != null || terminated) {
+            subscription.cancel();
+            return;
+        }
+
+        upstream = subscription;
+        subscription.request(BUFFER_SIZE);
+    }
+
+    /**
+     * Přijme dokument od vydavatele a předá jej fázi čtení.
+     *
+     * @param document dokument
+     */
+    @Override
+    public void onNext(DocumentSource document) {
+        if (terminated) {
+            return;
+        }
+
+        long sequence;
+
+        synchronized (ORDERED_RESULTS) {
+            sequence = receivedCount++;
+        }
+
+        // vydavatel smí poslat jen vyžádané dokumenty, pro které je ve frontě místo
+        if (!READ_QUEUE.offer(new Item(sequence, document))) {
+            fail(new IllegalStateException("Vydavatel poslal více dokumentů, než bylo vyžádáno."));
+        }
+    }
+
+    /**
+     * Přijme chybu vydavatele (předána odběrateli po vydání výsledků
+     * přijatých dokumentů).
+     *
+     * @param throwable chyba
+     */
+    @Override
+    public void onError(Throwable throwable) {
+        inputError = throwable;
+        inputDone = true;
+        drain();
+    }
+
+    /**
+     * Přijme oznámení o dokončení vstupu (odběrateli předáno po vydání
+     * výsledků přijatých dokumentů).
+     */
+    @Override
+    public void onComplete() {
+        inputDone = true;
+        drain();
+    }
+
+    /**
+     * Smyčka vlákna jedné fáze: odebírá položky ze vstupní fronty fáze
+     * a zpracovává je (položky s chybou jen předává dál).
+     *
+     * @param queue vstupní fronta fáze
+     * @param stage zpracování položky
+     */
+    private void runStage(BlockingQueue<Item> queue, Stage stage) {
+        try {
+            while (!terminated) {
+                Item item = queue.take();
+
+                try {
+                    stage.process(item);
+                }
+                catch (Exception | Error ex) {
+                    // chyba dokumentu je vydána jako jeho výsledek
+                    complete(new DocumentResult(item.DOCUMENT.getId(), item.SEQUENCE, null, ex));
+                }
+            }
+        }
+        catch (InterruptedException ex) {
+            // ukončení proudu
+        }
+    }
+
+    /**
+     * Fáze čtení: načte text dokumentu.
+     *
+     * @param item položka proudu
+     * @throws Exception
+     */
+    private void read(Item item) throws Exception {
+        item.text = item.DOCUMENT.read();
+        TOKENIZE_QUEUE.put(item);
+    }
+
+    /**
+     * Fáze tokenizace: spočítá četnosti slov dokumentu podle indexů ve slovníku.
+     *
+     * @param item položka proudu
+     * @param context kontext klasifikace vlákna
+     * @throws Exception
+     */
+    private void tokenize(Item item, ClassificationContext context) throws Exception {
+        item.termCounts = new TermCounts();
+        context.countTerms(item.text, item.termCounts);
+        // text již není potřeba
+        item.text = null;
+        SCORE_QUEUE.put(item);
+    }
+
+    /**
+     * Fáze skórování: klasifikuje dokument a vydá výsledek.
+     *
+     * @param item položka proudu
+     * @param context kontext klasifikace vlákna
+     */
+    private void score(Item item, ClassificationContext context) {
+        String documentClass = context.classify(item.termCounts);
+        Map<String, Double> scores = new LinkedHashMap<>();
+
+        if (documentClass != null) {
+            List<String> classes = context.getClasses();
+            double[] classScores = context.getScores();
+
+            for (int i = 0; i < classes.size(); i++) {
+                scores.put(classes.get(i), classScores[i]);
+            }
+        }
+
+        complete(new DocumentResult(item.DOCUMENT.getId(), item.SEQUENCE,
+                new Classification(documentClass, scores), null));
+    }
+
+    /**
+     * Uloží dokončený výsledek a vydá připravené výsledky odběrateli.
+     *
+     * @param result výsledek zpracování dokumentu
+     */
+    private void complete(DocumentResult result) {
+        synchronized (ORDERED_RESULTS) {
+            if (ORDERED) {
+                ORDERED_RESULTS.put(result.getSequence(), result);
+            }
+            else {
+                UNORDERED_RESULTS.add(result);
+            }
+        }
+
+        drain();
+    }
+
+    /**
+     * Vydá odběrateli připravené výsledky podle jeho požadavků a po vydání
+     * všech výsledků (nebo po porušení pravidel odběru) ukončí proud.
+     * Výsledky i ukončení proudu vydává vždy jen jedno vlákno;
+     * požadavky ostatních vláken jsou vyřízeny dalším průchodem smyčky.
+     */
+    private void drain() {
+        if (DRAIN_REQUESTS.getAndIncrement() != 0) {
+            return;
+        }
+
+        do {
+            Flow.Subscriber<? super DocumentResult> subscriber = downstream;
+
+            if (subscriber == null || terminated) {
+                continue;
+            }
+
+            Throwable failure = FAILURE.get();
+
+            if (failure != null) {
+                terminate();
+                subscriber.onError(failure);
+                continue;
+            }
+
+            DocumentResult result;
+
+            while (DEMAND.get() > 0 && !terminated && FAILURE.get() == null && (result = pollResult()) != null) {
+                DEMAND.decrementAndGet();
+                subscriber.onNext(result);
+                Flow.Subscription subscription = upstream;
+
+                // převzatý výsledek uvolní místo pro další dokument
+                if (subscription != null && !inputDone) {
+                    subscription.request(1);
+                }
+            }
+
+            boolean finished;
+
+            synchronized (ORDERED_RESULTS) {
+                finished = inputDone && emittedCount == receivedCount;
+            }
+
+            if (finished && !terminated && FAILURE.get() == null) {
+                terminate();
+
+                if (inputError != null) {
+                    subscriber.onError(inputError);
+                }
+                else {
+                    subscriber.onComplete();
+                }
+            }
+        } while (DRAIN_REQUESTS.decrementAndGet() != 0);
+    }
+
+    /**
+     * Odebere další výsledek připravený k vydání.
+     *
+     * @return výsledek, nebo null
+     */
+    private DocumentResult pollResult() {
+        synchronized (ORDERED_RESULTS) {
+            DocumentResult result = ORDERED ? ORDERED_RESULTS.remove(emittedCount) : UNORDERED_RESULTS.poll();
+
+            if (result != null) {
+                emittedCount++;
+            }
+
+            return result;
+        }
+    }
+
+    /**
+     * Ukončí proud chybou (porušení pravidel odběru). Vstup je zrušen ihned,
+     * ale chybu odběrateli předá až vlákno vydávání výsledků, aby nebyla
+     * předána souběžně s výsledkem (signály odběrateli musí být vydávány
+     * postupně).
+     *
+     * @param throwable chyba
+     */
+    private void fail(Throwable throwable) {
+        if (!FAILURE.compareAndSet(null, throwable)) {
+            return;
+        }
+
+        Flow.Subscription subscription = upstream;
+
+        if (subscription != null) {
+            subscription.cancel();
+        }
+
+        drain();
+    }
+
+    /**
+     * Ukončí proud: zruší odběr od vydavatele a ukončí vlákna fází.
+     */
+    private void terminate() {
+        terminated = true;
+        Flow.Subscription subscription = upstream;
+
+        if (subscription != null) {
+            subscription.cancel();
+        }
+
+        // vlákno fáze, které proud ukončilo, skončí po návratu do své smyčky
+        for (Thread worker : WORKERS) {
+            if (worker != Thread.currentThread()) {
+                worker.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Rozhraní zpracování položky jednou fází proudu.
+     */
+    private interface Stage {
+
+        /**
+         * Zpracuje položku a předá ji další fázi (nebo vydá výsledek).
+         *
+         * @param item položka proudu
+         * @throws Exception
+         */
+        void process(Item item) throws Exception;
+
+    }
+
+    /**
+     * Třída, představující dokument procházející fázemi proudu.
+     */
+    private static class Item {
+
+        /**
+         * pořadí dokumentu na vstupu
+         */
+        final long SEQUENCE;
+
+        /**
+         * dokument
+         */
+        final DocumentSource DOCUMENT;
+
+        /**
+         * načtený text dokumentu (po fázi čtení)
+         */
+        ByteBuffer text;
+
+        /**
+         * četnosti slov dokumentu (po fázi tokenizace)
+         */
+        TermCounts termCounts;
+
+        Item(long sequence, DocumentSource document) {
+            SEQUENCE = sequence;
+            DOCUMENT = document;
+        }
+
+    }
+
+}
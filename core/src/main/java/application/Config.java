@@ -0,0 +1,332 @@
+package application;
+
+/**
+ * Knihovní třída, definující konfigurační konstanty programu.
+ * 
+ * @author Petr Kozler
+ */
+public final class Config {
+    
+    /**
+     * název spustitelného archivu
+     */
+    public static final String EXECUTABLE_NAME = "DocumentClassification.jar";
+    
+    /**
+     * FXML dokument definující GUI programu v režimu klasifikace ručně zadaného textu
+     */
+    public static final String WINDOW_FXML_FILE = "Window.fxml";
+    
+    /**
+     * hlavní třída GUI (v modulu GUI, načítaná reflexí, aby režimy bez GUI nevyžadovaly JavaFX)
+     */
+    public static final String GUI_MAIN_CLASS = "application.Main";
+    
+    /**
+     * doba od poslední změny textu v GUI do úplné klasifikace klasifikátorem
+     * bez přírůstkové aktualizace skóre (v milisekundách)
+     */
+    public static final int LIVE_CLASSIFY_DEBOUNCE = 250;
+    
+    /**
+     * počet přírůstkových aktualizací skóre, po kterém jsou skóre vypočtena
+     * znovu ze všech četností slov
+     */
+    public static final int LIVE_CLASSIFY_RESCORE_INTERVAL = 256;
+    
+    /**
+     * počet nejlepších tříd zobrazených v GUI se svým skóre
+     */
+    public static final int LIVE_CLASSIFY_TOP_CLASSES = 3;
+    
+    /**
+     * textový soubor se seznamem klíčových slov a odpovídajících popisů tříd dokumentů
+     */
+    public static final String DOCUMENT_CLASS_FILE = "data/document_classes.csv";
+    
+    /**
+     * textový soubor se seznamem stop-slov (nevýznamných slov v textu)
+     */
+    public static final String STOP_WORD_FILE = "data/stop_words.csv";
+    
+    /**
+     * textový soubor se seznamem předpon slov
+     */
+    public static final String WORD_PREFIX_FILE = "data/word_prefixes.csv";
+    
+    /**
+     * textový soubor se seznamem přípon slov
+     */
+    public static final String WORD_SUFIX_FILE = "data/word_sufixes.csv";
+    
+    /**
+     * textový soubor se seznamem koncovek slov
+     */
+    public static final String WORD_ENDING_FILE = "data/word_endings.csv";
+    
+    /**
+     * přípona binárních souborů pro uchování klasifikačního modelu
+     */
+    public static final String CLASSIFY_MODEL_EXTENSION = ".model";
+    
+    /**
+     * přípona datového souboru zabaleného korpusu dokumentů
+     */
+    public static final String PACKED_CORPUS_EXTENSION = ".corpus";
+    
+    /**
+     * přípona indexu zabaleného korpusu dokumentů (názvy, třídy a pozice dokumentů)
+     */
+    public static final String PACKED_CORPUS_INDEX_EXTENSION = ".index";
+    
+    /**
+     * adresář pro ukládání mezipaměti četností slov v dokumentech korpusů
+     */
+    public static final String CORPUS_CACHE_DIRECTORY = "corpus_cache";
+    
+    /**
+     * přípona binárních souborů mezipaměti četností slov
+     */
+    public static final String CORPUS_CACHE_EXTENSION = ".cache";
+    
+    /**
+     * regulární výraz popisující oddělovače klíčových slov tříd v názvech dokumentů
+     */
+    public static final String DOCUMENT_CLASS_SEPARATOR = "(_|\\.)";
+    
+    /**
+     * znak oddělující klíčová slova a popisy tříd
+     */
+    public static final String CLASS_DESC_SEPARATOR = ":";
+    
+    /**
+     * znaky, ze kterých se skládají slova v textu
+     */
+    public static final String WORD_ALPHA_CHARACTERS = "0123456789aábcčdďeéěfghiíjklmnňoópqrřsštťuúůvwxyýzž";
+    
+    /**
+     * regulární výraz popisující nevýznamové znaky v textu
+     */
+    public static final String WORD_NOT_ALPHA_REGEX = "[^" + WORD_ALPHA_CHARACTERS + "]+";
+    
+    /**
+     * nejvyšší počet dokumentů klasifikovaných najednou při dávkovém skórování
+     */
+    public static final int CLASSIFY_BATCH_SIZE = 64;
+    
+    /**
+     * nejvyšší hloubka vnoření objektů a polí ve čteném textu ve formátu JSON
+     */
+    public static final int JSON_MAX_DEPTH = 64;
+    
+    /**
+     * výchozí rozhodující náskok nejlepší třídy pro předčasné ukončení skórování
+     * naivním Bayesovým klasifikátorem (v logaritmech pravděpodobnosti)
+     */
+    public static final double NAIVE_BAYES_EARLY_EXIT_MARGIN = 60;
+    
+    /**
+     * nejmenší počet různých slov dokumentu pro předčasné ukončení skórování
+     */
+    public static final int NAIVE_BAYES_EARLY_EXIT_MIN_TERMS = 64;
+    
+    /**
+     * počet slov, po jejichž zpracování je kontrolován náskok nejlepší třídy
+     */
+    public static final int NAIVE_BAYES_EARLY_EXIT_CHECK_INTERVAL = 16;
+    
+    /**
+     * počet skupin slov podle vlivu na náskok tříd při řazení slov dokumentu
+     */
+    public static final int NAIVE_BAYES_EARLY_EXIT_GROUP_COUNT = 32;
+    
+    /**
+     * výchozí nejmenší jistota výsledku rychlého klasifikátoru kaskády,
+     * se kterou není dokument klasifikován pomalým klasifikátorem
+     */
+    public static final double CASCADE_DEFAULT_THRESHOLD = 0.99;
+    
+    /**
+     * výchozí port HTTP serveru klasifikační služby
+     */
+    public static final int SERVER_DEFAULT_PORT = 8080;
+    
+    /**
+     * maximální velikost těla požadavku na HTTP server klasifikační služby (v bajtech)
+     */
+    public static final int SERVER_MAX_REQUEST_SIZE = 16 << 20;
+    
+    /**
+     * doba bez dalších změn souboru modelu, po které je nová verze načtena (v milisekundách)
+     */
+    public static final int MODEL_RELOAD_DEBOUNCE = 500;
+    
+    /**
+     * nejvyšší přípustný pokles úspěšnosti klasifikace kontrolní množiny při záměně modelu
+     */
+    public static final double MODEL_RELOAD_MAX_ACCURACY_DROP = 0.05;
+    
+    /**
+     * nejvyšší počet záznamů mezipaměti výsledků klasifikace
+     */
+    public static final int RESULT_CACHE_MAX_ENTRIES = 100_000;
+    
+    /**
+     * nejvyšší odhad paměti obsazené mezipamětí výsledků klasifikace (v bajtech)
+     */
+    public static final long RESULT_CACHE_MAX_BYTES = 64L << 20;
+    
+    /**
+     * nejvyšší počet dokumentů dávky plánovače slučujícího souběžné klasifikace
+     */
+    public static final int MICRO_BATCH_MAX_SIZE = 32;
+    
+    /**
+     * nejdelší čekání na doplnění dávky plánovače od přijetí jejího prvního dokumentu (v milisekundách)
+     */
+    public static final double MICRO_BATCH_MAX_DELAY = 2;
+    
+    /**
+     * kapacita fronty požadavků interaktivního pruhu klasifikační služby
+     */
+    public static final int LANE_INTERACTIVE_QUEUE_CAPACITY = 1024;
+    
+    /**
+     * kapacita fronty požadavků hromadného pruhu klasifikační služby
+     */
+    public static final int LANE_BULK_QUEUE_CAPACITY = 64;
+    
+    /**
+     * váha interaktivního pruhu při výběru požadavků (vůči váze hromadného)
+     */
+    public static final int LANE_INTERACTIVE_WEIGHT = 4;
+    
+    /**
+     * váha hromadného pruhu při výběru požadavků
+     */
+    public static final int LANE_BULK_WEIGHT = 1;
+    
+    /**
+     * mez 99. percentilu doby odezvy interaktivních požadavků, nad kterou jsou
+     * hromadné požadavky odmítány (v milisekundách)
+     */
+    public static final double LANE_INTERACTIVE_P99_TARGET = 50;
+    
+    /**
+     * doba, za kterou jsou doby odezvy interaktivních požadavků zahrnuty do percentilu (v sekundách)
+     */
+    public static final int LANE_LATENCY_WINDOW = 10;
+    
+    /**
+     * počet posledních klasifikovaných dokumentů v indexu otisků téměř shodných dokumentů
+     */
+    public static final int NEAR_DUPLICATE_CAPACITY = 50_000;
+    
+    /**
+     * nejvyšší počet odlišných bitů otisků téměř shodných dokumentů (z 64)
+     */
+    public static final int NEAR_DUPLICATE_MAX_DISTANCE = 3;
+    
+    /**
+     * nejmenší počet různých slov dokumentu pro vyhledání téměř shodných dokumentů
+     */
+    public static final int NEAR_DUPLICATE_MIN_TERMS = 10;
+    
+    /**
+     * počet převzatých výsledků téměř shodných dokumentů, z nichž je jeden ověřen úplnou klasifikací
+     */
+    public static final int NEAR_DUPLICATE_VERIFICATION_INTERVAL = 20;
+    
+    /**
+     * nejvyšší počet rozpracovaných požadavků klasifikačního procesu na jedno vlákno
+     */
+    public static final int WORKER_IN_FLIGHT_DOCUMENTS_PER_THREAD = 64;
+    
+    /**
+     * výchozí počet spuštění procesu pro jednotlivé dokumenty při porovnání s klasifikačním procesem
+     */
+    public static final int WORKER_BENCHMARK_DEFAULT_CALLS = 20;
+    
+    /**
+     * výchozí počet souběžných klientů zátěžového testu
+     */
+    public static final int LOAD_TEST_DEFAULT_CONCURRENCY = 16;
+    
+    /**
+     * výchozí doba měření zátěžového testu (v sekundách)
+     */
+    public static final int LOAD_TEST_DEFAULT_DURATION = 30;
+    
+    /**
+     * doba zahřívání serveru před měřením zátěžového testu (v sekundách)
+     */
+    public static final int LOAD_TEST_WARMUP_DURATION = 3;
+    
+    /**
+     * výchozí doba měření škálovatelnosti klasifikace pro jeden počet vláken (v sekundách)
+     */
+    public static final int SCALING_BENCHMARK_DEFAULT_DURATION = 5;
+    
+    /**
+     * doba měření propustnosti samostatných modelů a modelů v registru (v sekundách)
+     */
+    public static final int REGISTRY_BENCHMARK_DURATION = 5;
+    
+    /**
+     * počet syntetických dokumentů pro zahřátí klasifikace načteného modelu
+     */
+    public static final int WARMUP_DOCUMENT_COUNT = 200;
+    
+    /**
+     * počet slov syntetického dokumentu pro zahřátí klasifikace
+     */
+    public static final int WARMUP_DOCUMENT_WORDS = 200;
+    
+    /**
+     * nejdelší doba zahřívání klasifikace načteného modelu (v milisekundách)
+     */
+    public static final int WARMUP_MAX_DURATION = 1000;
+    
+    /**
+     * výchozí počet spuštění procesu pro každý způsob spuštění při měření doby do první klasifikace
+     */
+    public static final int STARTUP_BENCHMARK_DEFAULT_RUNS = 5;
+    
+    /**
+     * počet dalších dokumentů posílaných klasifikačnímu procesu po první klasifikaci
+     */
+    public static final int STARTUP_BENCHMARK_NEXT_REQUESTS = 20;
+    
+    /**
+     * výchozí doba měření klasifikace jedním počtem vláken při měření celého zpracování (v sekundách)
+     */
+    public static final int END_TO_END_BENCHMARK_DEFAULT_DURATION = 3;
+    
+    /**
+     * pravděpodobnost, že slovo syntetického dokumentu naváže na předchozí slovo podle bigramů
+     */
+    public static final double SYNTHETIC_BIGRAM_WEIGHT = 0.5;
+    
+    /**
+     * pravděpodobnost, že slovo syntetického dokumentu bez bigramu je vybráno ze slov hlavní třídy
+     */
+    public static final double SYNTHETIC_PRIMARY_CLASS_WEIGHT = 0.5;
+    
+    /**
+     * nejvyšší počet slov syntetického dokumentu
+     */
+    public static final int SYNTHETIC_MAX_DOCUMENT_WORDS = 100_000;
+    
+    /**
+     * počet vygenerovaných dokumentů mezi hlášeními o průběhu generování korpusu
+     */
+    public static final int SYNTHETIC_PROGRESS_INTERVAL = 100_000;
+    
+    /**
+     * Zamezuje vytvoření instance.
+     */
+    private Config() {
+        // žádný kód
+    }
+    
+}
@@ -0,0 +1,606 @@
+package application;
+
+import application.helpers.Histogram;
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Třída, představující vykonavatele klasifikačních úloh se dvěma prioritními
+ * pruhy: interaktivním (úlohy citlivé na dobu odezvy) a hromadným (úlohy
+ * s důrazem na propustnost, např. opětovná klasifikace celých korpusů).
+ *
+ * Každý pruh má omezenou frontu a nejvyšší počet současně prováděných úloh;
+ * pokud mají oba pruhy čekající úlohy, volné vlákno vybírá úlohy v poměru
+ * vah pruhů. Pracovních vláken je více, než smí současně používat hromadný
+ * pruh, takže hromadné úlohy nikdy neobsadí všechna vlákna. Překročí-li
+ * 99. percentil doby odezvy interaktivních úloh za poslední dobu zadanou
+ * mez, nové hromadné úlohy jsou odmítány, dokud se doba odezvy nesníží.
+ *
+ * @author Petr Kozler
+ */
+public class LaneExecutor implements Closeable {
+
+    /**
+     * Výčet prioritních pruhů.
+     */
+    public enum Lane {
+
+        /**
+         * úlohy citlivé na dobu odezvy
+         */
+        INTERACTIVE,
+
+        /**
+         * úlohy s důrazem na propustnost
+         */
+        BULK;
+
+        /**
+         * Vrátí pruh podle názvu (bez ohledu na velikost písmen).
+         *
+         * @param name název pruhu
+         * @return pruh
+         * @throws IllegalArgumentException pro neznámý název
+         */
+        public static Lane parse(String name) {
+            return valueOf(name.trim().toUpperCase());
+        }
+
+    }
+
+    /**
+     * počet posledních dob odezvy interaktivních úloh pro určení percentilu
+     */
+    private static final int LATENCY_WINDOW_SIZE = 1024;
+
+    /**
+     * nejkratší interval mezi přepočty percentilu doby odezvy (v nanosekundách)
+     */
+    private static final long PERCENTILE_UPDATE_INTERVAL = 100_000_000L;
+
+    /**
+     * stavy pruhů (podle pořadí ve výčtu)
+     */
+    private final LaneState[] LANES = new LaneState[Lane.values().length];
+
+    /**
+     * pracovní vlákna
+     */
+    private final Thread[] WORKERS;
+
+    /**
+     * mez 99. percentilu doby odezvy interaktivních úloh (v nanosekundách)
+     */
+    private final long LATENCY_TARGET;
+
+    /**
+     * doba, za kterou jsou doby odezvy zahrnuty do percentilu (v nanosekundách)
+     */
+    private final long LATENCY_WINDOW;
+
+    /**
+     * zámek front a počtů prováděných úloh
+     */
+    private final ReentrantLock LOCK = new ReentrantLock();
+
+    /**
+     * podmínka čekání pracovních vláken na úlohu
+     */
+    private final Condition TASK_AVAILABLE = LOCK.newCondition();
+
+    /**
+     * časy dokončení posledních interaktivních úloh (kruhová fronta)
+     */
+    private final long[] LATENCY_TIMES = new long[LATENCY_WINDOW_SIZE];
+
+    /**
+     * doby odezvy posledních interaktivních úloh (kruhová fronta)
+     */
+    private final long[] LATENCIES = new long[LATENCY_WINDOW_SIZE];
+
+    /**
+     * počet zaznamenaných dob odezvy interaktivních úloh
+     */
+    private long latencyCount;
+
+    /**
+     * zbývající počet výběrů interaktivních úloh před výběrem hromadné
+     */
+    private int interactiveCredits;
+
+    /**
+     * poslední vypočtený 99. percentil doby odezvy interaktivních úloh (v nanosekundách)
+     */
+    private volatile long interactiveP99;
+
+    /**
+     * čas posledního přepočtu percentilu
+     */
+    private volatile long percentileTime;
+
+    /**
+     * příznak ukončení vykonavatele (nastavován se zamčeným zámkem)
+     */
+    private volatile boolean closed;
+
+    /**
+     * Vytvoří vykonavatele a spustí jeho pracovní vlákna.
+     *
+     * @param workerCount počet pracovních vláken
+     * @param interactiveLimit nejvyšší počet současně prováděných interaktivních úloh
+     * @param bulkLimit nejvyšší počet současně prováděných hromadných úloh
+     * @param interactiveCapacity kapacita fronty interaktivních úloh
+     * @param bulkCapacity kapacita fronty hromadných úloh
+     * @param interactiveWeight váha interaktivního pruhu při výběru úloh
+     * @param bulkWeight váha hromadného pruhu při výběru úloh
+     * @param latencyTarget mez 99. percentilu doby odezvy interaktivních úloh (v milisekundách)
+     * @param latencyWindow doba, za kterou jsou doby odezvy zahrnuty do percentilu (v sekundách)
+     */
+    public LaneExecutor(int workerCount, int interactiveLimit, int bulkLimit,
+            int interactiveCapacity, int bulkCapacity, int interactiveWeight, int bulkWeight,
+            double latencyTarget, int latencyWindow) {
+        LANES[Lane.INTERACTIVE.ordinal()] = new LaneState(interactiveLimit, interactiveCapacity, interactiveWeight);
+        LANES[Lane.BULK.ordinal()] = new LaneState(bulkLimit, bulkCapacity, bulkWeight);
+        interactiveCredits = Math.max(1, interactiveWeight / Math.max(1, bulkWeight));
+        LATENCY_TARGET = (long) (latencyTarget * 1_000_000);
+        LATENCY_WINDOW = latencyWindow * 1_000_000_000L;
+        WORKERS = new Thread[Math.max(1, workerCount)];
+
+        for (int i = 0; i < WORKERS.length; i++) {
+            WORKERS[i] = new Thread(this::work, "lane-executor-" + i);
+            WORKERS[i].setDaemon(true);
+            WORKERS[i].start();
+        }
+    }
+
+    /**
+     * Vytvoří vykonavatele s výchozím nastavením z {@link Config} pro zadaný
+     * počet procesorů: interaktivní úlohy mohou používat všechna vlákna,
+     * hromadné nejvýše polovinu procesorů (alespoň jedno vlákno), přičemž
+     * vláken je o jedno více než procesorů.
+     *
+     * @param processorCount počet procesorů
+     * @return vykonavatel
+     */
+    public static LaneExecutor createDefault(int processorCount) {
+        int workerCount = processorCount + 1;
+
+        return new LaneExecutor(workerCount, workerCount, Math.max(1, processorCount / 2),
+                Config.LANE_INTERACTIVE_QUEUE_CAPACITY, Config.LANE_BULK_QUEUE_CAPACITY,
+                Config.LANE_INTERACTIVE_WEIGHT, Config.LANE_BULK_WEIGHT,
+                Config.LANE_INTERACTIVE_P99_TARGET, Config.LANE_LATENCY_WINDOW);
+    }
+
+    /**
+     * Zařadí úlohu do zadaného pruhu (doba odezvy úlohy je měřena od zařazení).
+     *
+     * @param <T> typ výsledku úlohy
+     * @param lane pruh
+     * @param task úloha
+     * @return budoucí výsledek úlohy
+     * @see #submit(Lane, Callable, long)
+     */
+    public <T> CompletableFuture<T> submit(Lane lane, Callable<T> task) {
+        return submit(lane, task, System.nanoTime());
+    }
+
+    /**
+     * Zařadí úlohu do zadaného pruhu. Je-li vykonavatel ukončen, je-li
+     * fronta pruhu plná, nebo je-li hromadná úloha odmítnuta kvůli překročení
+     * meze doby odezvy interaktivních úloh, vrácený výsledek skončí výjimkou
+     * {@link RejectedExecutionException}.
+     *
+     * @param <T> typ výsledku úlohy
+     * @param lane pruh
+     * @param task úloha
+     * @param arrivalTime čas přijetí požadavku, od kterého je měřena doba
+     * odezvy úlohy (hodnota {@link System#nanoTime()})
+     * @return budoucí výsledek úlohy
+     */
+    public <T> CompletableFuture<T> submit(Lane lane, Callable<T> task, long arrivalTime) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        LaneState state = LANES[lane.ordinal()];
+        String rejection = null;
+
+        if (!closed && lane == Lane.BULK && getInteractiveP99() > LATENCY_TARGET) {
+            // hromadné úlohy jsou odmítány, dokud interaktivní nestihají mez doby odezvy
+            state.SHED_COUNT.incrementAndGet();
+            rejection = "Hromadné úlohy jsou dočasně odmítány (překročena doba odezvy interaktivních).";
+        }
+        else {
+            LOCK.lock();
+
+            try {
+                // ověření ukončení a zařazení pod stejným zámkem, jinak by úloha
+                // zařazená po vyprázdnění front nikdy nebyla dokončena
+                if (closed) {
+                    rejection = "Vykonavatel úloh je ukončen.";
+                }
+                else if (state.QUEUE.size() < state.CAPACITY) {
+                    state.QUEUE.add(new Task(lane, arrivalTime, result, () -> {
+                        try {
+                            result.complete(task.call());
+                        }
+                        catch (Exception | Error ex) {
+                            result.completeExceptionally(ex);
+                        }
+                    }));
+                    state.SUBMITTED_COUNT.incrementAndGet();
+                    TASK_AVAILABLE.signal();
+                }
+                else {
+                    state.REJECTED_COUNT.incrementAndGet();
+                    rejection = "Fronta úloh pruhu " + lane.name().toLowerCase() + " je plná.";
+                }
+            }
+            finally {
+                LOCK.unlock();
+            }
+        }
+
+        if (rejection != null) {
+            result.completeExceptionally(new RejectedExecutionException(rejection));
+        }
+
+        return result;
+    }
+
+    /**
+     * Vrátí 99. percentil doby odezvy interaktivních úloh dokončených
+     * za poslední dobu (přepočítaný nejvýše jednou za 100 ms).
+     *
+     * @return percentil doby odezvy v nanosekundách (0 bez nedávných úloh)
+     */
+    public long getInteractiveP99() {
+        long now = System.nanoTime();
+
+        if (now - percentileTime < PERCENTILE_UPDATE_INTERVAL) {
+            return interactiveP99;
+        }
+
+        long[] latencies = new long[LATENCY_WINDOW_SIZE];
+        int count = 0;
+
+        LOCK.lock();
+
+        try {
+            int size = (int) Math.min(latencyCount, LATENCY_WINDOW_SIZE);
+
+            for (int i = 0; i < size; i++) {
+                if (now - LATENCY_TIMES[i] <= LATENCY_WINDOW) {
+                    latencies[count++] = LATENCIES[i];
+                }
+            }
+        }
+        finally {
+            LOCK.unlock();
+        }
+
+        Arrays.sort(latencies, 0, count);
+        interactiveP99 = count == 0 ? 0 : latencies[(int) Math.ceil(0.99 * count) - 1];
+        percentileTime = now;
+
+        return interactiveP99;
+    }
+
+    /**
+     * Vrátí statistiky pruhů: délky front, počty prováděných, dokončených
+     * a odmítnutých úloh a histogramy dob čekání a odezvy.
+     *
+     * @return mapa názvů a hodnot statistik
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("workers", WORKERS.length);
+        metrics.put("interactiveP99Millis", getInteractiveP99() / 1_000_000.0);
+        metrics.put("interactiveP99TargetMillis", LATENCY_TARGET / 1_000_000.0);
+        metrics.put("sheddingBulk", interactiveP99 > LATENCY_TARGET);
+
+        LOCK.lock();
+
+        try {
+            for (Lane lane : Lane.values()) {
+                metrics.put(lane.name().toLowerCase(), LANES[lane.ordinal()].getMetrics());
+            }
+        }
+        finally {
+            LOCK.unlock();
+        }
+
+        return metrics;
+    }
+
+    /**
+     * Ukončí pracovní vlákna; čekající úlohy nejsou provedeny a jejich
+     * výsledky skončí výjimkou {@link RejectedExecutionException}.
+     */
+    @Override
+    public void close() {
+        List<Task> pending = new ArrayList<>();
+
+        LOCK.lock();
+
+        try {
+            closed = true;
+
+            for (LaneState state : LANES) {
+                pending.addAll(state.QUEUE);
+                state.QUEUE.clear();
+            }
+        }
+        finally {
+            LOCK.unlock();
+        }
+
+        for (Task task : pending) {
+            task.RESULT.completeExceptionally(new RejectedExecutionException("Vykonavatel úloh je ukončen."));
+        }
+
+        for (Thread worker : WORKERS) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * Smyčka pracovního vlákna: vybírá a provádí úlohy.
+     */
+    private void work() {
+        try {
+            while (!closed) {
+                Task task = take();
+                long start = System.nanoTime();
+
+                try {
+                    task.ACTION.run();
+                }
+                finally {
+                    finish(task, start);
+                }
+            }
+        }
+        catch (InterruptedException ex) {
+            // ukončení vykonavatele
+        }
+    }
+
+    /**
+     * Počká na úlohu, kterou lze provést bez překročení omezení pruhů,
+     * a odebere ji z fronty.
+     *
+     * @return úloha
+     * @throws InterruptedException
+     */
+    private Task take() throws InterruptedException {
+        LOCK.lock();
+
+        try {
+            Task task;
+
+            while ((task = poll()) == null) {
+                TASK_AVAILABLE.await();
+            }
+
+            return task;
+        }
+        finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * Vybere úlohu podle vah pruhů: interaktivní úlohy mají přednost,
+     * dokud nevyčerpají svůj podíl výběrů, pak je vybrána hromadná úloha
+     * (je-li nějaká, jinak se podíl obnoví). Volá se se zamčeným zámkem.
+     *
+     * @return úloha, nebo null, pokud žádnou nelze provést
+     */
+    private Task poll() {
+        LaneState interactive = LANES[Lane.INTERACTIVE.ordinal()];
+        LaneState bulk = LANES[Lane.BULK.ordinal()];
+        boolean interactiveReady = interactive.isReady();
+        boolean bulkReady = bulk.isReady();
+
+        if (interactiveReady && (interactiveCredits > 0 || !bulkReady)) {
+            interactiveCredits = Math.max(0, interactiveCredits - 1);
+
+            return interactive.start();
+        }
+
+        if (bulkReady) {
+            // podíl interaktivních úloh na počet hromadných odpovídá poměru vah
+            interactiveCredits = Math.max(1, interactive.WEIGHT / Math.max(1, bulk.WEIGHT));
+
+            return bulk.start();
+        }
+
+        return null;
+    }
+
+    /**
+     * Zaznamená dokončení úlohy a uvolní místo v jejím pruhu.
+     *
+     * @param task úloha
+     * @param start čas zahájení provádění úlohy
+     */
+    private void finish(Task task, long start) {
+        long end = System.nanoTime();
+        LaneState state = LANES[task.LANE.ordinal()];
+
+        LOCK.lock();
+
+        try {
+            state.running--;
+            state.COMPLETED_COUNT.incrementAndGet();
+            state.WAIT_TIMES.record((start - task.SUBMITTED_TIME) / 1000);
+            state.LATENCIES.record((end - task.SUBMITTED_TIME) / 1000);
+
+            if (task.LANE == Lane.INTERACTIVE) {
+                int index = (int) (latencyCount++ % LATENCY_WINDOW_SIZE);
+                LATENCY_TIMES[index] = end;
+                LATENCIES[index] = end - task.SUBMITTED_TIME;
+            }
+
+            // uvolněné místo může umožnit provedení čekající úlohy pruhu
+            TASK_AVAILABLE.signalAll();
+        }
+        finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * Třída, představující stav jednoho pruhu (fronta, omezení a statistiky).
+     */
+    private static class LaneState {
+
+        /**
+         * nejvyšší počet současně prováděných úloh
+         */
+        final int LIMIT;
+
+        /**
+         * kapacita fronty
+         */
+        final int CAPACITY;
+
+        /**
+         * váha pruhu při výběru úloh
+         */
+        final int WEIGHT;
+
+        /**
+         * fronta čekajících úloh
+         */
+        final ArrayDeque<Task> QUEUE = new ArrayDeque<>();
+
+        /**
+         * počet přijatých úloh
+         */
+        final AtomicLong SUBMITTED_COUNT = new AtomicLong();
+
+        /**
+         * počet dokončených úloh
+         */
+        final AtomicLong COMPLETED_COUNT = new AtomicLong();
+
+        /**
+         * počet úloh odmítnutých kvůli plné frontě
+         */
+        final AtomicLong REJECTED_COUNT = new AtomicLong();
+
+        /**
+         * počet úloh odmítnutých kvůli překročení doby odezvy interaktivních úloh
+         */
+        final AtomicLong SHED_COUNT = new AtomicLong();
+
+        /**
+         * histogram dob čekání ve frontě (v mikrosekundách)
+         */
+        final Histogram WAIT_TIMES = new Histogram();
+
+        /**
+         * histogram dob odezvy (v mikrosekundách)
+         */
+        final Histogram LATENCIES = new Histogram();
+
+        /**
+         * počet právě prováděných úloh
+         */
+        int running;
+
+        LaneState(int limit, int capacity, int weight) {
+            LIMIT = Math.max(1, limit);
+            CAPACITY = Math.max(1, capacity);
+            WEIGHT = Math.max(1, weight);
+        }
+
+        /**
+         * Určí, zda lze zahájit další úlohu pruhu.
+         *
+         * @return true, pokud fronta není prázdná a omezení není dosaženo
+         */
+        boolean isReady() {
+            return !QUEUE.isEmpty() && running < LIMIT;
+        }
+
+        /**
+         * Odebere úlohu z fronty a započítá ji mezi prováděné.
+         *
+         * @return úloha
+         */
+        Task start() {
+            running++;
+
+            return QUEUE.poll();
+        }
+
+        /**
+         * Vrátí statistiky pruhu.
+         *
+         * @return mapa názvů a hodnot statistik
+         */
+        Map<String, Object> getMetrics() {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("limit", LIMIT);
+            metrics.put("capacity", CAPACITY);
+            metrics.put("weight", WEIGHT);
+            metrics.put("queued", QUEUE.size());
+            metrics.put("running", running);
+            metrics.put("submitted", SUBMITTED_COUNT.get());
+            metrics.put("completed", COMPLETED_COUNT.get());
+            metrics.put("rejected", REJECTED_COUNT.get());
+            metrics.put("shed", SHED_COUNT.get());
+            metrics.put("waitMicros", WAIT_TIMES.getMetrics());
+            metrics.put("latencyMicros", LATENCIES.getMetrics());
+
+            return metrics;
+        }
+
+    }
+
+    /**
+     * Třída, představující úlohu čekající ve frontě pruhu.
+     */
+    private static class Task {
+
+        /**
+         * pruh úlohy
+         */
+        final Lane LANE;
+
+        /**
+         * budoucí výsledek úlohy
+         */
+        final CompletableFuture<?> RESULT;
+
+        /**
+         * provedení úlohy (včetně dokončení jejího výsledku)
+         */
+        final Runnable ACTION;
+
+        /**
+         * čas přijetí požadavku úlohy (v nanosekundách)
+         */
+        final long SUBMITTED_TIME;
+
+        Task(Lane lane, long submittedTime, CompletableFuture<?> result, Runnable action) {
+            LANE = lane;
+            SUBMITTED_TIME = submittedTime;
+            RESULT = result;
+            ACTION = action;
+        }
+
+    }
+
+}
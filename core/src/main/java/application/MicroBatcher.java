@@ -0,0 +1,371 @@
+package application;
+
+import application.classification.ClassificationContext;
+import application.containers.Classification;
+import application.containers.ScoreMatrix;
+import application.helpers.Histogram;
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Třída, představující plánovač klasifikace, který souběžné požadavky
+ * na klasifikaci jednotlivých dokumentů slučuje do malých dávek skórovaných
+ * najednou (dávkové skórování zpracuje slova více dokumentů v jednom
+ * průchodu parametry modelu). Výsledky jsou vraceny prostřednictvím
+ * objektů {@link CompletableFuture}.
+ *
+ * Velikost dávky se přizpůsobuje délce fronty: při malé zátěži je každý
+ * požadavek klasifikován ihned sám, při rostoucí frontě pracovní vlákna
+ * čekají na další požadavky, dokud dávka nedosáhne cílové velikosti
+ * (nejvýše zadaného počtu dokumentů), nejdéle však zadanou dobu od přijetí
+ * prvního požadavku dávky. Prodloužení doby odezvy je tak omezeno.
+ * Dávky nepoužívají index otisků téměř shodných dokumentů.
+ *
+ * @author Petr Kozler
+ */
+public class MicroBatcher implements Closeable {
+
+    /**
+     * váha nové délky fronty v klouzavém průměru délky fronty
+     */
+    private static final double QUEUE_DEPTH_SMOOTHING = 0.25;
+
+    /**
+     * nejvyšší počet dokumentů dávky
+     */
+    private final int MAX_BATCH_SIZE;
+
+    /**
+     * nejdelší čekání na doplnění dávky od přijetí jejího prvního požadavku (v nanosekundách)
+     */
+    private final long MAX_DELAY;
+
+    /**
+     * fronta čekajících požadavků
+     */
+    private final BlockingQueue<Request> QUEUE = new LinkedBlockingQueue<>();
+
+    /**
+     * pracovní vlákna klasifikující dávky
+     */
+    private final Thread[] WORKERS;
+
+    /**
+     * histogram délek fronty při sestavování dávek
+     */
+    private final Histogram QUEUE_DEPTHS = new Histogram();
+
+    /**
+     * histogram velikostí dávek
+     */
+    private final Histogram BATCH_SIZES = new Histogram();
+
+    /**
+     * histogram dob čekání požadavků ve frontě (v mikrosekundách)
+     */
+    private final Histogram WAIT_TIMES = new Histogram();
+
+    /**
+     * klouzavý průměr délky fronty
+     */
+    private volatile double smoothedQueueDepth;
+
+    /**
+     * příznak ukončení plánovače
+     */
+    private volatile boolean closed;
+
+    /**
+     * Vytvoří plánovač a spustí jeho pracovní vlákna.
+     *
+     * @param maxBatchSize nejvyšší počet dokumentů dávky
+     * @param maxDelay nejdelší čekání na doplnění dávky (v milisekundách)
+     * @param workerCount počet pracovních vláken
+     */
+    public MicroBatcher(int maxBatchSize, double maxDelay, int workerCount) {
+        MAX_BATCH_SIZE = Math.max(1, maxBatchSize);
+        MAX_DELAY = (long) (maxDelay * 1_000_000);
+        WORKERS = new Thread[Math.max(1, workerCount)];
+
+        for (int i = 0; i < WORKERS.length; i++) {
+            WORKERS[i] = new Thread(this::work, "micro-batcher-" + i);
+            WORKERS[i].setDaemon(true);
+            WORKERS[i].start();
+        }
+    }
+
+    /**
+     * Zařadí dokument ke klasifikaci zadanou verzí modelu. Volající musí
+     * držet odkaz na verzi modelu až do dokončení klasifikace.
+     *
+     * @param model verze klasifikačního modelu
+     * @param text text dokumentu v kódování UTF-8
+     * @return budoucí výsledek klasifikace se skóre seřazenými sestupně
+     */
+    public CompletableFuture<Classification> submit(ModelVersion model, ByteBuffer text) {
+        Request request = new Request(model, text);
+
+        if (closed) {
+            request.RESULT.completeExceptionally(new RejectedExecutionException("Plánovač klasifikace je ukončen."));
+        }
+        else {
+            QUEUE.add(request);
+
+            // plánovač mohl být ukončen (a fronta vyprázdněna) mezi ověřením příznaku a zařazením
+            if (closed) {
+                rejectQueued();
+            }
+        }
+
+        return request.RESULT;
+    }
+
+    /**
+     * Vrátí statistiky plánovače: nastavení, aktuální délku fronty
+     * a histogramy délek fronty, velikostí dávek a dob čekání.
+     *
+     * @return mapa názvů a hodnot statistik
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("maxBatchSize", MAX_BATCH_SIZE);
+        metrics.put("maxDelayMicros", MAX_DELAY / 1000);
+        metrics.put("workers", WORKERS.length);
+        metrics.put("queued", QUEUE.size());
+        metrics.put("targetBatchSize", getTargetBatchSize());
+        metrics.put("queueDepth", QUEUE_DEPTHS.getMetrics());
+        metrics.put("batchSize", BATCH_SIZES.getMetrics());
+        metrics.put("waitMicros", WAIT_TIMES.getMetrics());
+
+        return metrics;
+    }
+
+    /**
+     * Ukončí pracovní vlákna; čekající požadavky jsou odmítnuty.
+     */
+    @Override
+    public void close() {
+        closed = true;
+
+        for (Thread worker : WORKERS) {
+            worker.interrupt();
+        }
+
+        rejectQueued();
+    }
+
+    /**
+     * Odebere všechny požadavky z fronty a odmítne je.
+     */
+    private void rejectQueued() {
+        Request request;
+
+        while ((request = QUEUE.poll()) != null) {
+            request.RESULT.completeExceptionally(new RejectedExecutionException("Plánovač klasifikace je ukončen."));
+        }
+    }
+
+    /**
+     * Smyčka pracovního vlákna: sestavuje dávky z fronty a klasifikuje je.
+     */
+    private void work() {
+        List<Request> batch = new ArrayList<>(MAX_BATCH_SIZE);
+
+        try {
+            while (!closed) {
+                collectBatch(batch);
+                long now = System.nanoTime();
+
+                for (Request request : batch) {
+                    WAIT_TIMES.record((now - request.ENQUEUED_TIME) / 1000);
+                }
+
+                BATCH_SIZES.record(batch.size());
+                classifyBatch(batch);
+                batch.clear();
+            }
+        }
+        catch (InterruptedException ex) {
+            // ukončení plánovače
+            for (Request request : batch) {
+                request.RESULT.completeExceptionally(new RejectedExecutionException("Plánovač klasifikace je ukončen."));
+            }
+        }
+    }
+
+    /**
+     * Počká na první požadavek a doplní dávku dalšími, dokud nedosáhne
+     * cílové velikosti podle délky fronty nebo nevyprší doba čekání.
+     *
+     * @param batch seznam pro požadavky dávky
+     * @throws InterruptedException
+     */
+    private void collectBatch(List<Request> batch) throws InterruptedException {
+        Request first = QUEUE.take();
+        batch.add(first);
+        int queueDepth = QUEUE.size() + 1;
+        QUEUE_DEPTHS.record(queueDepth);
+        smoothedQueueDepth += QUEUE_DEPTH_SMOOTHING * (queueDepth - smoothedQueueDepth);
+        int targetSize = getTargetBatchSize();
+        QUEUE.drainTo(batch, targetSize - batch.size());
+        long deadline = first.ENQUEUED_TIME + MAX_DELAY;
+
+        // při zátěži je dávka doplňována, dokud nevyprší doba čekání prvního požadavku
+        while (batch.size() < targetSize) {
+            long remaining = deadline - System.nanoTime();
+            Request next = remaining > 0 ? QUEUE.poll(remaining, TimeUnit.NANOSECONDS) : null;
+
+            if (next == null) {
+                break;
+            }
+
+            batch.add(next);
+            QUEUE.drainTo(batch, targetSize - batch.size());
+        }
+    }
+
+    /**
+     * Vrátí cílovou velikost dávky podle klouzavého průměru délky fronty
+     * (fronta je rozdělena mezi pracovní vlákna; bez fronty 1).
+     *
+     * @return cílová velikost dávky
+     */
+    private int getTargetBatchSize() {
+        int targetSize = (int) Math.ceil(smoothedQueueDepth / WORKERS.length);
+
+        return Math.max(1, Math.min(MAX_BATCH_SIZE, targetSize));
+    }
+
+    /**
+     * Klasifikuje dávku požadavků (po skupinách se stejnou verzí modelu)
+     * a dokončí jejich výsledky.
+     *
+     * @param batch požadavky dávky
+     */
+    private void classifyBatch(List<Request> batch) {
+        List<Request> group = new ArrayList<>(batch.size());
+        boolean[] done = new boolean[batch.size()];
+
+        for (int i = 0; i < batch.size(); i++) {
+            if (done[i]) {
+                continue;
+            }
+
+            ModelVersion model = batch.get(i).MODEL;
+
+            for (int j = i; j < batch.size(); j++) {
+                if (!done[j] && batch.get(j).MODEL == model) {
+                    group.add(batch.get(j));
+                    done[j] = true;
+                }
+            }
+
+            classifyGroup(model, group);
+            group.clear();
+        }
+    }
+
+    /**
+     * Klasifikuje požadavky se stejnou verzí modelu dávkovým skórováním.
+     *
+     * @param model verze klasifikačního modelu
+     * @param group požadavky
+     */
+    private void classifyGroup(ModelVersion model, List<Request> group) {
+        try {
+            List<ByteBuffer> texts = new ArrayList<>(group.size());
+
+            for (Request request : group) {
+                texts.add(request.TEXT);
+            }
+
+            ScoreMatrix matrix;
+            ClassificationContext context = model.borrowContext();
+
+            try {
+                matrix = context.classifyTextBatch(texts);
+            }
+            finally {
+                model.returnContext(context);
+            }
+
+            for (int i = 0; i < group.size(); i++) {
+                group.get(i).RESULT.complete(createClassification(matrix, i));
+            }
+        }
+        catch (RuntimeException ex) {
+            for (Request request : group) {
+                request.RESULT.completeExceptionally(ex);
+            }
+        }
+    }
+
+    /**
+     * Vytvoří výsledek klasifikace dokumentu dávky se skóre seřazenými sestupně
+     * (bez skóre, pokud dokument nebylo možné zařadit).
+     *
+     * @param matrix matice skóre dávky
+     * @param document pořadí dokumentu v dávce
+     * @return výsledek klasifikace
+     */
+    private static Classification createClassification(ScoreMatrix matrix, int document) {
+        Map<String, Double> scores = new LinkedHashMap<>();
+        String documentClass = matrix.getDocumentClass(document);
+
+        if (documentClass != null) {
+            Map<String, Double> documentScores = new LinkedHashMap<>();
+
+            for (int i = 0; i < matrix.getClasses().size(); i++) {
+                documentScores.put(matrix.getClasses().get(i), matrix.getScore(document, i));
+            }
+
+            documentScores.entrySet().stream()
+                    .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                    .forEach(score -> scores.put(score.getKey(), score.getValue()));
+        }
+
+        return new Classification(documentClass, scores);
+    }
+
+    /**
+     * Třída, představující čekající požadavek na klasifikaci dokumentu.
+     */
+    private static class Request {
+
+        /**
+         * verze klasifikačního modelu
+         */
+        final ModelVersion MODEL;
+
+        /**
+         * text dokumentu
+         */
+        final ByteBuffer TEXT;
+
+        /**
+         * čas zařazení do fronty (v nanosekundách)
+         */
+        final long ENQUEUED_TIME = System.nanoTime();
+
+        /**
+         * budoucí výsledek klasifikace
+         */
+        final CompletableFuture<Classification> RESULT = new CompletableFuture<>();
+
+        Request(ModelVersion model, ByteBuffer text) {
+            MODEL = model;
+            TEXT = text;
+        }
+
+    }
+
+}
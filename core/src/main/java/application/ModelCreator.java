@@ -1,11 +1,16 @@
 package application;
 
 import application.classification.AClassifier;
+import application.classification.ClassificationContext;
 import application.containers.ClassificationModel;
+import application.containers.ScoreMatrix;
+import application.helpers.ACorpus;
 import application.helpers.FileIoHandler;
 import application.containers.MutableInt;
 import application.parameterisation.AWordCounter;
+import application.parameterisation.Utf8Tokenizer;
 import application.containers.TextDocument;
+import application.helpers.WordCountCache;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -48,6 +53,16 @@ public class ModelCreator {
      */
     private final AWordCounter WORD_COUNTER;
     
+    /**
+     * tokenizér počítající četnosti slov přímo nad bajty dokumentů
+     */
+    private final Utf8Tokenizer TOKENIZER;
+    
+    /**
+     * mezipaměť četností slov v již zpracovaných dokumentech (nebo null)
+     */
+    private final WordCountCache WORD_COUNT_CACHE;
+    
     /**
      * klasifikátor dokumentů
      */
@@ -63,27 +78,54 @@ public class ModelCreator {
      */
     public ModelCreator(AWordCounter wordCounter, AClassifier classifier)
             throws IOException {
+        this(wordCounter, classifier, true);
+    }
+    
+    /**
+     * Vytvoří objekt pro načítání dokumentů, vytváření a testování
+     * klasifikačního modelu s volitelným použitím mezipaměti četností slov
+     * (bez ní jsou všechny dokumenty vždy znovu tokenizovány, např. při
+     * měření doby trénování).
+     * 
+     * @param wordCounter čítač slov v dokumentech
+     * @param classifier klasifikátor dokumentů
+     * @param useWordCountCache true pro použití mezipaměti četností slov
+     * @throws IOException 
+     */
+    public ModelCreator(AWordCounter wordCounter, AClassifier classifier, boolean useWordCountCache)
+            throws IOException {
         FILE_IO_HANDLER = FileIoHandler.getInstance();
         WORD_COUNTER = wordCounter;
         CLASSIFIER = classifier;
+        TOKENIZER = new Utf8Tokenizer(wordCounter);
+        WORD_COUNT_CACHE = useWordCountCache ? new WordCountCache(Config.CORPUS_CACHE_DIRECTORY,
+                wordCounter.getConfigurationKey(), Config.CORPUS_CACHE_EXTENSION) : null;
     }
     
     /**
      * Vytvoří klasifikační model.
      * 
-     * @param trainingSetFiles soubory trénovací množiny
-     * @param testSetFiles soubory testovací množiny
+     * @param trainingSet dokumenty trénovací množiny
+     * @param testSet dokumenty testovací množiny (nebo null pro vytvoření
+     * modelu bez vyhodnocení)
      * @return klasifikační model
      * @throws IOException 
      */
-    public ClassificationModel createClassificationModel(List<String> trainingSetFiles, List<String> testSetFiles)
+    public ClassificationModel createClassificationModel(ACorpus trainingSet, ACorpus testSet)
             throws IOException {
         // načtení vstupních dat
-        initializeClassifier(trainingSetFiles);
+        initializeClassifier(trainingSet);
         
         // trénování a vyhodnocování
         CLASSIFIER.train(DOCUMENTS);
-        evaluateClassifier(testSetFiles);
+        
+        if (testSet != null) {
+            evaluateClassifier(testSet);
+        }
+        
+        if (WORD_COUNT_CACHE != null) {
+            saveWordCountCache();
+        }
         
         ClassificationModel classificationModel = new ClassificationModel();
         classificationModel.setModelComponents(WORD_COUNTER, CLASSIFIER);
@@ -94,18 +136,18 @@ public class ModelCreator {
     /**
      * Spustí načítání dokumentů v trénovací množině.
      * 
-     * @param trainingSetFiles seznam souborů trénovací množiny
+     * @param trainingSet dokumenty trénovací množiny
      * @throws IOException
      */
-    private void initializeClassifier(List<String> trainingSetFiles)
+    private void initializeClassifier(ACorpus trainingSet)
             throws IOException {
         System.out.println("Spuštěno načítání dokumentů pro trénování klasifikátoru.\n");
         
-        for (String path : trainingSetFiles) {
+        for (int i = 0; i < trainingSet.size(); i++) {
             // načtení příznaků dokumentu
-            TextDocument document = loadDocumentInfo(path);
+            TextDocument document = loadDocumentInfo(trainingSet, i);
             System.out.println(document.NAME);
-            addDocumentInfoToLists(document);
+            addDocumentInfoToLists(document, trainingSet.getClassKeyWord(i));
         }
         
         System.out.println("==================================================\n"
@@ -127,8 +169,6 @@ public class ModelCreator {
         
         List<String> classes = new ArrayList<>(CLASSES);
         Collections.sort(classes);
-        List<String> vocabulary = new ArrayList<>(VOCABULARY);
-        Collections.sort(vocabulary);
         
         Map<String, List<TextDocument>> documents = new HashMap<>();
         
@@ -141,17 +181,7 @@ public class ModelCreator {
         Collections.unmodifiableMap(documents);
         
         CLASSIFIER.setLists(Collections.unmodifiableList(classes),
-                Collections.unmodifiableList(vocabulary));
-    }
-    
-    /**
-     * Vrátí zkratku třídy podle názvu dokumentu.
-     * 
-     * @param name název dokumentu
-     * @return zkratka třídy
-     */
-    private String getClassKeyWord(String name) {
-        return name.split(Config.DOCUMENT_CLASS_SEPARATOR)[1];
+                Collections.unmodifiableSet(VOCABULARY));
     }
     
     /**
@@ -159,9 +189,9 @@ public class ModelCreator {
      * do seznamu v mapě k odpovídající třídě.
      * 
      * @param document dokument
+     * @param documentClass zkratka třídy dokumentu
      */
-    private void addDocumentInfoToLists(TextDocument document) {
-        String documentClass = getClassKeyWord(document.NAME);
+    private void addDocumentInfoToLists(TextDocument document, String documentClass) {
         VOCABULARY.addAll(document.getWordCounts().keySet());
         
         // přiřazení dokumentu k odpovídající třídě určené názvem souboru
@@ -178,56 +208,94 @@ public class ModelCreator {
     /**
      * Načte obsah dokumentu a spočítá četnosti slov.
      * 
-     * @param path cesta k dokumentu
+     * @param corpus korpus dokumentů
+     * @param index pořadové číslo dokumentu v korpusu
      * @return dokument
      * @throws IOException 
      */
-    private TextDocument loadDocumentInfo(String path) throws IOException {
-        // získání názvu souboru korpusu dokumentu a vytvoření přepravky
-        String name = FILE_IO_HANDLER.getFileNameFromPath(path);
-        TextDocument document = new TextDocument(name);
-        String text = FILE_IO_HANDLER.loadTextDocument(path);
-        // načtení textu, spočtení slov a doplnění nalezených slov do slovníku
-        Map<String, MutableInt> wordCounts = WORD_COUNTER.countWords(text);
+    private TextDocument loadDocumentInfo(ACorpus corpus, int index) throws IOException {
+        // získání názvu dokumentu v korpusu a vytvoření přepravky
+        TextDocument document = new TextDocument(corpus.getName(index));
+        String path = corpus.getPath(index);
+        long size = corpus.getSize(index);
+        long modified = corpus.getModifiedTime(index);
+        // převzetí četností z mezipaměti, pokud se soubor od posledního zpracování nezměnil
+        Map<String, MutableInt> wordCounts = WORD_COUNT_CACHE != null
+                ? WORD_COUNT_CACHE.get(path, size, modified) : null;
+        
+        if (wordCounts == null) {
+            // načtení obsahu, spočtení slov a doplnění nalezených slov do slovníku
+            wordCounts = TOKENIZER.countWords(corpus.loadBytes(index));
+            
+            if (WORD_COUNT_CACHE != null) {
+                WORD_COUNT_CACHE.put(path, size, modified, wordCounts);
+            }
+        }
+        
         document.setWordCounts(wordCounts);
         
         return document;
     }
     
+    /**
+     * Uloží mezipaměť četností slov pro urychlení příštího vytváření modelu.
+     * 
+     * @throws IOException 
+     */
+    private void saveWordCountCache() throws IOException {
+        System.out.println("==================================================\n"
+                + "Dokumentů převzatých z mezipaměti: " + WORD_COUNT_CACHE.getHitCount()
+                + ", nově zpracovaných: " + WORD_COUNT_CACHE.getMissCount());
+        WORD_COUNT_CACHE.save();
+        System.out.println("--- HOTOVO ---");
+    }
+    
     /**
      * Spustí vyhodnocování spolehlivosti klasifikátoru dokumenty testovací množiny.
      * 
-     * @param testSetFiles seznam dokumentů testovací množiny
+     * @param testSet dokumenty testovací množiny
      * @throws IOException 
      */
-    private void evaluateClassifier(List<String> testSetFiles)
+    private void evaluateClassifier(ACorpus testSet)
             throws IOException {
         System.out.println("==================================================\n"
                 + "Spuštěno testování klasifikace dokumentů:\n---");
         FileIoHandler fileIoHandler = FileIoHandler.getInstance();
         
+        ClassificationContext context = CLASSIFIER.createContext(null);
+        List<TextDocument> batch = new ArrayList<>(Config.CLASSIFY_BATCH_SIZE);
         int count = 0;
         int correctCount = 0;
-        for (String path : testSetFiles) {
-            // načtení testovacího dokumentu
-            TextDocument document = loadDocumentInfo(path);
-            String actualClass = getClassKeyWord(document.NAME);
-            String detectedClass = CLASSIFIER.classify(document);
-            FileIoHandler classDescription = FileIoHandler.getInstance();
+        for (int offset = 0; offset < testSet.size(); offset += Config.CLASSIFY_BATCH_SIZE) {
+            // načtení bloku testovacích dokumentů a jejich klasifikace najednou
+            batch.clear();
             
-            count++;
-            System.out.println("Testovací dokument: " + document.NAME);
-            System.out.println("Zjištěná třída: " + classDescription.getClassDescription(detectedClass));
-            System.out.println("Skutečná třída: " + classDescription.getClassDescription(actualClass));
+            for (int i = offset; i < Math.min(offset + Config.CLASSIFY_BATCH_SIZE, testSet.size()); i++) {
+                batch.add(loadDocumentInfo(testSet, i));
+            }
             
-            // porovnání skutečné a zjištěné třídy
-            boolean correct = actualClass.equals(detectedClass);
+            ScoreMatrix scoreMatrix = context.classifyBatch(batch);
             
-            if (correct) {
-                correctCount++;
+            for (int i = 0; i < batch.size(); i++) {
+                TextDocument document = batch.get(i);
+                String actualClass = testSet.getClassKeyWord(offset + i);
+                String detectedClass = scoreMatrix.getDocumentClass(i);
+                FileIoHandler classDescription = FileIoHandler.getInstance();
+                
+                count++;
+                System.out.println("Testovací dokument: " + document.NAME);
+                System.out.println("Zjištěná třída: " + classDescription.getClassDescription(detectedClass));
+                System.out.println("Skutečná třída: " + classDescription.getClassDescription(actualClass));
+                
+                // porovnání skutečné a zjištěné třídy
+                boolean correct = actualClass.equals(detectedClass);
+                
+                if (correct) {
+                    correctCount++;
+                }
+                
+                System.out.println("Hodnocení: " + (correct ? "OK" : "FAIL") + "\n---");
             }
-            
-            System.out.println("Hodnocení: " + (correct ? "OK" : "FAIL") + "\n---");
         }
         
         // výpočet spolehlivosti
@@ -0,0 +1,292 @@
+package application;
+
+import application.classification.ClassificationContext;
+import application.containers.Classification;
+import application.containers.ClassificationModel;
+import application.containers.TermCounts;
+import application.containers.Vocabulary;
+import application.parameterisation.AWordCounter;
+import application.parameterisation.Utf8Tokenizer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Třída, představující registr více současně načtených klasifikačních
+ * modelů (různých klasifikátorů a korpusů). Při registraci modelu jsou
+ * jeho komponenty shodné s komponentami dříve registrovaných modelů
+ * nahrazeny těmito komponentami, takže jsou v paměti uloženy jen jednou:
+ * <ul>
+ * <li>čítače slov se stejným klíčem konfigurace a shodnými pomocnými objekty,</li>
+ * <li>shodné seznamy stop-slov, předpon, přípon a koncovek (hledané podle otisku),</li>
+ * <li>slovníky se stejnými slovy (modely natrénované na stejném korpusu).</li>
+ * </ul>
+ * Při klasifikaci dokumentu všemi modely je text tokenizován jen jednou
+ * pro každou konfiguraci čítače slov a četnosti slov jsou určeny jen jednou
+ * pro každý různý slovník, odkud jsou předány ke skórování všem modelům.
+ *
+ * @author Petr Kozler
+ */
+public class ModelRegistry {
+
+    /**
+     * registrované modely podle názvu
+     */
+    private final Map<String, ClassificationModel> MODELS = new LinkedHashMap<>();
+
+    /**
+     * sdílené čítače slov podle klíče konfigurace
+     */
+    private final Map<String, AWordCounter> WORD_COUNTERS = new LinkedHashMap<>();
+
+    /**
+     * sdílené slovníky
+     */
+    private final Map<Vocabulary, Vocabulary> VOCABULARIES = new HashMap<>();
+
+    /**
+     * sdílené pomocné objekty čítačů slov podle druhu a otisku
+     */
+    private final Map<String, Object> COMPONENTS = new HashMap<>();
+
+    /**
+     * počet čítačů slov nahrazených sdíleným čítačem
+     */
+    private int sharedWordCounterCount;
+
+    /**
+     * počet slovníků nahrazených sdíleným slovníkem
+     */
+    private int sharedVocabularyCount;
+
+    /**
+     * velikost dat nahrazených slovníků v bajtech
+     */
+    private long sharedVocabularyBytes;
+
+    /**
+     * Zaregistruje klasifikační model. Komponenty modelu shodné s komponentami
+     * registrovaných modelů jsou nahrazeny sdílenými komponentami (výsledky
+     * klasifikace modelem se tím nemění).
+     *
+     * @param name název modelu
+     * @param classificationModel klasifikační model
+     */
+    public synchronized void register(String name, ClassificationModel classificationModel) {
+        if (MODELS.containsKey(name)) {
+            throw new IllegalArgumentException("Model se zadaným názvem je již registrován: " + name);
+        }
+
+        AWordCounter wordCounter = classificationModel.getWordCounter();
+        AWordCounter sharedWordCounter = WORD_COUNTERS.get(wordCounter.getConfigurationKey());
+
+        if (sharedWordCounter == null) {
+            wordCounter.shareComponents(COMPONENTS);
+            // klíč konfigurace se sdílením pomocných objektů nemění
+            WORD_COUNTERS.put(wordCounter.getConfigurationKey(), wordCounter);
+            sharedWordCounter = wordCounter;
+        }
+        else if (!sharedWordCounter.hasSameConfiguration(wordCounter)) {
+            // otisky různých seznamů se shodují, model si ponechá vlastní čítač slov
+            wordCounter.shareComponents(COMPONENTS);
+            sharedWordCounter = wordCounter;
+        }
+        else {
+            sharedWordCounterCount++;
+        }
+
+        Vocabulary vocabulary = classificationModel.getClassifier().getVocabulary();
+        Vocabulary sharedVocabulary = VOCABULARIES.putIfAbsent(vocabulary, vocabulary);
+
+        if (sharedVocabulary != null && sharedVocabulary != vocabulary) {
+            classificationModel.getClassifier().shareVocabulary(sharedVocabulary);
+            sharedVocabularyCount++;
+            sharedVocabularyBytes += vocabulary.getDataSize();
+        }
+
+        classificationModel.setModelComponents(sharedWordCounter, classificationModel.getClassifier());
+        MODELS.put(name, classificationModel);
+    }
+
+    /**
+     * Vrátí názvy registrovaných modelů v pořadí registrace.
+     *
+     * @return názvy modelů
+     */
+    public synchronized List<String> getNames() {
+        return new ArrayList<>(MODELS.keySet());
+    }
+
+    /**
+     * Vytvoří kontext pro klasifikaci textů dokumentů všemi modely
+     * registrovanými v této chvíli jedním vláknem (každé vlákno musí
+     * používat vlastní kontext).
+     *
+     * @return kontext klasifikace
+     */
+    public synchronized Context createContext() {
+        return new Context(MODELS);
+    }
+
+    /**
+     * Vrátí metriky sdílení komponent registrovaných modelů.
+     *
+     * @return metriky (název a hodnota)
+     */
+    public synchronized Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("models", MODELS.size());
+        metrics.put("wordCounters", WORD_COUNTERS.size());
+        metrics.put("vocabularies", VOCABULARIES.size());
+        metrics.put("wordCounterComponents", COMPONENTS.size());
+        metrics.put("sharedWordCounters", sharedWordCounterCount);
+        metrics.put("sharedVocabularies", sharedVocabularyCount);
+        metrics.put("sharedVocabularyBytes", sharedVocabularyBytes);
+
+        return metrics;
+    }
+
+    /**
+     * Třída, představující pracovní paměť pro klasifikaci dokumentů všemi
+     * registrovanými modely jedním vláknem. Obsahuje jeden tokenizér pro
+     * každý čítač slov (s indexy slov ve všech slovnících modelů s tímto
+     * čítačem), jedny četnosti slov pro každý slovník a kontext klasifikace
+     * pro každý model.
+     */
+    public static class Context {
+
+        /**
+         * tokenizéry jednotlivých čítačů slov
+         */
+        private final Utf8Tokenizer[] TOKENIZERS;
+
+        /**
+         * četnosti slov pro slovníky jednotlivých tokenizérů
+         */
+        private final TermCounts[][] TERM_COUNTS;
+
+        /**
+         * názvy modelů
+         */
+        private final String[] NAMES;
+
+        /**
+         * kontexty klasifikace jednotlivých modelů
+         */
+        private final ClassificationContext[] CONTEXTS;
+
+        /**
+         * četnosti slov ve slovníku jednotlivých modelů (sdílené modely se stejným slovníkem)
+         */
+        private final TermCounts[] MODEL_TERM_COUNTS;
+
+        /**
+         * Vytvoří kontext pro klasifikaci zadanými modely.
+         *
+         * @param models modely podle názvu
+         */
+        private Context(Map<String, ClassificationModel> models) {
+            Map<AWordCounter, List<Vocabulary>> vocabularies = new LinkedHashMap<>();
+
+            for (ClassificationModel classificationModel : models.values()) {
+                List<Vocabulary> counterVocabularies = vocabularies.computeIfAbsent(
+                        classificationModel.getWordCounter(), wordCounter -> new ArrayList<>());
+                Vocabulary vocabulary = classificationModel.getClassifier().getVocabulary();
+
+                if (!counterVocabularies.contains(vocabulary)) {
+                    counterVocabularies.add(vocabulary);
+                }
+            }
+
+            TOKENIZERS = new Utf8Tokenizer[vocabularies.size()];
+            TERM_COUNTS = new TermCounts[vocabularies.size()][];
+            int group = 0;
+
+            for (Map.Entry<AWordCounter, List<Vocabulary>> entry : vocabularies.entrySet()) {
+                TOKENIZERS[group] = new Utf8Tokenizer(entry.getKey(), entry.getValue());
+                TERM_COUNTS[group] = new TermCounts[entry.getValue().size()];
+
+                for (int k = 0; k < TERM_COUNTS[group].length; k++) {
+                    TERM_COUNTS[group][k] = new TermCounts();
+                }
+
+                group++;
+            }
+
+            NAMES = models.keySet().toArray(new String[0]);
+            CONTEXTS = new ClassificationContext[NAMES.length];
+            MODEL_TERM_COUNTS = new TermCounts[NAMES.length];
+            List<AWordCounter> wordCounters = new ArrayList<>(vocabularies.keySet());
+
+            for (int i = 0; i < NAMES.length; i++) {
+                ClassificationModel classificationModel = models.get(NAMES[i]);
+                int counterIndex = wordCounters.indexOf(classificationModel.getWordCounter());
+                int vocabularyIndex = vocabularies.get(classificationModel.getWordCounter())
+                        .indexOf(classificationModel.getClassifier().getVocabulary());
+                CONTEXTS[i] = classificationModel.createContext();
+                MODEL_TERM_COUNTS[i] = TERM_COUNTS[counterIndex][vocabularyIndex];
+            }
+        }
+
+        /**
+         * Vrátí počet tokenizací textu dokumentu při klasifikaci všemi modely
+         * (počet různých čítačů slov).
+         *
+         * @return počet tokenizací
+         */
+        public int getTokenizationCount() {
+            return TOKENIZERS.length;
+        }
+
+        /**
+         * Klasifikuje dokument zadaný bajty textu v kódování UTF-8 (mezi
+         * aktuální pozicí a limitem bufferu) všemi modely.
+         *
+         * @param text text dokumentu
+         * @return výsledky klasifikace podle názvu modelu (v pořadí registrace)
+         */
+        public Map<String, Classification> classify(ByteBuffer text) {
+            countTerms(text);
+            Map<String, Classification> results = new LinkedHashMap<>();
+
+            for (int i = 0; i < NAMES.length; i++) {
+                String documentClass = CONTEXTS[i].classify(MODEL_TERM_COUNTS[i]);
+                results.put(NAMES[i], new Classification(documentClass, CONTEXTS[i].getScoreMap()));
+            }
+
+            return results;
+        }
+
+        /**
+         * Klasifikuje dokument zadaný bajty textu v kódování UTF-8 všemi
+         * modely a vrátí jen zjištěné třídy (bez vytváření map skóre).
+         *
+         * @param text text dokumentu
+         * @param documentClasses pole pro třídy dokumentu podle modelů (v pořadí registrace)
+         */
+        public void classify(ByteBuffer text, String[] documentClasses) {
+            countTerms(text);
+
+            for (int i = 0; i < NAMES.length; i++) {
+                documentClasses[i] = CONTEXTS[i].classify(MODEL_TERM_COUNTS[i]);
+            }
+        }
+
+        /**
+         * Spočítá četnosti slov dokumentu pro všechny slovníky (jedna
+         * tokenizace pro každý čítač slov).
+         *
+         * @param text text dokumentu
+         */
+        private void countTerms(ByteBuffer text) {
+            for (int group = 0; group < TOKENIZERS.length; group++) {
+                TOKENIZERS[group].countTerms(text, TERM_COUNTS[group]);
+            }
+        }
+
+    }
+
+}
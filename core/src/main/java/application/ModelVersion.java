@@ -0,0 +1,153 @@
+package application;
+
+import application.classification.ClassificationContext;
+import application.classification.NearDuplicateIndex;
+import application.containers.ClassificationModel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Třída, představující jednu načtenou verzi klasifikačního modelu
+ * spolu s fondem kontextů pro její klasifikaci. Verze si počítá
+ * rozpracované klasifikace (odkazy), takže po výměně za novější verzi
+ * je uvolněna teprve po dokončení všech klasifikací, které ji používají.
+ *
+ * @author Petr Kozler
+ */
+public class ModelVersion {
+
+    /**
+     * klasifikační model
+     */
+    public final ClassificationModel CLASSIFICATION_MODEL;
+
+    /**
+     * název modelu
+     */
+    public final String NAME;
+
+    /**
+     * pořadové číslo verze
+     */
+    public final long VERSION;
+
+    /**
+     * čas načtení verze
+     */
+    public final long LOADED_TIME = System.currentTimeMillis();
+
+    /**
+     * úspěšnost klasifikace kontrolní množiny dokumentů (nebo -1, pokud nebyla ověřena)
+     */
+    public final double SMOKE_TEST_ACCURACY;
+
+    /**
+     * index otisků pro převzetí výsledků téměř shodných dokumentů (nebo null)
+     */
+    public final NearDuplicateIndex NEAR_DUPLICATE_INDEX;
+
+    /**
+     * počet odkazů (jeden drží správce modelu, dokud je verze aktuální,
+     * další rozpracované klasifikace)
+     */
+    private final AtomicInteger REFERENCE_COUNT = new AtomicInteger(1);
+
+    /**
+     * nepoužívané kontexty klasifikace
+     */
+    private final Queue<ClassificationContext> CONTEXTS = new ConcurrentLinkedQueue<>();
+
+    /**
+     * akce provedená po uvolnění verze (nebo null)
+     */
+    private final Runnable RELEASE_ACTION;
+
+    /**
+     * Vytvoří verzi klasifikačního modelu.
+     *
+     * @param classificationModel klasifikační model
+     * @param name název modelu
+     * @param version pořadové číslo verze
+     * @param smokeTestAccuracy úspěšnost klasifikace kontrolní množiny (nebo -1)
+     * @param nearDuplicateIndex index otisků téměř shodných dokumentů (nebo null)
+     * @param releaseAction akce provedená po uvolnění verze (nebo null)
+     */
+    public ModelVersion(ClassificationModel classificationModel, String name, long version,
+            double smokeTestAccuracy, NearDuplicateIndex nearDuplicateIndex, Runnable releaseAction) {
+        CLASSIFICATION_MODEL = classificationModel;
+        NAME = name;
+        VERSION = version;
+        SMOKE_TEST_ACCURACY = smokeTestAccuracy;
+        NEAR_DUPLICATE_INDEX = nearDuplicateIndex;
+        RELEASE_ACTION = releaseAction;
+    }
+
+    /**
+     * Přidá odkaz na verzi, pokud ještě nebyla uvolněna.
+     *
+     * @return true, pokud byl odkaz přidán
+     */
+    public boolean retain() {
+        int count;
+
+        do {
+            count = REFERENCE_COUNT.get();
+
+            // uvolněnou verzi již nelze použít
+            if (count == 0) {
+                return false;
+            }
+        } while (!REFERENCE_COUNT.compareAndSet(count, count + 1));
+
+        return true;
+    }
+
+    /**
+     * Odebere odkaz na verzi. Po odebrání posledního odkazu je verze uvolněna.
+     */
+    public void release() {
+        if (REFERENCE_COUNT.decrementAndGet() == 0) {
+            CONTEXTS.clear();
+
+            if (RELEASE_ACTION != null) {
+                RELEASE_ACTION.run();
+            }
+        }
+    }
+
+    /**
+     * Vrátí počet odkazů na verzi (včetně odkazu správce modelu, je-li verze aktuální).
+     *
+     * @return počet odkazů
+     */
+    public int getReferenceCount() {
+        return REFERENCE_COUNT.get();
+    }
+
+    /**
+     * Půjčí kontext klasifikace (kontexty nejsou bezpečné pro více vláken).
+     *
+     * @return kontext klasifikace
+     */
+    public ClassificationContext borrowContext() {
+        ClassificationContext context = CONTEXTS.poll();
+
+        if (context == null) {
+            context = CLASSIFICATION_MODEL.createContext();
+            context.setNearDuplicateIndex(NEAR_DUPLICATE_INDEX);
+        }
+
+        return context;
+    }
+
+    /**
+     * Vrátí půjčený kontext klasifikace do fondu.
+     *
+     * @param context kontext klasifikace
+     */
+    public void returnContext(ClassificationContext context) {
+        CONTEXTS.offer(context);
+    }
+
+}
@@ -0,0 +1,354 @@
+package application.classification;
+
+import application.Config;
+import application.containers.Classification;
+import application.containers.ScoreMatrix;
+import application.containers.TermCounts;
+import application.containers.TextDocument;
+import application.containers.Vocabulary;
+import application.helpers.ModelFileReader;
+import application.helpers.ModelFileWriter;
+import application.parameterisation.AWordCounter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Abstraktní třída, představující obecnou komponentu klasifikačního modelu,
+ * implementující algoritmus pro automatickou klasifikaci textových dokumentů
+ * na základě informací získaných při procesu trénování. Jedná se tedy
+ * o klasifikátor využívající metodu učení s učitelem.
+ * Po natrénování (nebo načtení ze souboru) se klasifikátor již nemění
+ * a může jej současně používat více vláken, každé s vlastním kontextem
+ * klasifikace ({@link ClassificationContext}).
+ * 
+ * @author Petr Kozler
+ */
+public abstract class AClassifier {
+    
+    /**
+     * název sekce souboru klasifikačního modelu se seznamem tříd
+     */
+    private static final String CLASS_SECTION = "classes";
+    
+    /**
+     * seznam všech nalezených tříd, do kterých patří některé z trénovacích dokumentů
+     */
+    protected List<String> classes;
+    
+    /**
+     * slovník všech nalezených slov ve všech trénovacích dokumentech
+     */
+    protected Vocabulary vocabulary;
+    
+    /**
+     * nepoužívané kontexty klasifikace metod pro klasifikace jednotlivých
+     * dokumentů bez vlastního kontextu
+     */
+    private final Queue<ClassificationContext> CONTEXTS = new ConcurrentLinkedQueue<>();
+    
+    /**
+     * Inicializuje seznamy tříd a slov pro klasifikační model.
+     * 
+     * @param classes seznam všech nalezených tříd
+     * @param vocabulary všechna nalezená slova
+     */
+    public void setLists(List<String> classes, Collection<String> vocabulary) {
+        this.classes = new ArrayList<String>(classes);
+        this.vocabulary = Vocabulary.create(vocabulary);
+        CONTEXTS.clear();
+    }
+    
+    /**
+     * Vrátí seznam tříd klasifikátoru.
+     * 
+     * @return seznam tříd
+     */
+    public List<String> getClasses() {
+        return classes;
+    }
+    
+    /**
+     * Vrátí slovník klasifikátoru.
+     * 
+     * @return slovník
+     */
+    public Vocabulary getVocabulary() {
+        return vocabulary;
+    }
+    
+    /**
+     * Nahradí slovník klasifikátoru shodným slovníkem jiného načteného
+     * modelu, aby byl v paměti uložen jen jednou.
+     * 
+     * @param vocabulary shodný slovník
+     */
+    public void shareVocabulary(Vocabulary vocabulary) {
+        if (!this.vocabulary.equals(vocabulary)) {
+            throw new IllegalArgumentException("Sdílený slovník se liší od slovníku klasifikátoru.");
+        }
+        
+        this.vocabulary = vocabulary;
+    }
+    
+    /**
+     * Spustí trénování klasifikačního modelu daty z dokumentů z trénovací množiny.
+     * 
+     * @param documents seznamy dokumentů a příslušných tříd
+     */
+    public abstract void train(Map<String, List<TextDocument>> documents);
+    
+    /**
+     * Vytvoří pracovní paměť pro klasifikaci dokumentů jedním vláknem.
+     * Klasifikátor se po natrénování nemění, takže může být současně
+     * používán více vlákny, pokud má každé z nich vlastní kontext.
+     * 
+     * @param wordCounter čítač slov klasifikačního modelu (nebo null
+     * pro klasifikaci již spočítaných slov)
+     * @return kontext klasifikace
+     */
+    public ClassificationContext createContext(AWordCounter wordCounter) {
+        return new ClassificationContext(this, wordCounter);
+    }
+    
+    /**
+     * Klasifikuje dokument se zadanými daty.
+     * 
+     * @param document dokument ke klasifikaci
+     * @return třída dokumentu
+     */
+    public String classify(TextDocument document) {
+        ClassificationContext context = borrowContext();
+        
+        try {
+            return context.classify(document.getWordCounts());
+        }
+        finally {
+            CONTEXTS.offer(context);
+        }
+    }
+    
+    /**
+     * Vypočítá skóre příslušnosti dokumentu se zadanými daty k jednotlivým
+     * třídám (vyšší skóre znamená pravděpodobnější třídu).
+     * 
+     * @param document dokument ke klasifikaci
+     * @return skóre pro jednotlivé třídy
+     */
+    public Map<String, Double> getScores(TextDocument document) {
+        ClassificationContext context = borrowContext();
+        
+        try {
+            context.classify(document.getWordCounts());
+            
+            return context.getScoreMap();
+        }
+        finally {
+            CONTEXTS.offer(context);
+        }
+    }
+    
+    /**
+     * Klasifikuje dokument se zadanými daty a vrátí zjištěnou třídu
+     * spolu se skóre pro všechny třídy.
+     * 
+     * @param document dokument ke klasifikaci
+     * @return výsledek klasifikace
+     */
+    public Classification classifyWithScores(TextDocument document) {
+        ClassificationContext context = borrowContext();
+        
+        try {
+            String documentClass = context.classify(document.getWordCounts());
+            
+            return new Classification(documentClass, context.getScoreMap());
+        }
+        finally {
+            CONTEXTS.offer(context);
+        }
+    }
+    
+    /**
+     * Klasifikuje dávku dokumentů najednou. Klasifikátor může přitom sdílet
+     * průchod svými daty pro všechny dokumenty dávky, což je rychlejší než
+     * opakovaná klasifikace jednotlivých dokumentů.
+     * 
+     * @param documents dokumenty ke klasifikaci
+     * @return matice skóre dokumentů pro jednotlivé třídy a zjištěné třídy
+     */
+    public ScoreMatrix classifyBatch(List<TextDocument> documents) {
+        ClassificationContext context = borrowContext();
+        
+        try {
+            return context.classifyBatch(documents);
+        }
+        finally {
+            CONTEXTS.offer(context);
+        }
+    }
+    
+    /**
+     * Půjčí kontext klasifikace z fondu nepoužívaných kontextů (nebo vytvoří
+     * nový), aby klasifikace jednotlivých dokumentů nemusela pokaždé alokovat
+     * pracovní paměť (u metody nejbližšího souseda pole o velikosti trénovací
+     * množiny). Kontext musí být po použití vrácen do fondu.
+     * 
+     * @return kontext klasifikace
+     */
+    private ClassificationContext borrowContext() {
+        ClassificationContext context = CONTEXTS.poll();
+        
+        return context != null ? context : createContext(null);
+    }
+    
+    /**
+     * Klasifikuje dokument se zadanými četnostmi slov a uloží skóre
+     * jednotlivých tříd do kontextu. Smí používat pouze pracovní paměť
+     * kontextu, nikoli vlastní proměnné, které se po natrénování nemění.
+     * 
+     * @param termCounts četnosti slov podle indexů ve slovníku
+     * @param context kontext klasifikace
+     * @return index třídy dokumentu (nebo -1, pokud dokument nelze zařadit)
+     */
+    protected abstract int classify(TermCounts termCounts, ClassificationContext context);
+    
+    /**
+     * Klasifikuje blok dokumentů dávky (nejvýše {@link Config#CLASSIFY_BATCH_SIZE})
+     * a zapíše jejich skóre a třídy do matice od zadaného řádku. Výchozí
+     * implementace klasifikuje dokumenty jednotlivě, potomci mohou zpracovat
+     * celý blok jedním průchodem svými daty.
+     * 
+     * @param documents četnosti slov dokumentů bloku
+     * @param count počet dokumentů bloku
+     * @param matrix matice skóre
+     * @param offset řádek matice pro první dokument bloku
+     * @param context kontext klasifikace
+     */
+    protected void classifyBatch(TermCounts[] documents, int count, ScoreMatrix matrix, int offset,
+            ClassificationContext context) {
+        for (int i = 0; i < count; i++) {
+            int classIndex = classify(documents[i], context);
+            matrix.setScores(offset + i, context.SCORES);
+            matrix.setClassIndex(offset + i, classIndex);
+        }
+    }
+    
+    /**
+     * Vrátí index třídy s nejvyšším skóre.
+     * 
+     * @param scores skóre pro jednotlivé třídy
+     * @return index třídy s nejvyšším skóre (nebo -1, pokud žádné skóre není číslo)
+     */
+    protected static int getMaxScoreClass(double[] scores) {
+        return getMaxScoreClass(scores, 0, scores.length);
+    }
+    
+    /**
+     * Vrátí index třídy s nejvyšším skóre v části pole (např. v řádku
+     * matice skóre).
+     * 
+     * @param scores pole skóre
+     * @param offset pozice skóre první třídy
+     * @param length počet tříd
+     * @return index třídy s nejvyšším skóre (nebo -1, pokud žádné skóre není číslo)
+     */
+    protected static int getMaxScoreClass(double[] scores, int offset, int length) {
+        int maxScoreClass = -1;
+        double maxScore = Double.NEGATIVE_INFINITY;
+        
+        for (int i = 0; i < length; i++) {
+            // nastavení případné nové třídy s vyšším skóre
+            if (scores[offset + i] > maxScore) {
+                maxScore = scores[offset + i];
+                maxScoreClass = i;
+            }
+        }
+        
+        return maxScoreClass;
+    }
+    
+    /**
+     * Vypočítá jistotu klasifikace jako normalizovaný náskok nejvyššího
+     * skóre před druhým nejvyšším (0 pro shodná skóre, 1 pro jedinou třídu
+     * s nenulovým skóre). Výchozí výpočet předpokládá nezáporná skóre,
+     * potomci s jiným významem skóre jej upravují.
+     * 
+     * @param scores pole skóre
+     * @param offset pozice skóre první třídy
+     * @param length počet tříd
+     * @return jistota klasifikace v rozsahu 0 až 1
+     */
+    protected double getConfidence(double[] scores, int offset, int length) {
+        double best = 0;
+        double second = 0;
+        double sum = 0;
+        
+        for (int i = 0; i < length; i++) {
+            double score = scores[offset + i];
+            sum += score;
+            
+            if (score > best) {
+                second = best;
+                best = score;
+            }
+            else if (score > second) {
+                second = score;
+            }
+        }
+        
+        return sum > 0 ? (best - second) / sum : 0;
+    }
+    
+    /**
+     * Zapíše seznamy tříd a slov a natrénované parametry klasifikátoru
+     * do souboru klasifikačního modelu.
+     * 
+     * @param writer objekt pro zápis souboru modelu
+     * @throws IOException 
+     */
+    public void writeModel(ModelFileWriter writer) throws IOException {
+        writer.beginSection(CLASS_SECTION);
+        writer.writeStrings(classes);
+        writer.endSection();
+        
+        vocabulary.writeModel(writer);
+        writeParameters(writer);
+    }
+    
+    /**
+     * Načte seznamy tříd a slov a natrénované parametry klasifikátoru
+     * ze souboru klasifikačního modelu.
+     * 
+     * @param reader objekt pro čtení souboru modelu
+     * @throws IOException 
+     */
+    public void readModel(ModelFileReader reader) throws IOException {
+        classes = ModelFileReader.readStrings(reader.getSection(CLASS_SECTION));
+        vocabulary = Vocabulary.readModel(reader);
+        readParameters(reader);
+        CONTEXTS.clear();
+    }
+    
+    /**
+     * Zapíše natrénované parametry klasifikátoru (bez seznamů tříd a slov,
+     * které mohou být sdíleny více klasifikátory jednoho modelu).
+     * 
+     * @param writer objekt pro zápis souboru modelu
+     * @throws IOException 
+     */
+    protected abstract void writeParameters(ModelFileWriter writer) throws IOException;
+    
+    /**
+     * Načte natrénované parametry klasifikátoru (seznamy tříd a slov jsou
+     * již načteny).
+     * 
+     * @param reader objekt pro čtení souboru modelu
+     * @throws IOException 
+     */
+    protected abstract void readParameters(ModelFileReader reader) throws IOException;
+    
+}
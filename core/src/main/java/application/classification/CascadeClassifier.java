@@ -0,0 +1,316 @@
+package application.classification;
+
+import application.Config;
+import application.containers.ScoreMatrix;
+import application.containers.TermCounts;
+import application.containers.TextDocument;
+import application.containers.Vocabulary;
+import application.helpers.ModelFileReader;
+import application.helpers.ModelFileWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Třída, představující kaskádu dvou klasifikátorů natrénovaných na stejných
+ * datech a sdílejících seznamy tříd a slov (i čítač slov modelu). Dokument
+ * je nejprve klasifikován rychlým klasifikátorem (např. naivním Bayesovým)
+ * a pouze tehdy, pokud jistota jeho výsledku (normalizovaný náskok nejlepší
+ * třídy) nedosahuje zadané meze, je klasifikován pomalým, ale přesnějším
+ * klasifikátorem (např. metodou nejbližšího souseda). Oba klasifikátory
+ * jsou uloženy v jednom souboru klasifikačního modelu.
+ *
+ * @author Petr Kozler
+ */
+public class CascadeClassifier extends AClassifier {
+
+    /**
+     * název sekce souboru klasifikačního modelu s parametry kaskády
+     */
+    private static final String CASCADE_SECTION = "cascade";
+
+    /**
+     * rychlý klasifikátor
+     */
+    protected AClassifier fastClassifier;
+
+    /**
+     * pomalý klasifikátor použitý při nedostatečné jistotě rychlého
+     */
+    protected AClassifier slowClassifier;
+
+    /**
+     * nejmenší jistota výsledku rychlého klasifikátoru, se kterou je výsledek přijat
+     */
+    protected volatile double threshold = Config.CASCADE_DEFAULT_THRESHOLD;
+
+    /**
+     * počet klasifikovaných dokumentů
+     */
+    private final LongAdder CLASSIFIED_COUNT = new LongAdder();
+
+    /**
+     * počet dokumentů klasifikovaných pomalým klasifikátorem
+     */
+    private final LongAdder FALLBACK_COUNT = new LongAdder();
+
+    /**
+     * Vytvoří prázdnou kaskádu (pro načtení ze souboru modelu).
+     */
+    public CascadeClassifier() {
+        // klasifikátory jsou vytvořeny při načtení modelu
+    }
+
+    /**
+     * Vytvoří kaskádu ze dvou klasifikátorů různých typů.
+     *
+     * @param fastClassifier rychlý klasifikátor
+     * @param slowClassifier pomalý klasifikátor
+     */
+    public CascadeClassifier(AClassifier fastClassifier, AClassifier slowClassifier) {
+        checkComponents(fastClassifier, slowClassifier);
+        this.fastClassifier = fastClassifier;
+        this.slowClassifier = slowClassifier;
+    }
+
+    /**
+     * Inicializuje seznamy tříd a slov, které jsou sdíleny oběma klasifikátory.
+     *
+     * @param classes seznam všech nalezených tříd
+     * @param vocabulary všechna nalezená slova
+     */
+    @Override
+    public void setLists(List<String> classes, Collection<String> vocabulary) {
+        super.setLists(classes, vocabulary);
+        shareLists();
+    }
+
+    /**
+     * Natrénuje oba klasifikátory kaskády.
+     *
+     * @param documents seznamy dokumentů a příslušných tříd
+     */
+    @Override
+    public void train(Map<String, List<TextDocument>> documents) {
+        fastClassifier.train(documents);
+        slowClassifier.train(documents);
+    }
+
+    /**
+     * Klasifikuje dokument rychlým klasifikátorem, a je-li jistota jeho
+     * výsledku nedostatečná, pomalým klasifikátorem.
+     *
+     * @param termCounts četnosti slov podle indexů ve slovníku
+     * @param context kontext klasifikace
+     * @return index třídy dokumentu
+     */
+    @Override
+    protected int classify(TermCounts termCounts, ClassificationContext context) {
+        CLASSIFIED_COUNT.increment();
+        int classIndex = fastClassifier.classify(termCounts, context);
+
+        if (classIndex >= 0 && fastClassifier.getConfidence(context.SCORES, 0, classes.size()) >= threshold) {
+            return classIndex;
+        }
+
+        FALLBACK_COUNT.increment();
+
+        return slowClassifier.classify(termCounts, context);
+    }
+
+    /**
+     * Klasifikuje blok dokumentů dávky rychlým klasifikátorem (s využitím
+     * jeho dávkového skórování) a dokumenty s nedostatečnou jistotou
+     * výsledku poté jednotlivě pomalým klasifikátorem.
+     *
+     * @param documents četnosti slov dokumentů bloku
+     * @param count počet dokumentů bloku
+     * @param matrix matice skóre
+     * @param offset řádek matice pro první dokument bloku
+     * @param context kontext klasifikace
+     */
+    @Override
+    protected void classifyBatch(TermCounts[] documents, int count, ScoreMatrix matrix, int offset,
+            ClassificationContext context) {
+        int classCount = classes.size();
+        double[] scores = matrix.getScoreArray();
+        fastClassifier.classifyBatch(documents, count, matrix, offset, context);
+        CLASSIFIED_COUNT.add(count);
+
+        for (int d = 0; d < count; d++) {
+            int document = offset + d;
+
+            if (matrix.getClassIndex(document) >= 0
+                    && fastClassifier.getConfidence(scores, document * classCount, classCount) >= threshold) {
+                continue;
+            }
+
+            FALLBACK_COUNT.increment();
+            int classIndex = slowClassifier.classify(documents[d], context);
+            matrix.setScores(document, context.SCORES);
+            matrix.setClassIndex(document, classIndex);
+        }
+    }
+
+    /**
+     * Vrátí nejmenší jistotu výsledku rychlého klasifikátoru, se kterou je
+     * výsledek přijat.
+     *
+     * @return mez jistoty
+     */
+    public double getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Nastaví nejmenší jistotu výsledku rychlého klasifikátoru, se kterou je
+     * výsledek přijat (0 pro použití pouze rychlého klasifikátoru, hodnota
+     * nad 1 pro použití pouze pomalého).
+     *
+     * @param threshold mez jistoty
+     */
+    public void setThreshold(double threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Vrátí rychlý klasifikátor.
+     *
+     * @return rychlý klasifikátor
+     */
+    public AClassifier getFastClassifier() {
+        return fastClassifier;
+    }
+
+    /**
+     * Vrátí pomalý klasifikátor.
+     *
+     * @return pomalý klasifikátor
+     */
+    public AClassifier getSlowClassifier() {
+        return slowClassifier;
+    }
+
+    /**
+     * Vrátí počet dokumentů klasifikovaných kaskádou.
+     *
+     * @return počet klasifikovaných dokumentů
+     */
+    public long getClassifiedCount() {
+        return CLASSIFIED_COUNT.sum();
+    }
+
+    /**
+     * Vrátí podíl dokumentů klasifikovaných pomalým klasifikátorem.
+     *
+     * @return podíl dokumentů v rozsahu 0 až 1
+     */
+    public double getFallbackRate() {
+        long classifiedCount = CLASSIFIED_COUNT.sum();
+
+        return classifiedCount == 0 ? 0 : (double) FALLBACK_COUNT.sum() / classifiedCount;
+    }
+
+    /**
+     * Vynuluje počty klasifikovaných dokumentů.
+     */
+    public void resetCounts() {
+        CLASSIFIED_COUNT.reset();
+        FALLBACK_COUNT.reset();
+    }
+
+    /**
+     * Zapíše typy a mez jistoty klasifikátorů kaskády a jejich parametry
+     * do souboru klasifikačního modelu.
+     *
+     * @param writer objekt pro zápis souboru modelu
+     * @throws IOException
+     */
+    @Override
+    protected void writeParameters(ModelFileWriter writer) throws IOException {
+        writer.beginSection(CASCADE_SECTION);
+        writer.writeString(fastClassifier.getClass().getName());
+        writer.writeString(slowClassifier.getClass().getName());
+        writer.writeDouble(threshold);
+        writer.endSection();
+
+        fastClassifier.writeParameters(writer);
+        slowClassifier.writeParameters(writer);
+    }
+
+    /**
+     * Vytvoří klasifikátory kaskády podle typů uložených v souboru modelu
+     * a načte jejich parametry.
+     *
+     * @param reader objekt pro čtení souboru modelu
+     * @throws IOException
+     */
+    @Override
+    protected void readParameters(ModelFileReader reader) throws IOException {
+        ByteBuffer section = reader.getSection(CASCADE_SECTION);
+        fastClassifier = createClassifier(ModelFileReader.readString(section));
+        slowClassifier = createClassifier(ModelFileReader.readString(section));
+        threshold = section.getDouble();
+        checkComponents(fastClassifier, slowClassifier);
+        shareLists();
+
+        fastClassifier.readParameters(reader);
+        slowClassifier.readParameters(reader);
+    }
+
+    /**
+     * Nahradí slovník kaskády i obou klasifikátorů shodným slovníkem jiného
+     * načteného modelu.
+     *
+     * @param vocabulary shodný slovník
+     */
+    @Override
+    public void shareVocabulary(Vocabulary vocabulary) {
+        super.shareVocabulary(vocabulary);
+        shareLists();
+    }
+
+    /**
+     * Nastaví seznamy tříd a slov kaskády oběma klasifikátorům.
+     */
+    private void shareLists() {
+        fastClassifier.classes = classes;
+        fastClassifier.vocabulary = vocabulary;
+        slowClassifier.classes = classes;
+        slowClassifier.vocabulary = vocabulary;
+    }
+
+    /**
+     * Ověří, že klasifikátory kaskády lze uložit do jednoho souboru modelu
+     * (klasifikátory stejného typu by zapisovaly stejné sekce).
+     *
+     * @param fastClassifier rychlý klasifikátor
+     * @param slowClassifier pomalý klasifikátor
+     */
+    private static void checkComponents(AClassifier fastClassifier, AClassifier slowClassifier) {
+        if (fastClassifier.getClass() == slowClassifier.getClass()
+                || fastClassifier instanceof CascadeClassifier || slowClassifier instanceof CascadeClassifier) {
+            throw new IllegalArgumentException("Kaskádu musí tvořit dva klasifikátory různých typů.");
+        }
+    }
+
+    /**
+     * Vytvoří instanci klasifikátoru podle názvu třídy uloženého v souboru modelu.
+     *
+     * @param className název třídy
+     * @return klasifikátor
+     * @throws IOException
+     */
+    private static AClassifier createClassifier(String className) throws IOException {
+        try {
+            return Class.forName(className).asSubclass(AClassifier.class).getDeclaredConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException | ClassCastException ex) {
+            throw new IOException("Nelze vytvořit klasifikátor kaskády: " + className, ex);
+        }
+    }
+
+}
@@ -0,0 +1,424 @@
+package application.classification;
+
+import application.Config;
+import application.containers.MutableInt;
+import application.containers.ScoreMatrix;
+import application.containers.TermCounts;
+import application.containers.TextDocument;
+import application.parameterisation.AWordCounter;
+import application.parameterisation.Utf8Tokenizer;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Třída, představující pracovní paměť pro klasifikaci dokumentů jedním
+ * vláknem. Obsahuje tokenizér, četnosti slov, skóre tříd a pomocná pole
+ * klasifikátoru, která jsou používána opakovaně, takže klasifikace dalších
+ * dokumentů po zahřátí nealokuje žádnou paměť. Samotný klasifikační model
+ * se po natrénování (nebo načtení) nemění a může být sdílen libovolným
+ * počtem vláken, každé vlákno však musí používat vlastní kontext.
+ *
+ * @author Petr Kozler
+ */
+public class ClassificationContext {
+
+    /**
+     * klasifikátor, pro který je kontext určen
+     */
+    private final AClassifier CLASSIFIER;
+
+    /**
+     * čítač slov klasifikačního modelu (nebo null pro klasifikaci již spočítaných slov)
+     */
+    private final AWordCounter WORD_COUNTER;
+
+    /**
+     * tokenizér počítající četnosti slov přímo do indexů ve slovníku (vytvořen při prvním použití)
+     */
+    private Utf8Tokenizer tokenizer;
+
+    /**
+     * četnosti slov klasifikovaného dokumentu
+     */
+    final TermCounts TERM_COUNTS = new TermCounts();
+
+    /**
+     * skóre jednotlivých tříd (ve stejném pořadí jako seznam tříd)
+     */
+    final double[] SCORES;
+
+    /**
+     * příznak, zda byl poslední dokument zařazen do některé třídy
+     */
+    boolean classified;
+
+    /**
+     * skalární součiny s trénovacími dokumenty (pro metodu nejbližšího souseda)
+     */
+    double[] similarities;
+
+    /**
+     * příznaky trénovacích dokumentů sdílejících s dokumentem některé slovo
+     */
+    boolean[] touched;
+
+    /**
+     * indexy trénovacích dokumentů sdílejících s dokumentem některé slovo
+     */
+    int[] touchedDocuments;
+
+    /**
+     * indexy nejpodobnějších trénovacích dokumentů
+     */
+    int[] nearestDocuments;
+
+    /**
+     * podobnosti nejpodobnějších trénovacích dokumentů
+     */
+    double[] nearestSimilarities;
+
+    /**
+     * generátor náhodných čísel (pro náhodný výběr třídy)
+     */
+    Random random;
+
+    /**
+     * četnosti slov dokumentů bloku dávky
+     */
+    private final TermCounts[] BATCH_DOCUMENTS = new TermCounts[Config.CLASSIFY_BATCH_SIZE];
+
+    /**
+     * skóre dokumentů bloku pro třídy (pro naivní Bayesův klasifikátor, uložená po třídách)
+     */
+    double[] batchScores;
+
+    /**
+     * rozhodující náskok nejlepší třídy pro předčasné ukončení skórování
+     * (pro naivní Bayesův klasifikátor, 0 pro úplné skórování)
+     */
+    double earlyExitMargin;
+
+    /**
+     * počet slov posledního dokumentu použitých pro určení třídy
+     */
+    int consumedTermCount;
+
+    /**
+     * pořadí zpracování slov dokumentu při předčasném ukončení skórování
+     */
+    int[] termOrder;
+
+    /**
+     * začátky skupin slov se stejným vlivem při řazení slov dokumentu
+     */
+    int[] termGroups;
+
+    /**
+     * index otisků nedávno klasifikovaných dokumentů (nebo null, pokud není použit)
+     */
+    private NearDuplicateIndex nearDuplicateIndex;
+
+    /**
+     * váhy bitů pro výpočet otisku dokumentu
+     */
+    private final int[] FINGERPRINT_WEIGHTS = new int[64];
+
+    /**
+     * Vytvoří kontext pro klasifikaci dokumentů zadaným klasifikátorem.
+     *
+     * @param classifier klasifikátor
+     * @param wordCounter čítač slov klasifikačního modelu (nebo null)
+     */
+    ClassificationContext(AClassifier classifier, AWordCounter wordCounter) {
+        CLASSIFIER = classifier;
+        WORD_COUNTER = wordCounter;
+        SCORES = new double[classifier.classes.size()];
+    }
+
+    /**
+     * Klasifikuje dokument zadaný bajty textu v kódování UTF-8
+     * (mezi aktuální pozicí a limitem bufferu).
+     *
+     * @param text text dokumentu
+     * @return třída dokumentu (nebo null, pokud dokument nelze zařadit)
+     */
+    public String classify(ByteBuffer text) {
+        getTokenizer().countTerms(text, TERM_COUNTS);
+
+        return classifyTerms();
+    }
+
+    /**
+     * Klasifikuje dokument se zadanými četnostmi slov.
+     *
+     * @param wordCounts četnosti slov v textu dokumentu
+     * @return třída dokumentu (nebo null, pokud dokument nelze zařadit)
+     */
+    public String classify(Map<String, MutableInt> wordCounts) {
+        convertWordCounts(wordCounts, TERM_COUNTS);
+
+        return classifyTerms();
+    }
+
+    /**
+     * Spočítá četnosti slov dokumentu zadaného bajty textu v kódování UTF-8
+     * podle indexů ve slovníku modelu (bez klasifikace). Spolu s metodou
+     * {@link #classify(TermCounts)} umožňuje provádět tokenizaci a skórování
+     * dokumentu v různých vláknech (každé s vlastním kontextem).
+     *
+     * @param text text dokumentu
+     * @param termCounts četnosti slov pro zápis výsledku
+     */
+    public void countTerms(ByteBuffer text, TermCounts termCounts) {
+        getTokenizer().countTerms(text, termCounts);
+    }
+
+    /**
+     * Klasifikuje dokument s četnostmi slov spočítanými metodou
+     * {@link #countTerms(ByteBuffer, TermCounts)} (četnosti nejsou změněny).
+     *
+     * @param termCounts četnosti slov podle indexů ve slovníku
+     * @return třída dokumentu (nebo null, pokud dokument nelze zařadit)
+     */
+    public String classify(TermCounts termCounts) {
+        TERM_COUNTS.clear();
+
+        for (int i = 0; i < termCounts.size(); i++) {
+            TERM_COUNTS.add(termCounts.getId(i), termCounts.getCount(i));
+        }
+
+        return classifyTerms();
+    }
+
+    /**
+     * Klasifikuje dávku dokumentů se spočítanými četnostmi slov.
+     *
+     * @param documents dokumenty ke klasifikaci
+     * @return matice skóre dokumentů pro jednotlivé třídy a zjištěné třídy
+     */
+    public ScoreMatrix classifyBatch(List<TextDocument> documents) {
+        ScoreMatrix matrix = new ScoreMatrix(CLASSIFIER.classes, documents.size());
+
+        for (int offset = 0; offset < documents.size(); offset += BATCH_DOCUMENTS.length) {
+            int count = Math.min(BATCH_DOCUMENTS.length, documents.size() - offset);
+
+            for (int i = 0; i < count; i++) {
+                convertWordCounts(documents.get(offset + i).getWordCounts(), getBatchDocument(i));
+            }
+
+            CLASSIFIER.classifyBatch(BATCH_DOCUMENTS, count, matrix, offset, this);
+        }
+
+        return matrix;
+    }
+
+    /**
+     * Klasifikuje dávku dokumentů zadaných bajty textu v kódování UTF-8
+     * (mezi aktuální pozicí a limitem bufferů).
+     *
+     * @param texts texty dokumentů
+     * @return matice skóre dokumentů pro jednotlivé třídy a zjištěné třídy
+     */
+    public ScoreMatrix classifyTextBatch(List<ByteBuffer> texts) {
+        ScoreMatrix matrix = new ScoreMatrix(CLASSIFIER.classes, texts.size());
+
+        for (int offset = 0; offset < texts.size(); offset += BATCH_DOCUMENTS.length) {
+            int count = Math.min(BATCH_DOCUMENTS.length, texts.size() - offset);
+
+            for (int i = 0; i < count; i++) {
+                getTokenizer().countTerms(texts.get(offset + i), getBatchDocument(i));
+            }
+
+            CLASSIFIER.classifyBatch(BATCH_DOCUMENTS, count, matrix, offset, this);
+        }
+
+        return matrix;
+    }
+
+    /**
+     * Nastaví index otisků, ze kterého jsou při klasifikaci jednotlivých
+     * dokumentů přebírány výsledky téměř shodných dokumentů (klasifikace
+     * dávek index nepoužívá). Index může být sdílen více kontexty.
+     *
+     * @param nearDuplicateIndex index otisků (nebo null)
+     */
+    public void setNearDuplicateIndex(NearDuplicateIndex nearDuplicateIndex) {
+        this.nearDuplicateIndex = nearDuplicateIndex;
+    }
+
+    /**
+     * Nastaví rozhodující náskok (v logaritmech pravděpodobnosti), po jehož
+     * dosažení nejlepší třídou je skórování dlouhých dokumentů ukončeno
+     * bez zpracování zbývajících slov (uplatní se jen u naivního Bayesova
+     * klasifikátoru). Skóre tříd jsou pak jen částečná.
+     *
+     * @param earlyExitMargin rozhodující náskok (0 pro úplné skórování)
+     */
+    public void setEarlyExitMargin(double earlyExitMargin) {
+        this.earlyExitMargin = earlyExitMargin;
+    }
+
+    /**
+     * Vrátí počet slov posledního klasifikovaného dokumentu, která byla
+     * použita pro určení třídy (při předčasném ukončení skórování méně
+     * než počet různých slov dokumentu).
+     *
+     * @return počet použitých slov
+     */
+    public int getConsumedTermCount() {
+        return consumedTermCount;
+    }
+
+    /**
+     * Vrátí počet různých slov posledního klasifikovaného dokumentu nalezených
+     * ve slovníku.
+     *
+     * @return počet různých slov
+     */
+    public int getTermCount() {
+        return TERM_COUNTS.size();
+    }
+
+    /**
+     * Vrátí seznam tříd klasifikačního modelu.
+     *
+     * @return seznam tříd
+     */
+    public List<String> getClasses() {
+        return CLASSIFIER.classes;
+    }
+
+    /**
+     * Vrátí skóre tříd posledního klasifikovaného dokumentu (ve stejném
+     * pořadí jako seznam tříd). Pole je přepsáno při další klasifikaci.
+     *
+     * @return skóre tříd
+     */
+    public double[] getScores() {
+        return SCORES;
+    }
+
+    /**
+     * Vrátí skóre tříd posledního klasifikovaného dokumentu jako mapu
+     * (prázdnou, pokud dokument nebylo možné zařadit).
+     *
+     * @return skóre pro jednotlivé třídy
+     */
+    public Map<String, Double> getScoreMap() {
+        Map<String, Double> scores = new HashMap<>();
+
+        if (classified) {
+            for (int i = 0; i < SCORES.length; i++) {
+                scores.put(CLASSIFIER.classes.get(i), SCORES[i]);
+            }
+        }
+
+        return scores;
+    }
+
+    /**
+     * Vrátí tokenizér kontextu (vytvoří jej při prvním použití).
+     *
+     * @return tokenizér
+     */
+    private Utf8Tokenizer getTokenizer() {
+        if (tokenizer == null) {
+            if (WORD_COUNTER == null) {
+                throw new IllegalStateException("Kontext nemá zadaný čítač slov.");
+            }
+
+            tokenizer = new Utf8Tokenizer(WORD_COUNTER, CLASSIFIER.vocabulary);
+        }
+
+        return tokenizer;
+    }
+
+    /**
+     * Vrátí četnosti slov dokumentu bloku dávky (vytvoří je při prvním použití).
+     *
+     * @param i pořadí dokumentu v bloku
+     * @return četnosti slov
+     */
+    private TermCounts getBatchDocument(int i) {
+        if (BATCH_DOCUMENTS[i] == null) {
+            BATCH_DOCUMENTS[i] = new TermCounts();
+        }
+
+        return BATCH_DOCUMENTS[i];
+    }
+
+    /**
+     * Převede četnosti slov na četnosti podle indexů ve slovníku.
+     *
+     * @param wordCounts četnosti slov v textu dokumentu
+     * @param termCounts četnosti slov podle indexů ve slovníku
+     */
+    private void convertWordCounts(Map<String, MutableInt> wordCounts, TermCounts termCounts) {
+        termCounts.clear();
+
+        for (Map.Entry<String, MutableInt> wordCount : wordCounts.entrySet()) {
+            int id = CLASSIFIER.vocabulary.indexOf(wordCount.getKey());
+
+            // ignorování slov, která se nevyskytují ve slovníku
+            if (id >= 0) {
+                termCounts.add(id, wordCount.getValue().get());
+            }
+        }
+    }
+
+    /**
+     * Klasifikuje dokument s četnostmi slov uloženými v kontextu.
+     *
+     * @return třída dokumentu (nebo null, pokud dokument nelze zařadit)
+     */
+    private String classifyTerms() {
+        NearDuplicateIndex index = nearDuplicateIndex;
+        int classIndex;
+        consumedTermCount = TERM_COUNTS.size();
+
+        if (index != null && index.isApplicable(TERM_COUNTS)) {
+            classIndex = classifyNearDuplicate(index);
+        }
+        else {
+            classIndex = CLASSIFIER.classify(TERM_COUNTS, this);
+        }
+
+        classified = classIndex >= 0;
+
+        return classified ? CLASSIFIER.classes.get(classIndex) : null;
+    }
+
+    /**
+     * Převezme výsledek téměř shodného dokumentu z indexu otisků, nebo
+     * dokument klasifikuje a výsledek do indexu uloží. Vybrané převzaté
+     * výsledky jsou ověřeny úplnou klasifikací, podle které je při neshodě
+     * opraven výsledek uložený v indexu.
+     *
+     * @param index index otisků
+     * @return index třídy dokumentu (nebo -1, pokud dokument nelze zařadit)
+     */
+    private int classifyNearDuplicate(NearDuplicateIndex index) {
+        long fingerprint = NearDuplicateIndex.fingerprint(TERM_COUNTS, FINGERPRINT_WEIGHTS);
+        int foundClassIndex = index.find(fingerprint, SCORES);
+
+        if (foundClassIndex != NearDuplicateIndex.NOT_FOUND
+                && foundClassIndex != NearDuplicateIndex.VERIFICATION_DUE) {
+            return foundClassIndex;
+        }
+
+        int classIndex = CLASSIFIER.classify(TERM_COUNTS, this);
+
+        if (foundClassIndex == NearDuplicateIndex.VERIFICATION_DUE) {
+            index.verify(fingerprint, classIndex, SCORES);
+        }
+        else if (classIndex >= 0) {
+            index.add(fingerprint, classIndex, SCORES);
+        }
+
+        return classIndex;
+    }
+
+}
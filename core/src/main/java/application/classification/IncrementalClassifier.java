@@ -0,0 +1,433 @@
+package application.classification;
+
+import application.Config;
+import application.containers.Classification;
+import application.containers.ClassificationModel;
+import application.containers.MutableInt;
+import application.containers.TermCounts;
+import application.parameterisation.AWordCounter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Třída, představující průběžnou klasifikaci upravovaného textu (např.
+ * při psaní do textového pole). Po každé změně textu je nalezen změněný
+ * úsek (mezi společným začátkem a koncem původního a nového textu,
+ * rozšířený na hranice slov) a znovu spočítána jsou jen slova tohoto
+ * úseku, jejichž rozdíly četností jsou přičteny k četnostem slov celého
+ * dokumentu. Implementuje-li klasifikátor rozhraní {@link IncrementalScorer}
+ * (naivní Bayesův klasifikátor), jsou skóre tříd upravena jen o příspěvky
+ * změněných slov; ostatní klasifikátory (metoda nejbližšího souseda, kaskáda) musí
+ * dokument se spočítanými četnostmi klasifikovat celý.
+ *
+ * Objekt uchovává stav, a proto smí být používán jen jedním vláknem současně.
+ *
+ * @author Petr Kozler
+ */
+public class IncrementalClassifier {
+
+    /**
+     * maximální počet slov v mezipaměti indexů slov, po jehož překročení je mezipaměť vyprázdněna
+     */
+    private static final int MAX_CACHED_WORD_COUNT = 1 << 16;
+
+    /**
+     * tabulka znaků (do U+07FF) tvořících slova
+     */
+    private static final boolean[] WORD_CHARACTERS = new boolean[0x800];
+
+    static {
+        for (char c : Config.WORD_ALPHA_CHARACTERS.toCharArray()) {
+            if (c < WORD_CHARACTERS.length) {
+                WORD_CHARACTERS[c] = true;
+            }
+        }
+    }
+
+    /**
+     * klasifikátor
+     */
+    private final AClassifier CLASSIFIER;
+
+    /**
+     * přírůstková aktualizace skóre klasifikátoru (nebo null, pokud ji klasifikátor nepodporuje)
+     */
+    private final IncrementalScorer SCORER;
+
+    /**
+     * čítač slov klasifikačního modelu
+     */
+    private final AWordCounter WORD_COUNTER;
+
+    /**
+     * kontext pro klasifikaci celého dokumentu
+     */
+    private final ClassificationContext CONTEXT;
+
+    /**
+     * četnosti slov textu podle indexů ve slovníku
+     */
+    private final int[] COUNTS;
+
+    /**
+     * indexy slov s nenulovou četností
+     */
+    private final int[] ACTIVE_IDS;
+
+    /**
+     * pozice slov v poli indexů slov s nenulovou četností (-1 pro nulovou četnost)
+     */
+    private final int[] ACTIVE_POSITIONS;
+
+    /**
+     * indexy upravených tvarů slov ve slovníku podle původního tvaru slova
+     * (-1 pro nevýznamná slova a slova mimo slovník)
+     */
+    private final Map<String, Integer> WORD_IDS = new HashMap<>();
+
+    /**
+     * rozdíly četností slov při změně textu podle indexů ve slovníku
+     */
+    private final Map<Integer, MutableInt> DELTAS = new HashMap<>();
+
+    /**
+     * četnosti slov textu pro klasifikaci celého dokumentu
+     */
+    private final TermCounts TERM_COUNTS = new TermCounts();
+
+    /**
+     * přírůstkově aktualizovaná skóre tříd (nebo null, pokud je klasifikátor nepodporuje)
+     */
+    private final double[] SCORES;
+
+    /**
+     * počet slov s nenulovou četností
+     */
+    private int activeCount;
+
+    /**
+     * počet přírůstkových aktualizací skóre od jejich posledního úplného výpočtu
+     */
+    private int updateCount;
+
+    /**
+     * počet různých slov, jejichž četnost se změnila při poslední změně textu
+     */
+    private int changedTermCount;
+
+    /**
+     * aktuální text
+     */
+    private String text = "";
+
+    /**
+     * Vytvoří průběžnou klasifikaci prázdného textu zadaným modelem.
+     *
+     * @param classificationModel klasifikační model
+     */
+    public IncrementalClassifier(ClassificationModel classificationModel) {
+        CLASSIFIER = classificationModel.getClassifier();
+        WORD_COUNTER = classificationModel.getWordCounter();
+        CONTEXT = classificationModel.createContext();
+        COUNTS = new int[CLASSIFIER.vocabulary.size()];
+        ACTIVE_IDS = new int[COUNTS.length];
+        ACTIVE_POSITIONS = new int[COUNTS.length];
+        Arrays.fill(ACTIVE_POSITIONS, -1);
+        SCORER = CLASSIFIER instanceof IncrementalScorer ? (IncrementalScorer) CLASSIFIER : null;
+        SCORES = SCORER != null ? new double[CLASSIFIER.classes.size()] : null;
+
+        if (SCORER != null) {
+            SCORER.initializeScores(SCORES);
+        }
+    }
+
+    /**
+     * Určí, zda jsou skóre tříd aktualizována přírůstkově (jinak je nutné
+     * dokument klasifikovat celý metodou {@link #classify()}).
+     *
+     * @return true pro přírůstkovou aktualizaci skóre
+     */
+    public boolean isIncremental() {
+        return SCORER != null;
+    }
+
+    /**
+     * Vrátí aktuální text.
+     *
+     * @return text
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Vrátí počet různých slov, jejichž četnost se změnila při poslední
+     * změně textu.
+     *
+     * @return počet změněných slov
+     */
+    public int getChangedTermCount() {
+        return changedTermCount;
+    }
+
+    /**
+     * Nahradí text novým textem a aktualizuje četnosti slov (a přírůstkově
+     * i skóre tříd) podle rozdílu slov změněného úseku.
+     *
+     * @param newText nový text
+     */
+    public void update(String newText) {
+        String oldText = text;
+        int oldLength = oldText.length();
+        int newLength = newText.length();
+        int prefix = 0;
+        int maxPrefix = Math.min(oldLength, newLength);
+
+        while (prefix < maxPrefix && oldText.charAt(prefix) == newText.charAt(prefix)) {
+            prefix++;
+        }
+
+        int suffix = 0;
+        int maxSuffix = maxPrefix - prefix;
+
+        while (suffix < maxSuffix
+                && oldText.charAt(oldLength - 1 - suffix) == newText.charAt(newLength - 1 - suffix)) {
+            suffix++;
+        }
+
+        // rozšíření úseku na hranice slov (společný začátek a konec jsou v obou textech shodné)
+        int start = prefix;
+        int oldEnd = oldLength - suffix;
+        int newEnd = newLength - suffix;
+
+        while (start > 0 && isWordCharacter(newText.charAt(start - 1))) {
+            start--;
+        }
+
+        while (oldEnd < oldLength && isWordCharacter(oldText.charAt(oldEnd))) {
+            oldEnd++;
+            newEnd++;
+        }
+
+        text = newText;
+        addDeltas(oldText, start, oldEnd, -1);
+        addDeltas(newText, start, newEnd, 1);
+        changedTermCount = 0;
+
+        for (Map.Entry<Integer, MutableInt> delta : DELTAS.entrySet()) {
+            if (delta.getValue().get() != 0) {
+                applyDelta(delta.getKey(), delta.getValue().get());
+                changedTermCount++;
+            }
+        }
+
+        DELTAS.clear();
+
+        if (WORD_IDS.size() > MAX_CACHED_WORD_COUNT) {
+            WORD_IDS.clear();
+        }
+
+        // obnovení skóre úplným výpočtem omezuje hromadění zaokrouhlovacích chyb
+        if (SCORER != null && ++updateCount >= Config.LIVE_CLASSIFY_RESCORE_INTERVAL) {
+            recalculateScores();
+        }
+    }
+
+    /**
+     * Vrátí výsledek klasifikace podle přírůstkově aktualizovaných skóre.
+     *
+     * @return výsledek klasifikace (skóre seřazená sestupně)
+     */
+    public Classification getIncrementalClassification() {
+        if (SCORER == null) {
+            throw new IllegalStateException("Klasifikátor nepodporuje přírůstkovou aktualizaci skóre.");
+        }
+
+        int classIndex = AClassifier.getMaxScoreClass(SCORES);
+
+        return createClassification(classIndex >= 0 ? CLASSIFIER.classes.get(classIndex) : null, SCORES,
+                classIndex >= 0);
+    }
+
+    /**
+     * Klasifikuje celý dokument s aktuálními četnostmi slov (bez opakované
+     * tokenizace textu).
+     *
+     * @return výsledek klasifikace (skóre seřazená sestupně)
+     */
+    public Classification classify() {
+        return classify(() -> false);
+    }
+
+    /**
+     * Klasifikuje celý dokument s aktuálními četnostmi slov (bez opakované
+     * tokenizace textu), přičemž mezi jednotlivými kroky ověřuje, zda nebyla
+     * klasifikace zrušena.
+     *
+     * @param cancelled příznak zrušení klasifikace
+     * @return výsledek klasifikace (skóre seřazená sestupně) nebo null při zrušení
+     */
+    public Classification classify(BooleanSupplier cancelled) {
+        if (cancelled.getAsBoolean()) {
+            return null;
+        }
+
+        TERM_COUNTS.clear();
+
+        for (int i = 0; i < activeCount; i++) {
+            TERM_COUNTS.add(ACTIVE_IDS[i], COUNTS[ACTIVE_IDS[i]]);
+        }
+
+        if (cancelled.getAsBoolean()) {
+            return null;
+        }
+
+        String documentClass = CONTEXT.classify(TERM_COUNTS);
+
+        if (cancelled.getAsBoolean()) {
+            return null;
+        }
+
+        return createClassification(documentClass, CONTEXT.getScores(), documentClass != null);
+    }
+
+    /**
+     * Projde slova úseku textu a přičte jejich výskyty se zadaným znaménkem
+     * k rozdílům četností podle indexů ve slovníku.
+     *
+     * @param text text
+     * @param start začátek úseku (na hranici slova)
+     * @param end konec úseku (na hranici slova)
+     * @param sign znaménko (1 pro přidaná, -1 pro odebraná slova)
+     */
+    private void addDeltas(String text, int start, int end, int sign) {
+        int wordStart = -1;
+
+        for (int i = start; i <= end; i++) {
+            if (i < end && isWordCharacter(text.charAt(i))) {
+                if (wordStart < 0) {
+                    wordStart = i;
+                }
+
+                continue;
+            }
+
+            if (wordStart >= 0) {
+                int id = getWordId(text.substring(wordStart, i));
+
+                // ignorování slov, která se nevyskytují ve slovníku
+                if (id >= 0) {
+                    DELTAS.computeIfAbsent(id, key -> new MutableInt(0)).add(sign);
+                }
+
+                wordStart = -1;
+            }
+        }
+    }
+
+    /**
+     * Vrátí index upraveného tvaru slova ve slovníku (upravený tvar je určen
+     * čítačem slov jen při prvním výskytu slova).
+     *
+     * @param word slovo v původním tvaru
+     * @return index ve slovníku (nebo -1 pro nevýznamné slovo nebo slovo mimo slovník)
+     */
+    private int getWordId(String word) {
+        Integer id = WORD_IDS.get(word);
+
+        if (id == null) {
+            id = -1;
+
+            for (String relevantWord : WORD_COUNTER.countWords(word).keySet()) {
+                id = CLASSIFIER.vocabulary.indexOf(relevantWord);
+            }
+
+            WORD_IDS.put(word, id);
+        }
+
+        return id;
+    }
+
+    /**
+     * Změní četnost slova a přírůstkově aktualizuje skóre tříd.
+     *
+     * @param id index slova ve slovníku
+     * @param delta změna četnosti
+     */
+    private void applyDelta(int id, int delta) {
+        int count = COUNTS[id] + delta;
+        COUNTS[id] = count;
+
+        if (count != 0 && ACTIVE_POSITIONS[id] < 0) {
+            ACTIVE_POSITIONS[id] = activeCount;
+            ACTIVE_IDS[activeCount++] = id;
+        }
+        else if (count == 0) {
+            // odebrání slova nahrazením posledním slovem
+            int position = ACTIVE_POSITIONS[id];
+            int last = ACTIVE_IDS[--activeCount];
+            ACTIVE_IDS[position] = last;
+            ACTIVE_POSITIONS[last] = position;
+            ACTIVE_POSITIONS[id] = -1;
+        }
+
+        if (SCORER != null) {
+            SCORER.updateScores(SCORES, id, delta);
+        }
+    }
+
+    /**
+     * Vypočítá skóre tříd znovu ze všech četností slov.
+     */
+    private void recalculateScores() {
+        SCORER.initializeScores(SCORES);
+
+        for (int i = 0; i < activeCount; i++) {
+            SCORER.updateScores(SCORES, ACTIVE_IDS[i], COUNTS[ACTIVE_IDS[i]]);
+        }
+
+        updateCount = 0;
+    }
+
+    /**
+     * Vytvoří výsledek klasifikace se skóre seřazenými sestupně.
+     *
+     * @param documentClass zjištěná třída (nebo null)
+     * @param scores skóre tříd (ve stejném pořadí jako seznam tříd)
+     * @param classified příznak, zda byl dokument zařazen do některé třídy
+     * @return výsledek klasifikace
+     */
+    private Classification createClassification(String documentClass, double[] scores, boolean classified) {
+        Map<String, Double> sortedScores = new LinkedHashMap<>();
+
+        if (classified) {
+            Integer[] order = new Integer[scores.length];
+
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+
+            Arrays.sort(order, (a, b) -> Double.compare(scores[b], scores[a]));
+
+            for (int i : order) {
+                sortedScores.put(CLASSIFIER.classes.get(i), scores[i]);
+            }
+        }
+
+        return new Classification(documentClass, sortedScores);
+    }
+
+    /**
+     * Určí, zda znak tvoří slovo.
+     *
+     * @param c znak
+     * @return true, pokud je znak součástí slova
+     */
+    private static boolean isWordCharacter(char c) {
+        return c < WORD_CHARACTERS.length && WORD_CHARACTERS[c];
+    }
+
+}
@@ -0,0 +1,29 @@
+package application.classification;
+
+/**
+ * Rozhraní klasifikátoru, který umí aktualizovat skóre dokumentu přírůstkově
+ * po změnách četností jednotlivých slov (skóre je pak součtem příspěvků
+ * jednotlivých slov), bez opakované klasifikace celého dokumentu.
+ *
+ * @author Petr Kozler
+ */
+public interface IncrementalScorer {
+
+    /**
+     * Nastaví skóre tříd dokumentu bez slov (výchozí stav přírůstkové
+     * aktualizace skóre).
+     *
+     * @param scores pole pro skóre jednotlivých tříd
+     */
+    void initializeScores(double[] scores);
+
+    /**
+     * Aktualizuje skóre tříd dokumentu po změně četnosti slova.
+     *
+     * @param scores skóre jednotlivých tříd
+     * @param wordIndex index slova ve slovníku
+     * @param countDelta změna četnosti slova
+     */
+    void updateScores(double[] scores, int wordIndex, int countDelta);
+
+}
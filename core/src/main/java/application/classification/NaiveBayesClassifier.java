@@ -0,0 +1,543 @@
+package application.classification;
+
+import application.Config;
+import application.containers.TextDocument;
+import application.containers.MutableInt;
+import application.containers.ScoreMatrix;
+import application.containers.TermCounts;
+import application.helpers.ModelFileReader;
+import application.helpers.ModelFileWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Třída, představující naivní Bayesův klasifikátor pro automatické
+ * určování třídy textových dokumentů.
+ *
+ * @author Petr Kozler
+ */
+public class NaiveBayesClassifier extends AClassifier implements IncrementalScorer {
+
+    /**
+     * název sekce souboru klasifikačního modelu s parametry klasifikátoru
+     */
+    private static final String NAIVE_BAYES_SECTION = "naive-bayes";
+
+    /**
+     * logaritmy relativních četností dokumentů pro jednotlivé třídy
+     */
+    protected DoubleBuffer logClassFrequencies;
+
+    /**
+     * logaritmy relativních četností jednotlivých slov pro jednotlivé třídy
+     * (matice třídy x slova uložená po řádcích)
+     */
+    protected DoubleBuffer logWordByClassFrequencies;
+
+    /**
+     * rozpětí logaritmů relativních četností jednotlivých slov mezi třídami
+     * (největší možná změna náskoku jedné třídy před jinou jedním výskytem
+     * slova, spočítána při prvním předčasně ukončeném skórování)
+     */
+    private volatile double[] wordSpreads;
+
+    /**
+     * Natrénuje naivní Bayesův klasifikátor.
+     *
+     * @param documents seznamy dokumentů a příslušných tříd
+     */
+    public void train(Map<String, List<TextDocument>> documents) {
+        //FileIoHandler fileIoHandler = FileIoHandler.getInstance();
+        System.out.println("==================================================\n"
+                + "Spuštěno trénování naivního Bayesova klasifikátoru.\n");
+
+        logClassFrequencies = DoubleBuffer.wrap(calculateRelativeClassFrequencies(documents));
+
+        System.out.println("--- Relativní četnosti dokumentů pro jednotlivé třídy ---");
+        /*for (int i = 0; i < classes.size(); i++) {
+            System.out.println(fileIoHandler.getClassDescription(classes.get(i))
+                    + ": " + Math.exp(logClassFrequencies.get(i)));
+        }*/
+
+        logWordByClassFrequencies = DoubleBuffer.wrap(calculateRelativeWordByClassFrequencies(documents));
+
+        System.out.println("--- Relativní četnosti jednotlivých slov pro jednotlivé třídy ---");
+        /*for (int i = 0; i < classes.size(); i++) {
+            System.out.println(fileIoHandler.getClassDescription(classes.get(i)));
+            for (int j = 0; j < vocabulary.size(); j++) {
+                System.out.println(vocabulary.get(j) + ": "
+                        + Math.exp(logWordByClassFrequencies.get(i * vocabulary.size() + j)));
+            }
+            System.out.println("---");
+        }*/
+    }
+
+    /**
+     * Klasifikuje textový dokument metodou naivního Bayesova klasifikátoru.
+     *
+     * @param termCounts četnosti slov podle indexů ve slovníku
+     * @param context kontext klasifikace
+     * @return index třídy dokumentu
+     */
+    @Override
+    protected int classify(TermCounts termCounts, ClassificationContext context) {
+        if (context.earlyExitMargin > 0 && termCounts.size() >= Config.NAIVE_BAYES_EARLY_EXIT_MIN_TERMS) {
+            return classifyEarlyExit(termCounts, context);
+        }
+
+        calculateClassProbabilities(termCounts, context.SCORES);
+
+        // výběr třídy s největší pravděpodobností příslušnosti dokumentu
+        return getMaxScoreClass(context.SCORES);
+    }
+
+    /**
+     * Klasifikuje dlouhý dokument postupným přičítáním slov seřazených
+     * sestupně podle jejich vlivu na náskok tříd (četnost krát rozpětí
+     * mezi třídami). Po každém úseku slov je porovnán náskok nejlepší třídy
+     * před druhou a skórování je ukončeno, jakmile náskok dosáhne zadané
+     * meze, nebo převýší největší změnu, kterou mohou způsobit zbývající
+     * slova (pak je výsledek jistě stejný jako při úplném skórování).
+     *
+     * @param termCounts četnosti slov podle indexů ve slovníku
+     * @param context kontext klasifikace
+     * @return index třídy dokumentu
+     */
+    protected int classifyEarlyExit(TermCounts termCounts, ClassificationContext context) {
+        double[] spreads = getWordSpreads();
+        double[] probabilities = context.SCORES;
+        int vocabularySize = vocabulary.size();
+        int termCount = termCounts.size();
+        int[] order = sortByInfluence(termCounts, spreads, context);
+        double remainingInfluence = 0;
+
+        for (int j = 0; j < termCount; j++) {
+            remainingInfluence += termCounts.getCount(j) * spreads[termCounts.getId(j)];
+        }
+
+        for (int i = 0; i < probabilities.length; i++) {
+            probabilities[i] = logClassFrequencies.get(i);
+        }
+
+        for (int k = 0; k < termCount; k++) {
+            int j = order[k];
+            int wordIndex = termCounts.getId(j);
+            int wordCountValue = termCounts.getCount(j);
+            remainingInfluence -= wordCountValue * spreads[wordIndex];
+
+            for (int i = 0; i < probabilities.length; i++) {
+                probabilities[i] += wordCountValue
+                        * logWordByClassFrequencies.get(i * vocabularySize + wordIndex);
+            }
+
+            // kontrola náskoku nejlepší třídy po každém úseku slov
+            if ((k + 1) % Config.NAIVE_BAYES_EARLY_EXIT_CHECK_INTERVAL == 0 && k + 1 < termCount) {
+                double margin = getMaxScoreMargin(probabilities);
+
+                if (margin >= context.earlyExitMargin || margin > remainingInfluence) {
+                    context.consumedTermCount = k + 1;
+                    break;
+                }
+            }
+        }
+
+        return getMaxScoreClass(probabilities);
+    }
+
+    /**
+     * Klasifikuje blok dokumentů dávky. Matice relativních četností slov
+     * je procházena po řádcích (třídách) a každý řádek je použit pro všechny
+     * dokumenty bloku, takže se v mezipaměti procesoru střídá jen jeden
+     * řádek místo celé matice. Pořadí sčítání je stejné jako při klasifikaci
+     * jednotlivých dokumentů, výsledky jsou proto shodné.
+     *
+     * @param documents četnosti slov dokumentů bloku
+     * @param count počet dokumentů bloku
+     * @param matrix matice skóre
+     * @param offset řádek matice pro první dokument bloku
+     * @param context kontext klasifikace
+     */
+    @Override
+    protected void classifyBatch(TermCounts[] documents, int count, ScoreMatrix matrix, int offset,
+            ClassificationContext context) {
+        int vocabularySize = vocabulary.size();
+        int classCount = classes.size();
+        int stride = Config.CLASSIFY_BATCH_SIZE;
+
+        // skóre bloku uložená po třídách (skóre jedné třídy pro dokumenty bloku leží vedle sebe)
+        if (context.batchScores == null) {
+            context.batchScores = new double[classCount * stride];
+        }
+
+        double[] blockScores = context.batchScores;
+
+        for (int i = 0; i < classCount; i++) {
+            int row = i * vocabularySize;
+            int base = i * stride;
+            double logClassFrequency = logClassFrequencies.get(i);
+
+            // řádek třídy je použit pro všechny dokumenty bloku, než se přejde na další
+            for (int d = 0; d < count; d++) {
+                TermCounts termCounts = documents[d];
+                // zjištění relativní četnosti výskytu dokumentů z dané třídy v trénovací množině
+                double probability = logClassFrequency;
+
+                // vynásobení s relativní četností výskytů slova (n-krát pro n-násobné výskyty v textu)
+                for (int j = 0; j < termCounts.size(); j++) {
+                    probability += termCounts.getCount(j)
+                            * logWordByClassFrequencies.get(row + termCounts.getId(j));
+                }
+
+                blockScores[base + d] = probability;
+            }
+        }
+
+        double[] scores = matrix.getScoreArray();
+
+        // výběr třídy s největší pravděpodobností příslušnosti pro každý dokument
+        for (int d = 0; d < count; d++) {
+            int position = (offset + d) * classCount;
+
+            for (int i = 0; i < classCount; i++) {
+                scores[position + i] = blockScores[i * stride + d];
+            }
+
+            matrix.setClassIndex(offset + d, getMaxScoreClass(scores, position, classCount));
+        }
+    }
+
+    /**
+     * Nastaví skóre tříd dokumentu bez slov na logaritmy relativních
+     * četností dokumentů tříd.
+     *
+     * @param scores pole pro skóre jednotlivých tříd
+     */
+    @Override
+    public void initializeScores(double[] scores) {
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = logClassFrequencies.get(i);
+        }
+    }
+
+    /**
+     * Aktualizuje skóre tříd dokumentu po změně četnosti slova přičtením
+     * (nebo odečtením) logaritmů relativních četností slova pro třídy.
+     *
+     * @param scores skóre jednotlivých tříd
+     * @param wordIndex index slova ve slovníku
+     * @param countDelta změna četnosti slova
+     */
+    @Override
+    public void updateScores(double[] scores, int wordIndex, int countDelta) {
+        int vocabularySize = vocabulary.size();
+
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] += countDelta * logWordByClassFrequencies.get(i * vocabularySize + wordIndex);
+        }
+    }
+
+    /**
+     * Vypočítá jistotu klasifikace jako rozdíl aposteriorních pravděpodobností
+     * dvou nejpravděpodobnějších tříd (skóre jsou logaritmy pravděpodobností,
+     * které jsou před porovnáním normalizovány na součet 1).
+     *
+     * @param scores pole skóre
+     * @param offset pozice skóre první třídy
+     * @param length počet tříd
+     * @return jistota klasifikace v rozsahu 0 až 1
+     */
+    @Override
+    protected double getConfidence(double[] scores, int offset, int length) {
+        double best = Double.NEGATIVE_INFINITY;
+        double second = Double.NEGATIVE_INFINITY;
+
+        for (int i = 0; i < length; i++) {
+            double score = scores[offset + i];
+
+            if (score > best) {
+                second = best;
+                best = score;
+            }
+            else if (score > second) {
+                second = score;
+            }
+        }
+
+        // součet pravděpodobností vztažených k nejpravděpodobnější třídě (bez podtečení)
+        double sum = 0;
+
+        for (int i = 0; i < length; i++) {
+            sum += Math.exp(scores[offset + i] - best);
+        }
+
+        return (1 - Math.exp(second - best)) / sum;
+    }
+
+    /**
+     * Zapíše logaritmy relativních četností do souboru klasifikačního modelu.
+     *
+     * @param writer objekt pro zápis souboru modelu
+     * @throws IOException
+     */
+    @Override
+    protected void writeParameters(ModelFileWriter writer) throws IOException {
+        writer.beginSection(NAIVE_BAYES_SECTION);
+        writer.writeDoubles(logClassFrequencies);
+        writer.writeDoubles(logWordByClassFrequencies);
+        writer.endSection();
+    }
+
+    /**
+     * Zpřístupní logaritmy relativních četností jako pohledy na namapovaný
+     * soubor klasifikačního modelu.
+     *
+     * @param reader objekt pro čtení souboru modelu
+     * @throws IOException
+     */
+    @Override
+    protected void readParameters(ModelFileReader reader) throws IOException {
+        ByteBuffer section = reader.getSection(NAIVE_BAYES_SECTION);
+        logClassFrequencies = ModelFileReader.readDoubles(section);
+        logWordByClassFrequencies = ModelFileReader.readDoubles(section);
+    }
+
+    /**
+     * Vypočítá logaritmy relativních četností dokumentů pro jednotlivé třídy.
+     *
+     * @param documents seznamy dokumentů a příslušných tříd
+     * @return logaritmy relativních četností dokumentů pro jednotlivé třídy
+     */
+    protected double[] calculateRelativeClassFrequencies(Map<String, List<TextDocument>> documents) {
+        int totalDocumentCount = 0;
+
+        // zjištění celkového počtu trénovacích dokumentů ve všech třídách
+        for (Map.Entry<String, List<TextDocument>> documentsByClass : documents.entrySet()) {
+            totalDocumentCount += documentsByClass.getValue().size();
+        }
+
+        double[] frequencies = new double[classes.size()];
+
+        // vydělení počtů dokumentů pro jednotlivé třídy celkovým počtem pro určení relativních četností
+        for (int i = 0; i < classes.size(); i++) {
+            String documentClass = classes.get(i);
+            MutableInt documentCount = new MutableInt(documents.get(documentClass).size());
+            frequencies[i] = Math.log(documentCount.getDecimal(totalDocumentCount));
+        }
+
+        return frequencies;
+    }
+
+    /**
+     * Vypočítá logaritmy relativních četností slov v dokumentech jednotlivých tříd.
+     *
+     * @param documents seznamy dokumentů a příslušných tříd
+     * @return matice logaritmů relativních četností slov pro třídy uložená po řádcích
+     */
+    protected double[] calculateRelativeWordByClassFrequencies(Map<String, List<TextDocument>> documents) {
+        int vocabularySize = vocabulary.size();
+        double[] frequencies = new double[classes.size() * vocabularySize];
+
+        // určení relativních četností slov v trénovacích dokumentech pro každou třídu zvlášť
+        for (int i = 0; i < classes.size(); i++) {
+            String documentClass = classes.get(i);
+            //System.out.println("--- Absolutní četnosti slov pro třídu " + documentClass + " ---");
+            double[] classFrequencies = calculateRelativeWordFrequencies(
+                    documents.get(documentClass));
+            System.arraycopy(classFrequencies, 0, frequencies, i * vocabularySize, vocabularySize);
+        }
+
+        return frequencies;
+    }
+
+    /**
+     * Vypočítá logaritmy relativních četností slov v dokumentech dané třídy.
+     *
+     * @param documentsInClass dokumenty třídy
+     * @return logaritmy relativních četností jednotlivých slov pro třídu
+     */
+    protected double[] calculateRelativeWordFrequencies(List<TextDocument> documentsInClass) {
+        // inicializace počtu výskytů v dokumentech dané třídy pro všechna slova ve slovníku (+1)
+        int[] wordCounts = new int[vocabulary.size()];
+        Arrays.fill(wordCounts, 1);
+
+        int totalWordCount = 0;
+
+        // suma z počtu výskytů každého slova (+1) přes všechny dokumenty dané třídy (a celková suma)
+        for (TextDocument document : documentsInClass) {
+            for (Map.Entry<String, MutableInt> wordCountsInDocument : document.getWordCounts().entrySet()) {
+                int wordIndex = vocabulary.indexOf(wordCountsInDocument.getKey());
+                wordCounts[wordIndex] += wordCountsInDocument.getValue().get();
+            }
+
+            totalWordCount += (document.getTotalWordCount() + 1);
+        }
+
+        //System.out.println("(celkem slov: " + totalWordCount + ")\n---");
+
+        double[] frequencies = new double[vocabulary.size()];
+
+        // vydělení počtů výskytů slov celkovým počtem v dané třídě pro určení relativních četností
+        for (int i = 0; i < wordCounts.length; i++) {
+            frequencies[i] = Math.log((double) wordCounts[i] / (double) totalWordCount);
+        }
+
+        return frequencies;
+    }
+
+    /**
+     * Seřadí slova dokumentu sestupně podle jejich vlivu na náskok tříd
+     * (četnost krát rozpětí mezi třídami). Vlivy jsou rozděleny do skupin
+     * s přibližně stejnou hodnotou a seřazeny počítáním, což pro určení
+     * pořadí zpracování stačí a je levnější než úplné řazení.
+     *
+     * @param termCounts četnosti slov podle indexů ve slovníku
+     * @param spreads rozpětí logaritmů relativních četností slov
+     * @param context kontext klasifikace
+     * @return pořadí slov dokumentu (pozice v četnostech slov)
+     */
+    private int[] sortByInfluence(TermCounts termCounts, double[] spreads, ClassificationContext context) {
+        int termCount = termCounts.size();
+        int groupCount = Config.NAIVE_BAYES_EARLY_EXIT_GROUP_COUNT;
+
+        if (context.termOrder == null || context.termOrder.length < termCount) {
+            context.termOrder = new int[Math.max(termCount * 2, 256)];
+        }
+
+        if (context.termGroups == null) {
+            context.termGroups = new int[groupCount + 1];
+        }
+
+        int[] order = context.termOrder;
+        int[] groupStarts = context.termGroups;
+        double maxInfluence = 0;
+
+        for (int j = 0; j < termCount; j++) {
+            maxInfluence = Math.max(maxInfluence, termCounts.getCount(j) * spreads[termCounts.getId(j)]);
+        }
+
+        Arrays.fill(groupStarts, 0);
+
+        for (int j = 0; j < termCount; j++) {
+            groupStarts[getInfluenceGroup(termCounts, j, spreads, maxInfluence) + 1]++;
+        }
+
+        for (int g = 1; g <= groupCount; g++) {
+            groupStarts[g] += groupStarts[g - 1];
+        }
+
+        for (int j = 0; j < termCount; j++) {
+            order[groupStarts[getInfluenceGroup(termCounts, j, spreads, maxInfluence)]++] = j;
+        }
+
+        return order;
+    }
+
+    /**
+     * Určí skupinu slova podle jeho vlivu na náskok tříd (skupina 0
+     * obsahuje slova s největším vlivem).
+     *
+     * @param termCounts četnosti slov podle indexů ve slovníku
+     * @param j pozice slova v četnostech slov
+     * @param spreads rozpětí logaritmů relativních četností slov
+     * @param maxInfluence největší vliv slova dokumentu
+     * @return skupina slova
+     */
+    private static int getInfluenceGroup(TermCounts termCounts, int j, double[] spreads, double maxInfluence) {
+        int groupCount = Config.NAIVE_BAYES_EARLY_EXIT_GROUP_COUNT;
+        double influence = termCounts.getCount(j) * spreads[termCounts.getId(j)];
+
+        return maxInfluence > 0 ? groupCount - 1 - (int) (influence / maxInfluence * (groupCount - 1)) : 0;
+    }
+
+    /**
+     * Vrátí náskok nejvyššího skóre před druhým nejvyšším.
+     *
+     * @param scores skóre tříd
+     * @return náskok nejlepší třídy
+     */
+    private static double getMaxScoreMargin(double[] scores) {
+        double best = Double.NEGATIVE_INFINITY;
+        double second = Double.NEGATIVE_INFINITY;
+
+        for (double score : scores) {
+            if (score > best) {
+                second = best;
+                best = score;
+            }
+            else if (score > second) {
+                second = score;
+            }
+        }
+
+        return best - second;
+    }
+
+    /**
+     * Vrátí rozpětí logaritmů relativních četností jednotlivých slov mezi
+     * třídami (spočítá je při prvním použití).
+     *
+     * @return rozpětí pro jednotlivá slova
+     */
+    private double[] getWordSpreads() {
+        double[] spreads = wordSpreads;
+
+        if (spreads == null) {
+            int vocabularySize = vocabulary.size();
+            spreads = new double[vocabularySize];
+
+            for (int j = 0; j < vocabularySize; j++) {
+                double min = Double.POSITIVE_INFINITY;
+                double max = Double.NEGATIVE_INFINITY;
+
+                for (int i = 0; i < classes.size(); i++) {
+                    double frequency = logWordByClassFrequencies.get(i * vocabularySize + j);
+                    min = Math.min(min, frequency);
+                    max = Math.max(max, frequency);
+                }
+
+                spreads[j] = max - min;
+            }
+
+            // souběžný výpočet ve více vláknech dává stejný výsledek, stačí proto jen zveřejnění pole
+            wordSpreads = spreads;
+        }
+
+        return spreads;
+    }
+
+    /**
+     * Vypočítá logaritmické pravděpodobnosti příslušnosti klasifikovaného
+     * dokumentu k jednotlivým třídám jako součty logaritmů pravděpodobností
+     * pro třídu a jednotlivá slova, které nahrazují součiny samotných
+     * pravděpodobností, aby nedocházelo k podtečení pro výsledné malé
+     * číselné hodnoty.
+     *
+     * @param termCounts četnosti slov podle indexů ve slovníku
+     * @param probabilities pole pro pravděpodobnosti jednotlivých tříd
+     * (ve stejném pořadí jako seznam tříd)
+     */
+    protected void calculateClassProbabilities(TermCounts termCounts, double[] probabilities) {
+        int vocabularySize = vocabulary.size();
+
+        // zjištění relativní četnosti výskytu dokumentů z dané třídy v trénovací množině
+        for (int i = 0; i < probabilities.length; i++) {
+            probabilities[i] = logClassFrequencies.get(i);
+        }
+
+        for (int j = 0; j < termCounts.size(); j++) {
+            int wordIndex = termCounts.getId(j);
+            int wordCountValue = termCounts.getCount(j);
+
+            // vynásobení s relativní četností výskytů slova (n-krát pro n-násobné výskyty v textu)
+            for (int i = 0; i < probabilities.length; i++) {
+                probabilities[i] += wordCountValue
+                        * logWordByClassFrequencies.get(i * vocabularySize + wordIndex);
+            }
+        }
+    }
+
+}
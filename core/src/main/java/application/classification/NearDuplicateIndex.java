@@ -0,0 +1,401 @@
+package application.classification;
+
+import application.containers.TermCounts;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Třída, představující index otisků (SimHash) nedávno klasifikovaných
+ * dokumentů, který umožňuje pro téměř shodné dokumenty (např. stejný
+ * článek s jiným okolním textem) převzít dříve zjištěný výsledek bez nové
+ * klasifikace. Otisk je 64bitový a je spočítán z četností slov dokumentu
+ * podle indexů ve slovníku; podobné dokumenty mají otisky lišící se
+ * v malém počtu bitů.
+ *
+ * Otisky jsou rozděleny na čtyři 16bitová pásma a pro každé pásmo je veden
+ * seznam dokumentů se stejnou hodnotou pásma. Liší-li se dva otisky nejvýše
+ * ve třech bitech, shodují se alespoň v jednom pásmu, takže kandidáti jsou
+ * nalezeni bez procházení všech uložených otisků. Index uchovává pevný počet
+ * posledních výsledků v kruhové frontě. Každý zadaný počet nalezených
+ * výsledků je ověřen úplnou klasifikací, aby bylo možné sledovat míru
+ * neshody a podle ní nastavit nejvyšší vzdálenost otisků; výsledek, který
+ * ověření neodpovídá, je v indexu nahrazen výsledkem úplné klasifikace.
+ *
+ * @author Petr Kozler
+ */
+public class NearDuplicateIndex {
+
+    /**
+     * návratová hodnota vyhledání, pokud podobný dokument nebyl nalezen
+     */
+    public static final int NOT_FOUND = Integer.MIN_VALUE;
+
+    /**
+     * návratová hodnota vyhledání, pokud byl podobný dokument nalezen, ale jeho
+     * výsledek má být ověřen úplnou klasifikací
+     */
+    public static final int VERIFICATION_DUE = Integer.MIN_VALUE + 1;
+
+    /**
+     * počet pásem otisku
+     */
+    private static final int BAND_COUNT = 4;
+
+    /**
+     * počet bitů jednoho pásma otisku
+     */
+    private static final int BAND_BITS = 64 / BAND_COUNT;
+
+    /**
+     * nejvyšší povolená Hammingova vzdálenost otisků podobných dokumentů
+     */
+    private final int MAX_DISTANCE;
+
+    /**
+     * nejmenší počet různých slov dokumentu, pro který je otisk dostatečně stabilní
+     */
+    private final int MIN_TERMS;
+
+    /**
+     * počet nalezených výsledků, po kterém je výsledek ověřen úplnou klasifikací
+     */
+    private final int VERIFICATION_INTERVAL;
+
+    /**
+     * počet tříd
+     */
+    private final int CLASS_COUNT;
+
+    /**
+     * otisky uložených dokumentů
+     */
+    private final long[] FINGERPRINTS;
+
+    /**
+     * indexy tříd uložených dokumentů
+     */
+    private final int[] CLASS_INDICES;
+
+    /**
+     * skóre tříd uložených dokumentů (matice dokumenty x třídy uložená po řádcích)
+     */
+    private final double[] SCORES;
+
+    /**
+     * první dokumenty seznamů pro jednotlivé hodnoty pásem (nebo -1)
+     */
+    private final int[] HEADS;
+
+    /**
+     * následující dokumenty v seznamech pásem (nebo -1)
+     */
+    private final int[] NEXT;
+
+    /**
+     * počet uložených dokumentů
+     */
+    private int size;
+
+    /**
+     * pozice pro uložení dalšího dokumentu v kruhové frontě
+     */
+    private int position;
+
+    /**
+     * počet vyhledání
+     */
+    private long lookupCount;
+
+    /**
+     * počet nalezených podobných dokumentů
+     */
+    private long hitCount;
+
+    /**
+     * počet dokumentů s příliš málo slovy pro spolehlivý otisk
+     */
+    private long skipCount;
+
+    /**
+     * součet vzdáleností otisků nalezených dokumentů
+     */
+    private long distanceSum;
+
+    /**
+     * počet ověření nalezených výsledků úplnou klasifikací
+     */
+    private long verificationCount;
+
+    /**
+     * počet ověření, při kterých se třída lišila
+     */
+    private long disagreementCount;
+
+    /**
+     * Vytvoří prázdný index otisků.
+     *
+     * @param capacity nejvyšší počet uložených dokumentů
+     * @param classCount počet tříd
+     * @param maxDistance nejvyšší Hammingova vzdálenost otisků podobných dokumentů
+     * @param minTerms nejmenší počet různých slov dokumentu
+     * @param verificationInterval počet nalezených výsledků na jedno ověření (0 pro žádné ověřování)
+     */
+    public NearDuplicateIndex(int capacity, int classCount, int maxDistance, int minTerms,
+            int verificationInterval) {
+        MAX_DISTANCE = maxDistance;
+        MIN_TERMS = minTerms;
+        VERIFICATION_INTERVAL = verificationInterval;
+        CLASS_COUNT = classCount;
+        FINGERPRINTS = new long[capacity];
+        CLASS_INDICES = new int[capacity];
+        SCORES = new double[capacity * classCount];
+        HEADS = new int[BAND_COUNT << BAND_BITS];
+        NEXT = new int[BAND_COUNT * capacity];
+        Arrays.fill(HEADS, -1);
+    }
+
+    /**
+     * Spočítá otisk dokumentu metodou SimHash. Každé slovo přispívá
+     * do každého bitu otisku svou četností kladně nebo záporně podle
+     * odpovídajícího bitu hashe svého indexu ve slovníku.
+     *
+     * @param termCounts četnosti slov podle indexů ve slovníku
+     * @param weights pomocné pole vah bitů (o délce 64)
+     * @return otisk dokumentu
+     */
+    public static long fingerprint(TermCounts termCounts, int[] weights) {
+        Arrays.fill(weights, 0);
+
+        for (int i = 0; i < termCounts.size(); i++) {
+            long hash = mix(termCounts.getId(i));
+            int count = termCounts.getCount(i);
+
+            for (int bit = 0; bit < 64; bit++) {
+                weights[bit] += ((hash >>> bit) & 1) != 0 ? count : -count;
+            }
+        }
+
+        long fingerprint = 0;
+
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+
+        return fingerprint;
+    }
+
+    /**
+     * Určí, zda je otisk dokumentu dostatečně stabilní pro vyhledání
+     * podobných dokumentů (dokument obsahuje dost různých slov).
+     *
+     * @param termCounts četnosti slov podle indexů ve slovníku
+     * @return true, pokud má být index použit
+     */
+    public boolean isApplicable(TermCounts termCounts) {
+        if (termCounts.size() >= MIN_TERMS) {
+            return true;
+        }
+
+        synchronized (this) {
+            skipCount++;
+        }
+
+        return false;
+    }
+
+    /**
+     * Vyhledá dokument s nejbližším otiskem v rámci povolené vzdálenosti
+     * a zkopíruje jeho skóre tříd. Zároveň (v rámci jedné operace) určí,
+     * zda má být nalezený výsledek ověřen úplnou klasifikací.
+     *
+     * @param fingerprint otisk dokumentu
+     * @param scores pole pro skóre tříd
+     * @return index třídy nalezeného dokumentu, {@link #NOT_FOUND}, nebo
+     * {@link #VERIFICATION_DUE}, pokud má být dokument klasifikován a výsledek
+     * předán metodě {@link #verify(long, int, double[])}
+     */
+    public synchronized int find(long fingerprint, double[] scores) {
+        lookupCount++;
+        int slot = findNearest(fingerprint);
+
+        if (slot < 0) {
+            return NOT_FOUND;
+        }
+
+        hitCount++;
+        distanceSum += Long.bitCount(FINGERPRINTS[slot] ^ fingerprint);
+
+        if (VERIFICATION_INTERVAL > 0 && hitCount % VERIFICATION_INTERVAL == 0) {
+            return VERIFICATION_DUE;
+        }
+
+        System.arraycopy(SCORES, slot * CLASS_COUNT, scores, 0, CLASS_COUNT);
+
+        return CLASS_INDICES[slot];
+    }
+
+    /**
+     * Porovná výsledek úplné klasifikace dokumentu s výsledkem uloženým
+     * pro dokument s nejbližším otiskem a při neshodě jej výsledkem úplné
+     * klasifikace nahradí (byl-li uložený dokument mezitím z indexu
+     * odstraněn, je výsledek uložen jako nový).
+     *
+     * @param fingerprint otisk dokumentu
+     * @param classIndex index třídy zjištěný úplnou klasifikací
+     * @param scores skóre tříd zjištěná úplnou klasifikací
+     */
+    public synchronized void verify(long fingerprint, int classIndex, double[] scores) {
+        int slot = findNearest(fingerprint);
+
+        if (slot < 0) {
+            if (classIndex >= 0) {
+                add(fingerprint, classIndex, scores);
+            }
+
+            return;
+        }
+
+        verificationCount++;
+
+        if (CLASS_INDICES[slot] != classIndex) {
+            disagreementCount++;
+            CLASS_INDICES[slot] = classIndex;
+            System.arraycopy(scores, 0, SCORES, slot * CLASS_COUNT, CLASS_COUNT);
+        }
+    }
+
+    /**
+     * Uloží výsledek klasifikace dokumentu (nahradí nejstarší uložený
+     * dokument, je-li index zaplněn).
+     *
+     * @param fingerprint otisk dokumentu
+     * @param classIndex index třídy dokumentu
+     * @param scores skóre tříd
+     */
+    public synchronized void add(long fingerprint, int classIndex, double[] scores) {
+        int slot = position;
+
+        if (size == FINGERPRINTS.length) {
+            unlink(slot);
+        }
+        else {
+            size++;
+        }
+
+        FINGERPRINTS[slot] = fingerprint;
+        CLASS_INDICES[slot] = classIndex;
+        System.arraycopy(scores, 0, SCORES, slot * CLASS_COUNT, CLASS_COUNT);
+
+        for (int band = 0; band < BAND_COUNT; band++) {
+            int head = getHead(fingerprint, band);
+            NEXT[band * FINGERPRINTS.length + slot] = HEADS[head];
+            HEADS[head] = slot;
+        }
+
+        position = (position + 1) % FINGERPRINTS.length;
+    }
+
+    /**
+     * Vrátí statistiky indexu.
+     *
+     * @return mapa názvů a hodnot statistik
+     */
+    public synchronized Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("entries", size);
+        metrics.put("maxDistance", MAX_DISTANCE);
+        metrics.put("lookups", lookupCount);
+        metrics.put("hits", hitCount);
+        metrics.put("hitRatio", lookupCount == 0 ? 0.0 : (double) hitCount / lookupCount);
+        metrics.put("skipped", skipCount);
+        metrics.put("meanDistance", hitCount == 0 ? 0.0 : (double) distanceSum / hitCount);
+        metrics.put("verifications", verificationCount);
+        metrics.put("disagreements", disagreementCount);
+        metrics.put("disagreementRatio", verificationCount == 0 ? 0.0
+                : (double) disagreementCount / verificationCount);
+
+        return metrics;
+    }
+
+    /**
+     * Vyhledá dokument s nejbližším otiskem v rámci povolené vzdálenosti.
+     *
+     * @param fingerprint otisk dokumentu
+     * @return pozice nalezeného dokumentu (nebo -1)
+     */
+    private int findNearest(long fingerprint) {
+        int best = -1;
+        int bestDistance = MAX_DISTANCE + 1;
+
+        for (int band = 0; band < BAND_COUNT && bestDistance > 0; band++) {
+            int offset = band * FINGERPRINTS.length;
+
+            for (int slot = HEADS[getHead(fingerprint, band)]; slot >= 0; slot = NEXT[offset + slot]) {
+                int distance = Long.bitCount(FINGERPRINTS[slot] ^ fingerprint);
+
+                if (distance < bestDistance) {
+                    best = slot;
+                    bestDistance = distance;
+                }
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Odstraní dokument ze seznamů všech pásem.
+     *
+     * @param slot pozice dokumentu
+     */
+    private void unlink(int slot) {
+        for (int band = 0; band < BAND_COUNT; band++) {
+            int head = getHead(FINGERPRINTS[slot], band);
+            int offset = band * FINGERPRINTS.length;
+
+            if (HEADS[head] == slot) {
+                HEADS[head] = NEXT[offset + slot];
+                continue;
+            }
+
+            for (int previous = HEADS[head]; previous >= 0; previous = NEXT[offset + previous]) {
+                if (NEXT[offset + previous] == slot) {
+                    NEXT[offset + previous] = NEXT[offset + slot];
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Vrátí pozici začátku seznamu pro hodnotu pásma otisku.
+     *
+     * @param fingerprint otisk dokumentu
+     * @param band pořadí pásma
+     * @return pozice v poli začátků seznamů
+     */
+    private static int getHead(long fingerprint, int band) {
+        int value = (int) (fingerprint >>> (band * BAND_BITS)) & ((1 << BAND_BITS) - 1);
+
+        return (band << BAND_BITS) | value;
+    }
+
+    /**
+     * Promíchá bity indexu slova (finalizér SplitMix64), aby bity hashe
+     * byly na sobě nezávislé.
+     *
+     * @param id index slova ve slovníku
+     * @return hash slova
+     */
+    private static long mix(int id) {
+        long z = (id + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+
+        return z ^ (z >>> 31);
+    }
+
+}
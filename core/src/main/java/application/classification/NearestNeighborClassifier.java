@@ -0,0 +1,425 @@
+package application.classification;
+
+import application.containers.MutableInt;
+import application.containers.TermCounts;
+import application.containers.TextDocument;
+import application.helpers.ModelFileReader;
+import application.helpers.ModelFileWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.Collections;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Třída, představující klasifikátor využívající metodu k nejbližších sousedů
+ * pro automatické určování třídy textových dokumentů.
+ *
+ * Vážené četnosti slov trénovacích dokumentů (četnost slova násobená
+ * binárním logaritmem podílu počtu všech dokumentů a počtu dokumentů se
+ * slovem) jsou uloženy jako invertovaný index - pro každé slovo ze slovníku
+ * seznam dokumentů, které slovo obsahují, a odpovídajících vážených četností.
+ * Podobnost klasifikovaného dokumentu je tak počítána pouze s dokumenty,
+ * které s ním sdílejí alespoň jedno slovo.
+ *
+ * @author Petr Kozler
+ */
+public class NearestNeighborClassifier extends AClassifier {
+
+    /**
+     * název sekce souboru klasifikačního modelu s parametry klasifikátoru
+     */
+    private static final String NEAREST_NEIGHBOR_SECTION = "nearest-neighbor";
+
+    /**
+     * číslo k určující počet nejbližších sousedů pro určení třídy
+     */
+    protected int nearestNeighborCount;
+
+    /**
+     * počet trénovacích dokumentů bez slov s nenulovou váhou
+     */
+    protected int emptyDocumentCount;
+
+    /**
+     * indexy tříd jednotlivých trénovacích dokumentů
+     */
+    protected IntBuffer documentClasses;
+
+    /**
+     * normy vektorů vážených četností slov trénovacích dokumentů
+     */
+    protected DoubleBuffer documentNorms;
+
+    /**
+     * počty dokumentů, ve kterých se vyskytují jednotlivá slova ze slovníku
+     */
+    protected IntBuffer documentWithWordCounts;
+
+    /**
+     * pozice začátků seznamů dokumentů pro jednotlivá slova (počet slov + 1 hodnot)
+     */
+    protected IntBuffer postingOffsets;
+
+    /**
+     * indexy trénovacích dokumentů v seznamech pro jednotlivá slova
+     */
+    protected IntBuffer postingDocuments;
+
+    /**
+     * vážené četnosti slov v trénovacích dokumentech v seznamech pro jednotlivá slova
+     */
+    protected DoubleBuffer postingWeights;
+
+    /**
+     * Natrénuje klasifikátor k-NN (k nejbližších sousedů).
+     *
+     * @param documents seznamy dokumentů a příslušných tříd
+     */
+    @Override
+    public void train(Map<String, List<TextDocument>> documents) {
+        System.out.println("==================================================\n"
+                + "Spuštěno trénování klasifikátoru podle nejbližšího souseda.\n");
+        calculateTrainingWeightedWordCounts(documents);
+        nearestNeighborCount = classes.size();
+        emptyDocumentCount = countEmptyDocuments();
+    }
+
+    /**
+     * Klasifikuje textový dokument metodou nejbližšího souseda.
+     *
+     * @param termCounts četnosti slov podle indexů ve slovníku
+     * @param context kontext klasifikace
+     * @return index třídy dokumentu (nebo -1, pokud dokument neobsahuje žádné známé slovo)
+     */
+    @Override
+    protected int classify(TermCounts termCounts, ClassificationContext context) {
+        if (!calculateConfidences(termCounts, context)) {
+            return -1;
+        }
+
+        // výběr třídy s největší pravděpodobností příslušnosti dokumentu
+        return getMaxScoreClass(context.SCORES);
+    }
+
+    /**
+     * Zapíše třídy a normy trénovacích dokumentů a invertovaný index
+     * vážených četností do souboru klasifikačního modelu.
+     *
+     * @param writer objekt pro zápis souboru modelu
+     * @throws IOException
+     */
+    @Override
+    protected void writeParameters(ModelFileWriter writer) throws IOException {
+        writer.beginSection(NEAREST_NEIGHBOR_SECTION);
+        writer.writeInt(nearestNeighborCount);
+        writer.writeInts(documentClasses);
+        writer.writeDoubles(documentNorms);
+        writer.writeInts(documentWithWordCounts);
+        writer.writeInts(postingOffsets);
+        writer.writeInts(postingDocuments);
+        writer.writeDoubles(postingWeights);
+        writer.endSection();
+    }
+
+    /**
+     * Zpřístupní parametry klasifikátoru jako pohledy na namapovaný soubor
+     * klasifikačního modelu.
+     *
+     * @param reader objekt pro čtení souboru modelu
+     * @throws IOException
+     */
+    @Override
+    protected void readParameters(ModelFileReader reader) throws IOException {
+        ByteBuffer section = reader.getSection(NEAREST_NEIGHBOR_SECTION);
+        nearestNeighborCount = section.getInt();
+        documentClasses = ModelFileReader.readInts(section);
+        documentNorms = ModelFileReader.readDoubles(section);
+        documentWithWordCounts = ModelFileReader.readInts(section);
+        postingOffsets = ModelFileReader.readInts(section);
+        postingDocuments = ModelFileReader.readInts(section);
+        postingWeights = ModelFileReader.readDoubles(section);
+        emptyDocumentCount = countEmptyDocuments();
+    }
+
+    /**
+     * Vypočítá vážené četnosti slov v jednotlivých trénovacích dokumentech
+     * a sestaví z nich invertovaný index spolu s normami dokumentů a počty
+     * dokumentů, ve kterých se vyskytují jednotlivá slova ve slovníku - ty
+     * jsou později znovu použity při výpočtu vážených slov klasifikovaných
+     * dokumentů.
+     *
+     * @param documents mapa tříd a příslušných dokumentů uchovávajících absolutní četnosti
+     */
+    protected void calculateTrainingWeightedWordCounts(Map<String, List<TextDocument>> documents) {
+        int documentTotalCount = 0;
+
+        for (List<TextDocument> documentsInClass : documents.values()) {
+            documentTotalCount += documentsInClass.size();
+        }
+
+        int[] classIndices = new int[documentTotalCount];
+        int[][] documentWords = new int[documentTotalCount][];
+        int[][] documentWordCounts = new int[documentTotalCount][];
+        int[] documentCounts = new int[vocabulary.size()];
+        int documentIndex = 0;
+
+        // převod četností slov na indexy do slovníku a určení počtu dokumentů pro jednotlivá slova
+        for (Map.Entry<String, List<TextDocument>> documentsByClass : documents.entrySet()) {
+            int classIndex = Collections.binarySearch(classes, documentsByClass.getKey());
+
+            for (TextDocument document : documentsByClass.getValue()) {
+                Map<String, MutableInt> wordCounts = document.getWordCounts();
+                int[] words = new int[wordCounts.size()];
+                int[] counts = new int[wordCounts.size()];
+                int i = 0;
+
+                for (Map.Entry<String, MutableInt> wordCount : wordCounts.entrySet()) {
+                    words[i] = vocabulary.indexOf(wordCount.getKey());
+                    counts[i] = wordCount.getValue().get();
+                    documentCounts[words[i]]++;
+                    i++;
+                }
+
+                classIndices[documentIndex] = classIndex;
+                documentWords[documentIndex] = words;
+                documentWordCounts[documentIndex] = counts;
+                documentIndex++;
+            }
+        }
+
+        // určení pozic seznamů dokumentů pro jednotlivá slova
+        int[] offsets = new int[vocabulary.size() + 1];
+
+        for (int word = 0; word < documentCounts.length; word++) {
+            offsets[word + 1] = offsets[word] + documentCounts[word];
+        }
+
+        int[] postings = new int[offsets[offsets.length - 1]];
+        double[] weights = new double[postings.length];
+        double[] norms = new double[documentTotalCount];
+        int[] fill = new int[vocabulary.size()];
+
+        // určení vážených četností pro každé slovo v každém dokumentu
+        for (int document = 0; document < documentTotalCount; document++) {
+            int[] words = documentWords[document];
+            double norm = 0;
+
+            for (int i = 0; i < words.length; i++) {
+                int word = words[i];
+                double weightedCount = getWeightedWordCount(documentWordCounts[document][i],
+                        documentTotalCount, documentCounts[word]);
+                int position = offsets[word] + fill[word]++;
+
+                postings[position] = document;
+                weights[position] = weightedCount;
+                norm += (weightedCount * weightedCount);
+            }
+
+            norms[document] = Math.sqrt(norm);
+        }
+
+        documentClasses = IntBuffer.wrap(classIndices);
+        documentNorms = DoubleBuffer.wrap(norms);
+        documentWithWordCounts = IntBuffer.wrap(documentCounts);
+        postingOffsets = IntBuffer.wrap(offsets);
+        postingDocuments = IntBuffer.wrap(postings);
+        postingWeights = DoubleBuffer.wrap(weights);
+    }
+
+    /**
+     * Určí počet trénovacích dokumentů bez slov s nenulovou váhou (s nulovou
+     * normou). Jejich podobnost s klasifikovaným dokumentem není definována
+     * a při řazení podle podobnosti obsazují první místa mezi k nejbližšími
+     * sousedy, aniž by přispívaly k součtům podobností - o jejich počet je
+     * proto sníženo k.
+     *
+     * @return počet dokumentů s nulovou normou
+     */
+    protected int countEmptyDocuments() {
+        int count = 0;
+
+        for (int i = 0; i < documentNorms.limit(); i++) {
+            if (documentNorms.get(i) == 0) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Vypočítá podobnosti (kosinovou míru) trénovacích dokumentů, které
+     * s klasifikovaným dokumentem sdílejí alespoň jedno slovo, a vybere
+     * k nejpodobnějších z nich do kontextu klasifikace.
+     *
+     * @param termCounts absolutní četnosti slov klasifikovaného dokumentu
+     * @param context kontext klasifikace
+     * @return počet nalezených dokumentů (nejvýše k), nebo -1, pokud dokument
+     * neobsahuje žádné slovo s nenulovou váhou
+     */
+    protected int calculateSimilarities(TermCounts termCounts, ClassificationContext context) {
+        int documentTotalCount = documentClasses.limit();
+
+        if (context.similarities == null) {
+            int k = Math.max(0, Math.min(nearestNeighborCount, documentTotalCount) - emptyDocumentCount);
+            context.similarities = new double[documentTotalCount];
+            context.touched = new boolean[documentTotalCount];
+            context.touchedDocuments = new int[documentTotalCount];
+            context.nearestDocuments = new int[k];
+            context.nearestSimilarities = new double[k];
+        }
+
+        double[] similarities = context.similarities;
+        boolean[] touched = context.touched;
+        int[] touchedDocuments = context.touchedDocuments;
+        int touchedCount = 0;
+        double norm = 0;
+
+        for (int j = 0; j < termCounts.size(); j++) {
+            int word = termCounts.getId(j);
+
+            // určení vážené četnosti pro slovo
+            double weightedCount = getWeightedWordCount(termCounts.getCount(j),
+                    documentTotalCount, documentWithWordCounts.get(word));
+            norm += (weightedCount * weightedCount);
+
+            // přičtení součinů vážených četností k podobnostem dokumentů se slovem
+            for (int i = postingOffsets.get(word); i < postingOffsets.get(word + 1); i++) {
+                int document = postingDocuments.get(i);
+
+                if (!touched[document]) {
+                    touched[document] = true;
+                    touchedDocuments[touchedCount++] = document;
+                }
+
+                similarities[document] += (weightedCount * postingWeights.get(i));
+            }
+        }
+
+        norm = Math.sqrt(norm);
+        int k = 0;
+
+        for (int i = 0; i < touchedCount; i++) {
+            int document = touchedDocuments[i];
+            double documentNorm = documentNorms.get(document);
+
+            // vynechání dokumentů bez slov s nenulovou váhou
+            if (norm != 0 && documentNorm != 0) {
+                double similarity = similarities[document] / (norm * documentNorm);
+                k = insertNearestDocument(document, similarity, k,
+                        context.nearestDocuments, context.nearestSimilarities);
+            }
+
+            // vynulování pracovních polí pro další dokument
+            similarities[document] = 0;
+            touched[document] = false;
+        }
+
+        return norm == 0 ? -1 : k;
+    }
+
+    /**
+     * Vloží dokument do sestupně seřazeného pole nejpodobnějších dokumentů,
+     * pokud je jeho podobnost větší než podobnost posledního z nich.
+     *
+     * @param document index dokumentu
+     * @param similarity podobnost dokumentu
+     * @param count aktuální počet dokumentů v poli
+     * @param nearestDocuments pole indexů nejpodobnějších dokumentů
+     * @param nearestSimilarities pole podobností nejpodobnějších dokumentů
+     * @return nový počet dokumentů v poli
+     */
+    protected int insertNearestDocument(int document, double similarity, int count,
+            int[] nearestDocuments, double[] nearestSimilarities) {
+        int capacity = nearestDocuments.length;
+
+        if (capacity == 0) {
+            return 0;
+        }
+
+        if (count == capacity && similarity <= nearestSimilarities[capacity - 1]) {
+            return count;
+        }
+
+        int i = (count == capacity) ? capacity - 1 : count++;
+
+        // posun méně podobných dokumentů a vložení nového na odpovídající místo
+        while (i > 0 && nearestSimilarities[i - 1] < similarity) {
+            nearestDocuments[i] = nearestDocuments[i - 1];
+            nearestSimilarities[i] = nearestSimilarities[i - 1];
+            i--;
+        }
+
+        nearestDocuments[i] = document;
+        nearestSimilarities[i] = similarity;
+
+        return count;
+    }
+
+    /**
+     * Vypočítá pravděpodobnosti příslušnosti klasifikovaného dokumentu k
+     * jednotlivým třídám jako podíl součtu podobností k nejpodobnějších
+     * trénovacích dokumentů dané třídy a celkového součtu jejich podobností.
+     *
+     * @param termCounts absolutní četnosti slov klasifikovaného dokumentu
+     * @param context kontext klasifikace (pro uložení pravděpodobností tříd)
+     * @return true, pokud dokument obsahuje alespoň jedno známé slovo
+     */
+    protected boolean calculateConfidences(TermCounts termCounts, ClassificationContext context) {
+        int count = calculateSimilarities(termCounts, context);
+
+        // dokument bez známých slov nelze zařadit do žádné třídy
+        if (count < 0) {
+            return false;
+        }
+
+        double[] similaritySumsByClass = context.SCORES;
+        Arrays.fill(similaritySumsByClass, 0);
+        // výpočet celkového součtu podobností pro k nejbližších sousedů
+        double totalSimilaritySum = 0;
+
+        for (int i = 0; i < count; i++) {
+            similaritySumsByClass[documentClasses.get(context.nearestDocuments[i])]
+                    += context.nearestSimilarities[i];
+            totalSimilaritySum += context.nearestSimilarities[i];
+        }
+
+        for (int i = 0; i < similaritySumsByClass.length; i++) {
+            // výpočet součtu podobností pro k nejbližších sousedů z dané třídy
+            similaritySumsByClass[i] /= totalSimilaritySum;
+        }
+
+        return true;
+    }
+
+    /**
+     * Vypočítá váženou četnost slova.
+     *
+     * @param count absolutní četnost slova v dokumentu
+     * @param documentTotalCount celkový počet dokumentů
+     * @param documentContainingWordCount počet dokumentů, které slovo obsahují
+     * @return vážená četnost
+     */
+    protected double getWeightedWordCount(int count, int documentTotalCount, int documentContainingWordCount) {
+        return count * log2((double) documentTotalCount / (double) documentContainingWordCount);
+    }
+
+    /**
+     * Vypočítá binární logaritmus.
+     *
+     * @param n argument
+     * @return binární logaritmus
+     */
+    private double log2(double n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException();
+        }
+
+        return Math.log(n) / Math.log(2);
+    }
+
+}
@@ -0,0 +1,95 @@
+package application.classification;
+
+import application.containers.TermCounts;
+import application.containers.TextDocument;
+import application.helpers.ModelFileReader;
+import application.helpers.ModelFileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Třída, představující "klasifikátor" pro triviální určování třídy textových
+ * dokumentů náhodným výběrem - slouží pro účely porovnání a vyhodnocení
+ * úspěšnosti klasifikace u ostatních klasifikátorů.
+ * 
+ * @author Petr Kozler
+ */
+public class RandomSelectionClassifier extends AClassifier {
+
+    /**
+     * název sekce souboru klasifikačního modelu s parametry klasifikátoru
+     */
+    private static final String RANDOM_SELECTION_SECTION = "random-selection";
+
+    /**
+     * počáteční hodnota generátoru náhodných čísel
+     */
+    protected long seed;
+
+    /**
+     * počet vytvořených generátorů náhodných čísel (každý kontext klasifikace
+     * má vlastní generátor s odlišnou počáteční hodnotou)
+     */
+    protected final AtomicLong generatorCount = new AtomicLong();
+    
+    /**
+     * Určí počáteční hodnotu generátorů náhodných čísel pro náhodný výběr
+     * tříd dokumentů.
+     * 
+     * @param documents seznamy dokumentů a příslušných tříd
+     */
+    public void train(Map<String, List<TextDocument>> documents) {
+        seed = documents.hashCode();
+        generatorCount.set(0);
+    }
+
+    /**
+     * Klasifikuje textový dokument metodou náhodného výběru. Všechny třídy
+     * mají stejné skóre, protože náhodný výběr nezávisí na obsahu dokumentu.
+     * 
+     * @param termCounts četnosti slov podle indexů ve slovníku
+     * @param context kontext klasifikace
+     * @return index třídy dokumentu
+     */
+    @Override
+    protected int classify(TermCounts termCounts, ClassificationContext context) {
+        Arrays.fill(context.SCORES, 1.0 / classes.size());
+        
+        if (context.random == null) {
+            context.random = new Random(seed + generatorCount.getAndIncrement());
+        }
+        
+        return context.random.nextInt(classes.size());
+    }
+
+    /**
+     * Zapíše počáteční hodnotu generátoru náhodných čísel do souboru
+     * klasifikačního modelu.
+     *
+     * @param writer objekt pro zápis souboru modelu
+     * @throws IOException
+     */
+    @Override
+    protected void writeParameters(ModelFileWriter writer) throws IOException {
+        writer.beginSection(RANDOM_SELECTION_SECTION);
+        writer.writeLong(seed);
+        writer.endSection();
+    }
+
+    /**
+     * Načte počáteční hodnotu generátorů náhodných čísel.
+     *
+     * @param reader objekt pro čtení souboru modelu
+     * @throws IOException
+     */
+    @Override
+    protected void readParameters(ModelFileReader reader) throws IOException {
+        seed = reader.getSection(RANDOM_SELECTION_SECTION).getLong();
+        generatorCount.set(0);
+    }
+    
+}
@@ -0,0 +1,54 @@
+package application.containers;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Třída, představující výsledek klasifikace dokumentu - zjištěnou třídu
+ * a skóre příslušnosti dokumentu ke všem třídám.
+ *
+ * @author Petr Kozler
+ */
+public class Classification {
+
+    /**
+     * zjištěná třída dokumentu
+     */
+    private final String documentClass;
+
+    /**
+     * skóre příslušnosti dokumentu k jednotlivým třídám
+     */
+    private final Map<String, Double> scores;
+
+    /**
+     * Vytvoří výsledek klasifikace dokumentu.
+     *
+     * @param documentClass zjištěná třída dokumentu
+     * @param scores skóre příslušnosti dokumentu k jednotlivým třídám
+     */
+    public Classification(String documentClass, Map<String, Double> scores) {
+        this.documentClass = documentClass;
+        this.scores = Collections.unmodifiableMap(scores);
+    }
+
+    /**
+     * Vrátí zjištěnou třídu dokumentu.
+     *
+     * @return třída dokumentu (nebo null, pokud dokument nelze zařadit)
+     */
+    public String getDocumentClass() {
+        return documentClass;
+    }
+
+    /**
+     * Vrátí skóre příslušnosti dokumentu k jednotlivým třídám (vyšší skóre
+     * znamená pravděpodobnější třídu, význam hodnot závisí na klasifikátoru).
+     *
+     * @return skóre pro jednotlivé třídy
+     */
+    public Map<String, Double> getScores() {
+        return scores;
+    }
+
+}
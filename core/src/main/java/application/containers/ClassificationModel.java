@@ -0,0 +1,148 @@
+package application.containers;
+
+import application.classification.AClassifier;
+import application.classification.ClassificationContext;
+import application.helpers.ModelFileReader;
+import application.helpers.ModelFileWriter;
+import application.parameterisation.AWordCounter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Třída, představující klasifikační model.
+ * Obsahuje instance třídy implementující vybraný algoritmus parametrizace
+ * dokumentů a třídy představující vybraný klasifikátor dokumentů.
+ * 
+ * @author Petr Kozler
+ */
+public class ClassificationModel {
+    
+    /**
+     * název sekce souboru klasifikačního modelu s typy komponent modelu
+     */
+    private static final String HEADER_SECTION = "header";
+    
+    /**
+     * čítač slov v dokumentech
+     */
+    private AWordCounter wordCounter;
+    
+    /**
+     * klasifikátor dokumentů
+     */
+    private AClassifier classifier;
+    
+    /**
+     * Nastaví komponenty klasifikačního modelu.
+     * 
+     * @param wordCounter čítač slov v dokumentech
+     * @param classifier klasifikátor dokumentů
+     */
+    public void setModelComponents(AWordCounter wordCounter, AClassifier classifier) {
+        this.wordCounter = wordCounter;
+        this.classifier = classifier;
+    }
+
+    /**
+     * Vrátí čítač slov v dokumentech.
+     * 
+     * @return čítač slov v dokumentech
+     */
+    public AWordCounter getWordCounter() {
+        return wordCounter;
+    }
+
+    /**
+     * Vrátí klasifikátor dokumentů.
+     * 
+     * @return klasifikátor dokumentů
+     */
+    public AClassifier getClassifier() {
+        return classifier;
+    }
+    
+    /**
+     * Vytvoří kontext pro klasifikaci textů dokumentů jedním vláknem.
+     * Model samotný může být sdílen více vlákny, každé však musí používat
+     * vlastní kontext.
+     * 
+     * @return kontext klasifikace
+     */
+    public ClassificationContext createContext() {
+        return classifier.createContext(wordCounter);
+    }
+    
+    /**
+     * Zapíše typy komponent klasifikačního modelu a jejich data
+     * do souboru modelu.
+     * 
+     * @param writer objekt pro zápis souboru modelu
+     * @throws IOException 
+     */
+    public void writeModel(ModelFileWriter writer) throws IOException {
+        writer.beginSection(HEADER_SECTION);
+        writer.writeString(wordCounter.getClass().getName());
+        writer.writeString(classifier.getClass().getName());
+        writer.endSection();
+        
+        wordCounter.writeModel(writer);
+        classifier.writeModel(writer);
+    }
+    
+    /**
+     * Vytvoří klasifikační model z dat souboru modelu.
+     * 
+     * @param reader objekt pro čtení souboru modelu
+     * @return klasifikační model
+     * @throws IOException
+     * @throws ClassNotFoundException 
+     */
+    public static ClassificationModel readModel(ModelFileReader reader)
+            throws IOException, ClassNotFoundException {
+        ByteBuffer header = reader.getSection(HEADER_SECTION);
+        AWordCounter wordCounter = createComponent(ModelFileReader.readString(header), AWordCounter.class);
+        AClassifier classifier = createComponent(ModelFileReader.readString(header), AClassifier.class);
+        
+        wordCounter.readModel(reader);
+        classifier.readModel(reader);
+        
+        ClassificationModel classificationModel = new ClassificationModel();
+        classificationModel.setModelComponents(wordCounter, classifier);
+        
+        return classificationModel;
+    }
+    
+    /**
+     * Vytvoří instanci komponenty klasifikačního modelu podle názvu třídy
+     * uloženého v souboru modelu. Třída je načtena bez inicializace a před
+     * vytvořením instance je ověřeno, že je podtřídou očekávaného typu, aby
+     * soubor modelu nemohl spustit statický inicializátor libovolné třídy.
+     * 
+     * @param <T> typ komponenty
+     * @param className název třídy
+     * @param type očekávaný typ komponenty
+     * @return instance komponenty
+     * @throws IOException
+     * @throws ClassNotFoundException 
+     */
+    private static <T> T createComponent(String className, Class<T> type)
+            throws IOException, ClassNotFoundException {
+        Class<? extends T> componentClass;
+        
+        try {
+            componentClass = Class.forName(className, false, ClassificationModel.class.getClassLoader())
+                    .asSubclass(type);
+        }
+        catch (ClassCastException ex) {
+            throw new IOException("Třída není komponentou klasifikačního modelu: " + className, ex);
+        }
+        
+        try {
+            return componentClass.getDeclaredConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException ex) {
+            throw new IOException("Nelze vytvořit komponentu klasifikačního modelu: " + className, ex);
+        }
+    }
+    
+}
@@ -0,0 +1,92 @@
+package application.containers;
+
+/**
+ * Třída, představující výsledek zpracování jednoho dokumentu klasifikačním
+ * proudem - buď výsledek klasifikace, nebo chybu, kvůli které dokument
+ * nebylo možné zpracovat (chyba jednoho dokumentu neukončí celý proud).
+ *
+ * @author Petr Kozler
+ */
+public class DocumentResult {
+
+    /**
+     * identifikátor dokumentu
+     */
+    private final String id;
+
+    /**
+     * pořadí dokumentu na vstupu proudu
+     */
+    private final long sequence;
+
+    /**
+     * výsledek klasifikace (nebo null při chybě)
+     */
+    private final Classification classification;
+
+    /**
+     * chyba zpracování dokumentu (nebo null)
+     */
+    private final Throwable error;
+
+    /**
+     * Vytvoří výsledek zpracování dokumentu.
+     *
+     * @param id identifikátor dokumentu
+     * @param sequence pořadí dokumentu na vstupu proudu
+     * @param classification výsledek klasifikace (nebo null při chybě)
+     * @param error chyba zpracování dokumentu (nebo null)
+     */
+    public DocumentResult(String id, long sequence, Classification classification, Throwable error) {
+        this.id = id;
+        this.sequence = sequence;
+        this.classification = classification;
+        this.error = error;
+    }
+
+    /**
+     * Vrátí identifikátor dokumentu.
+     *
+     * @return identifikátor dokumentu
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Vrátí pořadí dokumentu na vstupu proudu (od 0).
+     *
+     * @return pořadí dokumentu
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Určí, zda byl dokument klasifikován bez chyby.
+     *
+     * @return true, pokud je k dispozici výsledek klasifikace
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * Vrátí výsledek klasifikace.
+     *
+     * @return výsledek klasifikace (nebo null při chybě)
+     */
+    public Classification getClassification() {
+        return classification;
+    }
+
+    /**
+     * Vrátí chybu zpracování dokumentu.
+     *
+     * @return chyba (nebo null, pokud byl dokument klasifikován)
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+}
@@ -0,0 +1,108 @@
+package application.containers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Třída, představující dokument vstupující do klasifikačního proudu -
+ * identifikátor dokumentu a způsob načtení jeho textu v kódování UTF-8.
+ * Text je načten až ve fázi čtení proudu (např. ze souboru), takže proud
+ * drží v paměti jen texty rozpracovaných dokumentů.
+ *
+ * @author Petr Kozler
+ */
+public class DocumentSource {
+
+    /**
+     * identifikátor dokumentu
+     */
+    private final String id;
+
+    /**
+     * způsob načtení textu dokumentu
+     */
+    private final Reader reader;
+
+    /**
+     * Vytvoří dokument se zadaným způsobem načtení textu.
+     *
+     * @param id identifikátor dokumentu
+     * @param reader způsob načtení textu dokumentu
+     */
+    private DocumentSource(String id, Reader reader) {
+        this.id = id;
+        this.reader = reader;
+    }
+
+    /**
+     * Vytvoří dokument se zadaným textem.
+     *
+     * @param id identifikátor dokumentu
+     * @param text text dokumentu
+     * @return dokument
+     */
+    public static DocumentSource ofText(String id, String text) {
+        return new DocumentSource(id, () -> ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Vytvoří dokument se zadanými bajty textu v kódování UTF-8 (mezi aktuální
+     * pozicí a limitem bufferu; buffer není proudem měněn).
+     *
+     * @param id identifikátor dokumentu
+     * @param bytes bajty textu dokumentu
+     * @return dokument
+     */
+    public static DocumentSource ofBytes(String id, ByteBuffer bytes) {
+        return new DocumentSource(id, bytes::duplicate);
+    }
+
+    /**
+     * Vytvoří dokument, jehož text je načten ze souboru.
+     *
+     * @param id identifikátor dokumentu
+     * @param path cesta k souboru s textem dokumentu v kódování UTF-8
+     * @return dokument
+     */
+    public static DocumentSource ofPath(String id, Path path) {
+        return new DocumentSource(id, () -> ByteBuffer.wrap(Files.readAllBytes(path)));
+    }
+
+    /**
+     * Vrátí identifikátor dokumentu.
+     *
+     * @return identifikátor dokumentu
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Načte text dokumentu.
+     *
+     * @return bajty textu dokumentu v kódování UTF-8
+     * @throws IOException
+     */
+    public ByteBuffer read() throws IOException {
+        return reader.read();
+    }
+
+    /**
+     * Rozhraní způsobu načtení textu dokumentu.
+     */
+    private interface Reader {
+
+        /**
+         * Načte text dokumentu.
+         *
+         * @return bajty textu dokumentu v kódování UTF-8
+         * @throws IOException
+         */
+        ByteBuffer read() throws IOException;
+
+    }
+
+}
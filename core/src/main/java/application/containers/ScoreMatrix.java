@@ -0,0 +1,130 @@
+package application.containers;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Třída, představující výsledek klasifikace dávky dokumentů. Obsahuje
+ * matici skóre dokumentů pro jednotlivé třídy (uloženou po řádcích
+ * v jednom poli primitivních hodnot) a indexy zjištěných tříd dokumentů.
+ *
+ * @author Petr Kozler
+ */
+public class ScoreMatrix {
+
+    /**
+     * seznam tříd (sloupce matice)
+     */
+    private final List<String> CLASSES;
+
+    /**
+     * počet dokumentů (řádky matice)
+     */
+    private final int DOCUMENT_COUNT;
+
+    /**
+     * skóre dokumentů pro třídy (matice dokumenty x třídy uložená po řádcích)
+     */
+    private final double[] SCORES;
+
+    /**
+     * indexy zjištěných tříd dokumentů (nebo -1, pokud dokument nelze zařadit)
+     */
+    private final int[] CLASS_INDICES;
+
+    /**
+     * Vytvoří matici skóre pro zadaný počet dokumentů.
+     *
+     * @param classes seznam tříd
+     * @param documentCount počet dokumentů
+     */
+    public ScoreMatrix(List<String> classes, int documentCount) {
+        CLASSES = classes;
+        DOCUMENT_COUNT = documentCount;
+        SCORES = new double[documentCount * classes.size()];
+        CLASS_INDICES = new int[documentCount];
+        Arrays.fill(CLASS_INDICES, -1);
+    }
+
+    /**
+     * Vrátí seznam tříd (ve stejném pořadí jako sloupce matice).
+     *
+     * @return seznam tříd
+     */
+    public List<String> getClasses() {
+        return CLASSES;
+    }
+
+    /**
+     * Vrátí počet dokumentů.
+     *
+     * @return počet dokumentů
+     */
+    public int getDocumentCount() {
+        return DOCUMENT_COUNT;
+    }
+
+    /**
+     * Vrátí pole skóre (matici dokumenty x třídy uloženou po řádcích),
+     * do kterého klasifikátor zapisuje skóre přímo.
+     *
+     * @return pole skóre
+     */
+    public double[] getScoreArray() {
+        return SCORES;
+    }
+
+    /**
+     * Vrátí skóre dokumentu pro třídu.
+     *
+     * @param document pořadí dokumentu v dávce
+     * @param classIndex index třídy
+     * @return skóre
+     */
+    public double getScore(int document, int classIndex) {
+        return SCORES[document * CLASSES.size() + classIndex];
+    }
+
+    /**
+     * Nastaví skóre dokumentu pro všechny třídy.
+     *
+     * @param document pořadí dokumentu v dávce
+     * @param scores skóre tříd (ve stejném pořadí jako seznam tříd)
+     */
+    public void setScores(int document, double[] scores) {
+        System.arraycopy(scores, 0, SCORES, document * CLASSES.size(), CLASSES.size());
+    }
+
+    /**
+     * Vrátí index zjištěné třídy dokumentu.
+     *
+     * @param document pořadí dokumentu v dávce
+     * @return index třídy (nebo -1, pokud dokument nelze zařadit)
+     */
+    public int getClassIndex(int document) {
+        return CLASS_INDICES[document];
+    }
+
+    /**
+     * Nastaví index zjištěné třídy dokumentu.
+     *
+     * @param document pořadí dokumentu v dávce
+     * @param classIndex index třídy (nebo -1, pokud dokument nelze zařadit)
+     */
+    public void setClassIndex(int document, int classIndex) {
+        CLASS_INDICES[document] = classIndex;
+    }
+
+    /**
+     * Vrátí zjištěnou třídu dokumentu.
+     *
+     * @param document pořadí dokumentu v dávce
+     * @return třída dokumentu (nebo null, pokud dokument nelze zařadit)
+     */
+    public String getDocumentClass(int document) {
+        int classIndex = CLASS_INDICES[document];
+
+        return classIndex >= 0 ? CLASSES.get(classIndex) : null;
+    }
+
+}
@@ -0,0 +1,92 @@
+package application.containers;
+
+import java.util.Arrays;
+
+/**
+ * Třída, představující četnosti slov dokumentu vyjádřených indexy ve slovníku
+ * klasifikačního modelu. Pole jsou používána opakovaně pro další dokumenty,
+ * takže po zahřátí nedochází při jejich plnění k žádné alokaci paměti.
+ *
+ * @author Petr Kozler
+ */
+public class TermCounts {
+
+    /**
+     * indexy slov ve slovníku
+     */
+    private int[] ids = new int[1 << 8];
+
+    /**
+     * četnosti slov
+     */
+    private int[] counts = new int[1 << 8];
+
+    /**
+     * počet různých slov
+     */
+    private int size;
+
+    /**
+     * Odstraní všechna slova.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Přidá slovo (každé slovo smí být přidáno jen jednou).
+     *
+     * @param id index slova ve slovníku
+     * @param count četnost slova
+     */
+    public void add(int id, int count) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            counts = Arrays.copyOf(counts, size * 2);
+        }
+
+        ids[size] = id;
+        counts[size] = count;
+        size++;
+    }
+
+    /**
+     * Vrátí počet různých slov.
+     *
+     * @return počet slov
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Vrátí index slova ve slovníku.
+     *
+     * @param i pořadí slova
+     * @return index slova ve slovníku
+     */
+    public int getId(int i) {
+        return ids[i];
+    }
+
+    /**
+     * Vrátí četnost slova.
+     *
+     * @param i pořadí slova
+     * @return četnost slova
+     */
+    public int getCount(int i) {
+        return counts[i];
+    }
+
+    /**
+     * Nastaví četnost slova.
+     *
+     * @param i pořadí slova
+     * @param count četnost slova
+     */
+    public void setCount(int i, int count) {
+        counts[i] = count;
+    }
+
+}
@@ -0,0 +1,470 @@
+package application.containers;
+
+import application.helpers.BinaryCodec;
+import application.helpers.ModelFileReader;
+import application.helpers.ModelFileWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Třída, představující neměnný slovník slov nalezených v trénovacích
+ * dokumentech, který přiřazuje slovům pořadová čísla (indexy) podle jejich
+ * uspořádání. Slova jsou uložena v kódování UTF-8 v jediném poli bajtů,
+ * rozdělená do bloků po {@link #BLOCK_SIZE} slovech. První slovo bloku je
+ * uloženo celé, každé další jen jako délka společné předpony s předchozím
+ * slovem a zbývající přípona (tzv. front coding). Vyhledávání probíhá
+ * binárním půlením nad prvními slovy bloků a průchodem jediného bloku,
+ * a to bez vytváření objektů pro slova zadaná řetězcem i úsekem bajtů.
+ *
+ * @author Petr Kozler
+ */
+public class Vocabulary {
+
+    /**
+     * název sekce souboru klasifikačního modelu se slovníkem
+     */
+    private static final String VOCABULARY_SECTION = "vocabulary";
+
+    /**
+     * počet slov v jednom bloku
+     */
+    public static final int BLOCK_SIZE = 16;
+
+    /**
+     * vyrovnávací pole pro převod hledaných řetězců do kódování UTF-8 (pro každé vlákno zvlášť)
+     */
+    private static final ThreadLocal<byte[]> SCRATCH = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[64];
+        }
+    };
+
+    /**
+     * počet slov ve slovníku
+     */
+    private final int SIZE;
+
+    /**
+     * pozice začátků jednotlivých bloků v poli bajtů
+     */
+    private final IntBuffer BLOCK_OFFSETS;
+
+    /**
+     * zakódované bloky slov
+     */
+    private final ByteBuffer DATA;
+
+    /**
+     * Vytvoří slovník z již zakódovaných dat.
+     *
+     * @param size počet slov
+     * @param blockOffsets pozice začátků bloků
+     * @param data zakódované bloky slov
+     */
+    private Vocabulary(int size, IntBuffer blockOffsets, ByteBuffer data) {
+        SIZE = size;
+        BLOCK_OFFSETS = blockOffsets;
+        DATA = data;
+    }
+
+    /**
+     * Vytvoří slovník ze zadaných slov (duplicitní slova jsou vynechána).
+     *
+     * @param words slova
+     * @return slovník
+     */
+    public static Vocabulary create(Collection<String> words) {
+        List<byte[]> encodedWords = new ArrayList<>(words.size());
+
+        for (String word : words) {
+            encodedWords.add(word.getBytes(StandardCharsets.UTF_8));
+        }
+
+        encodedWords.sort(Vocabulary::compare);
+
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        int[] blockOffsets = new int[(encodedWords.size() + BLOCK_SIZE - 1) / BLOCK_SIZE];
+        byte[] previous = null;
+        int size = 0;
+
+        for (byte[] word : encodedWords) {
+            if (previous != null && compare(previous, word) == 0) {
+                continue;
+            }
+
+            if (size % BLOCK_SIZE == 0) {
+                // první slovo bloku je uloženo celé
+                blockOffsets[size / BLOCK_SIZE] = data.size();
+                BinaryCodec.writeVarInt(data, word.length);
+                data.write(word, 0, word.length);
+            }
+            else {
+                int prefix = 0;
+
+                while (prefix < previous.length && prefix < word.length
+                        && previous[prefix] == word[prefix]) {
+                    prefix++;
+                }
+
+                BinaryCodec.writeVarInt(data, prefix);
+                BinaryCodec.writeVarInt(data, word.length - prefix);
+                data.write(word, prefix, word.length - prefix);
+            }
+
+            previous = word;
+            size++;
+        }
+
+        int blockCount = (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+
+        return new Vocabulary(size, IntBuffer.wrap(blockOffsets, 0, blockCount).slice(),
+                ByteBuffer.wrap(data.toByteArray()));
+    }
+
+    /**
+     * Vrátí počet slov ve slovníku.
+     *
+     * @return počet slov
+     */
+    public int size() {
+        return SIZE;
+    }
+
+    /**
+     * Vrátí slovo se zadaným indexem.
+     *
+     * @param index index slova
+     * @return slovo
+     */
+    public String get(int index) {
+        if (index < 0 || index >= SIZE) {
+            throw new IndexOutOfBoundsException("Index slova mimo rozsah slovníku: " + index);
+        }
+
+        int position = BLOCK_OFFSETS.get(index / BLOCK_SIZE);
+        long value = BinaryCodec.readVarInt(DATA, position);
+        int length = (int) (value >>> 32);
+        position = (int) value;
+
+        byte[] word = new byte[Math.max(length, 16)];
+        getBytes(position, word, 0, length);
+        position += length;
+
+        // rekonstrukce dalších slov bloku až po hledané slovo
+        for (int i = index % BLOCK_SIZE; i > 0; i--) {
+            value = BinaryCodec.readVarInt(DATA, position);
+            int prefix = (int) (value >>> 32);
+            value = BinaryCodec.readVarInt(DATA, (int) value);
+            int suffix = (int) (value >>> 32);
+            position = (int) value;
+
+            if (prefix + suffix > word.length) {
+                byte[] longer = new byte[(prefix + suffix) * 2];
+                System.arraycopy(word, 0, longer, 0, prefix);
+                word = longer;
+            }
+
+            getBytes(position, word, prefix, suffix);
+            position += suffix;
+            length = prefix + suffix;
+        }
+
+        return new String(word, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Vrátí index zadaného slova.
+     *
+     * @param word slovo
+     * @return index slova, nebo -1, pokud slovo ve slovníku není
+     */
+    public int indexOf(CharSequence word) {
+        byte[] scratch = SCRATCH.get();
+
+        if (scratch.length < word.length() * 3) {
+            scratch = new byte[word.length() * 3];
+            SCRATCH.set(scratch);
+        }
+
+        int length = 0;
+
+        // převod znaků do kódování UTF-8
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+
+            if (c < 0x80) {
+                scratch[length++] = (byte) c;
+            }
+            else if (c < 0x800) {
+                scratch[length++] = (byte) (0xC0 | (c >> 6));
+                scratch[length++] = (byte) (0x80 | (c & 0x3F));
+            }
+            else {
+                scratch[length++] = (byte) (0xE0 | (c >> 12));
+                scratch[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                scratch[length++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+
+        return indexOf(scratch, 0, length);
+    }
+
+    /**
+     * Vrátí index slova zadaného úsekem bajtů v kódování UTF-8.
+     *
+     * @param bytes buffer s bajty slova
+     * @param offset pozice začátku slova v bufferu
+     * @param length délka slova v bajtech
+     * @return index slova, nebo -1, pokud slovo ve slovníku není
+     */
+    public int indexOf(ByteBuffer bytes, int offset, int length) {
+        if (bytes.hasArray()) {
+            return indexOf(bytes.array(), bytes.arrayOffset() + offset, length);
+        }
+
+        byte[] scratch = SCRATCH.get();
+
+        if (scratch.length < length) {
+            scratch = new byte[length];
+            SCRATCH.set(scratch);
+        }
+
+        for (int i = 0; i < length; i++) {
+            scratch[i] = bytes.get(offset + i);
+        }
+
+        return indexOf(scratch, 0, length);
+    }
+
+    /**
+     * Vrátí index slova zadaného úsekem pole bajtů v kódování UTF-8.
+     *
+     * @param bytes pole s bajty slova
+     * @param offset pozice začátku slova v poli
+     * @param length délka slova v bajtech
+     * @return index slova, nebo -1, pokud slovo ve slovníku není
+     */
+    public int indexOf(byte[] bytes, int offset, int length) {
+        int low = 0;
+        int high = BLOCK_OFFSETS.limit() - 1;
+        int block = -1;
+
+        // binární vyhledání posledního bloku, jehož první slovo není větší než hledané slovo
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long value = BinaryCodec.readVarInt(DATA, BLOCK_OFFSETS.get(middle));
+            int comparison = compare((int) value, (int) (value >>> 32), bytes, offset, length);
+
+            if (comparison == 0) {
+                return middle * BLOCK_SIZE;
+            }
+
+            if (comparison < 0) {
+                block = middle;
+                low = middle + 1;
+            }
+            else {
+                high = middle - 1;
+            }
+        }
+
+        if (block < 0) {
+            return -1;
+        }
+
+        long value = BinaryCodec.readVarInt(DATA, BLOCK_OFFSETS.get(block));
+        int position = (int) value;
+        int firstLength = (int) (value >>> 32);
+        // délka společné předpony hledaného slova a předchozího (menšího) slova bloku
+        int matched = 0;
+
+        while (matched < firstLength && matched < length
+                && DATA.get(position + matched) == bytes[offset + matched]) {
+            matched++;
+        }
+
+        position += firstLength;
+        int end = Math.min(SIZE, (block + 1) * BLOCK_SIZE);
+
+        for (int index = block * BLOCK_SIZE + 1; index < end; index++) {
+            value = BinaryCodec.readVarInt(DATA, position);
+            int prefix = (int) (value >>> 32);
+            value = BinaryCodec.readVarInt(DATA, (int) value);
+            int suffix = (int) (value >>> 32);
+            position = (int) value;
+
+            // slovo se od hledaného liší na stejném místě jako předchozí slovo, je tedy stále menší
+            if (prefix > matched) {
+                position += suffix;
+                continue;
+            }
+
+            // slovo se od předchozího liší dříve než hledané slovo, je tedy větší
+            if (prefix < matched) {
+                return -1;
+            }
+
+            int i = 0;
+
+            while (i < suffix && matched + i < length
+                    && DATA.get(position + i) == bytes[offset + matched + i]) {
+                i++;
+            }
+
+            if (i == suffix && matched + i == length) {
+                return index;
+            }
+
+            if (i < suffix && (matched + i == length
+                    || (DATA.get(position + i) & 0xFF) > (bytes[offset + matched + i] & 0xFF))) {
+                return -1;
+            }
+
+            matched += i;
+            position += suffix;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Vrátí velikost zakódovaných dat slovníku v bajtech.
+     *
+     * @return velikost dat
+     */
+    public int getDataSize() {
+        return DATA.limit() + BLOCK_OFFSETS.limit() * Integer.BYTES;
+    }
+
+    /**
+     * Porovná slovník s jiným slovníkem. Slovníky jsou shodné, pokud obsahují
+     * stejná slova (a slova mají tedy v obou slovnících stejné indexy).
+     *
+     * @param object porovnávaný objekt
+     * @return true, pokud jsou slovníky shodné
+     */
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+
+        if (!(object instanceof Vocabulary)) {
+            return false;
+        }
+
+        Vocabulary other = (Vocabulary) object;
+
+        // zakódování slov je jednoznačné, stačí porovnat data
+        return SIZE == other.SIZE && BLOCK_OFFSETS.equals(other.BLOCK_OFFSETS) && DATA.equals(other.DATA);
+    }
+
+    /**
+     * Vrátí haš slovníku vypočtený z jeho dat.
+     *
+     * @return haš
+     */
+    @Override
+    public int hashCode() {
+        return 31 * SIZE + DATA.hashCode();
+    }
+
+    /**
+     * Zapíše slovník do souboru klasifikačního modelu.
+     *
+     * @param writer objekt pro zápis souboru modelu
+     * @throws IOException
+     */
+    public void writeModel(ModelFileWriter writer) throws IOException {
+        writer.beginSection(VOCABULARY_SECTION);
+        writer.writeInt(SIZE);
+        writer.writeInts(BLOCK_OFFSETS);
+        writer.writeBytes(DATA);
+        writer.endSection();
+    }
+
+    /**
+     * Zpřístupní slovník jako pohled na namapovaný soubor klasifikačního modelu.
+     *
+     * @param reader objekt pro čtení souboru modelu
+     * @return slovník
+     * @throws IOException
+     */
+    public static Vocabulary readModel(ModelFileReader reader) throws IOException {
+        ByteBuffer section = reader.getSection(VOCABULARY_SECTION);
+        int size = section.getInt();
+        IntBuffer blockOffsets = ModelFileReader.readInts(section);
+        ByteBuffer data = ModelFileReader.readByteView(section);
+
+        return new Vocabulary(size, blockOffsets, data);
+    }
+
+    /**
+     * Porovná slovo uložené ve slovníku se slovem zadaným úsekem pole bajtů.
+     *
+     * @param position pozice slova ve slovníku
+     * @param wordLength délka slova ve slovníku
+     * @param bytes pole s bajty slova
+     * @param offset pozice začátku slova v poli
+     * @param length délka slova v bajtech
+     * @return záporné číslo, nula, nebo kladné číslo, pokud je slovo ve slovníku
+     * menší, rovno, nebo větší než zadané slovo
+     */
+    private int compare(int position, int wordLength, byte[] bytes, int offset, int length) {
+        int common = Math.min(wordLength, length);
+
+        for (int i = 0; i < common; i++) {
+            int difference = (DATA.get(position + i) & 0xFF) - (bytes[offset + i] & 0xFF);
+
+            if (difference != 0) {
+                return difference;
+            }
+        }
+
+        return wordLength - length;
+    }
+
+    /**
+     * Zkopíruje úsek zakódovaných dat do pole.
+     *
+     * @param position pozice v datech
+     * @param target cílové pole
+     * @param offset pozice v cílovém poli
+     * @param length počet bajtů
+     */
+    private void getBytes(int position, byte[] target, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            target[offset + i] = DATA.get(position + i);
+        }
+    }
+
+    /**
+     * Porovná dvě slova v kódování UTF-8 po bajtech bez znaménka (odpovídá
+     * uspořádání podle kódových bodů).
+     *
+     * @param a první slovo
+     * @param b druhé slovo
+     * @return výsledek porovnání
+     */
+    private static int compare(byte[] a, byte[] b) {
+        int common = Math.min(a.length, b.length);
+
+        for (int i = 0; i < common; i++) {
+            int difference = (a[i] & 0xFF) - (b[i] & 0xFF);
+
+            if (difference != 0) {
+                return difference;
+            }
+        }
+
+        return a.length - b.length;
+    }
+
+}
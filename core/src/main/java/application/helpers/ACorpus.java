@@ -0,0 +1,86 @@
+package application.helpers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Abstraktní třída, představující korpus textových dokumentů s přiřazenými
+ * třídami (trénovací nebo testovací množinu), ze kterého jsou dokumenty
+ * načítány podle pořadového čísla.
+ *
+ * @author Petr Kozler
+ */
+public abstract class ACorpus {
+
+    /**
+     * Vrátí počet dokumentů v korpusu.
+     *
+     * @return počet dokumentů
+     */
+    public abstract int size();
+
+    /**
+     * Vrátí název dokumentu.
+     *
+     * @param index pořadové číslo dokumentu
+     * @return název dokumentu
+     */
+    public abstract String getName(int index);
+
+    /**
+     * Vrátí klíčové slovo (zkratku) třídy dokumentu.
+     *
+     * @param index pořadové číslo dokumentu
+     * @return zkratka třídy
+     */
+    public abstract String getClassKeyWord(int index);
+
+    /**
+     * Vrátí identifikátor dokumentu, jednoznačný napříč všemi korpusy
+     * (slouží jako klíč v mezipaměti četností slov).
+     *
+     * @param index pořadové číslo dokumentu
+     * @return identifikátor dokumentu
+     */
+    public abstract String getPath(int index);
+
+    /**
+     * Vrátí velikost obsahu dokumentu v bajtech.
+     *
+     * @param index pořadové číslo dokumentu
+     * @return velikost dokumentu
+     * @throws IOException
+     */
+    public abstract long getSize(int index) throws IOException;
+
+    /**
+     * Vrátí čas poslední změny dokumentu.
+     *
+     * @param index pořadové číslo dokumentu
+     * @return čas poslední změny v milisekundách
+     * @throws IOException
+     */
+    public abstract long getModifiedTime(int index) throws IOException;
+
+    /**
+     * Načte obsah dokumentu v kódování UTF-8.
+     *
+     * @param index pořadové číslo dokumentu
+     * @return obsah dokumentu
+     * @throws IOException
+     */
+    public abstract ByteBuffer loadBytes(int index) throws IOException;
+
+    /**
+     * Načte obsah dokumentu jako text.
+     *
+     * @param index pořadové číslo dokumentu
+     * @return text dokumentu
+     * @throws IOException
+     */
+    public String loadText(int index) throws IOException {
+        return StandardCharsets.UTF_8.decode(loadBytes(index)).toString();
+    }
+
+}
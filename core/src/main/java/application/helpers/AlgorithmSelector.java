@@ -0,0 +1,99 @@
+package application.helpers;
+
+import application.classification.AClassifier;
+import application.classification.CascadeClassifier;
+import application.classification.NaiveBayesClassifier;
+import application.classification.NearestNeighborClassifier;
+import application.classification.RandomSelectionClassifier;
+import application.parameterisation.AWordCounter;
+import application.parameterisation.PosTaggingWordCounter;
+import application.parameterisation.SimpleWordCounter;
+import application.parameterisation.StemDetectingWordCounter;
+import java.io.IOException;
+
+/**
+ * Knihovní třída, sloužící k vytváření algoritmů parametrizace a klasifikace
+ * podle jejich identifikátorů (shodných s parametry příkazové řádky).
+ * 
+ * @author Petr Kozler
+ */
+public final class AlgorithmSelector {
+    
+    /**
+     * Zabrání vytvoření instance knihovní třídy.
+     */
+    private AlgorithmSelector() {
+    }
+    
+    /**
+     * Vybere algoritmus pro určování počtů slov (které tvoří příznaky dokumentu)
+     * podle zadaného identifikátoru.
+     * 
+     * @param key identifikátor algoritmu pro vytváření příznaků dokumentu
+     * @return čítač slov (nebo null pro neznámý identifikátor)
+     * @throws IOException 
+     */
+    public static AWordCounter selectWordCounter(String key) throws IOException {
+        FileIoHandler fileIoHandler = FileIoHandler.getInstance();
+        
+        if (keyEquals(key, "o", "only-counting")) {
+            return SimpleWordCounter.CreateWordCounter();
+        }
+        
+        if (keyEquals(key, "p", "pos-tagging")) {
+            PosTagger posTagger = new PosTagger(fileIoHandler.readStopWordFile());
+            
+            return PosTaggingWordCounter.CreateWordCounter(posTagger);
+        }
+        
+        if (keyEquals(key, "s", "stemming")) {
+            PosTagger posTagger = new PosTagger(fileIoHandler.readStopWordFile());
+            Stemmer stemmer = new Stemmer(fileIoHandler.readWordPrefixFile(),
+                fileIoHandler.readWordSufixFile(), fileIoHandler.readWordEndingFile());
+            
+            return StemDetectingWordCounter.CreateWordCounter(posTagger, stemmer);
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Vybere algoritmus klasifikace podle zadaného identifikátoru.
+     * 
+     * @param key identifikátor algoritmu pro klasifikaci
+     * @return klasifikátor (nebo null pro neznámý identifikátor)
+     */
+    public static AClassifier selectClassifier(String key) {
+        if (keyEquals(key, "b", "naive-bayes")) {
+            return new NaiveBayesClassifier();
+        }
+        
+        if (keyEquals(key, "n", "nearest-neighbor")) {
+            return new NearestNeighborClassifier();
+        }
+        
+        if (keyEquals(key, "r", "random")) {
+            return new RandomSelectionClassifier();
+        }
+        
+        if (keyEquals(key, "c", "cascade")) {
+            return new CascadeClassifier(new NaiveBayesClassifier(), new NearestNeighborClassifier());
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Určí, zda zadaný identifikátor algoritmu odpovídá jedné z možných podob
+     * (krátké identifikátor s pomlčkou před, nebo dlouhý s dvěma pomlčkami).
+     * 
+     * @param key zadaný identifikátor algoritmu
+     * @param shortKey krátký tvar podporovaného identifikátoru
+     * @param longKey dlouhý tvar podporovaného identifikátoru
+     * @return true, pokud identifikátor odpovídá
+     */
+    private static boolean keyEquals(String key, String shortKey, String longKey) {
+        return (("-" + shortKey).equals(key) || ("--" + longKey).equals(key));
+    }
+    
+}
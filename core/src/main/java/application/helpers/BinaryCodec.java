@@ -0,0 +1,150 @@
+package application.helpers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * Knihovní třída, sloužící ke kódování řetězců a čísel v binárních souborech
+ * (modelu, mezipaměti četností slov, zabaleného korpusu a slovníku)
+ * a k výpočtu otisků seznamů řetězců.
+ *
+ * @author Petr Kozler
+ */
+public final class BinaryCodec {
+
+    /**
+     * Zabrání vytvoření instance knihovní třídy.
+     */
+    private BinaryCodec() {
+    }
+
+    /**
+     * Zapíše řetězec v kódování UTF-8 s předřazenou délkou.
+     *
+     * @param output výstup
+     * @param string řetězec
+     * @throws IOException
+     */
+    public static void writeString(DataOutput output, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * Přečte řetězec v kódování UTF-8 s předřazenou délkou.
+     *
+     * @param data vstupní data
+     * @return řetězec
+     */
+    public static String readString(ByteBuffer data) {
+        byte[] bytes = new byte[data.getInt()];
+        data.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Zapíše nezáporné číslo v kódování s proměnnou délkou (7 bitů na bajt).
+     *
+     * @param data výstupní data
+     * @param value číslo
+     */
+    public static void writeVarInt(ByteArrayOutputStream data, int value) {
+        while ((value & ~0x7F) != 0) {
+            data.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        data.write(value);
+    }
+
+    /**
+     * Přečte nezáporné číslo v kódování s proměnnou délkou od aktuální pozice
+     * a posune pozici za něj.
+     *
+     * @param data vstupní data
+     * @return číslo
+     */
+    public static int readVarInt(ByteBuffer data) {
+        long value = readVarInt(data, data.position());
+        data.position((int) value);
+
+        return (int) (value >>> 32);
+    }
+
+    /**
+     * Přečte nezáporné číslo v kódování s proměnnou délkou od zadané pozice
+     * (bez změny pozice dat).
+     *
+     * @param data vstupní data
+     * @param position pozice v datech
+     * @return přečtené číslo (horních 32 bitů) a pozice za ním (dolních 32 bitů)
+     */
+    public static long readVarInt(ByteBuffer data, int position) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+
+        do {
+            b = data.get(position++);
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+
+        return ((long) value << 32) | position;
+    }
+
+    /**
+     * Vrátí otisk seznamů řetězců (hash SHA-256 jejich binárního zápisu
+     * s předřazenými počty a délkami), který se na rozdíl od metody
+     * hashCode prakticky neshoduje pro různé seznamy.
+     *
+     * @param lists seznamy řetězců
+     * @return otisk v šestnáctkovém zápisu
+     */
+    public static String fingerprint(List<? extends List<String>> lists) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+            try (DataOutputStream dos = new DataOutputStream(
+                    new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+                dos.writeInt(lists.size());
+
+                for (List<String> list : lists) {
+                    dos.writeInt(list.size());
+
+                    for (String string : list) {
+                        writeString(dos, string);
+                    }
+                }
+            }
+
+            StringBuilder sb = new StringBuilder();
+
+            for (byte b : digest.digest()) {
+                sb.append(String.format("%02x", b));
+            }
+
+            return sb.toString();
+        }
+        catch (NoSuchAlgorithmException ex) {
+            // algoritmus SHA-256 je povinnou součástí každé implementace Javy
+            throw new IllegalStateException(ex);
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+}
@@ -0,0 +1,473 @@
+package application.helpers;
+
+import application.Config;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+/**
+ * Třída, představující statistiky korpusu dokumentů pro generování
+ * syntetických dokumentů: četnosti slov (tokenů oddělených bílými znaky,
+ * včetně velkých písmen a připojené interpunkce) v dokumentech jednotlivých
+ * tříd, četnosti dvojic po sobě následujících slov (bigramů), četnosti
+ * kombinací tříd dokumentů a rozdělení délek dokumentů (logaritmicko-normální
+ * rozdělení počtu slov). Zohledněny jsou jen třídy uvedené v souboru popisů
+ * tříd.
+ *
+ * @author Petr Kozler
+ */
+public class CorpusStatistics {
+
+    /**
+     * regulární výraz pro rozdělení textu na slova
+     */
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /**
+     * slova slovníku
+     */
+    private final String[] WORDS;
+
+    /**
+     * slova slovníku v kódování UTF-8
+     */
+    private final byte[][] WORD_BYTES;
+
+    /**
+     * zkratky nalezených tříd
+     */
+    private final String[] LABELS;
+
+    /**
+     * slova vyskytující se v dokumentech jednotlivých tříd
+     */
+    private final int[][] LABEL_WORDS;
+
+    /**
+     * kumulativní četnosti slov v dokumentech jednotlivých tříd
+     */
+    private final long[][] LABEL_WORD_CUMULATIVE;
+
+    /**
+     * pozice prvního následníka každého slova v poli následníků
+     * (poslední prvek je celkový počet následníků)
+     */
+    private final int[] SUCCESSOR_START;
+
+    /**
+     * slova následující po jednotlivých slovech (seřazená podle předchůdce)
+     */
+    private final int[] SUCCESSORS;
+
+    /**
+     * kumulativní četnosti následníků v rámci každého předchůdce
+     */
+    private final long[] SUCCESSOR_CUMULATIVE;
+
+    /**
+     * nalezené kombinace tříd dokumentů (indexy tříd, první je hlavní třída)
+     */
+    private final int[][] LABEL_SETS;
+
+    /**
+     * počty dokumentů s jednotlivými kombinacemi tříd
+     */
+    private final int[] LABEL_SET_COUNTS;
+
+    /**
+     * počet zpracovaných dokumentů
+     */
+    private final int DOCUMENT_COUNT;
+
+    /**
+     * celkový počet slov zpracovaných dokumentů
+     */
+    private final long TOKEN_COUNT;
+
+    /**
+     * střední hodnota logaritmu počtu slov dokumentu
+     */
+    private final double LOG_LENGTH_MEAN;
+
+    /**
+     * směrodatná odchylka logaritmu počtu slov dokumentu
+     */
+    private final double LOG_LENGTH_DEVIATION;
+
+    /**
+     * Spočítá statistiky dokumentů zadaného korpusu. Dokumenty bez známé
+     * třídy nebo bez slov jsou přeskočeny.
+     *
+     * @param corpus korpus dokumentů
+     * @throws IOException
+     */
+    public CorpusStatistics(ACorpus corpus) throws IOException {
+        FileIoHandler fileIoHandler = FileIoHandler.getInstance();
+        Map<String, Integer> wordIds = new HashMap<>();
+        List<String> words = new ArrayList<>();
+        Map<String, Integer> labelIds = new LinkedHashMap<>();
+        Map<String, Integer> labelSetIds = new LinkedHashMap<>();
+        List<int[]> labelSets = new ArrayList<>();
+        int[] labelSetCounts = new int[16];
+        int[][] labelWordCounts = new int[0][];
+        long[] pairs = new long[1 << 16];
+        int pairCount = 0;
+        int documentCount = 0;
+        long tokenCount = 0;
+        double logSum = 0;
+        double logSquareSum = 0;
+
+        for (int i = 0; i < corpus.size(); i++) {
+            // známé třídy dokumentu podle jeho názvu (první je hlavní třída)
+            String[] parts = corpus.getName(i).split(Config.DOCUMENT_CLASS_SEPARATOR);
+            List<Integer> documentLabels = new ArrayList<>();
+
+            for (int j = 1; j < parts.length; j++) {
+                if (fileIoHandler.getClassDescription(parts[j]) != null) {
+                    Integer label = labelIds.computeIfAbsent(parts[j], key -> labelIds.size());
+
+                    if (!documentLabels.contains(label)) {
+                        documentLabels.add(label);
+                    }
+                }
+            }
+
+            if (documentLabels.isEmpty()) {
+                continue;
+            }
+
+            if (labelIds.size() > labelWordCounts.length) {
+                labelWordCounts = Arrays.copyOf(labelWordCounts, labelIds.size());
+            }
+
+            int previous = -1;
+            int length = 0;
+
+            for (String token : WHITESPACE.split(corpus.loadText(i))) {
+                if (token.isEmpty()) {
+                    continue;
+                }
+
+                Integer id = wordIds.get(token);
+
+                if (id == null) {
+                    id = words.size();
+                    wordIds.put(token, id);
+                    words.add(token);
+                }
+
+                for (int label : documentLabels) {
+                    labelWordCounts[label] = increment(labelWordCounts[label], id);
+                }
+
+                if (previous >= 0) {
+                    if (pairCount == pairs.length) {
+                        pairs = Arrays.copyOf(pairs, pairs.length * 2);
+                    }
+
+                    pairs[pairCount++] = ((long) previous << 32) | id;
+                }
+
+                previous = id;
+                length++;
+            }
+
+            if (length == 0) {
+                continue;
+            }
+
+            int[] labelSet = documentLabels.stream().mapToInt(Integer::intValue).toArray();
+            Integer labelSetId = labelSetIds.computeIfAbsent(Arrays.toString(labelSet), key -> {
+                labelSets.add(labelSet);
+
+                return labelSets.size() - 1;
+            });
+            labelSetCounts = increment(labelSetCounts, labelSetId);
+
+            documentCount++;
+            tokenCount += length;
+            logSum += Math.log(length);
+            logSquareSum += Math.log(length) * Math.log(length);
+        }
+
+        if (documentCount == 0) {
+            throw new IOException("Korpus neobsahuje žádné dokumenty známých tříd.");
+        }
+
+        WORDS = words.toArray(new String[0]);
+        WORD_BYTES = new byte[WORDS.length][];
+
+        for (int i = 0; i < WORDS.length; i++) {
+            WORD_BYTES[i] = WORDS[i].getBytes(StandardCharsets.UTF_8);
+        }
+
+        LABELS = labelIds.keySet().toArray(new String[0]);
+        LABEL_WORDS = new int[LABELS.length][];
+        LABEL_WORD_CUMULATIVE = new long[LABELS.length][];
+
+        for (int label = 0; label < LABELS.length; label++) {
+            int[] counts = labelWordCounts[label] != null ? labelWordCounts[label] : new int[0];
+            int nonZero = (int) Arrays.stream(counts).filter(count -> count > 0).count();
+            LABEL_WORDS[label] = new int[nonZero];
+            LABEL_WORD_CUMULATIVE[label] = new long[nonZero];
+            long cumulative = 0;
+
+            for (int id = 0, j = 0; id < counts.length; id++) {
+                if (counts[id] > 0) {
+                    cumulative += counts[id];
+                    LABEL_WORDS[label][j] = id;
+                    LABEL_WORD_CUMULATIVE[label][j++] = cumulative;
+                }
+            }
+        }
+
+        // následníci slov seřazením dvojic podle předchůdce a následníka
+        Arrays.sort(pairs, 0, pairCount);
+        int distinctPairs = 0;
+
+        for (int i = 0; i < pairCount; i++) {
+            if (i == 0 || pairs[i] != pairs[i - 1]) {
+                distinctPairs++;
+            }
+        }
+
+        SUCCESSOR_START = new int[WORDS.length + 1];
+        SUCCESSORS = new int[distinctPairs];
+        SUCCESSOR_CUMULATIVE = new long[distinctPairs];
+        int position = -1;
+        int row = -1;
+
+        for (int i = 0; i < pairCount; i++) {
+            int predecessor = (int) (pairs[i] >>> 32);
+
+            if (i > 0 && pairs[i] == pairs[i - 1]) {
+                SUCCESSOR_CUMULATIVE[position]++;
+                continue;
+            }
+
+            position++;
+
+            while (row < predecessor) {
+                SUCCESSOR_START[++row] = position;
+            }
+
+            SUCCESSORS[position] = (int) pairs[i];
+            SUCCESSOR_CUMULATIVE[position] = (position > SUCCESSOR_START[predecessor]
+                    ? SUCCESSOR_CUMULATIVE[position - 1] : 0) + 1;
+        }
+
+        while (row < WORDS.length) {
+            SUCCESSOR_START[++row] = distinctPairs;
+        }
+
+        LABEL_SETS = labelSets.toArray(new int[0][]);
+        LABEL_SET_COUNTS = Arrays.copyOf(labelSetCounts, LABEL_SETS.length);
+        DOCUMENT_COUNT = documentCount;
+        TOKEN_COUNT = tokenCount;
+        LOG_LENGTH_MEAN = logSum / documentCount;
+        LOG_LENGTH_DEVIATION = Math.sqrt(Math.max(0, logSquareSum / documentCount
+                - LOG_LENGTH_MEAN * LOG_LENGTH_MEAN));
+    }
+
+    /**
+     * Zvýší četnost na zadané pozici pole četností, které podle potřeby zvětší.
+     *
+     * @param counts pole četností (nebo null)
+     * @param index pozice
+     * @return pole četností
+     */
+    private static int[] increment(int[] counts, int index) {
+        if (counts == null) {
+            counts = new int[Math.max(16, index + 1)];
+        }
+        else if (index >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(index + 1, counts.length * 2));
+        }
+
+        counts[index]++;
+
+        return counts;
+    }
+
+    /**
+     * Vybere náhodné slovo podle jeho četnosti v dokumentech zadané třídy.
+     *
+     * @param label index třídy
+     * @param random generátor náhodných čísel
+     * @return index slova (nebo -1, pokud třída nemá žádná slova)
+     */
+    public int sampleWord(int label, Random random) {
+        long[] cumulative = LABEL_WORD_CUMULATIVE[label];
+
+        if (cumulative.length == 0) {
+            return -1;
+        }
+
+        return LABEL_WORDS[label][sample(cumulative, 0, cumulative.length, random)];
+    }
+
+    /**
+     * Vybere náhodného následníka slova podle četnosti bigramu.
+     *
+     * @param word index předchozího slova
+     * @param random generátor náhodných čísel
+     * @return index slova (nebo -1, pokud slovo nemá žádného následníka)
+     */
+    public int sampleSuccessor(int word, Random random) {
+        int from = SUCCESSOR_START[word];
+        int to = SUCCESSOR_START[word + 1];
+
+        if (from == to) {
+            return -1;
+        }
+
+        return SUCCESSORS[sample(SUCCESSOR_CUMULATIVE, from, to, random)];
+    }
+
+    /**
+     * Vybere náhodnou pozici úseku pole kumulativních četností s pravděpodobností
+     * úměrnou četnosti.
+     *
+     * @param cumulative kumulativní četnosti
+     * @param from začátek úseku
+     * @param to konec úseku (bez této pozice)
+     * @param random generátor náhodných čísel
+     * @return vybraná pozice
+     */
+    private static int sample(long[] cumulative, int from, int to, Random random) {
+        long target = (long) (random.nextDouble() * cumulative[to - 1]);
+        int position = Arrays.binarySearch(cumulative, from, to, target + 1);
+
+        return position >= 0 ? position : -position - 1;
+    }
+
+    /**
+     * Vrátí slovo slovníku.
+     *
+     * @param word index slova
+     * @return slovo
+     */
+    public String getWord(int word) {
+        return WORDS[word];
+    }
+
+    /**
+     * Vrátí slovo slovníku v kódování UTF-8.
+     *
+     * @param word index slova
+     * @return bajty slova
+     */
+    public byte[] getWordBytes(int word) {
+        return WORD_BYTES[word];
+    }
+
+    /**
+     * Vrátí velikost slovníku.
+     *
+     * @return počet různých slov
+     */
+    public int getVocabularySize() {
+        return WORDS.length;
+    }
+
+    /**
+     * Vrátí počet různých bigramů.
+     *
+     * @return počet různých dvojic po sobě následujících slov
+     */
+    public int getBigramCount() {
+        return SUCCESSORS.length;
+    }
+
+    /**
+     * Vrátí zkratku třídy.
+     *
+     * @param label index třídy
+     * @return zkratka třídy
+     */
+    public String getLabel(int label) {
+        return LABELS[label];
+    }
+
+    /**
+     * Vrátí počet nalezených tříd.
+     *
+     * @return počet tříd
+     */
+    public int getLabelCount() {
+        return LABELS.length;
+    }
+
+    /**
+     * Vrátí kombinaci tříd dokumentu.
+     *
+     * @param labelSet index kombinace
+     * @return indexy tříd (první je hlavní třída)
+     */
+    public int[] getLabelSet(int labelSet) {
+        return LABEL_SETS[labelSet];
+    }
+
+    /**
+     * Vrátí počet nalezených kombinací tříd.
+     *
+     * @return počet kombinací tříd
+     */
+    public int getLabelSetCount() {
+        return LABEL_SETS.length;
+    }
+
+    /**
+     * Vrátí počet dokumentů se zadanou kombinací tříd.
+     *
+     * @param labelSet index kombinace
+     * @return počet dokumentů
+     */
+    public int getLabelSetFrequency(int labelSet) {
+        return LABEL_SET_COUNTS[labelSet];
+    }
+
+    /**
+     * Vrátí počet zpracovaných dokumentů.
+     *
+     * @return počet dokumentů
+     */
+    public int getDocumentCount() {
+        return DOCUMENT_COUNT;
+    }
+
+    /**
+     * Vrátí celkový počet slov zpracovaných dokumentů.
+     *
+     * @return počet slov
+     */
+    public long getTokenCount() {
+        return TOKEN_COUNT;
+    }
+
+    /**
+     * Vrátí střední hodnotu logaritmu počtu slov dokumentu.
+     *
+     * @return střední hodnota
+     */
+    public double getLogLengthMean() {
+        return LOG_LENGTH_MEAN;
+    }
+
+    /**
+     * Vrátí směrodatnou odchylku logaritmu počtu slov dokumentu.
+     *
+     * @return směrodatná odchylka
+     */
+    public double getLogLengthDeviation() {
+        return LOG_LENGTH_DEVIATION;
+    }
+
+}
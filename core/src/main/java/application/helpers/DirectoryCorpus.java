@@ -0,0 +1,110 @@
+package application.helpers;
+
+import application.Config;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Třída, představující korpus uložený jako adresář samostatných textových
+ * souborů, jejichž názvy obsahují klíčová slova tříd dokumentů.
+ *
+ * @author Petr Kozler
+ */
+public class DirectoryCorpus extends ACorpus {
+
+    /**
+     * cesty k souborům dokumentů
+     */
+    private final List<String> PATHS;
+
+    /**
+     * Vytvoří korpus ze seznamu souborů.
+     *
+     * @param paths cesty k souborům dokumentů
+     */
+    public DirectoryCorpus(List<String> paths) {
+        PATHS = paths;
+    }
+
+    /**
+     * Vrátí počet dokumentů v korpusu.
+     *
+     * @return počet dokumentů
+     */
+    @Override
+    public int size() {
+        return PATHS.size();
+    }
+
+    /**
+     * Vrátí název dokumentu jako název jeho souboru.
+     *
+     * @param index pořadové číslo dokumentu
+     * @return název dokumentu
+     */
+    @Override
+    public String getName(int index) {
+        return Paths.get(PATHS.get(index)).getFileName().toString();
+    }
+
+    /**
+     * Vrátí zkratku třídy podle názvu souboru dokumentu.
+     *
+     * @param index pořadové číslo dokumentu
+     * @return zkratka třídy
+     */
+    @Override
+    public String getClassKeyWord(int index) {
+        return getName(index).split(Config.DOCUMENT_CLASS_SEPARATOR)[1];
+    }
+
+    /**
+     * Vrátí cestu k souboru dokumentu.
+     *
+     * @param index pořadové číslo dokumentu
+     * @return cesta k souboru
+     */
+    @Override
+    public String getPath(int index) {
+        return PATHS.get(index);
+    }
+
+    /**
+     * Vrátí velikost souboru dokumentu.
+     *
+     * @param index pořadové číslo dokumentu
+     * @return velikost souboru
+     * @throws IOException
+     */
+    @Override
+    public long getSize(int index) throws IOException {
+        return FileIoHandler.getInstance().getFileSize(PATHS.get(index));
+    }
+
+    /**
+     * Vrátí čas poslední změny souboru dokumentu.
+     *
+     * @param index pořadové číslo dokumentu
+     * @return čas poslední změny v milisekundách
+     * @throws IOException
+     */
+    @Override
+    public long getModifiedTime(int index) throws IOException {
+        return FileIoHandler.getInstance().getFileModifiedTime(PATHS.get(index));
+    }
+
+    /**
+     * Načte obsah souboru dokumentu.
+     *
+     * @param index pořadové číslo dokumentu
+     * @return obsah dokumentu
+     * @throws IOException
+     */
+    @Override
+    public ByteBuffer loadBytes(int index) throws IOException {
+        return FileIoHandler.getInstance().loadDocumentBytes(PATHS.get(index));
+    }
+
+}
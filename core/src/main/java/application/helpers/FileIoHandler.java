@@ -1,14 +1,10 @@
 package application.helpers;
 
-import application.classification.AClassifier;
 import application.Config;
 import application.containers.ClassificationModel;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -156,6 +152,28 @@ public final class FileIoHandler {
         return Paths.get(path).getFileName().toString();
     }
     
+    /**
+     * Získá velikost souboru na zadané cestě.
+     * 
+     * @param path cesta k souboru
+     * @return velikost souboru v bajtech
+     * @throws IOException 
+     */
+    public long getFileSize(String path) throws IOException {
+        return Files.size(Paths.get(path));
+    }
+    
+    /**
+     * Získá čas poslední změny souboru na zadané cestě.
+     * 
+     * @param path cesta k souboru
+     * @return čas poslední změny v milisekundách
+     * @throws IOException 
+     */
+    public long getFileModifiedTime(String path) throws IOException {
+        return Files.getLastModifiedTime(Paths.get(path)).toMillis();
+    }
+    
     /**
      * Načte obsah textového dokumentu na zadané cestě.
      * 
@@ -167,6 +185,48 @@ public final class FileIoHandler {
         return new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8);
     }
     
+    /**
+     * Načte obsah dokumentu na zadané cestě bez dekódování textu.
+     * 
+     * @param path cesta k souboru
+     * @return obsah souboru v kódování UTF-8
+     * @throws IOException 
+     */
+    public ByteBuffer loadDocumentBytes(String path) throws IOException {
+        return ByteBuffer.wrap(Files.readAllBytes(Paths.get(path)));
+    }
+    
+    /**
+     * Otevře korpus dokumentů na zadané cestě - adresář samostatných
+     * textových souborů, nebo soubor zabaleného korpusu.
+     * 
+     * @param path cesta k adresáři nebo k datovému souboru zabaleného korpusu
+     * @return korpus dokumentů
+     * @throws IOException 
+     */
+    public ACorpus openCorpus(String path) throws IOException {
+        if (path.endsWith(Config.PACKED_CORPUS_EXTENSION) && Files.isRegularFile(Paths.get(path))) {
+            return new PackedCorpus(path);
+        }
+        
+        return new DirectoryCorpus(getFilesInDirectory(path));
+    }
+    
+    /**
+     * Zabalí dokumenty korpusu do jednoho datového souboru s indexem.
+     * 
+     * @param corpus zdrojový korpus
+     * @param path cesta k datovému souboru zabaleného korpusu (bez přípony)
+     * @throws IOException 
+     */
+    public void packCorpus(ACorpus corpus, String path) throws IOException {
+        System.out.println("==================================================\n"
+                + "Spuštěno balení korpusu do souboru: " + path + Config.PACKED_CORPUS_EXTENSION + "\n");
+        PackedCorpus.write(corpus, path + Config.PACKED_CORPUS_EXTENSION);
+        System.out.println("Zabaleno dokumentů: " + corpus.size());
+        System.out.println("--- HOTOVO ---");
+    }
+    
     /**
      * Načte klasifikační model ze souboru na zadané cestě.
      * 
@@ -177,16 +237,33 @@ public final class FileIoHandler {
      */
     public ClassificationModel loadClassificationModel(String path)
             throws IOException, ClassNotFoundException {
-        try (FileInputStream fis = new FileInputStream(
-                path + Config.CLASSIFY_MODEL_EXTENSION);
-                ObjectInputStream ois = new ObjectInputStream(fis)) {
-            System.out.println("==================================================\n"
-                + "Spuštěno načítání klasifikačního modelu ze souboru: " + path + "\n");
-            ClassificationModel model = (ClassificationModel) ois.readObject();
-            System.out.println("--- HOTOVO ---");
-            
-            return model;
+        return loadClassificationModel(path, false);
+    }
+    
+    /**
+     * Načte klasifikační model ze souboru na zadané cestě a volitelně
+     * načte předem do paměti všechny stránky souboru modelu.
+     * 
+     * @param path cesta k souboru
+     * @param preload true pro načtení všech stránek souboru předem
+     * @return klasifikační model
+     * @throws IOException
+     * @throws ClassNotFoundException 
+     */
+    public ClassificationModel loadClassificationModel(String path, boolean preload)
+            throws IOException, ClassNotFoundException {
+        System.out.println("==================================================\n"
+            + "Spuštěno načítání klasifikačního modelu ze souboru: " + path + "\n");
+        ModelFileReader reader = new ModelFileReader(Paths.get(path + Config.CLASSIFY_MODEL_EXTENSION));
+        
+        if (preload) {
+            reader.preload();
         }
+        
+        ClassificationModel model = ClassificationModel.readModel(reader);
+        System.out.println("--- HOTOVO ---");
+        
+        return model;
     }
     
     /**
@@ -199,14 +276,15 @@ public final class FileIoHandler {
      */
     public void saveClassificationModel(ClassificationModel classificationModel, String path)
             throws FileNotFoundException, IOException {
-        try (FileOutputStream fos = new FileOutputStream(
-                path + Config.CLASSIFY_MODEL_EXTENSION);
-                ObjectOutputStream oos = new ObjectOutputStream(fos)) {
-            System.out.println("==================================================\n"
-                + "Spuštěno ukládání klasifikačního modelu do souboru: " + path + "\n");
-            oos.writeObject(classificationModel);
-            System.out.println("--- HOTOVO ---");
+        System.out.println("==================================================\n"
+            + "Spuštěno ukládání klasifikačního modelu do souboru: " + path + "\n");
+        
+        try (ModelFileWriter writer = new ModelFileWriter(Paths.get(path + Config.CLASSIFY_MODEL_EXTENSION))) {
+            classificationModel.writeModel(writer);
+            writer.commit();
         }
+        
+        System.out.println("--- HOTOVO ---");
     }
     
     /**
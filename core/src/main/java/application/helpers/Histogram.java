@@ -0,0 +1,126 @@
+package application.helpers;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Třída, představující histogram nezáporných celočíselných hodnot
+ * (např. velikostí dávek nebo délek fronty) s přihrádkami podle mocnin
+ * dvou: 0, 1, 2, 3-4, 5-8, 9-16 atd. Hodnoty mohou být zaznamenávány
+ * souběžně více vlákny bez zamykání.
+ *
+ * @author Petr Kozler
+ */
+public class Histogram {
+
+    /**
+     * počet přihrádek (poslední obsahuje všechny větší hodnoty)
+     */
+    private static final int BUCKET_COUNT = 32;
+
+    /**
+     * počty hodnot v přihrádkách
+     */
+    private final AtomicLongArray COUNTS = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * počet zaznamenaných hodnot
+     */
+    private final LongAdder COUNT = new LongAdder();
+
+    /**
+     * součet zaznamenaných hodnot
+     */
+    private final LongAdder SUM = new LongAdder();
+
+    /**
+     * největší zaznamenaná hodnota
+     */
+    private final LongAccumulator MAX = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Zaznamená hodnotu (záporné hodnoty jsou zaznamenány jako 0).
+     *
+     * @param value hodnota
+     */
+    public void record(long value) {
+        value = Math.max(0, value);
+        COUNTS.incrementAndGet(getBucket(value));
+        COUNT.increment();
+        SUM.add(value);
+        MAX.accumulate(value);
+    }
+
+    /**
+     * Vrátí počet zaznamenaných hodnot.
+     *
+     * @return počet hodnot
+     */
+    public long getCount() {
+        return COUNT.sum();
+    }
+
+    /**
+     * Vrátí průměr zaznamenaných hodnot.
+     *
+     * @return průměr (0, pokud nebyla zaznamenána žádná hodnota)
+     */
+    public double getMean() {
+        long count = COUNT.sum();
+
+        return count == 0 ? 0.0 : (double) SUM.sum() / count;
+    }
+
+    /**
+     * Vrátí souhrn histogramu: počet, průměr a maximum hodnot a počty hodnot
+     * neprázdných přihrádek (pod klíčem horní meze přihrádky).
+     *
+     * @return mapa názvů a hodnot souhrnu
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        Map<String, Long> buckets = new LinkedHashMap<>();
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = COUNTS.get(i);
+
+            if (count > 0) {
+                buckets.put(i == BUCKET_COUNT - 1 ? "inf" : "le" + getUpperBound(i), count);
+            }
+        }
+
+        metrics.put("count", COUNT.sum());
+        metrics.put("mean", getMean());
+        metrics.put("max", MAX.get());
+        metrics.put("buckets", buckets);
+
+        return metrics;
+    }
+
+    /**
+     * Vrátí index přihrádky pro hodnotu.
+     *
+     * @param value nezáporná hodnota
+     * @return index přihrádky
+     */
+    private static int getBucket(long value) {
+        // přihrádka i > 0 obsahuje hodnoty 2^(i-2) + 1 až 2^(i-1)
+        int bucket = value == 0 ? 0 : 65 - Long.numberOfLeadingZeros(value - 1);
+
+        return Math.min(bucket, BUCKET_COUNT - 1);
+    }
+
+    /**
+     * Vrátí horní mez přihrádky.
+     *
+     * @param bucket index přihrádky
+     * @return největší hodnota přihrádky
+     */
+    private static long getUpperBound(int bucket) {
+        return bucket == 0 ? 0 : 1L << (bucket - 1);
+    }
+
+}
@@ -0,0 +1,471 @@
+package application.helpers;
+
+import application.Config;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Třída, sloužící ke čtení a zápisu jednoduchých dat ve formátu JSON
+ * (vstupy a výsledky dávkové klasifikace). Objekty jsou reprezentovány
+ * mapami, pole seznamy, čísla typy Long nebo Double a literály typy
+ * Boolean nebo null. Hloubka vnoření čtených objektů a polí je omezena
+ * a nekonečná čísla a hodnoty NaN, které JSON nepodporuje, jsou zapsána
+ * jako null.
+ *
+ * @author Petr Kozler
+ */
+public final class Json {
+
+    /**
+     * čtený text
+     */
+    private final String TEXT;
+
+    /**
+     * aktuální pozice v textu
+     */
+    private int position;
+
+    /**
+     * aktuální hloubka vnoření objektů a polí
+     */
+    private int depth;
+
+    /**
+     * Vytvoří objekt pro čtení zadaného textu.
+     *
+     * @param text text ve formátu JSON
+     */
+    private Json(String text) {
+        TEXT = text;
+    }
+
+    /**
+     * Přečte hodnotu ve formátu JSON.
+     *
+     * @param text text ve formátu JSON
+     * @return přečtená hodnota
+     * @throws IOException
+     */
+    public static Object parse(String text) throws IOException {
+        Json json = new Json(text);
+        Object value = json.readValue();
+        json.skipWhitespace();
+
+        if (json.position < text.length()) {
+            throw json.error("neočekávaný text za koncem hodnoty");
+        }
+
+        return value;
+    }
+
+    /**
+     * Přečte objekt ve formátu JSON.
+     *
+     * @param text text ve formátu JSON
+     * @return mapa vlastností objektu
+     * @throws IOException
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> parseObject(String text) throws IOException {
+        Object value = parse(text);
+
+        if (!(value instanceof Map)) {
+            throw new IOException("Neplatný formát JSON: očekáván objekt.");
+        }
+
+        return (Map<String, Object>) value;
+    }
+
+    /**
+     * Převede hodnotu (mapu, seznam, řetězec, číslo, logickou hodnotu
+     * nebo null) do formátu JSON.
+     *
+     * @param value hodnota
+     * @return text ve formátu JSON
+     */
+    public static String toJson(Object value) {
+        StringBuilder json = new StringBuilder();
+        appendValue(json, value);
+
+        return json.toString();
+    }
+
+    /**
+     * Připojí hodnotu ve formátu JSON k textu.
+     *
+     * @param json text ve formátu JSON
+     * @param value hodnota
+     */
+    public static void appendValue(StringBuilder json, Object value) {
+        if (value == null) {
+            json.append("null");
+        }
+        else if (value instanceof String) {
+            appendString(json, (String) value);
+        }
+        else if ((value instanceof Double && !Double.isFinite((Double) value))
+                || (value instanceof Float && !Float.isFinite((Float) value))) {
+            json.append("null");
+        }
+        else if (value instanceof Number || value instanceof Boolean) {
+            json.append(value);
+        }
+        else if (value instanceof Map) {
+            json.append('{');
+            boolean first = true;
+
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!first) {
+                    json.append(',');
+                }
+
+                appendString(json, String.valueOf(entry.getKey()));
+                json.append(':');
+                appendValue(json, entry.getValue());
+                first = false;
+            }
+
+            json.append('}');
+        }
+        else if (value instanceof Iterable) {
+            json.append('[');
+            boolean first = true;
+
+            for (Object item : (Iterable<?>) value) {
+                if (!first) {
+                    json.append(',');
+                }
+
+                appendValue(json, item);
+                first = false;
+            }
+
+            json.append(']');
+        }
+        else {
+            appendString(json, value.toString());
+        }
+    }
+
+    /**
+     * Připojí řetězec ve formátu JSON (v uvozovkách, s escape sekvencemi) k textu.
+     *
+     * @param json text ve formátu JSON
+     * @param string řetězec
+     */
+    public static void appendString(StringBuilder json, String string) {
+        json.append('"');
+
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    }
+                    else {
+                        json.append(c);
+                    }
+                    break;
+            }
+        }
+
+        json.append('"');
+    }
+
+    /**
+     * Přečte hodnotu na aktuální pozici.
+     *
+     * @return přečtená hodnota
+     * @throws IOException
+     */
+    private Object readValue() throws IOException {
+        skipWhitespace();
+
+        if (position >= TEXT.length()) {
+            throw error("neočekávaný konec textu");
+        }
+
+        char c = TEXT.charAt(position);
+
+        switch (c) {
+            case '{':
+                return readObject();
+            case '[':
+                return readArray();
+            case '"':
+                return readString();
+            case 't':
+                return readLiteral("true", Boolean.TRUE);
+            case 'f':
+                return readLiteral("false", Boolean.FALSE);
+            case 'n':
+                return readLiteral("null", null);
+            default:
+                return readNumber();
+        }
+    }
+
+    /**
+     * Přečte objekt na aktuální pozici.
+     *
+     * @return mapa vlastností objektu
+     * @throws IOException
+     */
+    private Map<String, Object> readObject() throws IOException {
+        Map<String, Object> object = new LinkedHashMap<>();
+        enter();
+        skipWhitespace();
+
+        if (consume('}')) {
+            depth--;
+
+            return object;
+        }
+
+        do {
+            skipWhitespace();
+
+            if (position >= TEXT.length() || TEXT.charAt(position) != '"') {
+                throw error("očekáván název vlastnosti");
+            }
+
+            String name = readString();
+            skipWhitespace();
+
+            if (!consume(':')) {
+                throw error("očekávána dvojtečka");
+            }
+
+            object.put(name, readValue());
+            skipWhitespace();
+        } while (consume(','));
+
+        if (!consume('}')) {
+            throw error("očekáván konec objektu");
+        }
+
+        depth--;
+
+        return object;
+    }
+
+    /**
+     * Přečte pole na aktuální pozici.
+     *
+     * @return seznam prvků pole
+     * @throws IOException
+     */
+    private List<Object> readArray() throws IOException {
+        List<Object> array = new ArrayList<>();
+        enter();
+        skipWhitespace();
+
+        if (consume(']')) {
+            depth--;
+
+            return array;
+        }
+
+        do {
+            array.add(readValue());
+            skipWhitespace();
+        } while (consume(','));
+
+        if (!consume(']')) {
+            throw error("očekáván konec pole");
+        }
+
+        depth--;
+
+        return array;
+    }
+
+    /**
+     * Přeskočí počáteční znak objektu nebo pole a zvýší hloubku vnoření
+     * (rekurzivní čtení příliš hlubokého vnoření by vyčerpalo zásobník).
+     *
+     * @throws IOException
+     */
+    private void enter() throws IOException {
+        if (++depth > Config.JSON_MAX_DEPTH) {
+            throw error("příliš hluboké vnoření");
+        }
+
+        position++;
+    }
+
+    /**
+     * Přečte řetězec na aktuální pozici.
+     *
+     * @return řetězec
+     * @throws IOException
+     */
+    private String readString() throws IOException {
+        StringBuilder string = new StringBuilder();
+        position++;
+
+        while (position < TEXT.length()) {
+            char c = TEXT.charAt(position++);
+
+            if (c == '"') {
+                return string.toString();
+            }
+
+            if (c != '\\') {
+                string.append(c);
+                continue;
+            }
+
+            if (position >= TEXT.length()) {
+                break;
+            }
+
+            char escaped = TEXT.charAt(position++);
+
+            switch (escaped) {
+                case 'b':
+                    string.append('\b');
+                    break;
+                case 'f':
+                    string.append('\f');
+                    break;
+                case 'n':
+                    string.append('\n');
+                    break;
+                case 'r':
+                    string.append('\r');
+                    break;
+                case 't':
+                    string.append('\t');
+                    break;
+                case 'u':
+                    if (position + 4 > TEXT.length()) {
+                        throw error("neúplná escape sekvence");
+                    }
+
+                    try {
+                        string.append((char) Integer.parseInt(TEXT.substring(position, position + 4), 16));
+                    }
+                    catch (NumberFormatException ex) {
+                        throw error("neplatná escape sekvence");
+                    }
+
+                    position += 4;
+                    break;
+                default:
+                    string.append(escaped);
+                    break;
+            }
+        }
+
+        throw error("neukončený řetězec");
+    }
+
+    /**
+     * Přečte číslo na aktuální pozici.
+     *
+     * @return číslo (Long pro celá čísla, jinak Double)
+     * @throws IOException
+     */
+    private Number readNumber() throws IOException {
+        int start = position;
+        boolean decimal = false;
+
+        while (position < TEXT.length()) {
+            char c = TEXT.charAt(position);
+
+            if (c == '.' || c == 'e' || c == 'E') {
+                decimal = true;
+            }
+            else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+                break;
+            }
+
+            position++;
+        }
+
+        String number = TEXT.substring(start, position);
+
+        try {
+            return decimal ? (Number) Double.valueOf(number) : (Number) Long.valueOf(number);
+        }
+        catch (NumberFormatException ex) {
+            throw error("neplatná hodnota");
+        }
+    }
+
+    /**
+     * Přečte literál na aktuální pozici.
+     *
+     * @param literal očekávaný literál
+     * @param value hodnota literálu
+     * @return hodnota literálu
+     * @throws IOException
+     */
+    private Object readLiteral(String literal, Object value) throws IOException {
+        if (!TEXT.startsWith(literal, position)) {
+            throw error("neplatná hodnota");
+        }
+
+        position += literal.length();
+
+        return value;
+    }
+
+    /**
+     * Přeskočí znak na aktuální pozici, pokud je roven zadanému znaku.
+     *
+     * @param c očekávaný znak
+     * @return true, pokud byl znak přeskočen
+     */
+    private boolean consume(char c) {
+        if (position < TEXT.length() && TEXT.charAt(position) == c) {
+            position++;
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Přeskočí bílé znaky od aktuální pozice.
+     */
+    private void skipWhitespace() {
+        while (position < TEXT.length() && Character.isWhitespace(TEXT.charAt(position))) {
+            position++;
+        }
+    }
+
+    /**
+     * Vytvoří výjimku popisující chybu formátu na aktuální pozici.
+     *
+     * @param message popis chyby
+     * @return výjimka
+     */
+    private IOException error(String message) {
+        return new IOException("Neplatný formát JSON (pozice " + position + "): " + message + ".");
+    }
+
+}
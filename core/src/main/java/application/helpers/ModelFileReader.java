@@ -0,0 +1,242 @@
+package application.helpers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Třída, sloužící ke čtení klasifikačního modelu z binárního souboru
+ * zapsaného třídou {@link ModelFileWriter}. Každá sekce je namapována
+ * do paměti samostatně a velká pole čísel jsou vracena jako pohledy na
+ * namapovaná data bez kopírování, takže jsou stránky souboru načítány až
+ * při prvním přístupu a mohou být sdíleny více procesy současně.
+ *
+ * @author Petr Kozler
+ */
+public class ModelFileReader {
+
+    /**
+     * namapované sekce podle názvů
+     */
+    private final Map<String, ByteBuffer> SECTIONS = new HashMap<>();
+
+    /**
+     * celková velikost souboru
+     */
+    private final long SIZE;
+
+    /**
+     * Otevře soubor klasifikačního modelu, ověří hlavičku a namapuje sekce.
+     *
+     * @param path cesta k souboru
+     * @throws IOException
+     */
+    public ModelFileReader(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            SIZE = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, header, 0);
+
+            if (SIZE < 16 || header.getInt() != ModelFileWriter.MAGIC) {
+                throw new IOException("Soubor není v podporovaném formátu klasifikačního modelu: " + path);
+            }
+
+            int version = header.getInt();
+
+            if (version != ModelFileWriter.VERSION) {
+                throw new IOException("Nepodporovaná verze formátu klasifikačního modelu: " + version);
+            }
+
+            ByteBuffer trailer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, trailer, SIZE - 8);
+            long tableOffset = trailer.getLong();
+
+            ByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY,
+                    tableOffset, SIZE - 8 - tableOffset).order(ByteOrder.LITTLE_ENDIAN);
+            int sectionCount = table.getInt();
+
+            for (int i = 0; i < sectionCount; i++) {
+                String name = readString(table);
+                long offset = table.getLong();
+                long length = table.getLong();
+                SECTIONS.put(name, channel.map(FileChannel.MapMode.READ_ONLY,
+                        offset, length).order(ByteOrder.LITTLE_ENDIAN));
+            }
+        }
+    }
+
+    /**
+     * Určí, zda soubor obsahuje sekci se zadaným názvem.
+     *
+     * @param name název sekce
+     * @return true, pokud sekce existuje
+     */
+    public boolean hasSection(String name) {
+        return SECTIONS.containsKey(name);
+    }
+
+    /**
+     * Vrátí data sekce se zadaným názvem (s pozicí na začátku sekce).
+     *
+     * @param name název sekce
+     * @return data sekce
+     * @throws IOException
+     */
+    public ByteBuffer getSection(String name) throws IOException {
+        ByteBuffer section = SECTIONS.get(name);
+
+        if (section == null) {
+            throw new IOException("Klasifikační model neobsahuje sekci: " + name);
+        }
+
+        return section.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Načte všechny stránky namapovaných sekcí do paměti předem, aby první
+     * klasifikace nečekaly na čtení stránek souboru z disku.
+     */
+    public void preload() {
+        for (ByteBuffer section : SECTIONS.values()) {
+            if (section instanceof MappedByteBuffer) {
+                ((MappedByteBuffer) section).load();
+            }
+        }
+    }
+
+    /**
+     * Vrátí celkovou velikost souboru.
+     *
+     * @return velikost souboru v bajtech
+     */
+    public long getSize() {
+        return SIZE;
+    }
+
+    /**
+     * Přečte pole bajtů s předřazenou délkou.
+     *
+     * @param section data sekce
+     * @return pole bajtů
+     */
+    public static byte[] readBytes(ByteBuffer section) {
+        byte[] bytes = new byte[section.getInt()];
+        section.get(bytes);
+
+        return bytes;
+    }
+
+    /**
+     * Vrátí pohled na pole bajtů s předřazenou délkou bez kopírování.
+     *
+     * @param section data sekce
+     * @return pohled na pole bajtů
+     */
+    public static ByteBuffer readByteView(ByteBuffer section) {
+        int length = section.getInt();
+        ByteBuffer view = section.slice();
+        view.limit(length);
+        section.position(section.position() + length);
+
+        return view;
+    }
+
+    /**
+     * Přečte řetězec v kódování UTF-8 s předřazenou délkou.
+     *
+     * @param section data sekce
+     * @return řetězec
+     */
+    public static String readString(ByteBuffer section) {
+        return BinaryCodec.readString(section);
+    }
+
+    /**
+     * Přečte seznam řetězců s předřazeným počtem.
+     *
+     * @param section data sekce
+     * @return seznam řetězců
+     */
+    public static List<String> readStrings(ByteBuffer section) {
+        int count = section.getInt();
+        List<String> strings = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            strings.add(readString(section));
+        }
+
+        return strings;
+    }
+
+    /**
+     * Vrátí pohled na pole celých čísel s předřazeným počtem bez kopírování.
+     *
+     * @param section data sekce
+     * @return pohled na pole čísel
+     */
+    public static IntBuffer readInts(ByteBuffer section) {
+        int length = section.getInt();
+        align(section);
+        ByteBuffer slice = section.slice().order(ByteOrder.LITTLE_ENDIAN);
+        slice.limit(length * 4);
+        section.position(section.position() + length * 4);
+
+        return slice.asIntBuffer();
+    }
+
+    /**
+     * Vrátí pohled na pole desetinných čísel s předřazeným počtem bez kopírování.
+     *
+     * @param section data sekce
+     * @return pohled na pole čísel
+     */
+    public static DoubleBuffer readDoubles(ByteBuffer section) {
+        int length = section.getInt();
+        align(section);
+        ByteBuffer slice = section.slice().order(ByteOrder.LITTLE_ENDIAN);
+        slice.limit(length * 8);
+        section.position(section.position() + length * 8);
+
+        return slice.asDoubleBuffer();
+    }
+
+    /**
+     * Posune pozici v sekci na nejbližší násobek 8 bajtů (sekce začínají
+     * na zarovnaných pozicích v souboru).
+     *
+     * @param section data sekce
+     */
+    private static void align(ByteBuffer section) {
+        section.position((section.position() + 7) & ~7);
+    }
+
+    /**
+     * Přečte ze souboru na zadané pozici tolik bajtů, kolik se vejde do bufferu.
+     *
+     * @param channel kanál souboru
+     * @param buffer cílový buffer
+     * @param position pozice v souboru
+     * @throws IOException
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Neočekávaný konec souboru klasifikačního modelu.");
+            }
+        }
+
+        buffer.flip();
+    }
+
+}
@@ -0,0 +1,398 @@
+package application.helpers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Třída, sloužící k zápisu klasifikačního modelu do binárního souboru
+ * rozděleného na pojmenované sekce. Soubor začíná hlavičkou (magické číslo
+ * a verze formátu), následují data jednotlivých sekcí zarovnaná na 8 bajtů,
+ * obsah (názvy, pozice a délky sekcí) a nakonec pozice obsahu. Všechna čísla
+ * jsou zapisována v pořadí bajtů little-endian, takže je lze při čtení
+ * zpřístupnit přímo jako pohledy na namapovaný soubor. Soubor je zapisován
+ * pod dočasným názvem a teprve po potvrzení úplného zápisu (metodou commit)
+ * je přejmenován na cílový, takže programy, které mají namapovánu předchozí
+ * verzi souboru (nebo sledují jeho změny), nikdy neuvidí rozepsaný soubor.
+ * Při uzavření bez potvrzení (např. po chybě zápisu) je dočasný soubor
+ * smazán a předchozí verze zůstane zachována.
+ *
+ * @author Petr Kozler
+ */
+public class ModelFileWriter implements Closeable {
+
+    /**
+     * magické číslo identifikující soubor klasifikačního modelu
+     */
+    public static final int MAGIC = 0x444D4344;
+
+    /**
+     * verze formátu souboru klasifikačního modelu
+     */
+    public static final int VERSION = 2;
+
+    /**
+     * přípona dočasného souboru, do kterého je model zapisován
+     */
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+
+    /**
+     * cílový soubor
+     */
+    private final Path PATH;
+
+    /**
+     * dočasný soubor
+     */
+    private final Path TEMPORARY_PATH;
+
+    /**
+     * kanál pro zápis do souboru
+     */
+    private final FileChannel CHANNEL;
+
+    /**
+     * vyrovnávací paměť pro zápis
+     */
+    private final ByteBuffer BUFFER = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * názvy zapsaných sekcí
+     */
+    private final List<String> SECTION_NAMES = new ArrayList<>();
+
+    /**
+     * pozice zapsaných sekcí v souboru
+     */
+    private final List<Long> SECTION_OFFSETS = new ArrayList<>();
+
+    /**
+     * délky zapsaných sekcí
+     */
+    private final List<Long> SECTION_LENGTHS = new ArrayList<>();
+
+    /**
+     * aktuální pozice v souboru
+     */
+    private long position;
+
+    /**
+     * pozice začátku právě zapisované sekce (nebo -1)
+     */
+    private long sectionStart = -1;
+
+    /**
+     * příznak potvrzení zápisu (přejmenování na cílový soubor)
+     */
+    private boolean committed;
+
+    /**
+     * Vytvoří soubor klasifikačního modelu a zapíše hlavičku.
+     *
+     * @param path cesta k souboru
+     * @throws IOException
+     */
+    public ModelFileWriter(Path path) throws IOException {
+        PATH = path;
+        TEMPORARY_PATH = path.resolveSibling(path.getFileName() + TEMPORARY_EXTENSION);
+        CHANNEL = FileChannel.open(TEMPORARY_PATH, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        writeInt(MAGIC);
+        writeInt(VERSION);
+    }
+
+    /**
+     * Zahájí zápis nové sekce.
+     *
+     * @param name název sekce
+     * @throws IOException
+     */
+    public void beginSection(String name) throws IOException {
+        if (sectionStart >= 0) {
+            throw new IllegalStateException("Předchozí sekce nebyla ukončena.");
+        }
+
+        align(8);
+        SECTION_NAMES.add(name);
+        sectionStart = position;
+    }
+
+    /**
+     * Ukončí zápis aktuální sekce.
+     */
+    public void endSection() {
+        SECTION_OFFSETS.add(sectionStart);
+        SECTION_LENGTHS.add(position - sectionStart);
+        sectionStart = -1;
+    }
+
+    /**
+     * Zapíše celé číslo.
+     *
+     * @param value hodnota
+     * @throws IOException
+     */
+    public void writeInt(int value) throws IOException {
+        ensureCapacity(4);
+        BUFFER.putInt(value);
+        position += 4;
+    }
+
+    /**
+     * Zapíše dlouhé celé číslo.
+     *
+     * @param value hodnota
+     * @throws IOException
+     */
+    public void writeLong(long value) throws IOException {
+        ensureCapacity(8);
+        BUFFER.putLong(value);
+        position += 8;
+    }
+
+    /**
+     * Zapíše desetinné číslo.
+     *
+     * @param value hodnota
+     * @throws IOException
+     */
+    public void writeDouble(double value) throws IOException {
+        ensureCapacity(8);
+        BUFFER.putDouble(value);
+        position += 8;
+    }
+
+    /**
+     * Zapíše pole bajtů s předřazenou délkou.
+     *
+     * @param bytes pole bajtů
+     * @throws IOException
+     */
+    public void writeBytes(byte[] bytes) throws IOException {
+        writeInt(bytes.length);
+
+        for (int i = 0; i < bytes.length; i += BUFFER.capacity()) {
+            int length = Math.min(BUFFER.capacity(), bytes.length - i);
+            ensureCapacity(length);
+            BUFFER.put(bytes, i, length);
+        }
+
+        position += bytes.length;
+    }
+
+    /**
+     * Zapíše obsah bufferu bajtů (od začátku po limit) s předřazenou délkou.
+     *
+     * @param bytes buffer bajtů
+     * @throws IOException
+     */
+    public void writeBytes(ByteBuffer bytes) throws IOException {
+        ByteBuffer source = bytes.duplicate();
+        source.position(0);
+        writeInt(source.limit());
+        position += source.limit();
+
+        while (source.hasRemaining()) {
+            ensureCapacity(Math.min(BUFFER.capacity(), source.remaining()));
+            ByteBuffer chunk = source.slice();
+            chunk.limit(Math.min(BUFFER.remaining(), chunk.limit()));
+            BUFFER.put(chunk);
+            source.position(source.position() + chunk.limit());
+        }
+    }
+
+    /**
+     * Zapíše řetězec v kódování UTF-8 s předřazenou délkou.
+     *
+     * @param string řetězec
+     * @throws IOException
+     */
+    public void writeString(String string) throws IOException {
+        writeBytes(string.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Zapíše seznam řetězců s předřazeným počtem.
+     *
+     * @param strings seznam řetězců
+     * @throws IOException
+     */
+    public void writeStrings(List<String> strings) throws IOException {
+        writeInt(strings.size());
+
+        for (String string : strings) {
+            writeString(string);
+        }
+    }
+
+    /**
+     * Zapíše pole celých čísel s předřazeným počtem, zarovnané na 8 bajtů.
+     *
+     * @param values pole hodnot
+     * @param length počet zapisovaných hodnot
+     * @throws IOException
+     */
+    public void writeInts(int[] values, int length) throws IOException {
+        writeInts(IntBuffer.wrap(values, 0, length));
+    }
+
+    /**
+     * Zapíše obsah bufferu celých čísel (od začátku po limit) s předřazeným
+     * počtem, zarovnaný na 8 bajtů.
+     *
+     * @param values buffer hodnot
+     * @throws IOException
+     */
+    public void writeInts(IntBuffer values) throws IOException {
+        int length = values.limit();
+        writeInt(length);
+        align(8);
+
+        for (int i = 0; i < length; i++) {
+            writeInt(values.get(i));
+        }
+    }
+
+    /**
+     * Zapíše pole desetinných čísel s předřazeným počtem, zarovnané na 8 bajtů.
+     *
+     * @param values pole hodnot
+     * @param length počet zapisovaných hodnot
+     * @throws IOException
+     */
+    public void writeDoubles(double[] values, int length) throws IOException {
+        writeDoubles(DoubleBuffer.wrap(values, 0, length));
+    }
+
+    /**
+     * Zapíše obsah bufferu desetinných čísel (od začátku po limit)
+     * s předřazeným počtem, zarovnaný na 8 bajtů.
+     *
+     * @param values buffer hodnot
+     * @throws IOException
+     */
+    public void writeDoubles(DoubleBuffer values) throws IOException {
+        int length = values.limit();
+        writeInt(length);
+        align(8);
+
+        for (int i = 0; i < length; i++) {
+            writeDouble(values.get(i));
+        }
+    }
+
+    /**
+     * Potvrdí úplný zápis modelu: zapíše obsah souboru s pozicemi a délkami
+     * sekcí, uzavře soubor a přejmenuje jej na cílový název (nahradí
+     * předchozí verzi).
+     *
+     * @throws IOException
+     */
+    public void commit() throws IOException {
+        if (sectionStart >= 0) {
+            throw new IllegalStateException("Poslední sekce nebyla ukončena.");
+        }
+
+        try {
+            align(8);
+            long tableOffset = position;
+            writeInt(SECTION_NAMES.size());
+
+            for (int i = 0; i < SECTION_NAMES.size(); i++) {
+                writeString(SECTION_NAMES.get(i));
+                writeLong(SECTION_OFFSETS.get(i));
+                writeLong(SECTION_LENGTHS.get(i));
+            }
+
+            writeLong(tableOffset);
+            flush();
+            CHANNEL.force(true);
+        }
+        finally {
+            CHANNEL.close();
+        }
+
+        try {
+            Files.move(TEMPORARY_PATH, PATH, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (AtomicMoveNotSupportedException ex) {
+            Files.move(TEMPORARY_PATH, PATH, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        committed = true;
+    }
+
+    /**
+     * Uzavře soubor. Pokud zápis nebyl potvrzen, smaže dočasný soubor
+     * a cílový soubor ponechá beze změny.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        if (committed) {
+            return;
+        }
+
+        try {
+            CHANNEL.close();
+        }
+        finally {
+            Files.deleteIfExists(TEMPORARY_PATH);
+        }
+    }
+
+    /**
+     * Doplní nulové bajty tak, aby aktuální pozice byla násobkem zadaného čísla.
+     *
+     * @param alignment zarovnání
+     * @throws IOException
+     */
+    private void align(int alignment) throws IOException {
+        while (position % alignment != 0) {
+            ensureCapacity(1);
+            BUFFER.put((byte) 0);
+            position++;
+        }
+    }
+
+    /**
+     * Zajistí volné místo ve vyrovnávací paměti, případně ji vyprázdní do souboru.
+     *
+     * @param length požadovaný počet bajtů
+     * @throws IOException
+     */
+    private void ensureCapacity(int length) throws IOException {
+        if (BUFFER.remaining() < length) {
+            flush();
+        }
+    }
+
+    /**
+     * Zapíše obsah vyrovnávací paměti do souboru.
+     *
+     * @throws IOException
+     */
+    private void flush() throws IOException {
+        BUFFER.flip();
+
+        while (BUFFER.hasRemaining()) {
+            CHANNEL.write(BUFFER);
+        }
+
+        BUFFER.clear();
+    }
+
+}
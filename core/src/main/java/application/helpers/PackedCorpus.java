@@ -0,0 +1,276 @@
+package application.helpers;
+
+import application.Config;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Třída, představující zabalený korpus, kde jsou texty všech dokumentů
+ * uloženy za sebou v jednom datovém souboru a názvy, třídy a pozice
+ * dokumentů v samostatném indexu. Datový soubor je namapován do paměti
+ * a dokumenty jsou vraceny jako jeho výřezy, takže odpadá otevírání
+ * a čtení velkého množství malých souborů.
+ *
+ * Formát indexu: magické číslo, verze, počet dokumentů a pro každý
+ * dokument název, zkratka třídy (řetězce v kódování UTF-8 s předřazenou
+ * délkou), pozice v datovém souboru a délka v bajtech.
+ *
+ * @author Petr Kozler
+ */
+public class PackedCorpus extends ACorpus {
+
+    /**
+     * magické číslo identifikující index zabaleného korpusu
+     */
+    private static final int MAGIC = 0x44434350;
+
+    /**
+     * verze formátu indexu
+     */
+    private static final short VERSION = 1;
+
+    /**
+     * maximální velikost jednoho namapovaného úseku datového souboru
+     */
+    private static final long REGION_SIZE = 1L << 30;
+
+    /**
+     * cesta k datovému souboru
+     */
+    private final Path DATA_FILE;
+
+    /**
+     * čas poslední změny datového souboru
+     */
+    private final long MODIFIED_TIME;
+
+    /**
+     * názvy dokumentů
+     */
+    private final String[] NAMES;
+
+    /**
+     * zkratky tříd dokumentů
+     */
+    private final String[] CLASS_KEY_WORDS;
+
+    /**
+     * pozice dokumentů v datovém souboru
+     */
+    private final long[] OFFSETS;
+
+    /**
+     * délky dokumentů v bajtech
+     */
+    private final int[] LENGTHS;
+
+    /**
+     * namapované úseky datového souboru
+     */
+    private final MappedByteBuffer[] REGIONS;
+
+    /**
+     * Otevře zabalený korpus - načte index a namapuje datový soubor do paměti.
+     *
+     * @param path cesta k datovému souboru
+     * @throws IOException
+     */
+    public PackedCorpus(String path) throws IOException {
+        DATA_FILE = Paths.get(path);
+        MODIFIED_TIME = Files.getLastModifiedTime(DATA_FILE).toMillis();
+
+        ByteBuffer index = ByteBuffer.wrap(Files.readAllBytes(getIndexFile(DATA_FILE)));
+
+        if (index.getInt() != MAGIC || index.getShort() != VERSION) {
+            throw new IOException("Neplatný formát indexu zabaleného korpusu: " + path);
+        }
+
+        int count = index.getInt();
+        NAMES = new String[count];
+        CLASS_KEY_WORDS = new String[count];
+        OFFSETS = new long[count];
+        LENGTHS = new int[count];
+
+        for (int i = 0; i < count; i++) {
+            NAMES[i] = BinaryCodec.readString(index);
+            CLASS_KEY_WORDS[i] = BinaryCodec.readString(index);
+            OFFSETS[i] = index.getLong();
+            LENGTHS[i] = index.getInt();
+        }
+
+        try (FileChannel channel = FileChannel.open(DATA_FILE, StandardOpenOption.READ)) {
+            long size = channel.size();
+            REGIONS = new MappedByteBuffer[(int) ((size + REGION_SIZE - 1) / REGION_SIZE)];
+
+            for (int i = 0; i < REGIONS.length; i++) {
+                long start = i * REGION_SIZE;
+                REGIONS[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        start, Math.min(REGION_SIZE, size - start));
+            }
+        }
+    }
+
+    /**
+     * Vrátí počet dokumentů v korpusu.
+     *
+     * @return počet dokumentů
+     */
+    @Override
+    public int size() {
+        return NAMES.length;
+    }
+
+    /**
+     * Vrátí název dokumentu uložený v indexu.
+     *
+     * @param index pořadové číslo dokumentu
+     * @return název dokumentu
+     */
+    @Override
+    public String getName(int index) {
+        return NAMES[index];
+    }
+
+    /**
+     * Vrátí zkratku třídy dokumentu uloženou v indexu.
+     *
+     * @param index pořadové číslo dokumentu
+     * @return zkratka třídy
+     */
+    @Override
+    public String getClassKeyWord(int index) {
+        return CLASS_KEY_WORDS[index];
+    }
+
+    /**
+     * Vrátí identifikátor dokumentu složený z cesty k datovému souboru
+     * a názvu dokumentu.
+     *
+     * @param index pořadové číslo dokumentu
+     * @return identifikátor dokumentu
+     */
+    @Override
+    public String getPath(int index) {
+        return DATA_FILE + "#" + NAMES[index];
+    }
+
+    /**
+     * Vrátí délku dokumentu v bajtech.
+     *
+     * @param index pořadové číslo dokumentu
+     * @return velikost dokumentu
+     */
+    @Override
+    public long getSize(int index) {
+        return LENGTHS[index];
+    }
+
+    /**
+     * Vrátí čas poslední změny datového souboru (společný pro všechny dokumenty).
+     *
+     * @param index pořadové číslo dokumentu
+     * @return čas poslední změny v milisekundách
+     */
+    @Override
+    public long getModifiedTime(int index) {
+        return MODIFIED_TIME;
+    }
+
+    /**
+     * Vrátí obsah dokumentu jako výřez namapovaného datového souboru.
+     *
+     * @param index pořadové číslo dokumentu
+     * @return obsah dokumentu
+     * @throws IOException
+     */
+    @Override
+    public ByteBuffer loadBytes(int index) throws IOException {
+        long offset = OFFSETS[index];
+        int length = LENGTHS[index];
+
+        if (length == 0) {
+            return ByteBuffer.allocate(0);
+        }
+
+        int region = (int) (offset / REGION_SIZE);
+        int start = (int) (offset - region * REGION_SIZE);
+
+        // dokument přesahující hranici úseků je namapován samostatně
+        if (start + (long) length > REGIONS[region].capacity()) {
+            try (FileChannel channel = FileChannel.open(DATA_FILE, StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            }
+        }
+
+        ByteBuffer slice = REGIONS[region].duplicate();
+        slice.position(start);
+        slice.limit(start + length);
+
+        return slice.slice();
+    }
+
+    /**
+     * Zapíše dokumenty zadaného korpusu do datového souboru a indexu
+     * zabaleného korpusu.
+     *
+     * @param corpus zdrojový korpus
+     * @param path cesta k datovému souboru
+     * @throws IOException
+     */
+    public static void write(ACorpus corpus, String path) throws IOException {
+        Path dataFile = Paths.get(path);
+        long offset = 0;
+
+        try (OutputStream data = new BufferedOutputStream(Files.newOutputStream(dataFile));
+                DataOutputStream index = new DataOutputStream(new BufferedOutputStream(
+                        Files.newOutputStream(getIndexFile(dataFile))))) {
+            index.writeInt(MAGIC);
+            index.writeShort(VERSION);
+            index.writeInt(corpus.size());
+
+            for (int i = 0; i < corpus.size(); i++) {
+                ByteBuffer bytes = corpus.loadBytes(i);
+                int length = bytes.remaining();
+
+                if (bytes.hasArray()) {
+                    data.write(bytes.array(), bytes.arrayOffset() + bytes.position(), length);
+                }
+                else {
+                    byte[] copy = new byte[length];
+                    bytes.get(copy);
+                    data.write(copy);
+                }
+
+                BinaryCodec.writeString(index, corpus.getName(i));
+                BinaryCodec.writeString(index, corpus.getClassKeyWord(i));
+                index.writeLong(offset);
+                index.writeInt(length);
+                offset += length;
+            }
+        }
+    }
+
+    /**
+     * Vrátí cestu k indexu příslušnému k datovému souboru.
+     *
+     * @param dataFile cesta k datovému souboru
+     * @return cesta k indexu
+     */
+    private static Path getIndexFile(Path dataFile) {
+        String name = dataFile.getFileName().toString();
+        String baseName = name.endsWith(Config.PACKED_CORPUS_EXTENSION)
+                ? name.substring(0, name.length() - Config.PACKED_CORPUS_EXTENSION.length()) : name;
+
+        return dataFile.resolveSibling(baseName + Config.PACKED_CORPUS_INDEX_EXTENSION);
+    }
+
+}
@@ -0,0 +1,97 @@
+package application.helpers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Třída, sloužící jako PoS (part of speech) Tagger, který označuje
+ * nevýznamná, tzv. stop-slova (předložky, spojky), která nemají
+ * pozitivní vliv na spolehlivost klasifikátoru.
+ * 
+ * @author Petr Kozler
+ */
+public class PosTagger {
+    
+    /**
+     * název sekce souboru klasifikačního modelu se seznamem stop-slov
+     */
+    private static final String STOP_WORD_SECTION = "stop-words";
+    
+    /**
+     * seznam stop-slov
+     */
+    private final Set<String> STOP_WORDS = new HashSet<>();
+    
+    /**
+     * Vytvoří objekt pro odstraňování stop-slov.
+     * 
+     * @param stopWordLines seznam stop-slov
+     * @throws IOException 
+     */
+    public PosTagger(List<String> stopWordLines) throws IOException {
+        stopWordLines.stream().forEach((word) -> {
+            STOP_WORDS.add(word.trim().toLowerCase());
+        });
+    }
+    
+    /**
+     * Určí, zda zadané slovo patří mezi stop-slova.
+     * 
+     * @param word slovo
+     * @return true, pokud je zadané slovo stop-slovem, jinak false
+     */
+    public boolean isStopWord(String word) {
+        return STOP_WORDS.contains(word);
+    }
+    
+    /**
+     * Vrátí otisk seznamu stop-slov, nezávislý na pořadí slov ve vstupním souboru.
+     * 
+     * @return otisk v šestnáctkovém zápisu
+     */
+    public String getFingerprint() {
+        List<String> stopWords = new ArrayList<>(STOP_WORDS);
+        Collections.sort(stopWords);
+        
+        return BinaryCodec.fingerprint(Collections.singletonList(stopWords));
+    }
+    
+    /**
+     * Určí, zda má zadaný objekt stejný seznam stop-slov (shoda otisků to
+     * nezaručuje, protože otisky různých seznamů se mohou shodovat).
+     * 
+     * @param posTagger objekt pro odstraňování stop-slov
+     * @return true, pokud jsou seznamy stop-slov shodné
+     */
+    public boolean hasSameStopWords(PosTagger posTagger) {
+        return STOP_WORDS.equals(posTagger.STOP_WORDS);
+    }
+    
+    /**
+     * Zapíše seznam stop-slov do souboru klasifikačního modelu.
+     * 
+     * @param writer objekt pro zápis souboru modelu
+     * @throws IOException 
+     */
+    public void writeModel(ModelFileWriter writer) throws IOException {
+        writer.beginSection(STOP_WORD_SECTION);
+        writer.writeStrings(new ArrayList<>(STOP_WORDS));
+        writer.endSection();
+    }
+    
+    /**
+     * Načte seznam stop-slov ze souboru klasifikačního modelu.
+     * 
+     * @param reader objekt pro čtení souboru modelu
+     * @return objekt pro odstraňování stop-slov
+     * @throws IOException 
+     */
+    public static PosTagger readModel(ModelFileReader reader) throws IOException {
+        return new PosTagger(ModelFileReader.readStrings(reader.getSection(STOP_WORD_SECTION)));
+    }
+    
+}
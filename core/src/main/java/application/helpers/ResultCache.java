@@ -0,0 +1,442 @@
+package application.helpers;
+
+import application.Config;
+import application.containers.Classification;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Třída, představující mezipaměť výsledků klasifikace opakovaně zasílaných
+ * dokumentů. Záznamy jsou identifikovány otiskem normalizovaného textu
+ * dokumentu (posloupnosti znaků ASCII, které netvoří slova a jsou proto
+ * při zpracování jen oddělovači, jsou sloučeny do jednoho oddělovače
+ * a na začátku a konci textu vynechány) a verzí klasifikačního modelu.
+ * Po zjištění novější verze modelu je celý obsah mezipaměti zneplatněn.
+ *
+ * Velikost mezipaměti je omezena počtem záznamů i odhadem obsazené paměti.
+ * Při zaplnění je nový záznam přijat jen tehdy, pokud byl jeho dokument
+ * v poslední době žádán častěji než nejdéle nepoužitý záznam, který by
+ * nahradil (četnosti jsou odhadovány přibližným čítačem s postupným
+ * stárnutím), takže jednorázové dokumenty nevytlačí často opakované.
+ *
+ * @author Petr Kozler
+ */
+public class ResultCache {
+
+    /**
+     * tabulka znaků ASCII tvořících slova
+     */
+    private static final boolean[] WORD_CHARACTERS = new boolean[0x80];
+
+    static {
+        for (char c : Config.WORD_ALPHA_CHARACTERS.toCharArray()) {
+            if (c < WORD_CHARACTERS.length) {
+                WORD_CHARACTERS[c] = true;
+            }
+        }
+    }
+
+    /**
+     * odhad paměti obsazené záznamem bez skóre (klíč, položka mapy, výsledek)
+     */
+    private static final int ENTRY_OVERHEAD = 160;
+
+    /**
+     * odhad paměti obsazené skóre jedné třídy (položka mapy a hodnota)
+     */
+    private static final int SCORE_SIZE = 64;
+
+    /**
+     * počet řádků čítače četností
+     */
+    private static final int SKETCH_DEPTH = 4;
+
+    /**
+     * nejvyšší hodnota počítadla čítače četností
+     */
+    private static final int SKETCH_MAX_COUNT = 15;
+
+    /**
+     * nejvyšší povolený počet záznamů
+     */
+    private final int MAX_ENTRIES;
+
+    /**
+     * nejvyšší povolený odhad obsazené paměti v bajtech
+     */
+    private final long MAX_BYTES;
+
+    /**
+     * záznamy seřazené od nejdéle nepoužitého
+     */
+    private final LinkedHashMap<Key, Entry> ENTRIES = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * počítadla čítače četností (řádky uložené za sebou)
+     */
+    private final byte[] SKETCH;
+
+    /**
+     * maska pro výběr sloupce čítače četností
+     */
+    private final int SKETCH_MASK;
+
+    /**
+     * počet přičtení do čítače četností, po kterém jsou počítadla sníženy na polovinu
+     */
+    private final int SKETCH_SAMPLE_SIZE;
+
+    /**
+     * počet přičtení do čítače četností od posledního snížení
+     */
+    private int sketchAdditions;
+
+    /**
+     * nejnovější zjištěná verze modelu
+     */
+    private long modelVersion = Long.MIN_VALUE;
+
+    /**
+     * odhad obsazené paměti v bajtech
+     */
+    private long bytes;
+
+    /**
+     * počet nalezených výsledků
+     */
+    private long hitCount;
+
+    /**
+     * počet chybějících výsledků
+     */
+    private long missCount;
+
+    /**
+     * počet vyřazených záznamů
+     */
+    private long evictionCount;
+
+    /**
+     * počet nepřijatých záznamů (méně žádaných než nahrazovaný záznam)
+     */
+    private long rejectionCount;
+
+    /**
+     * počet zneplatnění obsahu po změně modelu
+     */
+    private long invalidationCount;
+
+    /**
+     * ušetřená doba klasifikace v nanosekundách
+     */
+    private long savedNanos;
+
+    /**
+     * Třída, představující klíč záznamu (otisk normalizovaného textu a verze modelu).
+     */
+    public static class Key {
+
+        /**
+         * první část otisku textu
+         */
+        final long HASH;
+
+        /**
+         * druhá (nezávislá) část otisku textu
+         */
+        final long CHECK;
+
+        /**
+         * délka normalizovaného textu
+         */
+        final int LENGTH;
+
+        /**
+         * verze modelu
+         */
+        final long VERSION;
+
+        /**
+         * Vytvoří klíč záznamu.
+         *
+         * @param hash první část otisku textu
+         * @param check druhá část otisku textu
+         * @param length délka normalizovaného textu
+         * @param version verze modelu
+         */
+        Key(long hash, long check, int length, long version) {
+            HASH = hash;
+            CHECK = check;
+            LENGTH = length;
+            VERSION = version;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            Key key = (Key) obj;
+
+            return HASH == key.HASH && CHECK == key.CHECK && LENGTH == key.LENGTH && VERSION == key.VERSION;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (HASH ^ (HASH >>> 32));
+        }
+
+    }
+
+    /**
+     * Třída, představující záznam mezipaměti.
+     */
+    private static class Entry {
+
+        /**
+         * výsledek klasifikace
+         */
+        final Classification CLASSIFICATION;
+
+        /**
+         * doba klasifikace v nanosekundách
+         */
+        final long COST;
+
+        /**
+         * odhad obsazené paměti v bajtech
+         */
+        final int SIZE;
+
+        /**
+         * Vytvoří záznam mezipaměti.
+         *
+         * @param classification výsledek klasifikace
+         * @param cost doba klasifikace v nanosekundách
+         */
+        Entry(Classification classification, long cost) {
+            CLASSIFICATION = classification;
+            COST = cost;
+            SIZE = ENTRY_OVERHEAD + classification.getScores().size() * SCORE_SIZE;
+        }
+
+    }
+
+    /**
+     * Vytvoří mezipaměť s omezeným počtem záznamů a obsazenou pamětí.
+     *
+     * @param maxEntries nejvyšší počet záznamů
+     * @param maxBytes nejvyšší odhad obsazené paměti v bajtech
+     */
+    public ResultCache(int maxEntries, long maxBytes) {
+        MAX_ENTRIES = maxEntries;
+        MAX_BYTES = maxBytes;
+
+        // počet sloupců čítače je nejbližší mocnina dvou nad počtem záznamů
+        int width = Integer.highestOneBit(Math.max(maxEntries, 16) - 1) << 1;
+        SKETCH = new byte[SKETCH_DEPTH * width];
+        SKETCH_MASK = width - 1;
+        SKETCH_SAMPLE_SIZE = width * 10;
+    }
+
+    /**
+     * Vytvoří klíč záznamu pro text dokumentu v kódování UTF-8 a verzi
+     * modelu. Pozice bufferu s textem se nemění.
+     *
+     * @param text text dokumentu
+     * @param version verze modelu
+     * @return klíč záznamu
+     */
+    public static Key createKey(ByteBuffer text, long version) {
+        long hash = 0xCBF29CE484222325L;
+        long check = 0x9E3779B97F4A7C15L;
+        int length = 0;
+        boolean separator = false;
+
+        for (int i = text.position(); i < text.limit(); i++) {
+            int b = text.get(i) & 0xFF;
+
+            // znaky ASCII mimo slova jsou při zpracování jen oddělovači, posloupnost je proto sloučena do jednoho
+            if (b < 0x80 && !WORD_CHARACTERS[b]) {
+                separator = length > 0;
+                continue;
+            }
+
+            if (separator) {
+                hash = (hash ^ ' ') * 0x100000001B3L;
+                check = (check + ' ') * 0xC6A4A7935BD1E995L;
+                length++;
+                separator = false;
+            }
+
+            hash = (hash ^ b) * 0x100000001B3L;
+            check = (check + b) * 0xC6A4A7935BD1E995L;
+            check ^= check >>> 29;
+            length++;
+        }
+
+        return new Key(hash, check, length, version);
+    }
+
+    /**
+     * Vrátí uložený výsledek klasifikace dokumentu.
+     *
+     * @param key klíč záznamu
+     * @return výsledek klasifikace nebo null, pokud v mezipaměti není
+     */
+    public synchronized Classification get(Key key) {
+        updateModelVersion(key.VERSION);
+        increment(key);
+        Entry entry = ENTRIES.get(key);
+
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+
+        hitCount++;
+        savedNanos += entry.COST;
+
+        return entry.CLASSIFICATION;
+    }
+
+    /**
+     * Uloží výsledek klasifikace dokumentu. Výsledky pro starší než
+     * nejnovější zjištěnou verzi modelu nejsou ukládány.
+     *
+     * @param key klíč záznamu
+     * @param classification výsledek klasifikace
+     * @param cost doba klasifikace v nanosekundách
+     */
+    public synchronized void put(Key key, Classification classification, long cost) {
+        updateModelVersion(key.VERSION);
+
+        if (key.VERSION != modelVersion || ENTRIES.containsKey(key)) {
+            return;
+        }
+
+        Entry entry = new Entry(classification, cost);
+
+        if (entry.SIZE > MAX_BYTES || MAX_ENTRIES <= 0) {
+            return;
+        }
+
+        int frequency = estimate(key);
+        Iterator<Map.Entry<Key, Entry>> iterator = ENTRIES.entrySet().iterator();
+
+        // uvolnění místa vyřazením nejdéle nepoužitých záznamů, pokud jsou žádány méně často
+        while (ENTRIES.size() >= MAX_ENTRIES || bytes + entry.SIZE > MAX_BYTES) {
+            Map.Entry<Key, Entry> victim = iterator.next();
+
+            if (estimate(victim.getKey()) > frequency) {
+                rejectionCount++;
+                return;
+            }
+
+            iterator.remove();
+            bytes -= victim.getValue().SIZE;
+            evictionCount++;
+        }
+
+        ENTRIES.put(key, entry);
+        bytes += entry.SIZE;
+    }
+
+    /**
+     * Vrátí statistiky mezipaměti.
+     *
+     * @return mapa názvů a hodnot statistik
+     */
+    public synchronized Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        long requestCount = hitCount + missCount;
+        metrics.put("entries", ENTRIES.size());
+        metrics.put("bytes", bytes);
+        metrics.put("hits", hitCount);
+        metrics.put("misses", missCount);
+        metrics.put("hitRatio", requestCount == 0 ? 0.0 : (double) hitCount / requestCount);
+        metrics.put("evictions", evictionCount);
+        metrics.put("rejections", rejectionCount);
+        metrics.put("invalidations", invalidationCount);
+        metrics.put("savedMillis", savedNanos / 1_000_000);
+
+        return metrics;
+    }
+
+    /**
+     * Zneplatní obsah mezipaměti, pokud je zadaná verze modelu novější
+     * než dosud zjištěná.
+     *
+     * @param version verze modelu
+     */
+    private void updateModelVersion(long version) {
+        if (version <= modelVersion) {
+            return;
+        }
+
+        if (!ENTRIES.isEmpty()) {
+            ENTRIES.clear();
+            invalidationCount++;
+        }
+
+        bytes = 0;
+        modelVersion = version;
+    }
+
+    /**
+     * Přičte výskyt klíče do čítače četností a po dosažení velikosti vzorku
+     * sníží všechna počítadla na polovinu, aby převažovaly nedávné výskyty.
+     *
+     * @param key klíč záznamu
+     */
+    private void increment(Key key) {
+        for (int i = 0; i < SKETCH_DEPTH; i++) {
+            int index = getSketchIndex(key, i);
+
+            if (SKETCH[index] < SKETCH_MAX_COUNT) {
+                SKETCH[index]++;
+            }
+        }
+
+        if (++sketchAdditions == SKETCH_SAMPLE_SIZE) {
+            for (int i = 0; i < SKETCH.length; i++) {
+                SKETCH[i] >>= 1;
+            }
+
+            sketchAdditions /= 2;
+        }
+    }
+
+    /**
+     * Odhadne nedávnou četnost klíče (nejmenší z jeho počítadel).
+     *
+     * @param key klíč záznamu
+     * @return odhad četnosti
+     */
+    private int estimate(Key key) {
+        int frequency = SKETCH_MAX_COUNT;
+
+        for (int i = 0; i < SKETCH_DEPTH; i++) {
+            frequency = Math.min(frequency, SKETCH[getSketchIndex(key, i)]);
+        }
+
+        return frequency;
+    }
+
+    /**
+     * Vrátí pozici počítadla klíče v zadaném řádku čítače četností.
+     *
+     * @param key klíč záznamu
+     * @param row řádek čítače
+     * @return pozice počítadla
+     */
+    private int getSketchIndex(Key key, int row) {
+        long hash = (key.HASH + row * key.CHECK) * 0x9E3779B97F4A7C15L;
+
+        return row * (SKETCH_MASK + 1) + ((int) (hash >>> 40) & SKETCH_MASK);
+    }
+
+}
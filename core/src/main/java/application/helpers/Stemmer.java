@@ -0,0 +1,164 @@
+package application.helpers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Třída, sloužící ke stemmingu, tj. odstraňování předpon, přípon a koncovek
+ * za účelem nalezení kořene slova (stemu) při počítání četností slov
+ * v textových dokumentech, což obvykle zvyšuje spolehlivost klasifikátoru.
+ * 
+ * @author Petr Kozler
+ */
+public class Stemmer {
+    
+    /**
+     * název sekce souboru klasifikačního modelu se seznamy předpon, přípon a koncovek
+     */
+    private static final String AFFIX_SECTION = "affixes";
+    
+    /**
+     * seznam předpon
+     */
+    private final Set<String> WORD_PREFIXES;
+    
+    /**
+     * seznam přípon
+     */
+    private final Set<String> WORD_SUFIXES;
+    
+    /**
+     * seznam koncovek
+     */
+    private final Set<String> WORD_ENDINGS;
+    
+    /**
+     * Vytvoří objekt pro stemming.
+     * 
+     * @param wordPrefixLines
+     * @param wordSufixLines
+     * @param wordEndingLines
+     * @throws IOException 
+     */
+    public Stemmer(
+            List<String> wordPrefixLines, List<String> wordSufixLines, List<String> wordEndingLines)
+            throws IOException {
+        WORD_PREFIXES = new HashSet<>(wordPrefixLines);
+        WORD_SUFIXES = new HashSet<>(wordSufixLines);
+        WORD_ENDINGS = new HashSet<>(wordEndingLines);
+    }
+    
+    /**
+     * Vrátí kořen slova.
+     * 
+     * @param word slovo
+     * @return kořen slova
+     */
+    public String getWordStem(String word) {
+        // odstranění koncovky
+        for (String ending : WORD_ENDINGS) {
+            if (word.endsWith(ending)) {
+                word = word.substring(0, word.length() - ending.length());
+                
+                break;
+            }
+        }
+        
+        // odstranění přípony
+        for (String sufix : WORD_SUFIXES) {
+            if (word.endsWith(sufix)) {
+                word = word.substring(0, word.length() - sufix.length());
+                
+                break;
+            }
+        }
+        
+        // odstranění koncovky
+        for (String prefix : WORD_PREFIXES) {
+            if (word.startsWith(prefix)) {
+                word = word.substring(prefix.length() - 1);
+                
+                break;
+            }
+        }
+        
+        return word;
+    }
+    
+    /**
+     * Vrátí otisk seznamů předpon, přípon a koncovek v pořadí, v jakém jsou
+     * položky zkoušeny (na pořadí závisí nalezený kořen, protože je odstraněna
+     * první vyhovující položka).
+     * 
+     * @return otisk v šestnáctkovém zápisu
+     */
+    public String getFingerprint() {
+        return BinaryCodec.fingerprint(getAffixLists());
+    }
+    
+    /**
+     * Určí, zda má zadaný objekt stejné seznamy předpon, přípon a koncovek
+     * ve stejném pořadí zkoušení položek, tj. zda nachází stejné kořeny slov
+     * (shoda otisků to nezaručuje, protože otisky různých seznamů se mohou
+     * shodovat).
+     * 
+     * @param stemmer objekt pro stemming
+     * @return true, pokud jsou seznamy shodné
+     */
+    public boolean hasSameAffixes(Stemmer stemmer) {
+        return getAffixLists().equals(stemmer.getAffixLists());
+    }
+    
+    /**
+     * Vrátí seznamy předpon, přípon a koncovek v pořadí zkoušení položek.
+     * 
+     * @return seznamy předpon, přípon a koncovek
+     */
+    private List<List<String>> getAffixLists() {
+        List<List<String>> affixes = new ArrayList<>();
+        
+        for (Set<String> affixSet : Arrays.asList(WORD_PREFIXES, WORD_SUFIXES, WORD_ENDINGS)) {
+            affixes.add(new ArrayList<>(affixSet));
+        }
+        
+        return affixes;
+    }
+    
+    /**
+     * Zapíše seznamy předpon, přípon a koncovek do souboru klasifikačního
+     * modelu (v pořadí průchodu množinami, aby bylo po načtení zachováno
+     * pořadí zkoušení jednotlivých položek).
+     * 
+     * @param writer objekt pro zápis souboru modelu
+     * @throws IOException 
+     */
+    public void writeModel(ModelFileWriter writer) throws IOException {
+        writer.beginSection(AFFIX_SECTION);
+        writer.writeStrings(new ArrayList<>(WORD_PREFIXES));
+        writer.writeStrings(new ArrayList<>(WORD_SUFIXES));
+        writer.writeStrings(new ArrayList<>(WORD_ENDINGS));
+        writer.endSection();
+    }
+    
+    /**
+     * Načte seznamy předpon, přípon a koncovek ze souboru klasifikačního modelu.
+     * 
+     * @param reader objekt pro čtení souboru modelu
+     * @return objekt pro stemming
+     * @throws IOException 
+     */
+    public static Stemmer readModel(ModelFileReader reader) throws IOException {
+        ByteBuffer section = reader.getSection(AFFIX_SECTION);
+        List<String> wordPrefixLines = ModelFileReader.readStrings(section);
+        List<String> wordSufixLines = ModelFileReader.readStrings(section);
+        List<String> wordEndingLines = ModelFileReader.readStrings(section);
+        
+        return new Stemmer(wordPrefixLines, wordSufixLines, wordEndingLines);
+    }
+    
+}
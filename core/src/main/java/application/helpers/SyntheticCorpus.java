@@ -0,0 +1,327 @@
+package application.helpers;
+
+import application.Config;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Třída, představující korpus syntetických dokumentů generovaných podle
+ * statistik skutečného korpusu. Každý dokument je vygenerován až při jeho
+ * načtení z vlastní posloupnosti náhodných čísel odvozené od semínka
+ * a pořadového čísla dokumentu, takže korpus libovolné velikosti nezabírá
+ * paměť a stejné semínko dává vždy stejné dokumenty.
+ *
+ * Dokument dostane kombinaci tříd podle jejich četností (umocněných
+ * koeficientem nerovnoměrnosti tříd) a počet slov z logaritmicko-normálního
+ * rozdělení délek (se změněným měřítkem a rozptylem). Každé další slovo
+ * navazuje s danou pravděpodobností na předchozí slovo podle bigramů, jinak
+ * je vybráno podle četností slov hlavní nebo jiné třídy dokumentu. Zadaný
+ * podíl slov je nahrazen novými slovními tvary (slova s připojenými
+ * slabikami), jejichž počet roste úměrně velikosti korpusu.
+ *
+ * @author Petr Kozler
+ */
+public class SyntheticCorpus extends ACorpus {
+
+    /**
+     * slabiky připojované ke slovům při tvorbě nových slovních tvarů
+     */
+    private static final String[] SYLLABLES = { "ka", "ne", "lo", "vá", "ří", "st", "mu", "če",
+        "ho", "dů", "pa", "zí", "to", "by", "le", "šn" };
+
+    /**
+     * statistiky zdrojového korpusu
+     */
+    private final CorpusStatistics STATISTICS;
+
+    /**
+     * počet dokumentů
+     */
+    private final int DOCUMENT_COUNT;
+
+    /**
+     * semínko generátoru náhodných čísel
+     */
+    private final long SEED;
+
+    /**
+     * násobek střední délky dokumentu
+     */
+    private final double LENGTH_SCALE;
+
+    /**
+     * násobek směrodatné odchylky logaritmu délky dokumentu
+     */
+    private final double LENGTH_SPREAD;
+
+    /**
+     * podíl slov nahrazovaných novými slovními tvary
+     */
+    private final double NEW_WORD_RATE;
+
+    /**
+     * kumulativní váhy kombinací tříd
+     */
+    private final double[] LABEL_SET_CUMULATIVE;
+
+    /**
+     * průměrný počet slov generovaného dokumentu
+     */
+    private final double MEAN_LENGTH;
+
+    /**
+     * počet číslic pořadového čísla v názvu dokumentu
+     */
+    private final int NAME_DIGITS;
+
+    /**
+     * čas vytvoření korpusu (čas poslední změny všech dokumentů)
+     */
+    private final long MODIFIED_TIME = System.currentTimeMillis();
+
+    /**
+     * Vytvoří korpus syntetických dokumentů.
+     *
+     * @param statistics statistiky zdrojového korpusu
+     * @param documentCount počet dokumentů
+     * @param seed semínko generátoru náhodných čísel
+     * @param lengthScale násobek střední délky dokumentu
+     * @param lengthSpread násobek směrodatné odchylky logaritmu délky dokumentu
+     * (0 pro dokumenty stejné délky)
+     * @param classSkew exponent četností kombinací tříd (1 zachová rozdělení
+     * zdrojového korpusu, 0 dá všem kombinacím stejnou pravděpodobnost, větší
+     * hodnoty zvýhodní nejčastější kombinace)
+     * @param newWordRate podíl slov nahrazovaných novými slovními tvary
+     */
+    public SyntheticCorpus(CorpusStatistics statistics, int documentCount, long seed,
+            double lengthScale, double lengthSpread, double classSkew, double newWordRate) {
+        STATISTICS = statistics;
+        DOCUMENT_COUNT = documentCount;
+        SEED = seed;
+        LENGTH_SCALE = lengthScale;
+        LENGTH_SPREAD = lengthSpread;
+        NEW_WORD_RATE = newWordRate;
+        LABEL_SET_CUMULATIVE = new double[statistics.getLabelSetCount()];
+        double cumulative = 0;
+
+        for (int i = 0; i < LABEL_SET_CUMULATIVE.length; i++) {
+            cumulative += Math.pow(statistics.getLabelSetFrequency(i), classSkew);
+            LABEL_SET_CUMULATIVE[i] = cumulative;
+        }
+
+        double deviation = lengthSpread * statistics.getLogLengthDeviation();
+        MEAN_LENGTH = lengthScale * Math.exp(statistics.getLogLengthMean() + deviation * deviation / 2);
+        NAME_DIGITS = Math.max(5, String.valueOf(documentCount).length());
+    }
+
+    /**
+     * Vrátí počet dokumentů v korpusu.
+     *
+     * @return počet dokumentů
+     */
+    @Override
+    public int size() {
+        return DOCUMENT_COUNT;
+    }
+
+    /**
+     * Vrátí název dokumentu ve tvaru názvů souborů přiloženého korpusu
+     * (pořadové číslo a zkratky tříd, např. 00001_zak_pol_pod.txt).
+     *
+     * @param index pořadové číslo dokumentu
+     * @return název dokumentu
+     */
+    @Override
+    public String getName(int index) {
+        int[] labelSet = STATISTICS.getLabelSet(sampleLabelSet(createRandom(index)));
+        StringBuilder name = new StringBuilder(String.format("%0" + NAME_DIGITS + "d", index + 1));
+
+        for (int label : labelSet) {
+            name.append('_').append(STATISTICS.getLabel(label));
+        }
+
+        return name.append(".txt").toString();
+    }
+
+    /**
+     * Vrátí zkratku hlavní třídy dokumentu.
+     *
+     * @param index pořadové číslo dokumentu
+     * @return zkratka třídy
+     */
+    @Override
+    public String getClassKeyWord(int index) {
+        return STATISTICS.getLabel(STATISTICS.getLabelSet(sampleLabelSet(createRandom(index)))[0]);
+    }
+
+    /**
+     * Vrátí jednoznačný identifikátor dokumentu (jeho název).
+     *
+     * @param index pořadové číslo dokumentu
+     * @return identifikátor dokumentu
+     */
+    @Override
+    public String getPath(int index) {
+        return getName(index);
+    }
+
+    /**
+     * Vrátí velikost dokumentu v bajtech (dokument je kvůli tomu vygenerován).
+     *
+     * @param index pořadové číslo dokumentu
+     * @return velikost v bajtech
+     */
+    @Override
+    public long getSize(int index) {
+        return loadBytes(index).remaining();
+    }
+
+    /**
+     * Vrátí čas poslední změny dokumentu (čas vytvoření korpusu).
+     *
+     * @param index pořadové číslo dokumentu
+     * @return čas v milisekundách
+     */
+    @Override
+    public long getModifiedTime(int index) {
+        return MODIFIED_TIME;
+    }
+
+    /**
+     * Vygeneruje obsah dokumentu v kódování UTF-8 (slova oddělená mezerami
+     * a zakončená koncem řádku).
+     *
+     * @param index pořadové číslo dokumentu
+     * @return obsah dokumentu
+     */
+    @Override
+    public ByteBuffer loadBytes(int index) {
+        Random random = createRandom(index);
+        int[] labelSet = STATISTICS.getLabelSet(sampleLabelSet(random));
+        int length = sampleLength(random);
+        byte[] bytes = new byte[length * 8];
+        int size = 0;
+        int previous = -1;
+
+        for (int i = 0; i < length; i++) {
+            byte[] word;
+
+            if (NEW_WORD_RATE > 0 && random.nextDouble() < NEW_WORD_RATE) {
+                word = createNewWord(index, random);
+                previous = -1;
+            }
+            else {
+                int id = -1;
+
+                if (previous >= 0 && random.nextDouble() < Config.SYNTHETIC_BIGRAM_WEIGHT) {
+                    id = STATISTICS.sampleSuccessor(previous, random);
+                }
+
+                if (id < 0) {
+                    int label = random.nextDouble() < Config.SYNTHETIC_PRIMARY_CLASS_WEIGHT
+                            ? labelSet[0] : labelSet[random.nextInt(labelSet.length)];
+                    id = STATISTICS.sampleWord(label, random);
+                }
+
+                if (id < 0) {
+                    continue;
+                }
+
+                word = STATISTICS.getWordBytes(id);
+                previous = id;
+            }
+
+            // místo pro mezeru, slovo a konec řádku
+            if (size + word.length + 2 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + word.length + 2));
+            }
+
+            if (size > 0) {
+                bytes[size++] = ' ';
+            }
+
+            System.arraycopy(word, 0, bytes, size, word.length);
+            size += word.length;
+        }
+
+        bytes[size++] = '\n';
+
+        return ByteBuffer.wrap(bytes, 0, size);
+    }
+
+    /**
+     * Vytvoří generátor náhodných čísel dokumentu.
+     *
+     * @param index pořadové číslo dokumentu
+     * @return generátor náhodných čísel
+     */
+    private Random createRandom(int index) {
+        // promíchání bitů (SplitMix64), první čísla generátorů s po sobě jdoucími semínky by si byla podobná
+        long seed = SEED * 0x9E3779B97F4A7C15L + index;
+        seed = (seed ^ (seed >>> 30)) * 0xBF58476D1CE4E5B9L;
+        seed = (seed ^ (seed >>> 27)) * 0x94D049BB133111EBL;
+
+        return new Random(seed ^ (seed >>> 31));
+    }
+
+    /**
+     * Vybere kombinaci tříd dokumentu (první náhodné číslo dokumentu).
+     *
+     * @param random generátor náhodných čísel dokumentu
+     * @return index kombinace tříd
+     */
+    private int sampleLabelSet(Random random) {
+        double target = random.nextDouble() * LABEL_SET_CUMULATIVE[LABEL_SET_CUMULATIVE.length - 1];
+        int position = Arrays.binarySearch(LABEL_SET_CUMULATIVE, target);
+        position = position >= 0 ? position + 1 : -position - 1;
+
+        return Math.min(position, LABEL_SET_CUMULATIVE.length - 1);
+    }
+
+    /**
+     * Vybere počet slov dokumentu.
+     *
+     * @param random generátor náhodných čísel dokumentu
+     * @return počet slov
+     */
+    private int sampleLength(Random random) {
+        double logLength = STATISTICS.getLogLengthMean() + Math.log(LENGTH_SCALE)
+                + LENGTH_SPREAD * STATISTICS.getLogLengthDeviation() * random.nextGaussian();
+
+        return (int) Math.max(1, Math.min(Config.SYNTHETIC_MAX_DOCUMENT_WORDS, Math.round(Math.exp(logLength))));
+    }
+
+    /**
+     * Vytvoří nový slovní tvar. Tvary jsou očíslovány a číslo je vybráno
+     * z rozsahu úměrného počtu slov vygenerovaných před dokumentem, s vyšší
+     * pravděpodobností nižších čísel (dříve vzniklé tvary se opakují častěji).
+     * Tvar se skládá z písmen na začátku slova slovníku určeného číslem tvaru
+     * a slabik kódujících číslo tvaru.
+     *
+     * @param index pořadové číslo dokumentu
+     * @param random generátor náhodných čísel dokumentu
+     * @return nový slovní tvar v kódování UTF-8
+     */
+    private byte[] createNewWord(int index, Random random) {
+        long poolSize = Math.max(1, (long) (NEW_WORD_RATE * MEAN_LENGTH * (index + 1.0)));
+        double position = random.nextDouble();
+        long number = (long) (poolSize * position * position);
+        String base = STATISTICS.getWord((int) Math.floorMod(number * 0x9E3779B97F4A7C15L,
+                (long) STATISTICS.getVocabularySize()));
+        StringBuilder word = new StringBuilder();
+
+        for (int i = 0; i < base.length() && Character.isLetter(base.charAt(i)); i++) {
+            word.append(base.charAt(i));
+        }
+
+        do {
+            word.append(SYLLABLES[(int) (number & 15)]);
+            number >>>= 4;
+        } while (number != 0);
+
+        return word.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,466 @@
+package application.helpers;
+
+import application.containers.MutableInt;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Třída, představující perzistentní mezipaměť četností slov v dokumentech
+ * korpusu. Záznamy jsou identifikovány cestou k souboru, jeho velikostí
+ * a časem poslední změny a celá mezipaměť je vázána na konfiguraci čítače
+ * slov, kterým byly četnosti spočítány (úplný klíč konfigurace je uložen
+ * v souboru a porovnán při načítání). Soubor mezipaměti je při načítání
+ * namapován do paměti a četnosti jednotlivých dokumentů jsou dekódovány
+ * až při požadavku. Namapovaný soubor nelze na některých systémech
+ * přepsat, a proto je mezipaměť ukládána vždy do souboru s novým číslem
+ * generace a starší soubory jsou poté odstraněny.
+ *
+ * Formát souboru: hlavička (magické číslo, verze, klíč konfigurace čítače),
+ * tabulka slov (počet a slova v kódování UTF-8) a záznamy dokumentů (cesta,
+ * velikost, čas změny, délka dat, počet slov a dvojice index slova - četnost
+ * kódované jako čísla s proměnnou délkou).
+ *
+ * @author Petr Kozler
+ */
+public class WordCountCache {
+
+    /**
+     * magické číslo identifikující soubor mezipaměti
+     */
+    private static final int MAGIC = 0x44435743;
+
+    /**
+     * verze formátu souboru mezipaměti
+     */
+    private static final short VERSION = 1;
+
+    /**
+     * oddělovač klíče konfigurace a čísla generace v názvu souboru mezipaměti
+     */
+    private static final String GENERATION_SEPARATOR = ".";
+
+    /**
+     * adresář se soubory mezipaměti
+     */
+    private final Path DIRECTORY;
+
+    /**
+     * přípona souboru mezipaměti
+     */
+    private final String EXTENSION;
+
+    /**
+     * klíč konfigurace čítače slov
+     */
+    private final String CONFIGURATION_KEY;
+
+    /**
+     * záznamy načtené ze souboru mezipaměti podle cest k dokumentům
+     */
+    private final Map<String, Entry> LOADED_ENTRIES = new HashMap<>();
+
+    /**
+     * záznamy, které budou zapsány při uložení mezipaměti (použité nebo nově spočtené)
+     */
+    private final Map<String, Entry> RETAINED_ENTRIES = new LinkedHashMap<>();
+
+    /**
+     * tabulka slov načtená ze souboru mezipaměti
+     */
+    private String[] terms = new String[0];
+
+    /**
+     * namapovaný obsah souboru mezipaměti
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * nejvyšší číslo generace nalezeného souboru mezipaměti (nebo -1)
+     */
+    private long generation = -1;
+
+    /**
+     * počet dokumentů nalezených v mezipaměti
+     */
+    private int hitCount;
+
+    /**
+     * počet dokumentů, které v mezipaměti chyběly nebo byly změněny
+     */
+    private int missCount;
+
+    /**
+     * Třída, představující záznam jednoho dokumentu v mezipaměti.
+     */
+    private static class Entry {
+
+        /**
+         * velikost souboru dokumentu
+         */
+        final long SIZE;
+
+        /**
+         * čas poslední změny souboru dokumentu
+         */
+        final long MODIFIED;
+
+        /**
+         * pozice zakódovaných četností v namapovaném souboru (nebo -1)
+         */
+        final int OFFSET;
+
+        /**
+         * četnosti slov nově zpracovaného dokumentu (null pro záznam načtený ze souboru)
+         */
+        final Map<String, MutableInt> WORD_COUNTS;
+
+        /**
+         * Vytvoří záznam dokumentu.
+         *
+         * @param size velikost souboru
+         * @param modified čas poslední změny souboru
+         * @param offset pozice zakódovaných četností
+         * @param wordCounts četnosti slov
+         */
+        Entry(long size, long modified, int offset, Map<String, MutableInt> wordCounts) {
+            SIZE = size;
+            MODIFIED = modified;
+            OFFSET = offset;
+            WORD_COUNTS = wordCounts;
+        }
+
+    }
+
+    /**
+     * Vytvoří mezipaměť pro zadanou konfiguraci čítače slov a načte
+     * existující soubor mezipaměti, pokud odpovídá této konfiguraci.
+     *
+     * @param directory adresář se soubory mezipaměti
+     * @param configurationKey klíč konfigurace čítače slov
+     * @param extension přípona souboru mezipaměti
+     * @throws IOException
+     */
+    public WordCountCache(String directory, String configurationKey, String extension)
+            throws IOException {
+        DIRECTORY = Paths.get(directory).toAbsolutePath();
+        EXTENSION = extension;
+        CONFIGURATION_KEY = configurationKey;
+
+        List<Path> files = listCacheFiles();
+        files.sort(Comparator.comparingLong(this::getGeneration).reversed());
+
+        // načtení nejnovějšího čitelného souboru
+        for (Path file : files) {
+            generation = Math.max(generation, getGeneration(file));
+
+            try {
+                load(file);
+                break;
+            }
+            catch (IOException | RuntimeException ex) {
+                // poškozený nebo nekompatibilní soubor je ignorován a bude nahrazen
+                LOADED_ENTRIES.clear();
+                buffer = null;
+            }
+        }
+    }
+
+    /**
+     * Vrátí četnosti slov dokumentu uložené v mezipaměti, pokud se soubor
+     * dokumentu od jejich uložení nezměnil.
+     *
+     * @param path cesta k dokumentu
+     * @param size velikost souboru dokumentu
+     * @param modified čas poslední změny souboru dokumentu
+     * @return četnosti slov nebo null, pokud dokument v mezipaměti není
+     */
+    public Map<String, MutableInt> get(String path, long size, long modified) {
+        Entry entry = LOADED_ENTRIES.get(path);
+
+        if (entry == null || entry.SIZE != size || entry.MODIFIED != modified) {
+            missCount++;
+            return null;
+        }
+
+        hitCount++;
+        RETAINED_ENTRIES.put(path, entry);
+
+        // dekódované četnosti nejsou uchovávány, takže je lze vrátit bez kopírování
+        return decodeWordCounts(entry.OFFSET);
+    }
+
+    /**
+     * Uloží do mezipaměti četnosti slov nově zpracovaného dokumentu.
+     *
+     * @param path cesta k dokumentu
+     * @param size velikost souboru dokumentu
+     * @param modified čas poslední změny souboru dokumentu
+     * @param wordCounts četnosti slov
+     */
+    public void put(String path, long size, long modified, Map<String, MutableInt> wordCounts) {
+        RETAINED_ENTRIES.put(path, new Entry(size, modified, -1, copyWordCounts(wordCounts)));
+    }
+
+    /**
+     * Vrátí počet dokumentů nalezených v mezipaměti.
+     *
+     * @return počet nalezených dokumentů
+     */
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Vrátí počet dokumentů, které v mezipaměti chyběly.
+     *
+     * @return počet chybějících dokumentů
+     */
+    public int getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Zapíše do souboru mezipaměti všechny záznamy použité nebo vytvořené
+     * od jejího otevření. Zápis probíhá do dočasného souboru, který je poté
+     * přejmenován na soubor nové generace (namapovaný soubor předchozí
+     * generace není přepisován), a starší soubory jsou odstraněny.
+     *
+     * @throws IOException
+     */
+    public void save() throws IOException {
+        List<Map<String, MutableInt>> retainedWordCounts = new ArrayList<>(RETAINED_ENTRIES.size());
+        Map<String, Integer> termIndices = new HashMap<>();
+        List<String> termList = new ArrayList<>();
+
+        for (Entry entry : RETAINED_ENTRIES.values()) {
+            Map<String, MutableInt> wordCounts = entry.WORD_COUNTS != null
+                    ? entry.WORD_COUNTS : decodeWordCounts(entry.OFFSET);
+            retainedWordCounts.add(wordCounts);
+
+            for (String word : wordCounts.keySet()) {
+                if (!termIndices.containsKey(word)) {
+                    termIndices.put(word, termList.size());
+                    termList.add(word);
+                }
+            }
+        }
+
+        Files.createDirectories(DIRECTORY);
+        Path temporaryFile = Files.createTempFile(DIRECTORY, "cache", ".tmp");
+
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(temporaryFile)))) {
+            dos.writeInt(MAGIC);
+            dos.writeShort(VERSION);
+            BinaryCodec.writeString(dos, CONFIGURATION_KEY);
+
+            dos.writeInt(termList.size());
+
+            for (String term : termList) {
+                BinaryCodec.writeString(dos, term);
+            }
+
+            dos.writeInt(RETAINED_ENTRIES.size());
+
+            int i = 0;
+
+            for (Map.Entry<String, Entry> retainedEntry : RETAINED_ENTRIES.entrySet()) {
+                Entry entry = retainedEntry.getValue();
+                byte[] data = encodeWordCounts(retainedWordCounts.get(i++), termIndices);
+
+                BinaryCodec.writeString(dos, retainedEntry.getKey());
+                dos.writeLong(entry.SIZE);
+                dos.writeLong(entry.MODIFIED);
+                dos.writeInt(data.length);
+                dos.write(data);
+            }
+        }
+
+        generation++;
+        Files.move(temporaryFile, getCacheFile(generation), StandardCopyOption.REPLACE_EXISTING);
+
+        // záznamy odkazují nově do souboru nové generace
+        load(getCacheFile(generation));
+        RETAINED_ENTRIES.clear();
+        RETAINED_ENTRIES.putAll(LOADED_ENTRIES);
+
+        for (Path file : listCacheFiles()) {
+            if (getGeneration(file) < generation) {
+                try {
+                    Files.deleteIfExists(file);
+                }
+                catch (IOException ex) {
+                    // soubor může být ještě namapován, bude odstraněn při příštím uložení
+                }
+            }
+        }
+    }
+
+    /**
+     * Vrátí cestu k souboru mezipaměti zadané generace.
+     *
+     * @param fileGeneration číslo generace
+     * @return cesta k souboru
+     */
+    private Path getCacheFile(long fileGeneration) {
+        return DIRECTORY.resolve(CONFIGURATION_KEY + GENERATION_SEPARATOR + fileGeneration + EXTENSION);
+    }
+
+    /**
+     * Vrátí číslo generace souboru mezipaměti podle jeho názvu.
+     *
+     * @param file cesta k souboru
+     * @return číslo generace
+     */
+    private long getGeneration(Path file) {
+        String name = file.getFileName().toString();
+
+        return Long.parseLong(name.substring(CONFIGURATION_KEY.length() + GENERATION_SEPARATOR.length(),
+                name.length() - EXTENSION.length()));
+    }
+
+    /**
+     * Vyhledá soubory mezipaměti všech generací pro konfiguraci čítače slov.
+     *
+     * @return seznam cest k souborům
+     * @throws IOException
+     */
+    private List<Path> listCacheFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+
+        if (!Files.isDirectory(DIRECTORY)) {
+            return files;
+        }
+
+        String prefix = CONFIGURATION_KEY + GENERATION_SEPARATOR;
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(DIRECTORY)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+
+                if (name.startsWith(prefix) && name.endsWith(EXTENSION)
+                        && name.length() > prefix.length() + EXTENSION.length()
+                        && name.substring(prefix.length(), name.length() - EXTENSION.length())
+                                .chars().allMatch(Character::isDigit)) {
+                    files.add(file);
+                }
+            }
+        }
+
+        return files;
+    }
+
+    /**
+     * Namapuje soubor mezipaměti do paměti a načte tabulku slov a index
+     * záznamů dokumentů (bez dekódování samotných četností).
+     *
+     * @param file cesta k souboru mezipaměti
+     * @throws IOException
+     */
+    private void load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (mapped.getInt() != MAGIC || mapped.getShort() != VERSION
+                    || !CONFIGURATION_KEY.equals(BinaryCodec.readString(mapped))) {
+                throw new IOException("Soubor mezipaměti neodpovídá konfiguraci čítače slov: " + file);
+            }
+
+            LOADED_ENTRIES.clear();
+
+            terms = new String[mapped.getInt()];
+
+            for (int i = 0; i < terms.length; i++) {
+                terms[i] = BinaryCodec.readString(mapped);
+            }
+
+            int entryCount = mapped.getInt();
+
+            for (int i = 0; i < entryCount; i++) {
+                String path = BinaryCodec.readString(mapped);
+                long size = mapped.getLong();
+                long modified = mapped.getLong();
+                int length = mapped.getInt();
+
+                LOADED_ENTRIES.put(path, new Entry(size, modified, mapped.position(), null));
+                mapped.position(mapped.position() + length);
+            }
+
+            buffer = mapped;
+        }
+    }
+
+    /**
+     * Dekóduje četnosti slov dokumentu z namapovaného souboru.
+     *
+     * @param offset pozice zakódovaných četností
+     * @return četnosti slov
+     */
+    private Map<String, MutableInt> decodeWordCounts(int offset) {
+        ByteBuffer data = buffer.duplicate();
+        data.position(offset);
+
+        int wordCount = BinaryCodec.readVarInt(data);
+        Map<String, MutableInt> wordCounts = new HashMap<>(wordCount * 2);
+
+        for (int i = 0; i < wordCount; i++) {
+            String term = terms[BinaryCodec.readVarInt(data)];
+            wordCounts.put(term, new MutableInt(BinaryCodec.readVarInt(data)));
+        }
+
+        return wordCounts;
+    }
+
+    /**
+     * Zakóduje četnosti slov dokumentu s použitím indexů do tabulky slov.
+     *
+     * @param wordCounts četnosti slov
+     * @param termIndices indexy slov v tabulce slov
+     * @return zakódované četnosti
+     */
+    private byte[] encodeWordCounts(Map<String, MutableInt> wordCounts, Map<String, Integer> termIndices) {
+        ByteArrayOutputStream data = new ByteArrayOutputStream(5 + wordCounts.size() * 4);
+        BinaryCodec.writeVarInt(data, wordCounts.size());
+
+        for (Map.Entry<String, MutableInt> wordCount : wordCounts.entrySet()) {
+            BinaryCodec.writeVarInt(data, termIndices.get(wordCount.getKey()));
+            BinaryCodec.writeVarInt(data, wordCount.getValue().get());
+        }
+
+        return data.toByteArray();
+    }
+
+    /**
+     * Vytvoří kopii mapy četností slov.
+     *
+     * @param wordCounts četnosti slov
+     * @return kopie četností slov
+     */
+    private Map<String, MutableInt> copyWordCounts(Map<String, MutableInt> wordCounts) {
+        Map<String, MutableInt> copy = new HashMap<>(wordCounts.size() * 2);
+
+        wordCounts.entrySet().stream().forEach((wordCount) -> {
+            copy.put(wordCount.getKey(), new MutableInt(wordCount.getValue().get()));
+        });
+
+        return copy;
+    }
+
+}
@@ -2,7 +2,9 @@
 
 import application.Config;
 import application.containers.MutableInt;
-import java.io.Serializable;
+import application.helpers.ModelFileReader;
+import application.helpers.ModelFileWriter;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -15,7 +17,7 @@ import java.util.Map;
  * 
  * @author Petr Kozler
  */
-public abstract class AWordCounter implements Serializable {
+public abstract class AWordCounter {
     
     /**
      * Spočítá četnosti slov v textu dokumentu.
@@ -53,6 +55,62 @@ public abstract class AWordCounter implements Serializable {
         return wordCounts;
     }
     
+    /**
+     * Vrátí klíč konfigurace čítače slov, který se změní při každé změně
+     * nastavení ovlivňujícího výsledné četnosti slov (slouží k rozlišení
+     * uložených četností v mezipaměti korpusu).
+     * 
+     * @return klíč konfigurace
+     */
+    public String getConfigurationKey() {
+        return getClass().getSimpleName();
+    }
+    
+    /**
+     * Určí, zda zadaný čítač slov počítá četnosti slov stejně jako tento
+     * čítač (stejný algoritmus a shodné pomocné objekty). Shoda klíčů
+     * konfigurace to nezaručuje, protože otisky různých seznamů se mohou
+     * shodovat.
+     * 
+     * @param wordCounter čítač slov
+     * @return true, pokud čítače počítají četnosti slov stejně
+     */
+    public boolean hasSameConfiguration(AWordCounter wordCounter) {
+        return getClass() == wordCounter.getClass();
+    }
+    
+    /**
+     * Nahradí pomocné objekty čítače slov (seznamy stop-slov, předpon,
+     * přípon a koncovek) shodnými objekty jiných načtených modelů, aby
+     * byly v paměti uloženy jen jednou. Dosud neuložené objekty jsou
+     * do mapy sdílených objektů přidány.
+     *
+     * @param components sdílené objekty podle druhu a otisku
+     */
+    public void shareComponents(Map<String, Object> components) {
+        // žádný kód
+    }
+    
+    /**
+     * Zapíše nastavení čítače slov do souboru klasifikačního modelu.
+     * 
+     * @param writer objekt pro zápis souboru modelu
+     * @throws IOException 
+     */
+    public void writeModel(ModelFileWriter writer) throws IOException {
+        // žádný kód
+    }
+    
+    /**
+     * Načte nastavení čítače slov ze souboru klasifikačního modelu.
+     * 
+     * @param reader objekt pro čtení souboru modelu
+     * @throws IOException 
+     */
+    public void readModel(ModelFileReader reader) throws IOException {
+        // žádný kód
+    }
+    
     /**
      * Rozdělí textu dokumentu na slova.
      * 
@@ -0,0 +1,114 @@
+package application.parameterisation;
+
+import application.helpers.ModelFileReader;
+import application.helpers.ModelFileWriter;
+import application.helpers.PosTagger;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Třída, představující čítač slov, který v průběhu počítání využívá tzv.
+ * PoS tagger za účelem rozlišení slov v textu na slova významová (nesoucí
+ * užitečnou informaci z hlediska klasifikace) a slova nevýznamová (stop-slova),
+ * jejichž výskyty jsou ignorovány a nejsou tak součástí popisů dokumentů.
+ *
+ * @author Petr Kozler
+ */
+public class PosTaggingWordCounter extends AWordCounter {
+    
+    /**
+     * objekt pro označování stop slov
+     */
+    protected PosTagger posTagger;
+
+    /**
+     * Vrátí upravený tvar slova pro zařazení do mapy slov a četností.
+     * Úprava zahrnuje odstraňování stop-slov.
+     * 
+     * @param word slovo
+     * @return upravený tvar slova nebo null, pokud bylo slovo odstraněno jako nevýznamné
+     */
+    protected String getRelevantWord(String word) {
+        // vynechání stop-slov (předložky, spojky atd.)
+        if (posTagger.isStopWord(word)) {
+            return null;
+        }
+        
+        return word;
+    }
+    
+    /**
+     * Vrátí klíč konfigurace čítače slov včetně otisku seznamu stop-slov.
+     * 
+     * @return klíč konfigurace
+     */
+    @Override
+    public String getConfigurationKey() {
+        return super.getConfigurationKey() + "-" + posTagger.getFingerprint();
+    }
+    
+    /**
+     * Určí, zda zadaný čítač slov počítá četnosti slov stejně jako tento
+     * čítač (stejný algoritmus a stejný seznam stop-slov).
+     * 
+     * @param wordCounter čítač slov
+     * @return true, pokud čítače počítají četnosti slov stejně
+     */
+    @Override
+    public boolean hasSameConfiguration(AWordCounter wordCounter) {
+        return super.hasSameConfiguration(wordCounter)
+                && posTagger.hasSameStopWords(((PosTaggingWordCounter) wordCounter).posTagger);
+    }
+    
+    /**
+     * Nahradí seznam stop-slov shodným seznamem jiného načteného modelu.
+     * 
+     * @param components sdílené objekty podle druhu a otisku
+     */
+    @Override
+    public void shareComponents(Map<String, Object> components) {
+        PosTagger sharedPosTagger = (PosTagger) components.computeIfAbsent(
+                "stop-words-" + posTagger.getFingerprint(), key -> posTagger);
+        
+        // při shodě otisků různých seznamů zůstane vlastní seznam
+        if (sharedPosTagger.hasSameStopWords(posTagger)) {
+            posTagger = sharedPosTagger;
+        }
+    }
+    
+    /**
+     * Zapíše seznam stop-slov do souboru klasifikačního modelu.
+     * 
+     * @param writer objekt pro zápis souboru modelu
+     * @throws IOException 
+     */
+    @Override
+    public void writeModel(ModelFileWriter writer) throws IOException {
+        posTagger.writeModel(writer);
+    }
+    
+    /**
+     * Načte seznam stop-slov ze souboru klasifikačního modelu.
+     * 
+     * @param reader objekt pro čtení souboru modelu
+     * @throws IOException 
+     */
+    @Override
+    public void readModel(ModelFileReader reader) throws IOException {
+        posTagger = PosTagger.readModel(reader);
+    }
+    
+    /**
+     * Vytvoří čítač slov s PoS taggingem pro detekci stop-slov.
+     * 
+     * @param posTagger objekt pro detekci stop-slov
+     * @return čítač slov
+     */
+    public static AWordCounter CreateWordCounter(PosTagger posTagger) {
+        PosTaggingWordCounter wordCounter = new PosTaggingWordCounter();
+        wordCounter.posTagger = posTagger;
+        
+        return wordCounter;
+    }
+    
+}
@@ -0,0 +1,150 @@
+package application.parameterisation;
+
+import application.helpers.ModelFileReader;
+import application.helpers.ModelFileWriter;
+import application.helpers.PosTagger;
+import application.helpers.Stemmer;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Třída, představující čítač slov, který v průběhu počítání využívá jednak
+ * PoS tagger pro detekci nevýznamových slov, a jednak tzv. stemmer, umožňující
+ * redukovat slova na jejich základy (stemy) odstraněním pro klasifikaci
+ * nevýznamných částí (jako jsou předpony nebo přípony, popř. koncovky),
+ * přičemž výskyt rozdílných slov majících stejný základ je vyhodnocován
+ * jako vícenásobný výskyt jednoho a téhož slova.
+ * 
+ * @author Petr Kozler
+ */
+public class StemDetectingWordCounter extends AWordCounter {
+    
+    /**
+     * objekt pro označování stop slov
+     */
+    protected PosTagger posTagger;
+    
+    /**
+     * objekt pro nalezení kořenů slov
+     */
+    protected Stemmer stemmer;
+
+    /**
+     * Vrátí upravený tvar slova pro zařazení do mapy slov a četností.
+     * Úprava zahrnuje odstraňování stop-slov nalezení stemu (základu) slova.
+     * 
+     * @param word slovo
+     * @return upravený tvar slova nebo null, pokud bylo slovo odstraněno jako nevýznamné
+     */
+    protected String getRelevantWord(String word) {
+        // vynechání stop-slov (předložky, spojky atd.)
+        if (posTagger.isStopWord(word)) {
+            return null;
+        }
+
+        // nalezení kořene slova
+        word = stemmer.getWordStem(word);
+        
+        if (word.isEmpty()) {
+            return null;
+        }
+
+        return word;
+    }
+    
+    /**
+     * Vrátí klíč konfigurace čítače slov včetně otisků seznamu stop-slov
+     * a seznamů předpon, přípon a koncovek.
+     * 
+     * @return klíč konfigurace
+     */
+    @Override
+    public String getConfigurationKey() {
+        return super.getConfigurationKey() + "-" + posTagger.getFingerprint()
+                + "-" + stemmer.getFingerprint();
+    }
+    
+    /**
+     * Určí, zda zadaný čítač slov počítá četnosti slov stejně jako tento
+     * čítač (stejný algoritmus, seznam stop-slov a seznamy předpon, přípon
+     * a koncovek).
+     * 
+     * @param wordCounter čítač slov
+     * @return true, pokud čítače počítají četnosti slov stejně
+     */
+    @Override
+    public boolean hasSameConfiguration(AWordCounter wordCounter) {
+        if (!super.hasSameConfiguration(wordCounter)) {
+            return false;
+        }
+        
+        StemDetectingWordCounter other = (StemDetectingWordCounter) wordCounter;
+        
+        return posTagger.hasSameStopWords(other.posTagger) && stemmer.hasSameAffixes(other.stemmer);
+    }
+    
+    /**
+     * Nahradí seznam stop-slov a seznamy předpon, přípon a koncovek shodnými
+     * seznamy jiných načtených modelů.
+     * 
+     * @param components sdílené objekty podle druhu a otisku
+     */
+    @Override
+    public void shareComponents(Map<String, Object> components) {
+        PosTagger sharedPosTagger = (PosTagger) components.computeIfAbsent(
+                "stop-words-" + posTagger.getFingerprint(), key -> posTagger);
+        Stemmer sharedStemmer = (Stemmer) components.computeIfAbsent(
+                "affixes-" + stemmer.getFingerprint(), key -> stemmer);
+        
+        // při shodě otisků různých seznamů zůstanou vlastní seznamy
+        if (sharedPosTagger.hasSameStopWords(posTagger)) {
+            posTagger = sharedPosTagger;
+        }
+        
+        if (sharedStemmer.hasSameAffixes(stemmer)) {
+            stemmer = sharedStemmer;
+        }
+    }
+    
+    /**
+     * Zapíše seznam stop-slov a seznamy předpon, přípon a koncovek do souboru
+     * klasifikačního modelu.
+     * 
+     * @param writer objekt pro zápis souboru modelu
+     * @throws IOException 
+     */
+    @Override
+    public void writeModel(ModelFileWriter writer) throws IOException {
+        posTagger.writeModel(writer);
+        stemmer.writeModel(writer);
+    }
+    
+    /**
+     * Načte seznam stop-slov a seznamy předpon, přípon a koncovek ze souboru
+     * klasifikačního modelu.
+     * 
+     * @param reader objekt pro čtení souboru modelu
+     * @throws IOException 
+     */
+    @Override
+    public void readModel(ModelFileReader reader) throws IOException {
+        posTagger = PosTagger.readModel(reader);
+        stemmer = Stemmer.readModel(reader);
+    }
+    
+    /**
+     * Vytvoří čítač slov s PoS taggingem a stemmingem.
+     * 
+     * @param posTagger objekt pro detekci stop-slov
+     * @param stemmer objekt pro hledání stemů slov
+     * @return čítač slov
+     */
+    public static AWordCounter CreateWordCounter(PosTagger posTagger, Stemmer stemmer) {
+        StemDetectingWordCounter wordCounter = new StemDetectingWordCounter();
+        wordCounter.posTagger = posTagger;
+        wordCounter.stemmer = stemmer;
+        
+        return wordCounter;
+    }
+    
+}
@@ -0,0 +1,506 @@
+package application.parameterisation;
+
+import application.Config;
+import application.containers.MutableInt;
+import application.containers.TermCounts;
+import application.containers.Vocabulary;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Třída, představující tokenizér, který počítá četnosti slov přímo nad
+ * bajty textu v kódování UTF-8 (v libovolném bufferu - na haldě, přímém
+ * nebo namapovaném ze souboru) bez předchozího převodu na řetězec.
+ * Znaky tvořící slova jsou rozpoznávány tabulkou sestavenou ze znaků
+ * {@link Config#WORD_ALPHA_CHARACTERS}, takže výsledek je shodný
+ * s rozdělením textu regulárním výrazem {@link Config#WORD_NOT_ALPHA_REGEX}.
+ *
+ * Nalezená slova jsou hašována jako úseky bajtů do slovníku termů,
+ * řetězec je vytvořen (a upraven čítačem slov) pouze při prvním výskytu
+ * slova. Je-li zadán slovník klasifikačního modelu, je při prvním výskytu
+ * určen i index upraveného tvaru ve slovníku a četnosti lze počítat přímo
+ * do indexů slov bez alokace paměti. Tokenizér může mít i více slovníků
+ * (modelů se stejným čítačem slov), jeden průchod textem pak spočítá
+ * četnosti pro všechny slovníky. Objekt uchovává stav, a proto smí být
+ * používán jen jedním vláknem současně.
+ *
+ * @author Petr Kozler
+ */
+public class Utf8Tokenizer {
+
+    /**
+     * maximální počet termů ve slovníku, po jehož překročení je slovník vyprázdněn
+     */
+    private static final int MAX_TERM_COUNT = 1 << 20;
+
+    /**
+     * tabulka kódových bodů (do U+07FF, tj. jedno- a dvoubajtových sekvencí) tvořících slova
+     */
+    private static final boolean[] WORD_CODE_POINTS = new boolean[0x800];
+
+    static {
+        for (char c : Config.WORD_ALPHA_CHARACTERS.toCharArray()) {
+            if (c < WORD_CODE_POINTS.length) {
+                WORD_CODE_POINTS[c] = true;
+            }
+        }
+    }
+
+    /**
+     * čítač slov, jehož úprava slov je na nalezené termy aplikována
+     */
+    private final AWordCounter WORD_COUNTER;
+
+    /**
+     * slovníky klasifikačních modelů (prázdné pole pro počítání bez slovníku)
+     */
+    private final Vocabulary[] VOCABULARIES;
+
+    /**
+     * četnosti slov právě zpracovávaného dokumentu podle indexů v jednotlivých
+     * slovnících (sčítají různé termy se stejným upraveným tvarem)
+     */
+    private final int[][] VOCABULARY_COUNTS;
+
+    /**
+     * pole pro předání četností slov jediného slovníku
+     */
+    private final TermCounts[] SINGLE_TERM_COUNTS = new TermCounts[1];
+
+    /**
+     * hašovací tabulka s otevřenou adresací obsahující indexy termů (-1 pro volné místo)
+     */
+    private int[] table;
+
+    /**
+     * bajty všech termů uložené za sebou
+     */
+    private byte[] termBytes = new byte[1 << 16];
+
+    /**
+     * pozice termů v poli bajtů
+     */
+    private int[] termOffsets = new int[1 << 12];
+
+    /**
+     * délky termů v bajtech
+     */
+    private int[] termLengths = new int[1 << 12];
+
+    /**
+     * haše termů
+     */
+    private int[] termHashes = new int[1 << 12];
+
+    /**
+     * upravené tvary termů (null pro nevýznamná slova)
+     */
+    private String[] relevantWords = new String[1 << 12];
+
+    /**
+     * indexy upravených tvarů termů v jednotlivých slovnících (-1 pro slova mimo slovník)
+     */
+    private int[][] vocabularyIds;
+
+    /**
+     * počet termů ve slovníku
+     */
+    private int termCount;
+
+    /**
+     * obsazená velikost pole bajtů termů
+     */
+    private int termBytesLength;
+
+    /**
+     * četnosti termů v právě zpracovávaném dokumentu
+     */
+    private int[] counts = new int[1 << 12];
+
+    /**
+     * indexy termů nalezených v právě zpracovávaném dokumentu
+     */
+    private int[] foundTerms = new int[1 << 10];
+
+    /**
+     * vyrovnávací pole pro bajty právě čteného slova
+     */
+    private byte[] token = new byte[256];
+
+    /**
+     * Vytvoří tokenizér pro zadaný čítač slov.
+     *
+     * @param wordCounter čítač slov
+     */
+    public Utf8Tokenizer(AWordCounter wordCounter) {
+        this(wordCounter, (Vocabulary) null);
+    }
+
+    /**
+     * Vytvoří tokenizér pro zadaný čítač slov a slovník klasifikačního modelu.
+     *
+     * @param wordCounter čítač slov
+     * @param vocabulary slovník klasifikačního modelu (nebo null)
+     */
+    public Utf8Tokenizer(AWordCounter wordCounter, Vocabulary vocabulary) {
+        this(wordCounter, vocabulary == null
+                ? Collections.<Vocabulary>emptyList() : Collections.singletonList(vocabulary));
+    }
+
+    /**
+     * Vytvoří tokenizér pro zadaný čítač slov a slovníky klasifikačních
+     * modelů, které tento čítač slov používají.
+     *
+     * @param wordCounter čítač slov
+     * @param vocabularies slovníky klasifikačních modelů
+     */
+    public Utf8Tokenizer(AWordCounter wordCounter, List<Vocabulary> vocabularies) {
+        WORD_COUNTER = wordCounter;
+        VOCABULARIES = vocabularies.toArray(new Vocabulary[0]);
+        VOCABULARY_COUNTS = new int[VOCABULARIES.length][];
+        vocabularyIds = new int[VOCABULARIES.length][];
+
+        for (int k = 0; k < VOCABULARIES.length; k++) {
+            VOCABULARY_COUNTS[k] = new int[VOCABULARIES[k].size()];
+            vocabularyIds[k] = new int[1 << 12];
+        }
+
+        table = new int[1 << 13];
+        Arrays.fill(table, -1);
+    }
+
+    /**
+     * Spočítá četnosti slov v textu dokumentu zadaném jako bajty v kódování
+     * UTF-8 mezi aktuální pozicí a limitem bufferu (pozice bufferu se nemění).
+     *
+     * @param bytes text dokumentu
+     * @return mapa slov nalezených v dokumentu a jejich četností
+     */
+    public Map<String, MutableInt> countWords(ByteBuffer bytes) {
+        int foundCount = scan(bytes);
+        Map<String, MutableInt> wordCounts = new HashMap<>(foundCount * 2);
+
+        for (int j = 0; j < foundCount; j++) {
+            int term = foundTerms[j];
+            String word = relevantWords[term];
+            MutableInt count = wordCounts.get(word);
+
+            // různé tvary slova se stejným upraveným tvarem jsou sečteny
+            if (count == null) {
+                wordCounts.put(word, new MutableInt(counts[term]));
+            }
+            else {
+                count.add(counts[term]);
+            }
+
+            counts[term] = 0;
+        }
+
+        if (termCount > MAX_TERM_COUNT) {
+            clear();
+        }
+
+        return wordCounts;
+    }
+
+    /**
+     * Spočítá četnosti slov ze slovníku klasifikačního modelu v textu
+     * dokumentu zadaném jako bajty v kódování UTF-8 (slova mimo slovník
+     * jsou vynechána). Po zahřátí nedochází k žádné alokaci paměti.
+     *
+     * @param bytes text dokumentu
+     * @param termCounts objekt pro uložení četností slov podle indexů ve slovníku
+     */
+    public void countTerms(ByteBuffer bytes, TermCounts termCounts) {
+        if (VOCABULARIES.length != 1) {
+            throw new IllegalStateException("Tokenizér nemá zadaný právě jeden slovník klasifikačního modelu.");
+        }
+
+        SINGLE_TERM_COUNTS[0] = termCounts;
+        countTerms(bytes, SINGLE_TERM_COUNTS);
+        SINGLE_TERM_COUNTS[0] = null;
+    }
+
+    /**
+     * Spočítá četnosti slov ze všech slovníků tokenizéru v textu dokumentu
+     * zadaném jako bajty v kódování UTF-8 jediným průchodem textem (každý
+     * term je upraven čítačem slov a vyhledán ve slovnících jen při svém
+     * prvním výskytu). Po zahřátí nedochází k žádné alokaci paměti.
+     *
+     * @param bytes text dokumentu
+     * @param termCounts objekty pro uložení četností slov podle indexů
+     * v jednotlivých slovnících (ve stejném pořadí jako slovníky)
+     */
+    public void countTerms(ByteBuffer bytes, TermCounts[] termCounts) {
+        if (VOCABULARIES.length == 0) {
+            throw new IllegalStateException("Tokenizér nemá zadaný slovník klasifikačního modelu.");
+        }
+
+        int foundCount = scan(bytes);
+
+        for (int k = 0; k < VOCABULARIES.length; k++) {
+            int[] ids = vocabularyIds[k];
+            int[] vocabularyCounts = VOCABULARY_COUNTS[k];
+            TermCounts vocabularyTermCounts = termCounts[k];
+            vocabularyTermCounts.clear();
+
+            for (int j = 0; j < foundCount; j++) {
+                int term = foundTerms[j];
+                int id = ids[term];
+
+                // různé tvary slova se stejným upraveným tvarem jsou sečteny
+                if (id >= 0) {
+                    if (vocabularyCounts[id] == 0) {
+                        vocabularyTermCounts.add(id, 0);
+                    }
+
+                    vocabularyCounts[id] += counts[term];
+                }
+            }
+
+            for (int j = 0; j < vocabularyTermCounts.size(); j++) {
+                int id = vocabularyTermCounts.getId(j);
+                vocabularyTermCounts.setCount(j, vocabularyCounts[id]);
+                vocabularyCounts[id] = 0;
+            }
+        }
+
+        for (int j = 0; j < foundCount; j++) {
+            counts[foundTerms[j]] = 0;
+        }
+
+        if (termCount > MAX_TERM_COUNT) {
+            clear();
+        }
+    }
+
+    /**
+     * Projde text dokumentu a spočítá četnosti termů s významným upraveným
+     * tvarem (četnosti musí volající po zpracování vynulovat).
+     *
+     * @param bytes text dokumentu
+     * @return počet různých nalezených termů (uložených v poli nalezených termů)
+     */
+    private int scan(ByteBuffer bytes) {
+        int foundCount = 0;
+        int tokenLength = 0;
+        int hash = 0x811C9DC5;
+        int limit = bytes.limit();
+        int i = bytes.position();
+
+        while (i <= limit) {
+            int length = 0;
+
+            if (i < limit) {
+                length = getWordCharacterLength(bytes, i, limit);
+            }
+
+            if (length > 0) {
+                // připojení bajtů znaku k právě čtenému slovu
+                if (tokenLength + length > token.length) {
+                    token = Arrays.copyOf(token, token.length * 2);
+                }
+
+                for (int j = 0; j < length; j++) {
+                    byte b = bytes.get(i + j);
+                    token[tokenLength++] = b;
+                    hash = (hash ^ (b & 0xFF)) * 0x01000193;
+                }
+
+                i += length;
+                continue;
+            }
+
+            // oddělovač (nebo konec textu) ukončuje právě čtené slovo
+            if (tokenLength > 0) {
+                int term = findOrAddTerm(token, tokenLength, hash);
+
+                if (relevantWords[term] != null) {
+                    if (counts[term]++ == 0) {
+                        if (foundCount == foundTerms.length) {
+                            foundTerms = Arrays.copyOf(foundTerms, foundCount * 2);
+                        }
+
+                        foundTerms[foundCount++] = term;
+                    }
+                }
+
+                tokenLength = 0;
+                hash = 0x811C9DC5;
+            }
+
+            i++;
+        }
+
+        return foundCount;
+    }
+
+    /**
+     * Určí délku sekvence bajtů znaku na zadané pozici, pokud je znak součástí
+     * slova.
+     *
+     * @param bytes text dokumentu
+     * @param i pozice prvního bajtu znaku
+     * @param limit konec textu
+     * @return počet bajtů znaku, nebo 0, pokud znak slovo netvoří
+     */
+    private int getWordCharacterLength(ByteBuffer bytes, int i, int limit) {
+        int lead = bytes.get(i) & 0xFF;
+
+        if (lead < 0x80) {
+            return WORD_CODE_POINTS[lead] ? 1 : 0;
+        }
+
+        // dvoubajtová sekvence (bez neplatných zkrácených tvarů C0 a C1)
+        if (lead >= 0xC2 && lead < 0xE0 && i + 1 < limit) {
+            int continuation = bytes.get(i + 1) & 0xFF;
+
+            if ((continuation & 0xC0) == 0x80) {
+                return WORD_CODE_POINTS[((lead & 0x1F) << 6) | (continuation & 0x3F)] ? 2 : 0;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Vyhledá term ve slovníku, případně jej do slovníku přidá.
+     *
+     * @param bytes bajty termu
+     * @param length délka termu
+     * @param hash haš termu
+     * @return index termu
+     */
+    private int findOrAddTerm(byte[] bytes, int length, int hash) {
+        int mask = table.length - 1;
+        int slot = mix(hash) & mask;
+
+        while (table[slot] >= 0) {
+            int term = table[slot];
+
+            if (termHashes[term] == hash && termLengths[term] == length
+                    && equalBytes(termBytes, termOffsets[term], bytes, length)) {
+                return term;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        return addTerm(bytes, length, hash, slot);
+    }
+
+    /**
+     * Přidá nový term do slovníku a určí jeho upravený tvar.
+     *
+     * @param bytes bajty termu
+     * @param length délka termu
+     * @param hash haš termu
+     * @param slot volné místo v hašovací tabulce
+     * @return index termu
+     */
+    private int addTerm(byte[] bytes, int length, int hash, int slot) {
+        int term = termCount++;
+
+        if (term == termOffsets.length) {
+            int capacity = term * 2;
+            termOffsets = Arrays.copyOf(termOffsets, capacity);
+            termLengths = Arrays.copyOf(termLengths, capacity);
+            termHashes = Arrays.copyOf(termHashes, capacity);
+            relevantWords = Arrays.copyOf(relevantWords, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+
+            for (int k = 0; k < vocabularyIds.length; k++) {
+                vocabularyIds[k] = Arrays.copyOf(vocabularyIds[k], capacity);
+            }
+        }
+
+        if (termBytesLength + length > termBytes.length) {
+            termBytes = Arrays.copyOf(termBytes, Math.max(termBytes.length * 2, termBytesLength + length));
+        }
+
+        System.arraycopy(bytes, 0, termBytes, termBytesLength, length);
+        termOffsets[term] = termBytesLength;
+        termLengths[term] = length;
+        termHashes[term] = hash;
+        termBytesLength += length;
+
+        // řetězec je vytvořen pouze při prvním výskytu termu
+        String word = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        relevantWords[term] = WORD_COUNTER.getRelevantWord(word);
+
+        for (int k = 0; k < VOCABULARIES.length; k++) {
+            vocabularyIds[k][term] = relevantWords[term] == null ? -1 : VOCABULARIES[k].indexOf(relevantWords[term]);
+        }
+        table[slot] = term;
+
+        if (termCount * 2 > table.length) {
+            rehash();
+        }
+
+        return term;
+    }
+
+    /**
+     * Zvětší hašovací tabulku na dvojnásobek a znovu do ní vloží všechny termy.
+     */
+    private void rehash() {
+        table = new int[table.length * 2];
+        Arrays.fill(table, -1);
+        int mask = table.length - 1;
+
+        for (int term = 0; term < termCount; term++) {
+            int slot = mix(termHashes[term]) & mask;
+
+            while (table[slot] >= 0) {
+                slot = (slot + 1) & mask;
+            }
+
+            table[slot] = term;
+        }
+    }
+
+    /**
+     * Vyprázdní slovník termů.
+     */
+    private void clear() {
+        Arrays.fill(table, -1);
+        Arrays.fill(relevantWords, 0, termCount, null);
+        termCount = 0;
+        termBytesLength = 0;
+    }
+
+    /**
+     * Promíchá bity haše pro rovnoměrnější rozložení v tabulce.
+     *
+     * @param hash haš
+     * @return promíchaný haš
+     */
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Porovná úsek pole bajtů termů s bajty právě čteného slova.
+     *
+     * @param pool pole bajtů termů
+     * @param offset pozice termu
+     * @param bytes bajty slova
+     * @param length délka slova
+     * @return true, pokud jsou bajty shodné
+     */
+    private static boolean equalBytes(byte[] pool, int offset, byte[] bytes, int length) {
+        for (int i = 0; i < length; i++) {
+            if (pool[offset + i] != bytes[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+}
@@ -0,0 +1,368 @@
+package application.classification;
+
+import application.containers.Classification;
+import application.containers.ClassificationModel;
+import application.containers.ScoreMatrix;
+import application.containers.TextDocument;
+import application.helpers.AlgorithmSelector;
+import application.parameterisation.AWordCounter;
+import application.parameterisation.SimpleWordCounter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testy souběžné klasifikace jedním natrénovaným modelem: výsledky
+ * klasifikace více vlákny (s vlastními kontexty i přes fond kontextů
+ * klasifikátoru) musí být shodné s jednovláknovou klasifikací.
+ *
+ * @author Petr Kozler
+ */
+public class ConcurrentClassificationTest {
+
+    /**
+     * počet souběžně klasifikujících vláken
+     */
+    private static final int THREAD_COUNT = 8;
+
+    /**
+     * počet průchodů každého vlákna testovacími dokumenty
+     */
+    private static final int ROUND_COUNT = 5;
+
+    /**
+     * počet tříd syntetického korpusu
+     */
+    private static final int CLASS_COUNT = 5;
+
+    /**
+     * počet slov syntetického slovníku
+     */
+    private static final int WORD_COUNT = 400;
+
+    /**
+     * počet trénovacích dokumentů každé třídy
+     */
+    private static final int TRAINING_DOCUMENTS_PER_CLASS = 40;
+
+    /**
+     * počet testovacích dokumentů
+     */
+    private static final int TEST_DOCUMENT_COUNT = 60;
+
+    /**
+     * slabiky, ze kterých jsou složena slova syntetického slovníku
+     */
+    private static final String[] SYLLABLES = { "ka", "ne", "lo", "va", "ri", "st", "mu", "ce",
+        "ho", "du", "pa", "zi", "to", "by", "le", "sn" };
+
+    /**
+     * Ověří, že vlákna klasifikující texty dokumentů vlastními kontexty
+     * sdíleného modelu dostanou stejné třídy i skóre jako jedno vlákno.
+     *
+     * @param classifierKey identifikátor klasifikačního algoritmu
+     * @throws Exception
+     */
+    @ParameterizedTest
+    @ValueSource(strings = { "-b", "-n", "-c" })
+    public void perThreadContextsMatchSingleThreaded(String classifierKey) throws Exception {
+        ClassificationModel model = createModel(classifierKey);
+        List<String> texts = createTexts(new Random(2), TEST_DOCUMENT_COUNT);
+        List<String> expectedClasses = new ArrayList<>();
+        List<double[]> expectedScores = new ArrayList<>();
+        ClassificationContext referenceContext = model.createContext();
+
+        for (String text : texts) {
+            expectedClasses.add(referenceContext.classify(encode(text)));
+            expectedScores.add(referenceContext.getScores().clone());
+        }
+
+        Queue<String> mismatches = runConcurrently(thread -> {
+            ClassificationContext context = model.createContext();
+            List<String> threadMismatches = new ArrayList<>();
+
+            for (int round = 0; round < ROUND_COUNT; round++) {
+                for (int i = 0; i < texts.size(); i++) {
+                    // každé vlákno začíná jiným dokumentem
+                    int document = (i + thread * 7 + round) % texts.size();
+                    String documentClass = context.classify(encode(texts.get(document)));
+
+                    if (!String.valueOf(documentClass).equals(String.valueOf(expectedClasses.get(document)))
+                            || !Arrays.equals(context.getScores(), expectedScores.get(document))) {
+                        threadMismatches.add("vlákno " + thread + ", dokument " + document);
+                    }
+                }
+            }
+
+            return threadMismatches;
+        });
+
+        assertTrue(mismatches.isEmpty(), "Odlišné výsledky: " + mismatches);
+    }
+
+    /**
+     * Ověří, že metody klasifikátoru bez vlastního kontextu (používající
+     * fond kontextů) vrací při souběžném volání stejné výsledky jako
+     * při jednovláknovém volání.
+     *
+     * @param classifierKey identifikátor klasifikačního algoritmu
+     * @throws Exception
+     */
+    @ParameterizedTest
+    @ValueSource(strings = { "-b", "-n", "-c" })
+    public void pooledClassifierMethodsMatchSingleThreaded(String classifierKey) throws Exception {
+        ClassificationModel model = createModel(classifierKey);
+        AClassifier classifier = model.getClassifier();
+        List<TextDocument> documents = createDocuments(model.getWordCounter(), new Random(3), TEST_DOCUMENT_COUNT);
+        List<Classification> expected = new ArrayList<>();
+
+        for (TextDocument document : documents) {
+            expected.add(classifier.classifyWithScores(document));
+        }
+
+        Queue<String> mismatches = runConcurrently(thread -> {
+            List<String> threadMismatches = new ArrayList<>();
+
+            for (int round = 0; round < ROUND_COUNT; round++) {
+                for (int i = 0; i < documents.size(); i++) {
+                    int document = (i + thread * 7 + round) % documents.size();
+                    Classification classification = classifier.classifyWithScores(documents.get(document));
+
+                    if (!String.valueOf(classification.getDocumentClass())
+                            .equals(String.valueOf(expected.get(document).getDocumentClass()))
+                            || !classification.getScores().equals(expected.get(document).getScores())) {
+                        threadMismatches.add("vlákno " + thread + ", dokument " + document);
+                    }
+                }
+            }
+
+            return threadMismatches;
+        });
+
+        assertTrue(mismatches.isEmpty(), "Odlišné výsledky: " + mismatches);
+    }
+
+    /**
+     * Ověří, že souběžné dávkové skórování vrací stejné matice skóre
+     * jako jednovláknové.
+     *
+     * @param classifierKey identifikátor klasifikačního algoritmu
+     * @throws Exception
+     */
+    @ParameterizedTest
+    @ValueSource(strings = { "-b", "-n", "-c" })
+    public void concurrentBatchScoringMatchesSingleThreaded(String classifierKey) throws Exception {
+        ClassificationModel model = createModel(classifierKey);
+        AClassifier classifier = model.getClassifier();
+        List<TextDocument> documents = createDocuments(model.getWordCounter(), new Random(4), TEST_DOCUMENT_COUNT);
+        ScoreMatrix expected = classifier.classifyBatch(documents);
+
+        Queue<String> mismatches = runConcurrently(thread -> {
+            List<String> threadMismatches = new ArrayList<>();
+
+            for (int round = 0; round < ROUND_COUNT; round++) {
+                ScoreMatrix matrix = classifier.classifyBatch(documents);
+
+                if (!Arrays.equals(matrix.getScoreArray(), expected.getScoreArray())) {
+                    threadMismatches.add("vlákno " + thread + ", průchod " + round);
+                }
+
+                for (int i = 0; i < documents.size(); i++) {
+                    if (matrix.getClassIndex(i) != expected.getClassIndex(i)) {
+                        threadMismatches.add("vlákno " + thread + ", dokument " + i);
+                    }
+                }
+            }
+
+            return threadMismatches;
+        });
+
+        assertTrue(mismatches.isEmpty(), "Odlišné výsledky: " + mismatches);
+    }
+
+    /**
+     * Spustí úlohu současně ve všech vláknech (po společném startu)
+     * a shromáždí jí nalezené rozdíly.
+     *
+     * @param task úloha dostávající pořadí vlákna a vracející nalezené rozdíly
+     * @return nalezené rozdíly všech vláken
+     * @throws Exception
+     */
+    private static Queue<String> runConcurrently(ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        CyclicBarrier start = new CyclicBarrier(THREAD_COUNT);
+        Queue<String> mismatches = new ConcurrentLinkedQueue<>();
+
+        try {
+            List<Future<List<String>>> results = new ArrayList<>();
+
+            for (int thread = 0; thread < THREAD_COUNT; thread++) {
+                int threadIndex = thread;
+                Callable<List<String>> call = () -> {
+                    start.await();
+
+                    return task.run(threadIndex);
+                };
+                results.add(executor.submit(call));
+            }
+
+            for (Future<List<String>> result : results) {
+                mismatches.addAll(result.get(60, TimeUnit.SECONDS));
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        return mismatches;
+    }
+
+    /**
+     * Natrénuje klasifikační model zadaným algoritmem na syntetickém korpusu.
+     *
+     * @param classifierKey identifikátor klasifikačního algoritmu
+     * @return klasifikační model
+     */
+    private static ClassificationModel createModel(String classifierKey) {
+        AWordCounter wordCounter = SimpleWordCounter.CreateWordCounter();
+        AClassifier classifier = AlgorithmSelector.selectClassifier(classifierKey);
+        assertNotNull(classifier);
+        Random random = new Random(1);
+        Map<String, List<TextDocument>> documents = new HashMap<>();
+        List<String> classes = new ArrayList<>();
+        Set<String> vocabulary = new HashSet<>();
+
+        for (int c = 0; c < CLASS_COUNT; c++) {
+            String documentClass = "t" + SYLLABLES[c];
+            List<TextDocument> classDocuments = new ArrayList<>();
+            classes.add(documentClass);
+
+            for (int i = 0; i < TRAINING_DOCUMENTS_PER_CLASS; i++) {
+                TextDocument document = new TextDocument(documentClass + i);
+                document.setWordCounts(wordCounter.countWords(createText(random, c)));
+                vocabulary.addAll(document.getWordCounts().keySet());
+                classDocuments.add(document);
+            }
+
+            documents.put(documentClass, classDocuments);
+        }
+
+        // seznam tříd musí být seřazen (stejně jako při vytváření modelu)
+        Collections.sort(classes);
+        classifier.setLists(classes, vocabulary);
+        classifier.train(documents);
+        ClassificationModel model = new ClassificationModel();
+        model.setModelComponents(wordCounter, classifier);
+
+        return model;
+    }
+
+    /**
+     * Vytvoří texty testovacích dokumentů náhodných tříd.
+     *
+     * @param random generátor náhodných čísel
+     * @param count počet dokumentů
+     * @return texty dokumentů
+     */
+    private static List<String> createTexts(Random random, int count) {
+        List<String> texts = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            texts.add(createText(random, random.nextInt(CLASS_COUNT)));
+        }
+
+        return texts;
+    }
+
+    /**
+     * Vytvoří testovací dokumenty náhodných tříd se spočítanými slovy.
+     *
+     * @param wordCounter čítač slov
+     * @param random generátor náhodných čísel
+     * @param count počet dokumentů
+     * @return dokumenty
+     */
+    private static List<TextDocument> createDocuments(AWordCounter wordCounter, Random random, int count) {
+        List<TextDocument> documents = new ArrayList<>();
+
+        for (String text : createTexts(random, count)) {
+            TextDocument document = new TextDocument("test" + documents.size());
+            document.setWordCounts(wordCounter.countWords(text));
+            documents.add(document);
+        }
+
+        return documents;
+    }
+
+    /**
+     * Vytvoří text dokumentu zadané třídy: většina slov pochází z úseku
+     * slovníku typického pro třídu (úseky sousedních tříd se překrývají),
+     * ostatní z celého slovníku.
+     *
+     * @param random generátor náhodných čísel
+     * @param documentClass index třídy
+     * @return text dokumentu
+     */
+    private static String createText(Random random, int documentClass) {
+        int length = 30 + random.nextInt(90);
+        StringBuilder text = new StringBuilder();
+
+        for (int i = 0; i < length; i++) {
+            int word = random.nextDouble() < 0.6
+                    ? documentClass * 60 + random.nextInt(80) : random.nextInt(WORD_COUNT);
+            text.append(SYLLABLES[word % 16]).append(SYLLABLES[(word / 16) % 16])
+                    .append(SYLLABLES[(word / 256) % 16]).append(' ');
+        }
+
+        return text.toString();
+    }
+
+    /**
+     * Převede text na bajty v kódování UTF-8.
+     *
+     * @param text text
+     * @return bajty textu
+     */
+    private static ByteBuffer encode(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Rozhraní úlohy jednoho vlákna testu.
+     */
+    private interface ThreadTask {
+
+        /**
+         * Provede úlohu.
+         *
+         * @param thread pořadí vlákna
+         * @return nalezené rozdíly výsledků
+         * @throws Exception
+         */
+        List<String> run(int thread) throws Exception;
+
+    }
+
+}
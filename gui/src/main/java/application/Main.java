@@ -0,0 +1,94 @@
+package application;
+
+import application.containers.ClassificationModel;
+import application.helpers.CmdArg;
+import application.helpers.FileIoHandler;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import javafx.application.Application;
+import javafx.concurrent.Task;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+/**
+ * Hlavní třída GUI, prostřednictvím níž se spouští aplikace v režimu
+ * ručního zadávání textu. Ostatní režimy spouští třída {@link Launcher},
+ * která nevyžaduje JavaFX.
+ * 
+ * @author Petr Kozler
+ */
+public class Main extends Application {
+    
+    /**
+     * objekt pro zpracování argumentů příkazového řádku
+     */
+    private static CmdArg cmdArg;
+    
+    /**
+     * Zobrazí okno GUI při spuštění v režimu ručního zadávání textu. Okno je
+     * zobrazeno ihned a klasifikační model je mezitím načten a zahřát
+     * na pozadí (text lze zadávat již během načítání).
+     * 
+     * @param stage okno
+     * @throws Exception 
+     */
+    @Override
+    public void start(Stage stage) throws Exception {
+        FileIoHandler fileIoHandler = FileIoHandler.getInstance();
+        String path = cmdArg.getClassificationModelPath();
+        String name = fileIoHandler.getFileNameFromPath(path);
+        
+        FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource(Config.WINDOW_FXML_FILE));
+        Parent root = (Parent) fxmlLoader.load();
+        WindowController controller = fxmlLoader.<WindowController>getController();
+        controller.setLoading(name);
+        
+        Scene scene = new Scene(root);
+        stage.setScene(scene);
+        stage.setTitle("Klasifikace textu");
+        stage.show();
+        System.out.println("Okno zobrazeno (" + StartupBenchmark.getUptime() + " ms od spuštění JVM).");
+        
+        Task<ClassificationModel> loadingTask = new Task<ClassificationModel>() {
+            @Override
+            protected ClassificationModel call() throws Exception {
+                ClassificationModel classificationModel = fileIoHandler.loadClassificationModel(path, true);
+                new ModelWarmup(classificationModel).runIncremental(Config.WARMUP_MAX_DURATION);
+                
+                return classificationModel;
+            }
+        };
+        loadingTask.setOnSucceeded(event -> controller.setClassificationModel(loadingTask.getValue(), name));
+        loadingTask.setOnFailed(event -> controller.setLoadingFailed(name, loadingTask.getException()));
+        controller.getReadiness().thenRun(() -> System.out.println("Model připraven ke klasifikaci ("
+                + StartupBenchmark.getUptime() + " ms od spuštění JVM)."));
+        
+        Thread loadingThread = new Thread(loadingTask, "model-loading");
+        loadingThread.setDaemon(true);
+        loadingThread.start();
+    }
+    
+    /**
+     * Spustí aplikaci v režimu ručního zadávání textu pomocí GUI (je-li
+     * zadán jen název modelu), nebo předá argumenty příkazové řádky třídě
+     * {@link Launcher} pro spuštění v některém z ostatních režimů.
+     * 
+     * @param args argumenty příkazové řádky
+     * @throws IOException
+     * @throws FileNotFoundException
+     * @throws ClassNotFoundException
+     */
+    public static void main(String[] args)
+            throws IOException, FileNotFoundException, ClassNotFoundException {
+        if (args.length == 1) {
+            cmdArg = new CmdArg(args[0]);
+            launch(args);
+        }
+        else {
+            Launcher.main(args);
+        }
+    }
+    
+}
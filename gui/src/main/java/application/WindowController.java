@@ -0,0 +1,346 @@
+package application;
+
+import application.classification.IncrementalClassifier;
+import application.containers.Classification;
+import application.containers.ClassificationModel;
+import application.helpers.FileIoHandler;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.TextArea;
+import javafx.scene.control.TextField;
+import javafx.util.Duration;
+
+/**
+ * Třída, sloužící jako kontroler uživatelského rozhraní zobrazeného
+ * při spuštění programu v režimu ručního zadávání textu. Text je
+ * klasifikován průběžně při psaní mimo vlákno GUI: změny textu jsou
+ * převedeny na rozdíly četností slov, skóre naivního Bayesova klasifikátoru
+ * jsou aktualizována přírůstkově po každé změně a ostatní klasifikátory
+ * klasifikují celý dokument až po krátké pauze v psaní (rozpracovaná
+ * klasifikace je při další změně textu zrušena). Okno je zobrazeno ještě
+ * před načtením modelu a text zadaný během načítání je klasifikován,
+ * jakmile je model připraven.
+ *
+ * @author Petr Kozler
+ */
+public class WindowController implements Initializable {
+
+    /**
+     * textové pole pro zobrazení názvu načteného klasifikačního modelu
+     */
+    @FXML
+    private TextField classificationModelTextField;
+
+    /**
+     * textové pole pro zadávání textu ke klasifikaci
+     */
+    @FXML
+    private TextArea testDocumentTextArea;
+
+    /**
+     * textové pole pro zobrazení zjištěné třídy dokumentu
+     */
+    @FXML
+    private TextField documentClassTextField;
+
+    /**
+     * popisek pro zobrazení nejlepších tříd a jejich skóre
+     */
+    @FXML
+    private Label topClassesLabel;
+
+    /**
+     * popisek pro zobrazení doby poslední aktualizace výsledku
+     */
+    @FXML
+    private Label latencyLabel;
+
+    /**
+     * indikátor načítání klasifikačního modelu
+     */
+    @FXML
+    private ProgressIndicator loadingIndicator;
+
+    /**
+     * signál připravenosti modelu ke klasifikaci
+     */
+    private final CompletableFuture<Void> READINESS = new CompletableFuture<>();
+
+    /**
+     * vlákno průběžné klasifikace (změny textu jsou zpracovávány v pořadí)
+     */
+    private final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "live-classification");
+        thread.setDaemon(true);
+
+        return thread;
+    });
+
+    /**
+     * poslední dosud nezpracovaná změna textu (nebo null)
+     */
+    private final AtomicReference<TextChange> PENDING_CHANGE = new AtomicReference<>();
+
+    /**
+     * prodleva od poslední změny textu do klasifikace celého dokumentu
+     */
+    private final PauseTransition RESCORE_DELAY = new PauseTransition(Duration.millis(Config.LIVE_CLASSIFY_DEBOUNCE));
+
+    /**
+     * průběžná klasifikace textu (nebo null, dokud není načten model)
+     */
+    private IncrementalClassifier incrementalClassifier;
+
+    /**
+     * poslední změna textu (používáno jen ve vlákně GUI)
+     */
+    private TextChange lastChange;
+
+    /**
+     * rozpracovaná klasifikace celého dokumentu (nebo null)
+     */
+    private Task<Classification> rescoreTask;
+
+    /**
+     * určuje, zda již byl zobrazen výsledek klasifikace
+     */
+    private boolean classificationShown;
+
+    /**
+     * Spustí klasifikaci celého ručně zadaného textu po stisknutí tlačítka.
+     *
+     * @param event objekt události
+     * @throws IOException
+     */
+    @FXML
+    private void handleClassifyButtonAction(ActionEvent event) throws IOException {
+        RESCORE_DELAY.stop();
+        startRescoring();
+    }
+
+    /**
+     * Zobrazí indikátor načítání klasifikačního modelu.
+     *
+     * @param name název modelu
+     */
+    public void setLoading(String name) {
+        classificationModelTextField.setText(name + " (načítání...)");
+        loadingIndicator.setVisible(true);
+        latencyLabel.setText("Načítání klasifikačního modelu...");
+    }
+
+    /**
+     * Zobrazí chybu při načítání klasifikačního modelu.
+     *
+     * @param name název modelu
+     * @param exception příčina chyby
+     */
+    public void setLoadingFailed(String name, Throwable exception) {
+        classificationModelTextField.setText(name + " (chyba načítání)");
+        loadingIndicator.setVisible(false);
+        latencyLabel.setText("Model nelze načíst: " + exception.getMessage());
+        READINESS.completeExceptionally(exception);
+    }
+
+    /**
+     * Vrátí signál připravenosti ke klasifikaci, který je dokončen po nastavení
+     * načteného modelu (nebo dokončen s chybou, pokud model nelze načíst).
+     *
+     * @return signál připravenosti
+     */
+    public CompletableFuture<Void> getReadiness() {
+        return READINESS;
+    }
+
+    /**
+     * Nastaví načtený klasifikační model.
+     *
+     * @param classificationModel klasifikační model
+     * @param name název modelu
+     */
+    public void setClassificationModel(ClassificationModel classificationModel, String name) {
+        incrementalClassifier = new IncrementalClassifier(classificationModel);
+        classificationModelTextField.setText(name);
+        loadingIndicator.setVisible(false);
+        latencyLabel.setText("Model připraven");
+        READINESS.complete(null);
+
+        // text zadaný před načtením modelu
+        if (!testDocumentTextArea.getText().isEmpty()) {
+            handleTextChange(testDocumentTextArea.getText());
+        }
+    }
+
+    /**
+     * Slouží k provedení inicializace při zobrazení okna.
+     *
+     * @param url URL
+     * @param rb RB
+     */
+    @Override
+    public void initialize(URL url, ResourceBundle rb) {
+        testDocumentTextArea.textProperty().addListener(
+                (observable, oldText, newText) -> handleTextChange(newText));
+        RESCORE_DELAY.setOnFinished(event -> startRescoring());
+    }
+
+    /**
+     * Zpracuje změnu textu (ve vlákně GUI). Změna je předána vláknu průběžné
+     * klasifikace; nestihne-li je vlákno zpracovat, jsou změny sloučeny
+     * a zpracován je jen nejnovější text.
+     *
+     * @param text nový text
+     */
+    private void handleTextChange(String text) {
+        if (incrementalClassifier == null) {
+            return;
+        }
+
+        lastChange = new TextChange(text, System.nanoTime());
+
+        // rozpracovaná klasifikace předchozího textu již není potřeba
+        if (rescoreTask != null) {
+            rescoreTask.cancel();
+            rescoreTask = null;
+        }
+
+        if (PENDING_CHANGE.getAndSet(lastChange) == null) {
+            EXECUTOR.execute(this::processPendingChange);
+        }
+
+        if (!incrementalClassifier.isIncremental()) {
+            RESCORE_DELAY.playFromStart();
+        }
+    }
+
+    /**
+     * Aktualizuje četnosti slov podle nejnovějšího textu (ve vlákně průběžné
+     * klasifikace) a zobrazí přírůstkově aktualizovaný výsledek.
+     */
+    private void processPendingChange() {
+        TextChange change = PENDING_CHANGE.getAndSet(null);
+        incrementalClassifier.update(change.TEXT);
+
+        if (incrementalClassifier.isIncremental()) {
+            Classification classification = incrementalClassifier.getIncrementalClassification();
+            String details = "přírůstkově, změněných slov: " + incrementalClassifier.getChangedTermCount();
+            Platform.runLater(() -> showClassification(change, classification, details));
+        }
+    }
+
+    /**
+     * Spustí klasifikaci celého dokumentu s aktuálními četnostmi slov jako
+     * zrušitelnou úlohu ve vlákně průběžné klasifikace (po zpracování všech
+     * předchozích změn textu).
+     */
+    private void startRescoring() {
+        if (incrementalClassifier == null || lastChange == null) {
+            return;
+        }
+
+        if (rescoreTask != null) {
+            rescoreTask.cancel();
+        }
+
+        TextChange change = lastChange;
+        Task<Classification> task = new Task<Classification>() {
+            @Override
+            protected Classification call() {
+                // zrušení je ověřováno i mezi jednotlivými kroky klasifikace
+                return incrementalClassifier.classify(this::isCancelled);
+            }
+        };
+        task.setOnSucceeded(event -> {
+            // výsledek zrušené nebo zastaralé úlohy není zobrazen
+            if (task == rescoreTask && task.getValue() != null) {
+                rescoreTask = null;
+                showClassification(change, task.getValue(), "celý dokument");
+            }
+        });
+        rescoreTask = task;
+        EXECUTOR.execute(task);
+    }
+
+    /**
+     * Zobrazí výsledek klasifikace, nejlepší třídy a dobu od změny textu
+     * do zobrazení výsledku (ve vlákně GUI).
+     *
+     * @param change zpracovaná změna textu
+     * @param classification výsledek klasifikace
+     * @param details popis způsobu aktualizace
+     */
+    private void showClassification(TextChange change, Classification classification, String details) {
+        FileIoHandler classDescription = FileIoHandler.getInstance();
+        double latency = (System.nanoTime() - change.TIME) / 1e6;
+        latencyLabel.setText(String.format("Aktualizace: %.1f ms (%s)", latency, details));
+
+        if (!classificationShown) {
+            classificationShown = true;
+            System.out.println("První výsledek klasifikace zobrazen (" + StartupBenchmark.getUptime()
+                    + " ms od spuštění JVM, " + String.format("%.1f", latency) + " ms od změny textu).");
+        }
+
+        if (change.TEXT.trim().isEmpty() || classification.getDocumentClass() == null) {
+            documentClassTextField.setText("");
+            topClassesLabel.setText("");
+
+            return;
+        }
+
+        StringBuilder topClasses = new StringBuilder();
+        int count = 0;
+
+        for (Map.Entry<String, Double> score : classification.getScores().entrySet()) {
+            if (count++ == Config.LIVE_CLASSIFY_TOP_CLASSES) {
+                break;
+            }
+
+            if (topClasses.length() > 0) {
+                topClasses.append(", ");
+            }
+
+            topClasses.append(classDescription.getClassDescription(score.getKey()))
+                    .append(String.format(" (%.2f)", score.getValue()));
+        }
+
+        documentClassTextField.setText(classDescription.getClassDescription(classification.getDocumentClass()));
+        topClassesLabel.setText(topClasses.toString());
+    }
+
+    /**
+     * Třída, představující změnu textu s časem jejího provedení.
+     */
+    private static class TextChange {
+
+        /**
+         * nový text
+         */
+        final String TEXT;
+
+        /**
+         * čas změny
+         */
+        final long TIME;
+
+        TextChange(String text, long time) {
+            TEXT = text;
+            TIME = time;
+        }
+
+    }
+
+}